@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.analysis.core.tests.json;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.tracecompass.incubator.internal.analysis.core.json.JsonEventSorter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the {@link JsonEventSorter} class
+ */
+public class JsonEventSorterTest {
+
+    private static final int NB_EVENTS = 5000;
+
+    private Path fDir;
+
+    /**
+     * Create the directory of the test files
+     *
+     * @throws IOException
+     *             If the directory cannot be created
+     */
+    @Before
+    public void before() throws IOException {
+        fDir = Files.createTempDirectory("sorter");
+    }
+
+    /**
+     * Delete the test files
+     *
+     * @throws IOException
+     *             If the files cannot be deleted
+     */
+    @After
+    public void after() throws IOException {
+        File[] files = fDir.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                Files.delete(file.toPath());
+            }
+        }
+        Files.delete(fDir);
+    }
+
+    /**
+     * Test sorting events that fit in memory
+     *
+     * @throws IOException
+     *             If an error occurred with the files
+     */
+    @Test
+    public void testSortInMemory() throws IOException {
+        testSort(new JsonEventSorter("ts", Long.MAX_VALUE, 4));
+    }
+
+    /**
+     * Test sorting events that are spilled to disk in many chunks, which are
+     * then merged
+     *
+     * @throws IOException
+     *             If an error occurred with the files
+     */
+    @Test
+    public void testSortSpilled() throws IOException {
+        testSort(new JsonEventSorter("ts", 20000, 3));
+    }
+
+    /**
+     * Test sorting events that are spilled to more chunks than can be merged
+     * at once, which are merged in several passes
+     *
+     * @throws IOException
+     *             If an error occurred with the files
+     */
+    @Test
+    public void testSortMultiplePasses() throws IOException {
+        testSort(new JsonEventSorter("ts", 20000, 3, 4));
+    }
+
+    private void testSort(JsonEventSorter sorter) throws IOException {
+        Random random = new Random(42);
+        List<String> events = new ArrayList<>();
+        for (int i = 0; i < NB_EVENTS; i++) {
+            // The nested "ts" keys and the brackets in strings are not used
+            events.add("{\"name\":\"event " + i + " {[\\\"\",\"args\":{\"ts\":" + random.nextInt() + "},\"ts\":" + random.nextInt(NB_EVENTS / 10) + "}");
+        }
+        List<String> expected = new ArrayList<>(events);
+        // The sort is stable
+        Collections.sort(expected, (event1, event2) -> Integer.compare(getTs(event1), getTs(event2)));
+
+        Path input = fDir.resolve("input.json");
+        Files.write(input, ("{\"traceEvents\": [" + String.join(",", events) + "]}").getBytes(StandardCharsets.UTF_8));
+        File output = fDir.resolve("output.json").toFile();
+        try (InputStream stream = new BufferedInputStream(new FileInputStream(input.toFile()))) {
+            assertTrue(JsonEventSorter.skipToArray(stream, Collections.singletonList("traceEvents")));
+            sorter.sort(stream, Files.size(input), output, null);
+        }
+
+        String sorted = new String(Files.readAllBytes(output.toPath()), StandardCharsets.UTF_8);
+        assertEquals("[\n" + String.join(",\n", expected) + "\n]\n", sorted);
+        // Only the input and output remain
+        String[] files = fDir.toFile().list();
+        Arrays.sort(files);
+        assertArrayEquals(new String[] { "input.json", "output.json" }, files);
+    }
+
+    private static int getTs(String event) {
+        return Integer.parseInt(event.substring(event.lastIndexOf(':') + 1, event.length() - 1));
+    }
+
+    /**
+     * Test skipping to the array of events
+     *
+     * @throws IOException
+     *             If an error occurred reading the input
+     */
+    @Test
+    public void testSkipToArray() throws IOException {
+        String json = "{\"data\":[{\"id\":\"traceEvents\",\"spans\":[{\"startTime\":1}]}],\"traceEvents\" : [{\"ts\":1}]}";
+        InputStream input = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+        assertTrue(JsonEventSorter.skipToArray(input, Collections.singletonList("traceEvents")));
+        assertEquals('{', input.read());
+        assertEquals('"', input.read());
+        assertEquals('t', input.read());
+
+        input = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+        assertTrue(JsonEventSorter.skipToArray(input, 2));
+        assertEquals('{', input.read());
+        assertEquals('"', input.read());
+        assertEquals('s', input.read());
+
+        input = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+        assertFalse(JsonEventSorter.skipToArray(input, Collections.singletonList("events")));
+    }
+}
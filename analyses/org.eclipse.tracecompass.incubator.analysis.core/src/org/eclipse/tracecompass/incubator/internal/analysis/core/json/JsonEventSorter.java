@@ -0,0 +1,750 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.analysis.core.json;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.analysis.core.Activator;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+
+/**
+ * Sorts the events of a JSON trace by time stamp into a new file, for the
+ * traces whose events are not written in order.
+ *
+ * The events are read in chunks that fit in a memory budget. The chunks are
+ * sorted in parallel and spilled to temporary files, which are then merged
+ * into the output. At most {@link #DEFAULT_FAN_IN} files are merged at once,
+ * so when there are more, they are first merged into larger temporary files,
+ * in as many passes as needed. A trace that fits in a single chunk is sorted in
+ * memory. The sort is stable, events with the same time stamp keep their
+ * order.
+ *
+ * The output is a JSON array of the events, one event per line.
+ */
+public final class JsonEventSorter {
+
+    /**
+     * System property to set the memory budget of the sort, in bytes. By
+     * default, it is a quarter of the maximum heap size.
+     */
+    public static final String MEMORY_BUDGET_PROPERTY = "org.eclipse.tracecompass.incubator.json.sort.memory"; //$NON-NLS-1$
+
+    /**
+     * Default maximum number of sorted files merged at once, each one is read
+     * through its own buffer
+     */
+    public static final int DEFAULT_FAN_IN = 64;
+
+    /** Estimate of the heap used by an event, other than its JSON bytes */
+    private static final int EVENT_OVERHEAD = 64;
+    private static final int BUFFER_SIZE = 1 << 16;
+    /** Number of events merged between the checks of the progress monitor */
+    private static final int MERGE_BATCH = 1 << 12;
+
+    private static final Comparator<Event> COMPARATOR = Comparator.comparingDouble(event -> event.fTs);
+
+    private final byte[] fTsKey;
+    private final int fThreads;
+    private final long fChunkSize;
+    private final int fFanIn;
+
+    /**
+     * Constructor, with the memory budget from the
+     * {@link #MEMORY_BUDGET_PROPERTY} property and a thread per processor
+     *
+     * @param tsKey
+     *            the key of the time stamp in the event objects
+     */
+    public JsonEventSorter(String tsKey) {
+        this(tsKey, Long.getLong(MEMORY_BUDGET_PROPERTY, Runtime.getRuntime().maxMemory() / 4), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param tsKey
+     *            the key of the time stamp in the event objects
+     * @param memoryBudget
+     *            the approximate heap size used by the events being sorted,
+     *            in bytes
+     * @param threads
+     *            the number of threads sorting the chunks
+     */
+    public JsonEventSorter(String tsKey, long memoryBudget, int threads) {
+        this(tsKey, memoryBudget, threads, DEFAULT_FAN_IN);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param tsKey
+     *            the key of the time stamp in the event objects
+     * @param memoryBudget
+     *            the approximate heap size used by the events being sorted,
+     *            in bytes
+     * @param threads
+     *            the number of threads sorting the chunks
+     * @param fanIn
+     *            the maximum number of sorted files merged at once, at least
+     *            2
+     */
+    public JsonEventSorter(String tsKey, long memoryBudget, int threads, int fanIn) {
+        fTsKey = ('"' + tsKey + '"').getBytes(StandardCharsets.UTF_8);
+        fThreads = Math.max(1, threads);
+        // One chunk is read while the others are sorted
+        fChunkSize = Math.max(1, memoryBudget / (fThreads + 1));
+        fFanIn = Math.max(2, fanIn);
+    }
+
+    /**
+     * Positions the input of a trace in its array of events
+     */
+    @FunctionalInterface
+    public interface EventArrayLocator {
+        /**
+         * Skip the input to the array of events
+         *
+         * @param input
+         *            the input
+         * @return true if the array was found, false at the end of the input
+         * @throws IOException
+         *             if the input cannot be read
+         */
+        boolean skipToArray(InputStream input) throws IOException;
+    }
+
+    /**
+     * Processes a sorted trace, for example to save its metadata
+     */
+    @FunctionalInterface
+    public interface SortedTraceProcessor {
+        /**
+         * Process the sorted trace
+         *
+         * @param trace
+         *            the trace
+         * @param dir
+         *            the supplementary file directory of the trace, where the
+         *            sorted trace is
+         * @throws IOException
+         *             if an error occurred processing the trace
+         */
+        void process(ITmfTrace trace, String dir) throws IOException;
+    }
+
+    /**
+     * Sort the events of a trace file into its supplementary file directory,
+     * for the sorting job of a JSON trace. The partially sorted trace is
+     * deleted if the sort fails or is canceled.
+     *
+     * @param trace
+     *            the trace
+     * @param path
+     *            the path of the trace file
+     * @param locator
+     *            positions the input in the array of events
+     * @param processor
+     *            processes the sorted trace
+     * @param monitor
+     *            the progress monitor
+     * @return the status of the sort
+     */
+    public IStatus sortTrace(ITmfTrace trace, String path, EventArrayLocator locator, SortedTraceProcessor processor, @Nullable IProgressMonitor monitor) {
+        String dir = TmfTraceManager.getSupplementaryFileDir(trace);
+        File output = new File(dir + new File(path).getName());
+        try (InputStream input = new BufferedInputStream(new FileInputStream(path))) {
+            if (!locator.skipToArray(input)) {
+                return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "No array of events in " + path); //$NON-NLS-1$
+            }
+            sort(input, new File(path).length(), output, monitor);
+            processor.process(trace, dir);
+        } catch (OperationCanceledException e) {
+            deleteOutput(output);
+            return Status.CANCEL_STATUS;
+        } catch (IOException e) {
+            deleteOutput(output);
+            return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Error sorting the trace " + path, e); //$NON-NLS-1$
+        }
+        return Status.OK_STATUS;
+    }
+
+    private static void deleteOutput(File output) {
+        try {
+            Files.deleteIfExists(output.toPath());
+        } catch (IOException e) {
+            Activator.getInstance().logError("Cannot delete the partially sorted trace " + output, e); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Skip the input to the array of events, after the given number of
+     * opening brackets
+     *
+     * @param input
+     *            the input
+     * @param brackets
+     *            the number of opening brackets before the events
+     * @return true if the array was found, false at the end of the input
+     * @throws IOException
+     *             if the input cannot be read
+     */
+    public static boolean skipToArray(InputStream input, int brackets) throws IOException {
+        for (int i = 0; i < brackets; i++) {
+            int value = input.read();
+            while (value != '[') {
+                if (value == -1) {
+                    return false;
+                }
+                value = input.read();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Skip the input to the array of events, which is the value of the given
+     * path of keys. With an empty path, the events are the top-level array.
+     *
+     * @param input
+     *            the input
+     * @param pathToEvents
+     *            the keys of the objects leading to the array of events
+     * @return true if the array was found, false at the end of the input
+     * @throws IOException
+     *             if the input cannot be read
+     */
+    public static boolean skipToArray(InputStream input, List<String> pathToEvents) throws IOException {
+        for (String key : pathToEvents) {
+            if (!skipToKey(input, key)) {
+                return false;
+            }
+        }
+        return skipToArray(input, 1);
+    }
+
+    private static boolean skipToKey(InputStream input, String key) throws IOException {
+        int value = input.read();
+        while (value != -1) {
+            if (value == '"') {
+                String name = readString(input);
+                value = input.read();
+                while (Character.isWhitespace(value)) {
+                    value = input.read();
+                }
+                if (value == ':' && key.equals(name)) {
+                    return true;
+                }
+            } else {
+                value = input.read();
+            }
+        }
+        return false;
+    }
+
+    private static String readString(InputStream input) throws IOException {
+        ByteArrayOutputStream string = new ByteArrayOutputStream();
+        int value = input.read();
+        while (value != '"' && value != -1) {
+            if (value == '\\') {
+                value = input.read();
+            }
+            string.write(value);
+            value = input.read();
+        }
+        return new String(string.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sort the events of the input into the output file
+     *
+     * @param input
+     *            the input, positioned in the array of events
+     * @param length
+     *            the length of the input, for the progress
+     * @param output
+     *            the file to write the sorted events to
+     * @param monitor
+     *            the progress monitor
+     * @throws IOException
+     *             if the input cannot be read or the output written
+     * @throws org.eclipse.core.runtime.OperationCanceledException
+     *             if the monitor was canceled
+     */
+    public void sort(InputStream input, long length, File output, @Nullable IProgressMonitor monitor) throws IOException {
+        SubMonitor subMonitor = SubMonitor.convert(monitor, "Sorting JSON trace", 2); //$NON-NLS-1$
+        EventReader reader = new EventReader(input, subMonitor.split(1).setWorkRemaining((int) Math.min(Integer.MAX_VALUE, length >> 10)));
+        List<byte[]> chunk = reader.readChunk();
+        if (reader.isDone()) {
+            List<Event> events = sortChunk(chunk);
+            SubMonitor writeMonitor = subMonitor.split(1).setWorkRemaining(events.size() / MERGE_BATCH + 1);
+            try (EventWriter writer = new EventWriter(output)) {
+                for (int i = 0; i < events.size(); i++) {
+                    if (i % MERGE_BATCH == 0) {
+                        writeMonitor.split(1);
+                    }
+                    writer.write(events.get(i).fJson);
+                }
+            }
+            return;
+        }
+
+        Path tempDir = Files.createTempDirectory(output.getAbsoluteFile().getParentFile().toPath(), "sort"); //$NON-NLS-1$
+        ExecutorService executor = createExecutor(fThreads);
+        try {
+            // The permits keep the number of chunks in memory within the budget
+            Semaphore permits = new Semaphore(fThreads);
+            List<Future<Run>> futures = new ArrayList<>();
+            while (!chunk.isEmpty()) {
+                permits.acquire();
+                List<byte[]> objects = chunk;
+                File file = tempDir.resolve("run" + futures.size()).toFile(); //$NON-NLS-1$
+                futures.add(executor.submit(() -> {
+                    try {
+                        return writeRun(sortChunk(objects), file);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+                chunk = reader.readChunk();
+            }
+            List<Run> runs = new ArrayList<>();
+            for (Future<Run> future : futures) {
+                runs.add(future.get());
+            }
+            merge(runs, tempDir, output, subMonitor.split(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while sorting " + output); //$NON-NLS-1$
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Error sorting " + output, cause); //$NON-NLS-1$
+        } finally {
+            executor.shutdownNow();
+            File[] files = tempDir.toFile().listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    Files.deleteIfExists(file.toPath());
+                }
+            }
+            Files.deleteIfExists(tempDir);
+        }
+    }
+
+    private static ExecutorService createExecutor(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "JsonEventSorter-" + threadCount.incrementAndGet()); //$NON-NLS-1$
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sort the objects of a chunk, in the order they were read for the ones
+     * with the same time stamp
+     */
+    private List<Event> sortChunk(List<byte[]> objects) {
+        List<Event> events = new ArrayList<>(objects.size());
+        for (byte[] json : objects) {
+            events.add(new Event(json, getTimestamp(json)));
+        }
+        events.sort(COMPARATOR);
+        return events;
+    }
+
+    private static Run writeRun(List<Event> events, File file) throws IOException {
+        try (RunWriter writer = new RunWriter(file)) {
+            for (Event event : events) {
+                writer.write(event.fTs, event.fJson);
+            }
+        }
+        return new Run(file, events.size());
+    }
+
+    /**
+     * Merge the sorted runs into the output. While there are more runs than
+     * the fan-in, consecutive runs are merged into larger runs, so that the
+     * events with the same time stamp keep their order.
+     */
+    private void merge(List<Run> runs, Path tempDir, File output, SubMonitor monitor) throws IOException {
+        long total = runs.stream().mapToLong(run -> run.fCount).sum();
+        int passes = 1;
+        for (int nbRuns = runs.size(); nbRuns > fFanIn; nbRuns = (nbRuns + fFanIn - 1) / fFanIn) {
+            passes++;
+        }
+        monitor.setWorkRemaining((int) Math.min(Integer.MAX_VALUE, passes * (total / MERGE_BATCH + 1)));
+        List<Run> pass = runs;
+        int nbMerged = 0;
+        while (pass.size() > fFanIn) {
+            List<Run> merged = new ArrayList<>();
+            for (int i = 0; i < pass.size(); i += fFanIn) {
+                List<Run> group = pass.subList(i, Math.min(i + fFanIn, pass.size()));
+                if (group.size() == 1) {
+                    merged.add(group.get(0));
+                    continue;
+                }
+                File file = tempDir.resolve("merged" + nbMerged++).toFile(); //$NON-NLS-1$
+                try (RunWriter writer = new RunWriter(file)) {
+                    mergeRuns(group, writer, monitor);
+                    merged.add(new Run(file, writer.fCount));
+                }
+                for (Run run : group) {
+                    Files.delete(run.fFile.toPath());
+                }
+            }
+            pass = merged;
+        }
+        try (EventWriter writer = new EventWriter(output)) {
+            mergeRuns(pass, (ts, json) -> writer.write(json), monitor);
+        }
+    }
+
+    /**
+     * Merge runs into a sink. The events with the same time stamp are taken
+     * from the first run first, which keeps the sort stable.
+     */
+    private static void mergeRuns(List<Run> runs, EventSink sink, SubMonitor monitor) throws IOException {
+        List<RunReader> readers = new ArrayList<>();
+        try {
+            PriorityQueue<RunReader> queue = new PriorityQueue<>(Math.max(1, runs.size()),
+                    Comparator.comparingDouble((RunReader reader) -> reader.fTs).thenComparingInt(reader -> reader.fIndex));
+            for (Run run : runs) {
+                RunReader reader = new RunReader(run, readers.size());
+                readers.add(reader);
+                if (reader.next()) {
+                    queue.add(reader);
+                }
+            }
+            long count = 0;
+            RunReader reader = queue.poll();
+            while (reader != null) {
+                if (count++ % MERGE_BATCH == 0) {
+                    monitor.split(1);
+                }
+                sink.write(reader.fTs, reader.fJson);
+                if (reader.next()) {
+                    queue.add(reader);
+                }
+                reader = queue.poll();
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                reader.fInput.close();
+            }
+        }
+    }
+
+    /**
+     * Get the time stamp of an event, the value of the time stamp key at the
+     * top level of its object
+     */
+    private double getTimestamp(byte[] json) {
+        int depth = 0;
+        int i = 0;
+        while (i < json.length) {
+            byte value = json[i];
+            if (value == '"') {
+                int end = skipString(json, i);
+                if (depth == 1 && end - i == fTsKey.length && Arrays.equals(json, i, end, fTsKey, 0, fTsKey.length)) {
+                    return parseTimestamp(json, end);
+                }
+                i = end;
+                continue;
+            } else if (value == '{' || value == '[') {
+                depth++;
+            } else if (value == '}' || value == ']') {
+                depth--;
+            }
+            i++;
+        }
+        return Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Skip a string, from its opening quote to after its closing quote
+     */
+    private static int skipString(byte[] json, int start) {
+        int i = start + 1;
+        while (i < json.length && json[i] != '"') {
+            i += json[i] == '\\' ? 2 : 1;
+        }
+        return i + 1;
+    }
+
+    private static double parseTimestamp(byte[] json, int keyEnd) {
+        int i = keyEnd;
+        while (i < json.length && (Character.isWhitespace(json[i]) || json[i] == ':' || json[i] == '"')) {
+            i++;
+        }
+        int start = i;
+        while (i < json.length && isNumberChar(json[i])) {
+            i++;
+        }
+        try {
+            return Double.parseDouble(new String(json, start, i - start, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            return Double.NEGATIVE_INFINITY;
+        }
+    }
+
+    private static boolean isNumberChar(byte value) {
+        return (value >= '0' && value <= '9') || value == '.' || value == '-' || value == '+' || value == 'e' || value == 'E';
+    }
+
+    private static final class Event {
+        private final byte[] fJson;
+        private final double fTs;
+
+        private Event(byte[] json, double ts) {
+            fJson = json;
+            fTs = ts;
+        }
+    }
+
+    private static final class Run {
+        private final File fFile;
+        private final int fCount;
+
+        private Run(File file, int count) {
+            fFile = file;
+            fCount = count;
+        }
+    }
+
+    /**
+     * Receives the merged events
+     */
+    @FunctionalInterface
+    private interface EventSink {
+        void write(double ts, byte[] json) throws IOException;
+    }
+
+    /**
+     * Writes sorted events to a run file
+     */
+    private static final class RunWriter implements EventSink, AutoCloseable {
+        private final DataOutputStream fOutput;
+        private int fCount = 0;
+
+        private RunWriter(File file) throws IOException {
+            fOutput = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE));
+        }
+
+        @Override
+        public void write(double ts, byte[] json) throws IOException {
+            fOutput.writeDouble(ts);
+            fOutput.writeInt(json.length);
+            fOutput.write(json);
+            fCount++;
+        }
+
+        @Override
+        public void close() throws IOException {
+            fOutput.close();
+        }
+    }
+
+    private static final class RunReader {
+        private final DataInputStream fInput;
+        private final int fIndex;
+        private int fRemaining;
+        private double fTs;
+        private byte[] fJson = new byte[0];
+
+        private RunReader(Run run, int index) throws IOException {
+            fInput = new DataInputStream(new BufferedInputStream(new FileInputStream(run.fFile), BUFFER_SIZE));
+            fIndex = index;
+            fRemaining = run.fCount;
+        }
+
+        private boolean next() throws IOException {
+            if (fRemaining == 0) {
+                return false;
+            }
+            fRemaining--;
+            fTs = fInput.readDouble();
+            fJson = new byte[fInput.readInt()];
+            fInput.readFully(fJson);
+            return true;
+        }
+    }
+
+    /**
+     * Reads the event objects of the array, in chunks that fit in the memory
+     * budget
+     */
+    private final class EventReader {
+        private final InputStream fInput;
+        private final SubMonitor fMonitor;
+        private final byte[] fBuffer = new byte[BUFFER_SIZE];
+        private int fPosition;
+        private int fLimit;
+        private long fBytesRead;
+        private long fBytesReported;
+        private byte[] fObject = new byte[BUFFER_SIZE];
+        private int fObjectLength;
+        private boolean fDone;
+
+        private EventReader(InputStream input, SubMonitor monitor) {
+            fInput = input;
+            fMonitor = monitor;
+        }
+
+        private boolean isDone() {
+            return fDone;
+        }
+
+        private List<byte[]> readChunk() throws IOException {
+            List<byte[]> objects = new ArrayList<>();
+            long size = 0;
+            while (!fDone && size < fChunkSize) {
+                byte[] json = readObject();
+                if (json == null) {
+                    fDone = true;
+                } else {
+                    objects.add(json);
+                    size += json.length + EVENT_OVERHEAD;
+                }
+            }
+            long kilobytes = (fBytesRead - fBytesReported) >> 10;
+            fBytesReported += kilobytes << 10;
+            fMonitor.split((int) Math.min(Integer.MAX_VALUE, kilobytes));
+            return objects;
+        }
+
+        private int read() throws IOException {
+            if (fPosition == fLimit) {
+                fLimit = fInput.read(fBuffer);
+                fPosition = 0;
+                if (fLimit <= 0) {
+                    fLimit = 0;
+                    return -1;
+                }
+                fBytesRead += fLimit;
+            }
+            return fBuffer[fPosition++] & 0xff;
+        }
+
+        private void append(int value) {
+            if (fObjectLength == fObject.length) {
+                fObject = Arrays.copyOf(fObject, fObjectLength * 2);
+            }
+            fObject[fObjectLength++] = (byte) value;
+        }
+
+        /**
+         * Read the next object of the array, or null at the end of the array
+         */
+        private byte @Nullable [] readObject() throws IOException {
+            int value = read();
+            while (value != '{') {
+                if (value == -1 || value == ']') {
+                    return null;
+                }
+                value = read();
+            }
+            fObjectLength = 0;
+            int depth = 0;
+            boolean inString = false;
+            while (value != -1) {
+                append(value);
+                if (inString) {
+                    if (value == '\\') {
+                        value = read();
+                        append(value);
+                    } else if (value == '"') {
+                        inString = false;
+                    }
+                } else if (value == '"') {
+                    inString = true;
+                } else if (value == '{' || value == '[') {
+                    depth++;
+                } else if ((value == '}' || value == ']') && --depth == 0) {
+                    return Arrays.copyOf(fObject, fObjectLength);
+                }
+                value = read();
+            }
+            // Truncated object at the end of the file
+            return null;
+        }
+    }
+
+    /**
+     * Writes the events as a JSON array, one event per line
+     */
+    private static final class EventWriter implements AutoCloseable {
+        private static final byte[] SEPARATOR = ",\n".getBytes(StandardCharsets.US_ASCII); //$NON-NLS-1$
+
+        private final OutputStream fOutput;
+        private boolean fFirst = true;
+
+        private EventWriter(File file) throws IOException {
+            fOutput = new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE);
+            fOutput.write('[');
+            fOutput.write('\n');
+        }
+
+        private void write(byte[] json) throws IOException {
+            if (!fFirst) {
+                fOutput.write(SEPARATOR);
+            }
+            fFirst = false;
+            fOutput.write(json);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                fOutput.write('\n');
+                fOutput.write(']');
+                fOutput.write('\n');
+            } finally {
+                fOutput.close();
+            }
+        }
+    }
+}
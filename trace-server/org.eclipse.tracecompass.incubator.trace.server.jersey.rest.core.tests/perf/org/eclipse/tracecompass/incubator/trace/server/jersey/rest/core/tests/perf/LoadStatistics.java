@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.perf;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Latency and throughput statistics of the requests sent by the simulated
+ * clients of the {@link TraceServerLoadBenchmark}, per type of request, and
+ * allocation and garbage collection statistics of the JVM running the server.
+ */
+public class LoadStatistics {
+
+    private static final String THREADING_MBEAN = "java.lang:type=Threading"; //$NON-NLS-1$
+    private static final String TOTAL = "total"; //$NON-NLS-1$
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<String, Recorder> fRecorders = new ConcurrentSkipListMap<>();
+
+    /**
+     * Record a request
+     *
+     * @param operation
+     *            the type of request
+     * @param durationNanos
+     *            the duration of the request, in nanoseconds
+     * @param success
+     *            whether the request succeeded
+     */
+    public void record(String operation, long durationNanos, boolean success) {
+        fRecorders.computeIfAbsent(operation, o -> new Recorder()).record(durationNanos, success);
+    }
+
+    /**
+     * Get the number of failed requests
+     *
+     * @return the number of errors, for all the types of request
+     */
+    public long getErrorCount() {
+        return fRecorders.values().stream().mapToLong(Recorder::getErrors).sum();
+    }
+
+    /**
+     * Get the number of recorded requests
+     *
+     * @return the number of requests, for all the types of request
+     */
+    public long getRequestCount() {
+        return fRecorders.values().stream().mapToLong(recorder -> recorder.getDurations().length).sum();
+    }
+
+    /**
+     * Build the report of the statistics
+     *
+     * @param elapsedNanos
+     *            the duration of the measurement, in nanoseconds
+     * @param start
+     *            the JVM statistics at the start of the measurement
+     * @param end
+     *            the JVM statistics at the end of the measurement
+     * @return the report, one line per type of request
+     */
+    public String report(long elapsedNanos, JvmSnapshot start, JvmSnapshot end) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-20s %8s %7s %9s %9s %9s %9s %9s%n", "request", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$
+        long[] all = new long[0];
+        long errors = 0;
+        for (Map.Entry<String, Recorder> entry : fRecorders.entrySet()) {
+            long[] durations = entry.getValue().getDurations();
+            appendLine(sb, entry.getKey(), durations, entry.getValue().getErrors(), elapsedNanos);
+            all = concat(all, durations);
+            errors += entry.getValue().getErrors();
+        }
+        appendLine(sb, TOTAL, all, errors, elapsedNanos);
+
+        double seconds = elapsedNanos / NANOS_PER_SECOND;
+        long allocated = end.getAllocatedBytes() - start.getAllocatedBytes();
+        if (start.getAllocatedBytes() >= 0 && end.getAllocatedBytes() >= 0) {
+            sb.append(String.format("allocation rate: %.1f MB/s, %.1f KB/request%n", //$NON-NLS-1$
+                    allocated / seconds / (1 << 20), all.length == 0 ? 0.0 : (double) allocated / all.length / (1 << 10)));
+        }
+        sb.append(String.format("garbage collection: %d collections, %d ms%n", //$NON-NLS-1$
+                end.getGcCount() - start.getGcCount(), end.getGcTimeMillis() - start.getGcTimeMillis()));
+        return sb.toString();
+    }
+
+    private static void appendLine(StringBuilder sb, String operation, long[] durations, long errors, long elapsedNanos) {
+        Arrays.sort(durations);
+        sb.append(String.format("%-20s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", operation, durations.length, errors, //$NON-NLS-1$
+                durations.length / (elapsedNanos / NANOS_PER_SECOND),
+                percentile(durations, 50) / NANOS_PER_MILLI,
+                percentile(durations, 90) / NANOS_PER_MILLI,
+                percentile(durations, 99) / NANOS_PER_MILLI,
+                percentile(durations, 100) / NANOS_PER_MILLI));
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values
+     */
+    private static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static long[] concat(long[] first, long[] second) {
+        long[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    /**
+     * Durations of the requests of one type
+     */
+    private static class Recorder {
+        private long[] fDurations = new long[1024];
+        private int fCount = 0;
+        private long fErrors = 0;
+
+        public synchronized void record(long durationNanos, boolean success) {
+            if (fCount == fDurations.length) {
+                fDurations = Arrays.copyOf(fDurations, fCount * 2);
+            }
+            fDurations[fCount++] = durationNanos;
+            if (!success) {
+                fErrors++;
+            }
+        }
+
+        public synchronized long[] getDurations() {
+            return Arrays.copyOf(fDurations, fCount);
+        }
+
+        public synchronized long getErrors() {
+            return fErrors;
+        }
+    }
+
+    /**
+     * Allocation and garbage collection counters of the JVM at a point in
+     * time. The server runs in the same JVM as the clients, so the counters
+     * include the allocations of both.
+     */
+    public static class JvmSnapshot {
+        private final long fAllocatedBytes;
+        private final long fGcCount;
+        private final long fGcTimeMillis;
+
+        private JvmSnapshot(long allocatedBytes, long gcCount, long gcTimeMillis) {
+            fAllocatedBytes = allocatedBytes;
+            fGcCount = gcCount;
+            fGcTimeMillis = gcTimeMillis;
+        }
+
+        /**
+         * Take a snapshot of the JVM counters
+         *
+         * @return the snapshot
+         */
+        public static JvmSnapshot take() {
+            long gcCount = 0;
+            long gcTime = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                gcCount += Math.max(0, gc.getCollectionCount());
+                gcTime += Math.max(0, gc.getCollectionTime());
+            }
+            return new JvmSnapshot(readAllocatedBytes(), gcCount, gcTime);
+        }
+
+        /**
+         * Sum of the bytes allocated by the live threads, read through the
+         * threading MBean since the allocation counters are not part of
+         * {@link java.lang.management.ThreadMXBean}. Threads that terminate
+         * during the measurement are not counted.
+         *
+         * @return the allocated bytes, or -1 if not supported by the JVM
+         */
+        private static long readAllocatedBytes() {
+            long[] ids = ManagementFactory.getThreadMXBean().getAllThreadIds();
+            try {
+                Object result = ManagementFactory.getPlatformMBeanServer().invoke(new ObjectName(THREADING_MBEAN), "getThreadAllocatedBytes", //$NON-NLS-1$
+                        new Object[] { ids }, new String[] { long[].class.getName() });
+                if (!(result instanceof long[])) {
+                    return -1;
+                }
+                return Arrays.stream((long[]) result).filter(bytes -> bytes > 0).sum();
+            } catch (JMException e) {
+                return -1;
+            }
+        }
+
+        /**
+         * @return the bytes allocated by the live threads, or -1 if not
+         *         supported
+         */
+        public long getAllocatedBytes() {
+            return fAllocatedBytes;
+        }
+
+        /**
+         * @return the number of garbage collections
+         */
+        public long getGcCount() {
+            return fGcCount;
+        }
+
+        /**
+         * @return the time spent in garbage collection, in milliseconds
+         */
+        public long getGcTimeMillis() {
+            return fGcTimeMillis;
+        }
+    }
+}
@@ -0,0 +1,354 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.perf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.QueryCancellationManager;
+import org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.perf.LoadStatistics.JvmSnapshot;
+import org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.utils.RestServerTest;
+import org.eclipse.tracecompass.incubator.tsp.client.core.ApiClient;
+import org.eclipse.tracecompass.incubator.tsp.client.core.ApiException;
+import org.eclipse.tracecompass.incubator.tsp.client.core.api.TimeGraphApi;
+import org.eclipse.tracecompass.incubator.tsp.client.core.api.VirtualTablesApi;
+import org.eclipse.tracecompass.incubator.tsp.client.core.api.XyApi;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.ArrowsParameters;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.ArrowsQueryParameters;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.Experiment;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.LinesParameters;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.LinesQueryParameters;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.RequestedParameters;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.RequestedQueryParameters;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.TimeGraphEntry;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.TimeGraphTreeResponse;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.TimeRange;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.TreeParameters;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.TreeQueryParameters;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.VirtualTableResponse;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.XYTreeEntry;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.XYTreeResponse;
+import org.junit.Test;
+
+/**
+ * Load test of the trace server. The server is started in this JVM on the
+ * context switches kernel test trace, and simulated clients replay the
+ * requests of a front end through the TSP client: zooming and panning in a
+ * time graph (states and arrows), refreshing an XY chart and scrolling the
+ * events table. The latency percentiles and throughput per type of request,
+ * and the allocation rate of the JVM are printed once the run completes.
+ *
+ * The run is configured with the system properties:
+ * <ul>
+ * <li>{@link #PROPERTY_CLIENTS}: the number of simulated clients, default
+ * 16</li>
+ * <li>{@link #PROPERTY_DURATION}: the duration of the measurement in seconds,
+ * default 30</li>
+ * <li>{@link #PROPERTY_WARMUP}: the duration of the warm-up in seconds, not
+ * measured, default 10</li>
+ * </ul>
+ *
+ * This benchmark is not part of the test suite, run it as a JUnit Plug-in Test
+ * to compare the server before and after a change.
+ */
+public class TraceServerLoadBenchmark extends RestServerTest {
+
+    /**
+     * System property for the number of simulated clients
+     */
+    public static final String PROPERTY_CLIENTS = "traceserver.load.clients"; //$NON-NLS-1$
+    /**
+     * System property for the duration of the measurement in seconds
+     */
+    public static final String PROPERTY_DURATION = "traceserver.load.duration"; //$NON-NLS-1$
+    /**
+     * System property for the duration of the warm-up in seconds
+     */
+    public static final String PROPERTY_WARMUP = "traceserver.load.warmup"; //$NON-NLS-1$
+
+    private static final String THREAD_STATUS_DP_ID = "org.eclipse.tracecompass.internal.analysis.os.linux.core.threadstatus.ThreadStatusDataProvider"; //$NON-NLS-1$
+    private static final String CPU_USAGE_DP_ID = "org.eclipse.tracecompass.analysis.os.linux.core.cpuusage.CpuUsageDataProvider"; //$NON-NLS-1$
+    private static final String EVENTS_TABLE_DP_ID = "org.eclipse.tracecompass.internal.provisional.tmf.core.model.events.TmfEventTableDataProvider"; //$NON-NLS-1$
+    private static final String SERVER_URL = "http://localhost:8378/tsp/api"; //$NON-NLS-1$
+
+    private static final String STATES = "timeGraph/states"; //$NON-NLS-1$
+    private static final String ARROWS = "timeGraph/arrows"; //$NON-NLS-1$
+    private static final String XY = "XY/xy"; //$NON-NLS-1$
+    private static final String LINES = "table/lines"; //$NON-NLS-1$
+
+    /** Width of the views in pixels, i.e. number of requested times */
+    private static final int NB_TIMES = 1000;
+    /** Number of time graph rows visible at once */
+    private static final int VISIBLE_ROWS = 40;
+    /** Number of table lines visible at once */
+    private static final int TABLE_PAGE = 100;
+    private static final int MAX_ZOOM_LEVEL = 8;
+    private static final int MAX_ITER = 600;
+
+    /**
+     * Run the load test
+     *
+     * @throws Exception
+     *             if the server can't be queried
+     */
+    @Test
+    public void testLoad() throws Exception {
+        int nbClients = Integer.getInteger(PROPERTY_CLIENTS, 16);
+        long duration = TimeUnit.SECONDS.toNanos(Integer.getInteger(PROPERTY_DURATION, 30));
+        long warmup = TimeUnit.SECONDS.toNanos(Integer.getInteger(PROPERTY_WARMUP, 10));
+
+        Experiment exp = assertPostExperiment(sfContextSwitchesKernelNotInitializedStub.getName(), sfContextSwitchesKernelNotInitializedStub);
+        ApiClient setupClient = newApiClient("load-setup"); //$NON-NLS-1$
+        Workload workload = new Workload(exp,
+                loadTimeGraphItems(new TimeGraphApi(setupClient), exp.getUUID()),
+                loadXYItems(new XyApi(setupClient), exp.getUUID()));
+
+        runClients(workload, nbClients, warmup, new LoadStatistics());
+
+        LoadStatistics statistics = new LoadStatistics();
+        JvmSnapshot start = JvmSnapshot.take();
+        long startTime = System.nanoTime();
+        runClients(workload, nbClients, duration, statistics);
+        long elapsed = System.nanoTime() - startTime;
+        JvmSnapshot end = JvmSnapshot.take();
+
+        System.out.println(String.format("Trace server load test: %d clients, %d s", nbClients, TimeUnit.NANOSECONDS.toSeconds(elapsed))); //$NON-NLS-1$
+        System.out.println(statistics.report(elapsed, start, end));
+        assertTrue(statistics.getRequestCount() > 0);
+        assertEquals(0, statistics.getErrorCount());
+    }
+
+    private static void runClients(Workload workload, int nbClients, long durationNanos, LoadStatistics statistics) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(nbClients);
+        try {
+            long deadline = System.nanoTime() + durationNanos;
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < nbClients; i++) {
+                SimulatedClient client = new SimulatedClient(workload, newApiClient("load-client-" + i), new Random(i), statistics); //$NON-NLS-1$
+                futures.add(executor.submit(() -> client.run(deadline)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Each simulated client has its own client ID, otherwise the server would
+     * cancel the queries of the other clients as superseded.
+     */
+    private static ApiClient newApiClient(String clientId) {
+        ApiClient client = new ApiClient();
+        client.setBasePath(SERVER_URL);
+        client.addDefaultHeader(QueryCancellationManager.CLIENT_ID_HEADER, clientId);
+        return client;
+    }
+
+    private static List<Integer> loadTimeGraphItems(TimeGraphApi api, UUID expUUID) throws ApiException, InterruptedException {
+        TreeQueryParameters queryParams = new TreeQueryParameters().parameters(new TreeParameters());
+        TimeGraphTreeResponse response = api.getTimeGraphTree(expUUID, THREAD_STATUS_DP_ID, queryParams);
+        for (int i = 0; i < MAX_ITER && response.getStatus() == TimeGraphTreeResponse.StatusEnum.RUNNING; i++) {
+            Thread.sleep(100);
+            response = api.getTimeGraphTree(expUUID, THREAD_STATUS_DP_ID, queryParams);
+        }
+        assertEquals(TimeGraphTreeResponse.StatusEnum.COMPLETED, response.getStatus());
+        assertNotNull(response.getModel());
+        List<Integer> items = new ArrayList<>();
+        for (TimeGraphEntry entry : response.getModel().getEntries()) {
+            items.add(entry.getId().intValue());
+        }
+        assertFalse(items.isEmpty());
+        return items;
+    }
+
+    private static List<Integer> loadXYItems(XyApi api, UUID expUUID) throws ApiException, InterruptedException {
+        TreeQueryParameters queryParams = new TreeQueryParameters().parameters(new TreeParameters());
+        XYTreeResponse response = api.getXYTree(expUUID, CPU_USAGE_DP_ID, queryParams);
+        for (int i = 0; i < MAX_ITER && response.getStatus() == XYTreeResponse.StatusEnum.RUNNING; i++) {
+            Thread.sleep(100);
+            response = api.getXYTree(expUUID, CPU_USAGE_DP_ID, queryParams);
+        }
+        assertEquals(XYTreeResponse.StatusEnum.COMPLETED, response.getStatus());
+        assertNotNull(response.getModel());
+        List<Integer> items = new ArrayList<>();
+        for (XYTreeEntry entry : response.getModel().getEntries()) {
+            items.add(entry.getId().intValue());
+        }
+        assertFalse(items.isEmpty());
+        return items;
+    }
+
+    /**
+     * The experiment and the items of the views, shared by the clients
+     */
+    private static class Workload {
+        private final UUID fExpUUID;
+        private final long fStart;
+        private final long fEnd;
+        private final long fNbEvents;
+        private final List<Integer> fTimeGraphItems;
+        private final List<Integer> fXYItems;
+
+        public Workload(Experiment exp, List<Integer> timeGraphItems, List<Integer> xyItems) {
+            fExpUUID = exp.getUUID();
+            fStart = exp.getStart();
+            fEnd = exp.getEnd();
+            fNbEvents = exp.getNbEvents();
+            fTimeGraphItems = timeGraphItems;
+            fXYItems = xyItems;
+        }
+    }
+
+    /**
+     * A client replaying the requests of a front end: the time graph and XY
+     * views share a visible time range that is zoomed and panned, and the
+     * events table is scrolled.
+     */
+    private static class SimulatedClient {
+        private final Workload fWorkload;
+        private final TimeGraphApi fTimeGraphApi;
+        private final XyApi fXyApi;
+        private final VirtualTablesApi fTableApi;
+        private final Random fRandom;
+        private final LoadStatistics fStatistics;
+
+        private int fZoomLevel = 0;
+        private long fWindowStart;
+        private int fFirstRow = 0;
+        private long fTableIndex = 0;
+
+        public SimulatedClient(Workload workload, ApiClient client, Random random, LoadStatistics statistics) {
+            fWorkload = workload;
+            fTimeGraphApi = new TimeGraphApi(client);
+            fXyApi = new XyApi(client);
+            fTableApi = new VirtualTablesApi(client);
+            fRandom = random;
+            fStatistics = statistics;
+            fWindowStart = workload.fStart;
+        }
+
+        public void run(long deadline) {
+            while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                int action = fRandom.nextInt(100);
+                if (action < 50) {
+                    navigate();
+                    refreshTimeGraph();
+                } else if (action < 75) {
+                    navigate();
+                    refreshXY();
+                } else {
+                    scrollTable();
+                }
+            }
+        }
+
+        /**
+         * Zoom in, zoom out or pan the visible time range
+         */
+        private void navigate() {
+            int action = fRandom.nextInt(3);
+            if (action == 0 && fZoomLevel < MAX_ZOOM_LEVEL) {
+                fZoomLevel++;
+            } else if (action == 1 && fZoomLevel > 0) {
+                fZoomLevel--;
+            }
+            long span = getWindowSpan();
+            long shift = (long) ((fRandom.nextDouble() - 0.5) * span);
+            fWindowStart = Math.max(fWorkload.fStart, Math.min(fWorkload.fEnd - span, fWindowStart + shift));
+        }
+
+        private long getWindowSpan() {
+            return (fWorkload.fEnd - fWorkload.fStart) >> fZoomLevel;
+        }
+
+        private TimeRange getTimeRange() {
+            return new TimeRange().start(fWindowStart).end(fWindowStart + getWindowSpan()).nbTimes(NB_TIMES);
+        }
+
+        private void refreshTimeGraph() {
+            List<Integer> items = fWorkload.fTimeGraphItems;
+            // Scroll the rows from time to time
+            if (fRandom.nextInt(4) == 0) {
+                fFirstRow = fRandom.nextInt(Math.max(1, items.size() - VISIBLE_ROWS));
+            }
+            List<Integer> visible = items.subList(fFirstRow, Math.min(items.size(), fFirstRow + VISIBLE_ROWS));
+            TimeRange range = getTimeRange();
+            long start = System.nanoTime();
+            boolean success = true;
+            try {
+                fTimeGraphApi.getStates(fWorkload.fExpUUID, THREAD_STATUS_DP_ID,
+                        new RequestedQueryParameters().parameters(new RequestedParameters().requestedTimerange(range).requestedItems(visible)));
+            } catch (ApiException e) {
+                success = false;
+            }
+            fStatistics.record(STATES, System.nanoTime() - start, success);
+
+            start = System.nanoTime();
+            success = true;
+            try {
+                fTimeGraphApi.getArrows(fWorkload.fExpUUID, THREAD_STATUS_DP_ID,
+                        new ArrowsQueryParameters().parameters(new ArrowsParameters().requestedTimerange(range)));
+            } catch (ApiException e) {
+                success = false;
+            }
+            fStatistics.record(ARROWS, System.nanoTime() - start, success);
+        }
+
+        private void refreshXY() {
+            long start = System.nanoTime();
+            boolean success = true;
+            try {
+                fXyApi.getXY(fWorkload.fExpUUID, CPU_USAGE_DP_ID,
+                        new RequestedQueryParameters().parameters(new RequestedParameters().requestedTimerange(getTimeRange()).requestedItems(fWorkload.fXYItems)));
+            } catch (ApiException e) {
+                success = false;
+            }
+            fStatistics.record(XY, System.nanoTime() - start, success);
+        }
+
+        /**
+         * Scroll by a few lines most of the time, jump with the scroll bar
+         * otherwise
+         */
+        private void scrollTable() {
+            long maxIndex = Math.max(0, fWorkload.fNbEvents - TABLE_PAGE);
+            if (fRandom.nextInt(5) == 0) {
+                fTableIndex = (long) (fRandom.nextDouble() * maxIndex);
+            } else {
+                fTableIndex = Math.max(0, Math.min(maxIndex, fTableIndex + fRandom.nextInt(2 * TABLE_PAGE) - TABLE_PAGE / 2));
+            }
+            long start = System.nanoTime();
+            boolean success = true;
+            try {
+                VirtualTableResponse response = fTableApi.getLines(fWorkload.fExpUUID, EVENTS_TABLE_DP_ID,
+                        new LinesQueryParameters().parameters(new LinesParameters().requestedTableIndex(fTableIndex).requestedTableCount(TABLE_PAGE)));
+                success = response.getStatus() != VirtualTableResponse.StatusEnum.FAILED;
+            } catch (ApiException e) {
+                success = false;
+            }
+            fStatistics.record(LINES, System.nanoTime() - start, success);
+        }
+    }
+}
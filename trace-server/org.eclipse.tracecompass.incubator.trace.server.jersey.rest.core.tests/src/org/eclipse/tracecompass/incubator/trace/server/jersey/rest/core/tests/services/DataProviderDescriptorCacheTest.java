@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.DataProviderDescriptorCache;
+import org.eclipse.tracecompass.tmf.core.dataprovider.IDataProviderDescriptor;
+import org.eclipse.tracecompass.tmf.core.dataprovider.IDataProviderDescriptor.ProviderType;
+import org.eclipse.tracecompass.tmf.core.model.DataProviderDescriptor;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Test the {@link DataProviderDescriptorCache} class
+ */
+public class DataProviderDescriptorCacheTest {
+
+    private static final UUID EXP_UUID = UUID.randomUUID();
+    private static final UUID OTHER_EXP_UUID = UUID.randomUUID();
+    private static final IDataProviderDescriptor XY = createDescriptor("xy.output", "XY");
+    private static final IDataProviderDescriptor TIME_GRAPH = createDescriptor("timegraph.output", "Time Graph");
+    private static final IDataProviderDescriptor DUPLICATE = createDescriptor("xy.output", "Another XY");
+
+    private final AtomicInteger fLoads = new AtomicInteger();
+    private final Supplier<Collection<IDataProviderDescriptor>> fLoader = () -> {
+        fLoads.incrementAndGet();
+        return Arrays.asList(XY, TIME_GRAPH, DUPLICATE);
+    };
+
+    /**
+     * Clear the cache after each test
+     */
+    @After
+    public void tearDown() {
+        DataProviderDescriptorCache.invalidateAll();
+    }
+
+    /**
+     * Test that the descriptors are computed once, sorted by name and
+     * indexed by output ID
+     */
+    @Test
+    public void testGet() {
+        assertEquals(Arrays.asList(DUPLICATE, TIME_GRAPH, XY), DataProviderDescriptorCache.getDescriptors(EXP_UUID, fLoader));
+        assertSame(XY, DataProviderDescriptorCache.getDescriptor(EXP_UUID, "xy.output", fLoader));
+        assertSame(TIME_GRAPH, DataProviderDescriptorCache.getDescriptor(EXP_UUID, "timegraph.output", fLoader));
+        assertNull(DataProviderDescriptorCache.getDescriptor(EXP_UUID, "unknown", fLoader));
+        assertEquals(1, fLoads.get());
+    }
+
+    /**
+     * Test the invalidation of the cached descriptors
+     */
+    @Test
+    public void testInvalidate() {
+        DataProviderDescriptorCache.getDescriptors(EXP_UUID, fLoader);
+        DataProviderDescriptorCache.getDescriptors(OTHER_EXP_UUID, fLoader);
+        assertEquals(2, fLoads.get());
+
+        DataProviderDescriptorCache.invalidate(EXP_UUID);
+        DataProviderDescriptorCache.getDescriptors(OTHER_EXP_UUID, fLoader);
+        assertEquals(2, fLoads.get());
+        DataProviderDescriptorCache.getDescriptors(EXP_UUID, fLoader);
+        assertEquals(3, fLoads.get());
+
+        DataProviderDescriptorCache.invalidateAll();
+        DataProviderDescriptorCache.getDescriptor(OTHER_EXP_UUID, "xy.output", fLoader);
+        assertEquals(4, fLoads.get());
+    }
+
+    private static IDataProviderDescriptor createDescriptor(String id, String name) {
+        return new DataProviderDescriptor.Builder()
+                .setId(id)
+                .setName(name)
+                .setDescription(name)
+                .setProviderType(ProviderType.TIME_GRAPH)
+                .build();
+    }
+}
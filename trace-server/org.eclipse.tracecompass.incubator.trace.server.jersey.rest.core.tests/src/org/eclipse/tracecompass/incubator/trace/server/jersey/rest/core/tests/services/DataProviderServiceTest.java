@@ -17,8 +17,16 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.DataProviderService;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.QueryCancellationManager;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp.VirtualTableLinesStreamWriter;
 import org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.utils.RestServerTest;
 import org.eclipse.tracecompass.incubator.tsp.client.core.ApiException;
 import org.eclipse.tracecompass.incubator.tsp.client.core.model.DataProvider;
@@ -27,6 +35,9 @@ import org.eclipse.tracecompass.incubator.tsp.client.core.model.MarkerSet;
 import org.eclipse.tracecompass.incubator.tsp.client.core.model.MarkerSetsResponse;
 import org.junit.Test;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 /**
  * Test the {@link DataProviderService} with focus root level endpoints
  *
@@ -36,6 +47,11 @@ import org.junit.Test;
  */
 public class DataProviderServiceTest extends RestServerTest {
 
+    private static final String EVENTS_TABLE_DATAPROVIDER_ID = "org.eclipse.tracecompass.internal.provisional.tmf.core.model.events.TmfEventTableDataProvider";
+    private static final String BATCH_PATH = "batch";
+    private static final String QUERIES_KEY = "queries";
+    private static final int LINES_COUNT = 10;
+
     /**
      * Test getting the data provider descriptors
      *
@@ -87,4 +103,91 @@ public class DataProviderServiceTest extends RestServerTest {
         assertEquals("Example", markerSets.get(0).getName());
         assertEquals("example.id", markerSets.get(0).getId());
     }
+
+    /**
+     * Test running several queries in a batch, the results are returned in
+     * the order of the queries, with the status of each query
+     *
+     * @throws Exception
+     *             if the response can't be parsed
+     */
+    @Test
+    public void testBatch() throws Exception {
+        Experiment exp = assertPostExperiment(sfContextSwitchesUstNotInitializedStub.getName(), sfContextSwitchesUstNotInitializedStub);
+
+        List<Map<String, Object>> queries = List.of(
+                Map.of("id", "columns", "outputId", EVENTS_TABLE_DATAPROVIDER_ID, "type", "table/columns", PARAMETER_KEY, Map.of()),
+                Map.of("id", "style", "outputId", EVENTS_TABLE_DATAPROVIDER_ID, "type", "style", PARAMETER_KEY, Map.of()),
+                Map.of("id", "unknownType", "outputId", EVENTS_TABLE_DATAPROVIDER_ID, "type", "unknown", PARAMETER_KEY, Map.of()),
+                Map.of("id", "unknownOutput", "outputId", UNKNOWN_DP_ID, "type", "table/columns", PARAMETER_KEY, Map.of()),
+                Map.of("id", "noOutput", "type", "table/columns", PARAMETER_KEY, Map.of()));
+        String body;
+        try (Response response = getBatchEndpoint(exp.getUUID().toString()).request().post(Entity.json(Map.of(QUERIES_KEY, queries)))) {
+            assertEquals(200, response.getStatus());
+            body = response.readEntity(String.class);
+        }
+
+        JsonNode results = new ObjectMapper().readTree(body);
+        assertEquals(queries.size(), results.size());
+        int[] expectedStatus = { 200, 200, 400, 405, 400 };
+        for (int i = 0; i < queries.size(); i++) {
+            JsonNode result = results.get(i);
+            assertEquals(queries.get(i).get("id"), result.get("id").asText());
+            assertEquals(expectedStatus[i], result.get("status").asInt());
+            assertNotNull(result.get("response"));
+        }
+        JsonNode columns = results.get(0).get("response");
+        assertEquals("COMPLETED", columns.get("status").asText());
+        assertFalse(columns.get("model").isEmpty());
+
+        // Empty batch
+        try (Response response = getBatchEndpoint(exp.getUUID().toString()).request().post(Entity.json(Map.of(QUERIES_KEY, List.of())))) {
+            assertEquals(400, response.getStatus());
+        }
+    }
+
+    /**
+     * Test that the table lines of a batch are returned in the JSON response
+     * of the batch, even if the client prefers them streamed, and that two
+     * queries of the same type in a batch do not cancel each other
+     *
+     * @throws Exception
+     *             if the response can't be parsed
+     */
+    @Test
+    public void testBatchLinesNotStreamed() throws Exception {
+        Experiment exp = assertPostExperiment(sfContextSwitchesUstNotInitializedStub.getName(), sfContextSwitchesUstNotInitializedStub);
+
+        Map<String, Object> parameters = Map.of("requested_table_index", 0, "requested_table_count", LINES_COUNT);
+        List<Map<String, Object>> queries = List.of(
+                Map.of("id", "lines", "outputId", EVENTS_TABLE_DATAPROVIDER_ID, "type", "table/lines", PARAMETER_KEY, parameters),
+                Map.of("id", "sameLines", "outputId", EVENTS_TABLE_DATAPROVIDER_ID, "type", "table/lines", PARAMETER_KEY, parameters));
+        String body;
+        try (Response response = getBatchEndpoint(exp.getUUID().toString())
+                .request(VirtualTableLinesStreamWriter.MEDIA_TYPE, MediaType.APPLICATION_JSON + ";q=0.5")
+                .header(QueryCancellationManager.CLIENT_ID_HEADER, "batch-client")
+                .post(Entity.json(Map.of(QUERIES_KEY, queries)))) {
+            assertEquals(200, response.getStatus());
+            assertTrue(response.getMediaType().isCompatible(MediaType.APPLICATION_JSON_TYPE));
+            body = response.readEntity(String.class);
+        }
+
+        JsonNode results = new ObjectMapper().readTree(body);
+        assertEquals(queries.size(), results.size());
+        for (int i = 0; i < queries.size(); i++) {
+            JsonNode result = results.get(i);
+            assertEquals(queries.get(i).get("id"), result.get("id").asText());
+            assertEquals(200, result.get("status").asInt());
+            JsonNode lines = result.get("response");
+            assertEquals("COMPLETED", lines.get("status").asText());
+            assertEquals(LINES_COUNT, lines.get("model").get("lines").size());
+        }
+    }
+
+    private static WebTarget getBatchEndpoint(String expUUID) {
+        return getApplicationEndpoint().path(EXPERIMENTS)
+                .path(expUUID)
+                .path(OUTPUTS_PATH)
+                .path(BATCH_PATH);
+    }
 }
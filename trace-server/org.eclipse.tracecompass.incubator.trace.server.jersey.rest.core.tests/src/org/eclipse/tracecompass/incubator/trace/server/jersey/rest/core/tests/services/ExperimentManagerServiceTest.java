@@ -13,6 +13,7 @@ package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.s
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
@@ -20,6 +21,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.core.Response.Status;
 
@@ -47,6 +52,10 @@ import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
 import org.eclipse.tracecompass.tmf.core.TmfCommonConstants;
 import org.eclipse.tracecompass.tmf.core.TmfProjectNature;
 import org.eclipse.tracecompass.tmf.core.io.ResourceUtil;
+import org.eclipse.tracecompass.tmf.core.signal.TmfSignalHandler;
+import org.eclipse.tracecompass.tmf.core.signal.TmfSignalManager;
+import org.eclipse.tracecompass.tmf.core.signal.TmfTraceOpenedSignal;
+import org.eclipse.tracecompass.tmf.core.trace.experiment.TmfExperiment;
 import org.junit.Test;
 
 /**
@@ -203,6 +212,96 @@ public class ExperimentManagerServiceTest extends RestServerTest {
         assertEquals("Deleting an experiment should not change the trace set", traceList, getTraces());
     }
 
+    /**
+     * Test posting the same experiment from concurrent requests, they should
+     * all wait for the same instantiation and return the same experiment
+     *
+     * @throws Exception
+     *             if an error occurs
+     */
+    @Test
+    public void testConcurrentPost() throws Exception {
+        Trace ustStub = assertPost(sfContextSwitchesUstNotInitializedStub);
+        Trace kernelStub = assertPost(sfContextSwitchesKernelNotInitializedStub);
+
+        int nbRequests = 4;
+        ExperimentParameters params = new ExperimentParameters().name(TEST).traces(List.of(ustStub.getUUID(), kernelStub.getUUID()));
+        ExperimentQueryParameters queryParameters = new ExperimentQueryParameters().parameters(params);
+        ExecutorService executor = Executors.newFixedThreadPool(nbRequests);
+        try {
+            List<Future<Experiment>> futures = new ArrayList<>();
+            for (int i = 0; i < nbRequests; i++) {
+                futures.add(executor.submit(() -> sfExpApi.postExperiment(queryParameters)));
+            }
+            for (Future<Experiment> future : futures) {
+                assertEquals("Failed to POST the experiment concurrently", EXPECTED.getUUID(), future.get(60, TimeUnit.SECONDS).getUUID());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // Wait for the indexing to complete
+        assertEquals("Failed to POST the experiment a last time", EXPECTED, assertPostExperiment(TEST, ustStub, kernelStub));
+        assertEquals("There should be only one experiment", List.of(EXPECTED), getExperiments());
+
+        Experiment deletedExperiment = deleteExperiment(EXPECTED.getUUID());
+        assertEquals("Failed to DELETE the experiment", EXPECTED, deletedExperiment);
+    }
+
+    /**
+     * Test getting an experiment from the thread that instantiates it, e.g.
+     * from a signal handler, it should not wait for itself
+     *
+     * @throws ApiException
+     *             if an error occurs
+     */
+    @Test(timeout = 60000)
+    public void testReentrantOpen() throws ApiException {
+        Trace ustStub = assertPost(sfContextSwitchesUstNotInitializedStub);
+        Trace kernelStub = assertPost(sfContextSwitchesKernelNotInitializedStub);
+
+        ReentrantOpenListener listener = new ReentrantOpenListener(getExperimentUUID(TEST));
+        TmfSignalManager.register(listener);
+        try {
+            Experiment expStub = assertPostExperiment(TEST, ustStub, kernelStub);
+            assertEquals("Failed to POST the experiment", EXPECTED, expStub);
+        } finally {
+            TmfSignalManager.deregister(listener);
+        }
+        assertTrue("The trace opened signal was not received", listener.fReceived);
+        assertNull("The experiment should not be available before its instantiation is complete", listener.fExperiment);
+        assertNotNull(ExperimentManagerService.getExperimentByUUID(EXPECTED.getUUID()));
+
+        Experiment deletedExperiment = deleteExperiment(EXPECTED.getUUID());
+        assertEquals("Failed to DELETE the experiment", EXPECTED, deletedExperiment);
+    }
+
+    /**
+     * Listener that gets the experiment while it is being opened
+     */
+    public static class ReentrantOpenListener {
+        private final UUID fExpUUID;
+        private volatile boolean fReceived = false;
+        private volatile TmfExperiment fExperiment = null;
+
+        private ReentrantOpenListener(UUID expUUID) {
+            fExpUUID = expUUID;
+        }
+
+        /**
+         * Handler for the trace opened signal
+         *
+         * @param signal
+         *            the signal
+         */
+        @TmfSignalHandler
+        public void traceOpened(TmfTraceOpenedSignal signal) {
+            if (signal.getTrace() instanceof TmfExperiment) {
+                fReceived = true;
+                fExperiment = ExperimentManagerService.getExperimentByUUID(fExpUUID);
+            }
+        }
+    }
+
     /**
      * Test workspace structure for experiments
      *
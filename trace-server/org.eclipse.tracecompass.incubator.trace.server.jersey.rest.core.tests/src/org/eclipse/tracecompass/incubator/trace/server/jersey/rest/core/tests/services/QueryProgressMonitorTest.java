@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.QueryCancellationManager;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.QueryProgressMonitor;
+import org.junit.Test;
+
+/**
+ * Test the {@link QueryProgressMonitor} class
+ */
+public class QueryProgressMonitorTest {
+
+    private static final UUID EXP_UUID = UUID.randomUUID();
+
+    /**
+     * Test that a monitor without timeout and with an open connection is not
+     * cancelled
+     */
+    @Test
+    public void testNotCancelled() {
+        try (QueryProgressMonitor monitor = new QueryProgressMonitor(null, EXP_UUID, 0, () -> true)) {
+            assertFalse(monitor.isCanceled());
+        }
+    }
+
+    /**
+     * Test that the monitor is cancelled when the connection is closed
+     */
+    @Test
+    public void testConnectionClosed() {
+        AtomicBoolean open = new AtomicBoolean(true);
+        try (QueryProgressMonitor monitor = new QueryProgressMonitor(null, EXP_UUID, 0, open::get)) {
+            assertFalse(monitor.isCanceled());
+            open.set(false);
+            assertTrue(monitor.isCanceled());
+            // Stays cancelled
+            open.set(true);
+            assertTrue(monitor.isCanceled());
+        }
+    }
+
+    /**
+     * Test that the monitor is cancelled when the timeout expires
+     *
+     * @throws InterruptedException
+     *             if the test is interrupted
+     */
+    @Test
+    public void testTimeout() throws InterruptedException {
+        try (QueryProgressMonitor monitor = new QueryProgressMonitor(null, EXP_UUID, 1, () -> true)) {
+            Thread.sleep(1);
+            assertTrue(monitor.isCanceled());
+        }
+    }
+
+    /**
+     * Test that queries without HTTP request are active but do not supersede
+     * each other
+     */
+    @Test
+    public void testBeginWithoutRequest() {
+        int count = QueryCancellationManager.getActiveQueryCount();
+        try (QueryProgressMonitor first = QueryCancellationManager.begin(null, EXP_UUID, "output", "states");
+                QueryProgressMonitor second = QueryCancellationManager.begin(null, EXP_UUID, "output", "states")) {
+            assertEquals(count + 2, QueryCancellationManager.getActiveQueryCount());
+            assertFalse(first.isCanceled());
+            assertFalse(second.isCanceled());
+        }
+        assertEquals(count, QueryCancellationManager.getActiveQueryCount());
+    }
+
+    /**
+     * Test that a query from an identified client cancels the running query
+     * of the same type from the same client and view
+     */
+    @Test
+    public void testSupersede() {
+        int count = QueryCancellationManager.getActiveQueryCount();
+        try (QueryProgressMonitor first = QueryCancellationManager.begin("client", "view", EXP_UUID, "output", "states", () -> true);
+                QueryProgressMonitor otherView = QueryCancellationManager.begin("client", "other-view", EXP_UUID, "output", "states", () -> true);
+                QueryProgressMonitor otherType = QueryCancellationManager.begin("client", "view", EXP_UUID, "output", "xy", () -> true);
+                QueryProgressMonitor otherClient = QueryCancellationManager.begin("other-client", "view", EXP_UUID, "output", "states", () -> true)) {
+            assertEquals(count + 4, QueryCancellationManager.getActiveQueryCount());
+            assertFalse(first.isCanceled());
+
+            try (QueryProgressMonitor second = QueryCancellationManager.begin("client", "view", EXP_UUID, "output", "states", () -> true)) {
+                assertTrue(first.isCanceled());
+                assertFalse(second.isCanceled());
+                assertFalse(otherView.isCanceled());
+                assertFalse(otherType.isCanceled());
+                assertFalse(otherClient.isCanceled());
+                assertEquals(count + 4, QueryCancellationManager.getActiveQueryCount());
+            }
+        }
+        assertEquals(count, QueryCancellationManager.getActiveQueryCount());
+    }
+
+    /**
+     * Test that queries without client ID do not supersede each other, even
+     * with the same view
+     */
+    @Test
+    public void testNoSupersedeWithoutClientId() {
+        int count = QueryCancellationManager.getActiveQueryCount();
+        try (QueryProgressMonitor first = QueryCancellationManager.begin((String) null, "view", EXP_UUID, "output", "states", () -> true);
+                QueryProgressMonitor second = QueryCancellationManager.begin("", "view", EXP_UUID, "output", "states", () -> true)) {
+            assertEquals(count + 2, QueryCancellationManager.getActiveQueryCount());
+            assertFalse(first.isCanceled());
+            assertFalse(second.isCanceled());
+        }
+    }
+
+    /**
+     * Test that closing an experiment cancels all its queries, with or
+     * without client ID, and not the queries of the other experiments
+     */
+    @Test
+    public void testCancelAll() {
+        UUID expUUID = UUID.randomUUID();
+        int count = QueryCancellationManager.getActiveQueryCount();
+        try (QueryProgressMonitor anonymous = QueryCancellationManager.begin(null, expUUID, "output", "states");
+                QueryProgressMonitor identified = QueryCancellationManager.begin("client", "view", expUUID, "output", "xy", () -> true);
+                QueryProgressMonitor otherExperiment = QueryCancellationManager.begin(null, EXP_UUID, "output", "states")) {
+            QueryCancellationManager.cancelAll(expUUID);
+            assertTrue(anonymous.isCanceled());
+            assertTrue(identified.isCanceled());
+            assertFalse(otherExperiment.isCanceled());
+            // The cancelled queries are active until they are closed
+            assertEquals(count + 3, QueryCancellationManager.getActiveQueryCount());
+        }
+        assertEquals(count, QueryCancellationManager.getActiveQueryCount());
+    }
+}
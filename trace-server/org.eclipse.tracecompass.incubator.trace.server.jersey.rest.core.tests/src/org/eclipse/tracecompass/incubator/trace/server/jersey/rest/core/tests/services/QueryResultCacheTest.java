@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.QueryResultCache;
+import org.eclipse.tracecompass.tmf.core.model.CommonStatusMessage;
+import org.eclipse.tracecompass.tmf.core.response.ITmfResponse;
+import org.eclipse.tracecompass.tmf.core.response.TmfModelResponse;
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Test the {@link QueryResultCache} class
+ */
+public class QueryResultCacheTest {
+
+    private static final UUID EXP_UUID = UUID.randomUUID();
+    private static final UUID OTHER_EXP_UUID = UUID.randomUUID();
+    private static final String OUTPUT_ID = "output";
+    private static final String OTHER_OUTPUT_ID = "other.output";
+    private static final String TYPE = "tooltip";
+    private static final String TIMES_KEY = "requested_times";
+    private static final String ITEMS_KEY = "requested_items";
+
+    /**
+     * Clear the cache after each test
+     */
+    @After
+    public void tearDown() {
+        QueryResultCache.invalidateAll();
+    }
+
+    /**
+     * Test that the cache key does not depend on the order of the parameters
+     * nor on the boxed number types
+     */
+    @Test
+    public void testKeyNormalization() {
+        Map<String, Object> params1 = new LinkedHashMap<>();
+        params1.put(TIMES_KEY, Arrays.asList(0L, 100L));
+        params1.put(ITEMS_KEY, Arrays.asList(1, 2));
+        Map<String, Object> params2 = new LinkedHashMap<>();
+        params2.put(ITEMS_KEY, Arrays.asList(1L, 2L));
+        params2.put(TIMES_KEY, Arrays.asList(0, 100));
+        assertEquals(QueryResultCache.getKey(EXP_UUID, OUTPUT_ID, TYPE, params1), QueryResultCache.getKey(EXP_UUID, OUTPUT_ID, TYPE, params2));
+
+        Map<String, Object> params3 = ImmutableMap.of(TIMES_KEY, Arrays.asList(0, 101));
+        assertNotEquals(QueryResultCache.getKey(EXP_UUID, OUTPUT_ID, TYPE, params1), QueryResultCache.getKey(EXP_UUID, OUTPUT_ID, TYPE, params3));
+    }
+
+    /**
+     * Test that only completed responses are cached
+     */
+    @Test
+    public void testPutGet() {
+        Map<String, Object> params = ImmutableMap.of(TIMES_KEY, Arrays.asList(0L, 100L));
+        TmfModelResponse<List<String>> running = new TmfModelResponse<>(Arrays.asList("a"), ITmfResponse.Status.RUNNING, CommonStatusMessage.RUNNING);
+        QueryResultCache.put(EXP_UUID, QueryResultCache.getGeneration(EXP_UUID), OUTPUT_ID, TYPE, params, running);
+        assertNull(QueryResultCache.get(EXP_UUID, OUTPUT_ID, TYPE, params));
+
+        TmfModelResponse<List<String>> completed = new TmfModelResponse<>(Arrays.asList("a"), ITmfResponse.Status.COMPLETED, CommonStatusMessage.COMPLETED);
+        QueryResultCache.put(EXP_UUID, QueryResultCache.getGeneration(EXP_UUID), OUTPUT_ID, TYPE, params, completed);
+        assertSame(completed, QueryResultCache.get(EXP_UUID, OUTPUT_ID, TYPE, params));
+        assertNull(QueryResultCache.get(EXP_UUID, OUTPUT_ID, "states", params));
+
+        // A running response invalidates the output
+        QueryResultCache.put(EXP_UUID, QueryResultCache.getGeneration(EXP_UUID), OUTPUT_ID, TYPE, ImmutableMap.of(), running);
+        assertNull(QueryResultCache.get(EXP_UUID, OUTPUT_ID, TYPE, params));
+    }
+
+    /**
+     * Test the invalidation of the cached responses
+     */
+    @Test
+    public void testInvalidate() {
+        Map<String, Object> params = ImmutableMap.of(TIMES_KEY, Arrays.asList(0L, 100L));
+        TmfModelResponse<List<String>> completed = new TmfModelResponse<>(Arrays.asList("a"), ITmfResponse.Status.COMPLETED, CommonStatusMessage.COMPLETED);
+        QueryResultCache.put(EXP_UUID, QueryResultCache.getGeneration(EXP_UUID), OUTPUT_ID, TYPE, params, completed);
+        QueryResultCache.put(EXP_UUID, QueryResultCache.getGeneration(EXP_UUID), OTHER_OUTPUT_ID, TYPE, params, completed);
+        QueryResultCache.put(OTHER_EXP_UUID, QueryResultCache.getGeneration(OTHER_EXP_UUID), OUTPUT_ID, TYPE, params, completed);
+        assertEquals(3, QueryResultCache.size());
+
+        QueryResultCache.invalidate(EXP_UUID, OUTPUT_ID);
+        assertNull(QueryResultCache.get(EXP_UUID, OUTPUT_ID, TYPE, params));
+        assertSame(completed, QueryResultCache.get(EXP_UUID, OTHER_OUTPUT_ID, TYPE, params));
+
+        QueryResultCache.invalidate(EXP_UUID);
+        assertNull(QueryResultCache.get(EXP_UUID, OTHER_OUTPUT_ID, TYPE, params));
+        assertSame(completed, QueryResultCache.get(OTHER_EXP_UUID, OUTPUT_ID, TYPE, params));
+    }
+
+    /**
+     * Test that a response computed before its experiment was closed is not
+     * cached, since an experiment opened again with the same name has the same
+     * UUID
+     */
+    @Test
+    public void testPutAfterInvalidate() {
+        Map<String, Object> params = ImmutableMap.of(TIMES_KEY, Arrays.asList(0L, 100L));
+        TmfModelResponse<List<String>> completed = new TmfModelResponse<>(Arrays.asList("a"), ITmfResponse.Status.COMPLETED, CommonStatusMessage.COMPLETED);
+        long generation = QueryResultCache.getGeneration(EXP_UUID);
+        QueryResultCache.put(EXP_UUID, generation, OUTPUT_ID, TYPE, params, completed);
+        assertSame(completed, QueryResultCache.get(EXP_UUID, OUTPUT_ID, TYPE, params));
+
+        QueryResultCache.invalidate(EXP_UUID);
+        assertNotEquals(generation, QueryResultCache.getGeneration(EXP_UUID));
+        QueryResultCache.put(EXP_UUID, generation, OUTPUT_ID, TYPE, params, completed);
+        assertNull(QueryResultCache.get(EXP_UUID, OUTPUT_ID, TYPE, params));
+        assertEquals(0, QueryResultCache.size());
+
+        QueryResultCache.put(EXP_UUID, QueryResultCache.getGeneration(EXP_UUID), OUTPUT_ID, TYPE, params, completed);
+        assertSame(completed, QueryResultCache.get(EXP_UUID, OUTPUT_ID, TYPE, params));
+    }
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.services;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.QueryProgressMonitor;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.ServerMetrics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the {@link ServerMetrics} class
+ */
+public class ServerMetricsTest {
+
+    private static final String ROUTE = "/experiments/{expUUID}"; //$NON-NLS-1$
+
+    /**
+     * Clear the metrics before and after each test
+     */
+    @Before
+    @After
+    public void reset() {
+        ServerMetrics.reset();
+    }
+
+    /**
+     * Test the request duration, size and count metrics
+     */
+    @Test
+    public void testRequests() {
+        ServerMetrics.requestStarted();
+        ServerMetrics.requestCompleted("GET", ROUTE, 200, TimeUnit.MILLISECONDS.toNanos(20), 2000);
+        ServerMetrics.requestStarted();
+        ServerMetrics.requestCompleted("GET", ROUTE, 200, TimeUnit.SECONDS.toNanos(2), 100);
+        ServerMetrics.requestStarted();
+        ServerMetrics.requestCompleted("DELETE", ROUTE, 404, TimeUnit.MILLISECONDS.toNanos(1), -1);
+        ServerMetrics.requestStarted();
+
+        String metrics = ServerMetrics.scrape();
+        String labels = "method=\"GET\",route=\"" + ROUTE + "\"";
+        assertContains(metrics, "# TYPE traceserver_http_request_duration_seconds histogram");
+        assertContains(metrics, "traceserver_http_request_duration_seconds_bucket{" + labels + ",le=\"0.01\"} 0\n");
+        assertContains(metrics, "traceserver_http_request_duration_seconds_bucket{" + labels + ",le=\"0.025\"} 1\n");
+        assertContains(metrics, "traceserver_http_request_duration_seconds_bucket{" + labels + ",le=\"2.5\"} 2\n");
+        assertContains(metrics, "traceserver_http_request_duration_seconds_bucket{" + labels + ",le=\"+Inf\"} 2\n");
+        assertContains(metrics, "traceserver_http_request_duration_seconds_count{" + labels + "} 2\n");
+        assertContains(metrics, "traceserver_http_response_size_bytes_bucket{" + labels + ",le=\"256\"} 1\n");
+        assertContains(metrics, "traceserver_http_response_size_bytes_sum{" + labels + "} 2100\n");
+        assertContains(metrics, "traceserver_http_requests_total{" + labels + ",status=\"200\"} 2\n");
+        assertContains(metrics, "traceserver_http_requests_total{method=\"DELETE\",route=\"" + ROUTE + "\",status=\"404\"} 1\n");
+        // Responses without entity have no size
+        assertTrue(!metrics.contains("traceserver_http_response_size_bytes_count{method=\"DELETE\""));
+        assertContains(metrics, "traceserver_http_requests_in_flight 1\n");
+    }
+
+    /**
+     * Test that the data provider queries are recorded when their monitor is
+     * closed
+     */
+    @Test
+    public void testQueries() {
+        UUID expUUID = UUID.randomUUID();
+        try (QueryProgressMonitor monitor = new QueryProgressMonitor(null, expUUID, "my.output", "states", 0, () -> true)) {
+            // Served query
+        }
+        try (QueryProgressMonitor monitor = new QueryProgressMonitor(null, expUUID, "my.output", "states", 0, () -> true)) {
+            monitor.setCanceled(true);
+        }
+        String metrics = ServerMetrics.scrape();
+        String labels = "output=\"my.output\",query=\"states\"";
+        assertContains(metrics, "traceserver_query_duration_seconds_count{" + labels + "} 2\n");
+        assertContains(metrics, "traceserver_queries_cancelled_total{" + labels + "} 1\n");
+    }
+
+    /**
+     * Test that the label values are escaped and the JVM metrics are present
+     */
+    @Test
+    public void testFormat() {
+        ServerMetrics.queryCompleted("a\"b\\c", "xy", 0, false);
+        String metrics = ServerMetrics.scrape();
+        assertContains(metrics, "traceserver_query_duration_seconds_count{output=\"a\\\"b\\\\c\",query=\"xy\"} 1\n");
+        assertContains(metrics, "jvm_memory_bytes_used{area=\"heap\"} ");
+        assertContains(metrics, "jvm_threads_current ");
+        assertTrue(metrics.endsWith("\n"));
+    }
+
+    private static void assertContains(String metrics, String expected) {
+        assertTrue("Missing " + expected + " in\n" + metrics, metrics.contains(expected));
+    }
+}
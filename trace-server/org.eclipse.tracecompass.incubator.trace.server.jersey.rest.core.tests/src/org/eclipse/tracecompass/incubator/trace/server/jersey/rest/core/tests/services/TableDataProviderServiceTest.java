@@ -14,13 +14,18 @@ package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.s
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Response;
+
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.DataProviderService;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp.VirtualTableLinesStreamWriter;
 import org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.utils.RestServerTest;
 import org.eclipse.tracecompass.incubator.tsp.client.core.ApiException;
 import org.eclipse.tracecompass.incubator.tsp.client.core.api.VirtualTablesApi;
@@ -35,6 +40,9 @@ import org.eclipse.tracecompass.incubator.tsp.client.core.model.VirtualTableMode
 import org.eclipse.tracecompass.incubator.tsp.client.core.model.VirtualTableResponse;
 import org.junit.Test;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 /**
  * Test the {@link DataProviderService} with focus on table tndpoint
  *
@@ -49,6 +57,11 @@ public class TableDataProviderServiceTest extends RestServerTest {
     private static final long TABLE_INDEX = 0L;
     private static final int TABLE_COUNT = 100;
 
+    private static final int STREAM_COUNT = 2500;
+    private static final String PARAMETERS_KEY = "parameters";
+    private static final String REQUESTED_TABLE_INDEX_KEY = "requested_table_index";
+    private static final String REQUESTED_TABLE_COUNT_KEY = "requested_table_count";
+
     private static final VirtualTablesApi sfTableApi = new VirtualTablesApi(sfApiClient);
 
     /**
@@ -116,6 +129,46 @@ public class TableDataProviderServiceTest extends RestServerTest {
         // TODO add search tests
     }
 
+    /**
+     * Ensure that the table lines are streamed as newline delimited JSON over
+     * several pages, when the client accepts it
+     *
+     * @throws Exception
+     *             if the response can't be parsed
+     */
+    @Test
+    public void testStreamLines() throws Exception {
+        Experiment exp = assertPostExperiment(sfContextSwitchesUstNotInitializedStub.getName(), sfContextSwitchesUstNotInitializedStub);
+
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put(REQUESTED_TABLE_INDEX_KEY, TABLE_INDEX);
+        parameters.put(REQUESTED_TABLE_COUNT_KEY, STREAM_COUNT);
+        String body;
+        try (Response response = getTableLinesEndpoint(exp.getUUID().toString(), EVENTS_TABLE_DATAPROVIDER_ID)
+                .request(VirtualTableLinesStreamWriter.MEDIA_TYPE)
+                .post(Entity.json(Map.of(PARAMETERS_KEY, parameters)))) {
+            assertEquals(200, response.getStatus());
+            assertTrue(response.getMediaType().toString().startsWith(VirtualTableLinesStreamWriter.MEDIA_TYPE));
+            body = response.readEntity(String.class);
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        String[] objects = body.split("\n");
+        // Header, lines and status
+        assertEquals(STREAM_COUNT + 2, objects.length);
+        JsonNode header = mapper.readTree(objects[0]);
+        assertTrue(header.get("columnIds").isArray());
+        assertEquals(TABLE_INDEX, header.get("lowIndex").asLong());
+        for (int i = 1; i <= STREAM_COUNT; i++) {
+            JsonNode line = mapper.readTree(objects[i]);
+            // Consecutive lines across pages
+            assertEquals(TABLE_INDEX + i - 1, line.get("index").asLong());
+            assertFalse(line.get("cells").isEmpty());
+        }
+        JsonNode status = mapper.readTree(objects[objects.length - 1]);
+        assertEquals("COMPLETED", status.get("status").asText());
+    }
+
     /**
      * Tests error cases when querying arrows for a time graph data provider
      */
@@ -16,10 +16,14 @@ import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.ExperimentManagerService;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.HealthService;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.IdentifierService;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.MetricsService;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.TraceManagerService;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp.BinaryModelResponseWriter;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp.CORSFilter;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp.JacksonObjectMapperProvider;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp.RequestMetricsFilter;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp.TraceServerConfiguration;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp.VirtualTableLinesStreamWriter;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp.WebApplication;
 import org.glassfish.jersey.server.ResourceConfig;
 
@@ -46,11 +50,15 @@ public class TestWebApplication extends WebApplication {
         rc.register(ExperimentManagerService.class);
         rc.register(TestDataProviderService.class);
         rc.register(HealthService.class);
+        rc.register(MetricsService.class);
         rc.register(IdentifierService.class);
         rc.register(ConfigurationManagerService.class);
         rc.register(CORSFilter.class);
         rc.register(JacksonObjectMapperProvider.class);
+        rc.register(BinaryModelResponseWriter.class);
+        rc.register(VirtualTableLinesStreamWriter.class);
         rc.register(OpenApiResource.class);
         rc.register(BookmarkManagerService.class);
+        rc.register(RequestMetricsFilter.class);
     }
 }
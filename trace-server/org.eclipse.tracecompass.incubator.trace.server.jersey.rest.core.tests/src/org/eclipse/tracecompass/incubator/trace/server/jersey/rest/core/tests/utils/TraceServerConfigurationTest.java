@@ -29,6 +29,11 @@ public class TraceServerConfigurationTest {
     private static final String PROPERTY_USESSL = "traceserver.useSSL"; //$NON-NLS-1$
     private static final String PROPERTY_KEYSTORE = "traceserver.keystore"; //$NON-NLS-1$
     private static final String PROPERTY_KEYSTORE_PASS = "traceserver.keystorepass"; //$NON-NLS-1$
+    private static final String PROPERTY_MIN_THREADS = "traceserver.minThreads"; //$NON-NLS-1$
+    private static final String PROPERTY_MAX_THREADS = "traceserver.maxThreads"; //$NON-NLS-1$
+    private static final String PROPERTY_MAX_QUEUED = "traceserver.maxQueuedRequests"; //$NON-NLS-1$
+    private static final String PROPERTY_IDLE_TIMEOUT = "traceserver.idleTimeout"; //$NON-NLS-1$
+    private static final String PROPERTY_VIRTUAL_THREADS = "traceserver.virtualThreads"; //$NON-NLS-1$
 
     /**
      * Reset all properties at the end of the test
@@ -40,6 +45,11 @@ public class TraceServerConfigurationTest {
         System.setProperty(PROPERTY_USESSL, "");
         System.setProperty(PROPERTY_KEYSTORE, "");
         System.setProperty(PROPERTY_KEYSTORE_PASS, "");
+        System.setProperty(PROPERTY_MIN_THREADS, "");
+        System.setProperty(PROPERTY_MAX_THREADS, "");
+        System.setProperty(PROPERTY_MAX_QUEUED, "");
+        System.setProperty(PROPERTY_IDLE_TIMEOUT, "");
+        System.setProperty(PROPERTY_VIRTUAL_THREADS, "");
     }
 
     /**
@@ -130,11 +140,49 @@ public class TraceServerConfigurationTest {
         assertConfiguration(new TraceServerConfiguration(8080, false, null, null), TraceServerConfiguration.create());
     }
 
+    /**
+     * Test the thread pool and virtual threads configuration
+     */
+    @Test
+    public void testThreadPool() {
+        System.setProperty(PROPERTY_MIN_THREADS, "4");
+        System.setProperty(PROPERTY_MAX_THREADS, "16");
+        System.setProperty(PROPERTY_MAX_QUEUED, "100");
+        System.setProperty(PROPERTY_IDLE_TIMEOUT, "5000");
+        System.setProperty(PROPERTY_VIRTUAL_THREADS, String.valueOf(true));
+        assertConfiguration(new TraceServerConfiguration(null, 8080, false, null, null, 4, 16, 100, 5000, true), TraceServerConfiguration.create());
+
+        // Minimum greater than maximum uses the maximum
+        System.setProperty(PROPERTY_MIN_THREADS, "32");
+        assertConfiguration(new TraceServerConfiguration(null, 8080, false, null, null, 16, 16, 100, 5000, true), TraceServerConfiguration.create());
+    }
+
+    /**
+     * Test invalid thread pool values
+     */
+    @Test
+    public void testInvalidThreadPool() {
+        System.setProperty(PROPERTY_MIN_THREADS, "not a number");
+        System.setProperty(PROPERTY_MAX_THREADS, "0");
+        System.setProperty(PROPERTY_MAX_QUEUED, "-1");
+        System.setProperty(PROPERTY_IDLE_TIMEOUT, "-1");
+        assertConfiguration(new TraceServerConfiguration(8080, false, null, null), TraceServerConfiguration.create());
+
+        // A maximum too small for the connector threads uses the default
+        System.setProperty(PROPERTY_MAX_THREADS, "4");
+        assertConfiguration(new TraceServerConfiguration(8080, false, null, null), TraceServerConfiguration.create());
+    }
+
     private static void assertConfiguration(TraceServerConfiguration expected, TraceServerConfiguration actual) {
         assertEquals(expected.getHost(), actual.getHost());
         assertEquals(expected.getPort(), actual.getPort());
         assertEquals(expected.getKeystore(), actual.getKeystore());
         assertEquals(expected.getKeystorePass(), actual.getKeystorePass());
         assertEquals(expected.useSSL(), actual.useSSL());
+        assertEquals(expected.getMinThreads(), actual.getMinThreads());
+        assertEquals(expected.getMaxThreads(), actual.getMaxThreads());
+        assertEquals(expected.getMaxQueuedRequests(), actual.getMaxQueuedRequests());
+        assertEquals(expected.getIdleTimeout(), actual.getIdleTimeout());
+        assertEquals(expected.useVirtualThreads(), actual.useVirtualThreads());
     }
 }
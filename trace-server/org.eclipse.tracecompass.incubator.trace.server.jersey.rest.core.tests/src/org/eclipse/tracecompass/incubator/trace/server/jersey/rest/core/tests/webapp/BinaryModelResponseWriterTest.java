@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.webapp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp.BinaryModelResponseWriter;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp.JacksonObjectMapperProvider;
+import org.eclipse.tracecompass.incubator.tsp.client.core.binary.BinaryModelReader;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.SeriesModel;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.TimeGraphArrowsResponse;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.TimeGraphRowModel;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.TimeGraphStatesResponse;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.XYResponse;
+import org.eclipse.tracecompass.tmf.core.model.CommonStatusMessage;
+import org.eclipse.tracecompass.tmf.core.model.ISampling;
+import org.eclipse.tracecompass.tmf.core.model.SeriesModel.SeriesModelBuilder;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphArrow;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphRowModel;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphState;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphArrow;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphModel;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphRowModel;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphState;
+import org.eclipse.tracecompass.tmf.core.model.xy.ISeriesModel;
+import org.eclipse.tracecompass.tmf.core.model.xy.ITmfXyModel;
+import org.eclipse.tracecompass.tmf.core.model.xy.TmfXyModelFactory;
+import org.eclipse.tracecompass.tmf.core.response.ITmfResponse;
+import org.eclipse.tracecompass.tmf.core.response.TmfModelResponse;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Test the {@link BinaryModelResponseWriter} with the
+ * {@link BinaryModelReader} of the TSP client
+ */
+@SuppressWarnings("null")
+public class BinaryModelResponseWriterTest {
+
+    private static final ObjectMapper MAPPER = new JacksonObjectMapperProvider().getContext(ObjectMapper.class);
+    private static final String LABEL = "label";
+
+    /**
+     * Test the encoding of time graph states
+     *
+     * @throws IOException
+     *             if an error occurs
+     */
+    @Test
+    public void testStates() throws IOException {
+        List<ITimeGraphRowModel> rows = new ArrayList<>();
+        List<ITimeGraphState> states = new ArrayList<>();
+        states.add(new TimeGraphState(1000, 10, 1, LABEL));
+        states.add(new TimeGraphState(1010, 5, Integer.MIN_VALUE));
+        states.add(new TimeGraphState(1020, 30, 1, LABEL));
+        rows.add(new TimeGraphRowModel(5, states));
+        rows.add(new TimeGraphRowModel(3, List.of(new TimeGraphState(900, 100, 2))));
+        TmfModelResponse<?> response = new TmfModelResponse<>(new TimeGraphModel(rows), ITmfResponse.Status.COMPLETED, CommonStatusMessage.COMPLETED);
+
+        TimeGraphStatesResponse decoded = BinaryModelReader.decodeStates(BinaryModelResponseWriter.encode(response, MAPPER));
+        assertEquals(TimeGraphStatesResponse.StatusEnum.COMPLETED, decoded.getStatus());
+        assertEquals(CommonStatusMessage.COMPLETED, decoded.getStatusMessage());
+        List<TimeGraphRowModel> decodedRows = decoded.getModel().getRows();
+        assertEquals(2, decodedRows.size());
+
+        TimeGraphRowModel row = decodedRows.get(0);
+        assertEquals(5L, row.getEntryId().longValue());
+        assertEquals(3, row.getStates().size());
+        assertEquals(1000L, row.getStates().get(0).getStart().longValue());
+        assertEquals(1010L, row.getStates().get(0).getEnd().longValue());
+        assertEquals(LABEL, row.getStates().get(0).getLabel());
+        assertEquals("1", row.getStates().get(0).getStyle().getParentKey());
+        assertNull(row.getStates().get(1).getLabel());
+        assertNull(row.getStates().get(1).getStyle());
+        assertEquals(1020L, row.getStates().get(2).getStart().longValue());
+        assertEquals(1050L, row.getStates().get(2).getEnd().longValue());
+        // Identical styles are decoded once
+        assertSame(row.getStates().get(0).getStyle(), row.getStates().get(2).getStyle());
+
+        row = decodedRows.get(1);
+        assertEquals(3L, row.getEntryId().longValue());
+        assertEquals(900L, row.getStates().get(0).getStart().longValue());
+        assertEquals(1000L, row.getStates().get(0).getEnd().longValue());
+        assertEquals("2", row.getStates().get(0).getStyle().getParentKey());
+    }
+
+    /**
+     * Test the encoding of time graph arrows
+     *
+     * @throws IOException
+     *             if an error occurs
+     */
+    @Test
+    public void testArrows() throws IOException {
+        List<ITimeGraphArrow> arrows = List.of(new TimeGraphArrow(1, 2, 100, 10, 0), new TimeGraphArrow(4, 3, 50, 5, 0));
+        TmfModelResponse<?> response = new TmfModelResponse<>(arrows, ITmfResponse.Status.RUNNING, CommonStatusMessage.RUNNING);
+
+        TimeGraphArrowsResponse decoded = BinaryModelReader.decodeArrows(BinaryModelResponseWriter.encode(response, MAPPER));
+        assertEquals(TimeGraphArrowsResponse.StatusEnum.RUNNING, decoded.getStatus());
+        assertEquals(2, decoded.getModel().size());
+        assertEquals(1L, decoded.getModel().get(0).getSourceId().longValue());
+        assertEquals(2L, decoded.getModel().get(0).getTargetId().longValue());
+        assertEquals(100L, decoded.getModel().get(0).getStart().longValue());
+        assertEquals(110L, decoded.getModel().get(0).getEnd().longValue());
+        assertEquals(4L, decoded.getModel().get(1).getSourceId().longValue());
+        assertEquals(3L, decoded.getModel().get(1).getTargetId().longValue());
+        assertEquals(50L, decoded.getModel().get(1).getStart().longValue());
+        assertEquals(55L, decoded.getModel().get(1).getEnd().longValue());
+    }
+
+    /**
+     * Test the encoding of a XY model
+     *
+     * @throws IOException
+     *             if an error occurs
+     */
+    @Test
+    public void testXY() throws IOException {
+        double[] values = { 0.5, -1.0, 3.25 };
+        ISeriesModel series = new SeriesModelBuilder(7, "series", new ISampling.Timestamps(new long[] { 10, 20, 15 }), values).build();
+        ITmfXyModel model = TmfXyModelFactory.create("title", List.of(series));
+        TmfModelResponse<?> response = new TmfModelResponse<>(model, ITmfResponse.Status.COMPLETED, CommonStatusMessage.COMPLETED);
+
+        XYResponse decoded = BinaryModelReader.decodeXY(BinaryModelResponseWriter.encode(response, MAPPER));
+        assertEquals("title", decoded.getModel().getTitle());
+        assertEquals(1, decoded.getModel().getSeries().size());
+        SeriesModel decodedSeries = decoded.getModel().getSeries().get(0);
+        assertEquals(7L, decodedSeries.getSeriesId().longValue());
+        assertEquals("series", decodedSeries.getSeriesName());
+        assertEquals(List.of(10L, 20L, 15L), decodedSeries.getxValues());
+        assertEquals(List.of(0.5, -1.0, 3.25), decodedSeries.getyValues());
+        assertNotNull(decodedSeries.getStyle());
+        assertNotNull(decodedSeries.getxValuesDescription());
+        assertNotNull(decodedSeries.getyValuesDescription());
+    }
+
+    /**
+     * Test the encoding of a response without model
+     *
+     * @throws IOException
+     *             if an error occurs
+     */
+    @Test
+    public void testNoModel() throws IOException {
+        TmfModelResponse<?> response = new TmfModelResponse<>(null, ITmfResponse.Status.FAILED, "failed");
+        TimeGraphStatesResponse decoded = BinaryModelReader.decodeStates(BinaryModelResponseWriter.encode(response, MAPPER));
+        assertEquals(TimeGraphStatesResponse.StatusEnum.FAILED, decoded.getStatus());
+        assertEquals("failed", decoded.getStatusMessage());
+        assertNull(decoded.getModel());
+        assertTrue(BinaryModelResponseWriter.encode(response, MAPPER).length < 32);
+    }
+}
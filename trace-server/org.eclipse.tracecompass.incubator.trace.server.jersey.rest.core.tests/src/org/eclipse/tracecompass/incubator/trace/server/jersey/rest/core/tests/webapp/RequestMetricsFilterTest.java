@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.webapp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.ServerMetrics;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp.RequestMetricsFilter;
+import org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.utils.RestServerTest;
+import org.junit.Test;
+
+/**
+ * Test the {@link RequestMetricsFilter}
+ */
+public class RequestMetricsFilterTest extends RestServerTest {
+
+    private static final String HEALTH_PATH = "health";
+    private static final String METRICS_PATH = "metrics";
+
+    /**
+     * Test that the requests are completed once, whether their response
+     * entity is written or not
+     */
+    @Test
+    public void testRequestsInFlight() {
+        ServerMetrics.reset();
+        WebTarget health = getApplicationEndpoint().path(HEALTH_PATH);
+        try (Response response = health.request().head()) {
+            assertEquals(200, response.getStatus());
+        }
+        try (Response response = health.request().get()) {
+            assertEquals(200, response.getStatus());
+        }
+        try (Response response = getApplicationEndpoint().path(EXPERIMENTS).path(UNKNOWN_EXP_UUID).request().get()) {
+            assertEquals(404, response.getStatus());
+        }
+
+        String metrics;
+        try (Response response = getApplicationEndpoint().path(METRICS_PATH).request().get()) {
+            assertEquals(200, response.getStatus());
+            metrics = response.readEntity(String.class);
+        }
+        String labels = "method=\"HEAD\",route=\"/health\"";
+        assertTrue(metrics, metrics.contains("traceserver_http_requests_total{" + labels + ",status=\"200\"} 1\n"));
+        labels = "method=\"GET\",route=\"/health\"";
+        assertTrue(metrics, metrics.contains("traceserver_http_requests_total{" + labels + ",status=\"200\"} 1\n"));
+        // Only the metrics request is still in flight
+        assertTrue(metrics, metrics.contains("traceserver_http_requests_in_flight 1\n"));
+    }
+}
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model;
+
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNull;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.media.Schema.RequiredMode;
+
+/**
+ * Contributes to the model used for TSP swagger-core annotations.
+ */
+public interface BatchQueryParameters {
+
+    /**
+     * @return The queries of the batch.
+     */
+    @NonNull
+    @Schema(requiredMode = RequiredMode.REQUIRED)
+    List<BatchQuery> getQueries();
+
+    /**
+     * A query of the batch, with the parameters of the corresponding single
+     * output endpoint.
+     */
+    interface BatchQuery {
+
+        /**
+         * @return The ID of the query, to match it to its result.
+         */
+        @Schema(description = "Optional ID chosen by the client, returned with the result of this query")
+        String getId();
+
+        /**
+         * @return The output ID.
+         */
+        @Schema(requiredMode = RequiredMode.REQUIRED, description = "ID of the output provider to query")
+        String getOutputId();
+
+        /**
+         * @return The query type.
+         */
+        @Schema(requiredMode = RequiredMode.REQUIRED, description = "The type of query, named after the path of the corresponding endpoint", allowableValues = {
+                "data/tree", "XY/tree", "XY/xy", "genericXY/tree", "genericXY/xy", "timeGraph/tree", "timeGraph/states", "timeGraph/arrows",
+                "timeGraph/tooltip", "annotations", "annotationCategories", "table/columns", "table/lines", "style" })
+        String getType();
+
+        /**
+         * @return The query parameters.
+         */
+        @Schema(requiredMode = RequiredMode.REQUIRED, description = "The parameters of the query, as for the corresponding endpoint. " +
+                "The 'markerSetId' parameter selects the marker set of an 'annotationCategories' query.")
+        Map<String, Object> getParameters();
+    }
+}
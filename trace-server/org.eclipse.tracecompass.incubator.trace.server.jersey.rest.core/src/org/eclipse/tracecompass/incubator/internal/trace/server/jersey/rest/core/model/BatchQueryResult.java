@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.media.Schema.RequiredMode;
+
+/**
+ * Contributes to the model used for TSP swagger-core annotations.
+ */
+@Schema(description = "Result of a query of a batch")
+public interface BatchQueryResult {
+
+    /**
+     * @return The ID of the query.
+     */
+    @Schema(description = "The ID of the query, if set by the client")
+    String getId();
+
+    /**
+     * @return The output ID.
+     */
+    @Schema(requiredMode = RequiredMode.REQUIRED)
+    String getOutputId();
+
+    /**
+     * @return The query type.
+     */
+    @Schema(requiredMode = RequiredMode.REQUIRED)
+    String getType();
+
+    /**
+     * @return The HTTP status.
+     */
+    @Schema(requiredMode = RequiredMode.REQUIRED, description = "The HTTP status code that the corresponding endpoint would have returned")
+    int getStatus();
+
+    /**
+     * @return The response.
+     */
+    @Schema(requiredMode = RequiredMode.REQUIRED, description = "The response body that the corresponding endpoint would have returned, or an error response")
+    Object getResponse();
+}
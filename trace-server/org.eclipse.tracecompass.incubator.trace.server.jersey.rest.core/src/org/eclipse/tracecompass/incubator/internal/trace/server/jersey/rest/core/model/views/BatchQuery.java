@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views;
+
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+/**
+ * Definition of a query of a batch received by the server from a client. It
+ * holds the parameters of the query and the output and type of query to run.
+ */
+public class BatchQuery extends QueryParameters {
+    private @Nullable String id;
+    private @Nullable String outputId;
+    private @Nullable String type;
+
+    /**
+     * Constructor for Jackson
+     */
+    public BatchQuery() {
+        // Default constructor for Jackson
+        super();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param id
+     *            the ID of the query, chosen by the client
+     * @param outputId
+     *            the output ID
+     * @param type
+     *            the query type
+     * @param parameters
+     *            Map of parameters
+     * @param filters
+     *            List of filters
+     */
+    public BatchQuery(@Nullable String id, @Nullable String outputId, @Nullable String type, Map<String, Object> parameters, List<Filter> filters) {
+        super(parameters, filters);
+        this.id = id;
+        this.outputId = outputId;
+        this.type = type;
+    }
+
+    /**
+     * @return the ID of the query, chosen by the client
+     */
+    @Hidden
+    public @Nullable String getId() {
+        return id;
+    }
+
+    /**
+     * @return the output ID
+     */
+    @Hidden
+    public @Nullable String getOutputId() {
+        return outputId;
+    }
+
+    /**
+     * @return the query type
+     */
+    @Hidden
+    public @Nullable String getType() {
+        return type;
+    }
+
+    @SuppressWarnings("nls")
+    @Override
+    public String toString() {
+        return "BatchQuery [id=" + id + ", outputId=" + outputId + ", type=" + type + ", parameters=" + getParameters() + ", filters=" + getFilters() + "]";
+    }
+}
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+/**
+ * Definition of a batch of queries received by the server from a client.
+ */
+public class BatchQueryParameters {
+    private @Nullable List<BatchQuery> queries;
+
+    /**
+     * Constructor for Jackson
+     */
+    public BatchQueryParameters() {
+        // Default constructor for Jackson
+        this.queries = new ArrayList<>();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param queries
+     *            List of queries
+     */
+    public BatchQueryParameters(List<BatchQuery> queries) {
+        this.queries = queries != null ? queries : new ArrayList<>();
+    }
+
+    /**
+     * @return List of queries
+     */
+    @Hidden
+    public @NonNull List<BatchQuery> getQueries() {
+        // Treat null queries sent by the client as an empty list
+        List<BatchQuery> list = queries;
+        if (list == null) {
+            list = new ArrayList<>();
+            queries = list;
+        }
+        return list;
+    }
+
+    @SuppressWarnings("nls")
+    @Override
+    public String toString() {
+        return "BatchQueryParameters [queries=" + queries + "]";
+    }
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Result of a query of a batch, holding the status and entity of the response
+ * that the corresponding single output endpoint would have returned.
+ */
+public class BatchQueryResult {
+    private final @Nullable String fId;
+    private final @Nullable String fOutputId;
+    private final @Nullable String fType;
+    private final int fStatus;
+    private final @Nullable Object fResponse;
+
+    /**
+     * Constructor
+     *
+     * @param id
+     *            the ID of the query, chosen by the client
+     * @param outputId
+     *            the output ID
+     * @param type
+     *            the query type
+     * @param status
+     *            the HTTP status of the response
+     * @param response
+     *            the response entity
+     */
+    public BatchQueryResult(@Nullable String id, @Nullable String outputId, @Nullable String type, int status, @Nullable Object response) {
+        fId = id;
+        fOutputId = outputId;
+        fType = type;
+        fStatus = status;
+        fResponse = response;
+    }
+
+    /**
+     * @return the ID of the query, chosen by the client
+     */
+    public @Nullable String getId() {
+        return fId;
+    }
+
+    /**
+     * @return the output ID
+     */
+    public @Nullable String getOutputId() {
+        return fOutputId;
+    }
+
+    /**
+     * @return the query type
+     */
+    public @Nullable String getType() {
+        return fType;
+    }
+
+    /**
+     * @return the HTTP status of the response
+     */
+    public int getStatus() {
+        return fStatus;
+    }
+
+    /**
+     * @return the response entity
+     */
+    public @Nullable Object getResponse() {
+        return fResponse;
+    }
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.QueryProgressMonitor;
+import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.ITmfVirtualTableDataProvider;
+import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.ITmfVirtualTableModel;
+import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.IVirtualTableLine;
+import org.eclipse.tracecompass.tmf.core.model.tree.ITmfTreeDataModel;
+import org.eclipse.tracecompass.tmf.core.response.TmfModelResponse;
+
+/**
+ * Table lines query whose result is streamed to the client while the lines are
+ * fetched from the data provider, instead of being returned as a single
+ * {@link VirtualTableModelWrapper}. The lines are fetched by pages, so that the
+ * memory used does not depend on the number of requested lines.
+ */
+@SuppressWarnings("restriction")
+public class VirtualTableLinesStream {
+
+    private final ITmfVirtualTableDataProvider<? extends IVirtualTableLine, ? extends ITmfTreeDataModel> fProvider;
+    private final Map<String, Object> fParameters;
+    private final Supplier<QueryProgressMonitor> fMonitorSupplier;
+
+    /**
+     * Constructor
+     *
+     * @param provider
+     *            the table data provider
+     * @param parameters
+     *            the validated lines query parameters
+     * @param monitorSupplier
+     *            supplier of the monitor of the query, called when the
+     *            streaming starts
+     */
+    public VirtualTableLinesStream(ITmfVirtualTableDataProvider<? extends IVirtualTableLine, ? extends ITmfTreeDataModel> provider,
+            Map<String, Object> parameters, Supplier<QueryProgressMonitor> monitorSupplier) {
+        fProvider = provider;
+        fParameters = new HashMap<>(parameters);
+        fMonitorSupplier = monitorSupplier;
+    }
+
+    /**
+     * Get the query parameters of the first page of lines
+     *
+     * @return a copy of the query parameters, which can be modified to fetch
+     *         the following pages
+     */
+    public Map<String, Object> getParameters() {
+        return new HashMap<>(fParameters);
+    }
+
+    /**
+     * Begin the query, the returned monitor must be closed once the lines are
+     * streamed
+     *
+     * @return the monitor of the query
+     */
+    public QueryProgressMonitor beginQuery() {
+        return fMonitorSupplier.get();
+    }
+
+    /**
+     * Fetch a page of lines
+     *
+     * @param parameters
+     *            the query parameters of the page
+     * @param monitor
+     *            the monitor of the query
+     * @return the response of the data provider, with a
+     *         {@link ITmfVirtualTableModel}
+     */
+    public TmfModelResponse<?> fetchLines(Map<String, Object> parameters, IProgressMonitor monitor) {
+        return fProvider.fetchLines(parameters, monitor);
+    }
+}
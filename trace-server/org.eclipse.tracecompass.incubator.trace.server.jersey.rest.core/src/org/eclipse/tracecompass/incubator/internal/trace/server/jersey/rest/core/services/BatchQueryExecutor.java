@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.Activator;
+
+/**
+ * Bounded executor of the queries of the batch endpoint of the
+ * {@link DataProviderService}.
+ *
+ * The number of threads and the number of queries waiting for a thread are
+ * configured with the system properties {@link #PROPERTY_BATCH_THREADS} and
+ * {@link #PROPERTY_BATCH_QUEUE_SIZE}. When the queue is full, the query runs on
+ * the thread of the request instead, so that the batch requests are throttled
+ * by the request thread pool of the server. The executor is created when the
+ * first batch is served and shut down by {@link #dispose()} when the server
+ * stops.
+ */
+final class BatchQueryExecutor {
+
+    /**
+     * System property to configure the number of threads running batch
+     * queries
+     */
+    public static final String PROPERTY_BATCH_THREADS = "traceserver.batchThreads"; //$NON-NLS-1$
+
+    /**
+     * System property to configure the maximum number of batch queries
+     * waiting for a thread
+     */
+    public static final String PROPERTY_BATCH_QUEUE_SIZE = "traceserver.batchQueueSize"; //$NON-NLS-1$
+
+    private static final int DEFAULT_BATCH_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final int DEFAULT_BATCH_QUEUE_SIZE = 256;
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private static @Nullable ThreadPoolExecutor sfExecutor = null;
+
+    private BatchQueryExecutor() {
+        // Do nothing
+    }
+
+    /**
+     * Submit a query of a batch. If no thread is available and the queue is
+     * full, the query is run on the calling thread.
+     *
+     * @param <T>
+     *            the type of the query result
+     * @param query
+     *            the query to run
+     * @return the future result of the query
+     */
+    public static <T> Future<T> submit(Callable<T> query) {
+        try {
+            return getExecutor().submit(query);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            try {
+                result.complete(query.call());
+            } catch (Exception ex) {
+                result.completeExceptionally(ex);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Shut down the executor. The queries already submitted are completed. To
+     * be called at server shutdown.
+     */
+    public static synchronized void dispose() {
+        ThreadPoolExecutor executor = sfExecutor;
+        if (executor != null) {
+            executor.shutdown();
+            sfExecutor = null;
+        }
+    }
+
+    private static synchronized ThreadPoolExecutor getExecutor() {
+        ThreadPoolExecutor executor = sfExecutor;
+        if (executor == null) {
+            int nbThreads = readPositiveInt(PROPERTY_BATCH_THREADS, DEFAULT_BATCH_THREADS);
+            int queueSize = readPositiveInt(PROPERTY_BATCH_QUEUE_SIZE, DEFAULT_BATCH_QUEUE_SIZE);
+            AtomicInteger threadCount = new AtomicInteger();
+            executor = new ThreadPoolExecutor(nbThreads, nbThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize), runnable -> {
+                Thread thread = new Thread(runnable, "Trace Server Batch Query " + threadCount.incrementAndGet()); //$NON-NLS-1$
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            sfExecutor = executor;
+        }
+        return executor;
+    }
+
+    private static int readPositiveInt(String property, int defaultValue) {
+        String valueStr = System.getProperty(property);
+        if (valueStr == null || valueStr.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            int value = Integer.parseInt(valueStr);
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // Use the default value
+        }
+        Activator.getInstance().logWarning(String.format("Invalid value specified for %s: %s. Will use default value %d", property, valueStr, defaultValue)); //$NON-NLS-1$
+        return defaultValue;
+    }
+}
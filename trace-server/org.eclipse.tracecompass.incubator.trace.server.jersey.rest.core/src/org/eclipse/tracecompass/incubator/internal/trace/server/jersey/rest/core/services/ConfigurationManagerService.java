@@ -162,6 +162,8 @@ public class ConfigurationManagerService {
                     .build();
         try {
             ITmfConfiguration config = configurationSource.create(inputConfig);
+            // The configuration may add outputs
+            DataProviderDescriptorCache.invalidateAll();
             return Response.ok(config).build();
         } catch (TmfConfigurationException e) {
             return ErrorResponseUtil.newErrorResponse(Status.BAD_REQUEST, e.getMessage());
@@ -248,6 +250,9 @@ public class ConfigurationManagerService {
                 .build();
         try {
             ITmfConfiguration config = configurationSource.update(configId, inputConfig);
+            // The outputs using this configuration may have changed
+            QueryResultCache.invalidateAll();
+            DataProviderDescriptorCache.invalidateAll();
             return Response.ok(config).build();
         } catch (TmfConfigurationException e) {
             return ErrorResponseUtil.newErrorResponse(Status.BAD_REQUEST, e.getMessage());
@@ -286,6 +291,9 @@ public class ConfigurationManagerService {
         if (config == null) {
             return ErrorResponseUtil.newErrorResponse(Status.BAD_REQUEST, "Failed removing configuration instance"); //$NON-NLS-1$
         }
+        // The outputs using this configuration may have changed
+        QueryResultCache.invalidateAll();
+        DataProviderDescriptorCache.invalidateAll();
         return Response.ok(config).build();
     }
 }
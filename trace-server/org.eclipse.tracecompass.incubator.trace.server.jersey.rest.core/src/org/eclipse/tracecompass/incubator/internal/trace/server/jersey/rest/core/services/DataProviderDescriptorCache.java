@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.tmf.core.dataprovider.IDataProviderDescriptor;
+
+/**
+ * Cache of the data provider descriptors available for each experiment, used
+ * by the {@link DataProviderService}. Walking all the data provider factories
+ * and analyses of an experiment is expensive, so the descriptors are computed
+ * once per experiment, sorted by name and indexed by output ID.
+ *
+ * The descriptors of an experiment are invalidated when the experiment is
+ * deleted and when one of its derived data providers is created or deleted.
+ * All the descriptors are invalidated when a configuration is created, updated
+ * or deleted, as it may add or remove analyses, e.g. XML analyses.
+ */
+public final class DataProviderDescriptorCache {
+
+    private static final Map<UUID, Descriptors> CACHE = new ConcurrentHashMap<>();
+
+    private DataProviderDescriptorCache() {
+        // Do nothing
+    }
+
+    /**
+     * Get the data provider descriptors of an experiment, computing them if
+     * they are not cached
+     *
+     * @param expUUID
+     *            the experiment UUID
+     * @param loader
+     *            supplier of the descriptors available for the experiment,
+     *            called if they are not cached
+     * @return the unmodifiable list of descriptors, sorted by name
+     */
+    public static List<IDataProviderDescriptor> getDescriptors(UUID expUUID, Supplier<Collection<IDataProviderDescriptor>> loader) {
+        return get(expUUID, loader).fList;
+    }
+
+    /**
+     * Get a data provider descriptor of an experiment, computing the
+     * descriptors of the experiment if they are not cached
+     *
+     * @param expUUID
+     *            the experiment UUID
+     * @param outputId
+     *            the output ID
+     * @param loader
+     *            supplier of the descriptors available for the experiment,
+     *            called if they are not cached
+     * @return the descriptor, or <code>null</code> if there is no such output
+     *         for the experiment
+     */
+    public static @Nullable IDataProviderDescriptor getDescriptor(UUID expUUID, String outputId, Supplier<Collection<IDataProviderDescriptor>> loader) {
+        return get(expUUID, loader).fById.get(outputId);
+    }
+
+    /**
+     * Invalidate the cached descriptors of an experiment
+     *
+     * @param expUUID
+     *            the experiment UUID
+     */
+    public static void invalidate(UUID expUUID) {
+        CACHE.remove(expUUID);
+    }
+
+    /**
+     * Invalidate the cached descriptors of all experiments
+     */
+    public static void invalidateAll() {
+        CACHE.clear();
+    }
+
+    private static Descriptors get(UUID expUUID, Supplier<Collection<IDataProviderDescriptor>> loader) {
+        return CACHE.computeIfAbsent(expUUID, uuid -> new Descriptors(loader.get()));
+    }
+
+    /**
+     * Descriptors of an experiment, sorted by name and indexed by output ID
+     */
+    private static class Descriptors {
+        private final List<IDataProviderDescriptor> fList;
+        private final Map<String, IDataProviderDescriptor> fById;
+
+        public Descriptors(Collection<IDataProviderDescriptor> descriptors) {
+            List<IDataProviderDescriptor> list = new ArrayList<>(descriptors);
+            Map<String, IDataProviderDescriptor> byId = new LinkedHashMap<>();
+            // The first descriptor of an output ID wins, as with a linear search
+            list.forEach(descriptor -> byId.putIfAbsent(descriptor.getId(), descriptor));
+            list.sort(Comparator.comparing(IDataProviderDescriptor::getName));
+            fList = Collections.unmodifiableList(list);
+            fById = byId;
+        }
+    }
+}
@@ -79,7 +79,6 @@ import static org.eclipse.tracecompass.incubator.internal.trace.server.jersey.re
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -88,9 +87,13 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
@@ -99,6 +102,8 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
@@ -106,6 +111,7 @@ import javax.ws.rs.core.Response.Status;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.Activator;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.AnnotationCategoriesResponse;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.AnnotationResponse;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.AnnotationsQueryParameters;
@@ -129,12 +135,18 @@ import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.VirtualTableResponse;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.XYResponse;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.XYTreeResponse;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views.BatchQuery;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views.BatchQueryParameters;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views.BatchQueryResult;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views.ConfigurationQueryParameters;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views.OutputConfigurationQueryParameters;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views.QueryParameters;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views.TableColumnHeader;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views.TreeModelWrapper;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views.VirtualTableLinesStream;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views.VirtualTableModelWrapper;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp.BinaryModelResponseWriter;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp.VirtualTableLinesStreamWriter;
 import org.eclipse.tracecompass.internal.analysis.timing.core.event.matching.EventMatchingLatencyAnalysis;
 import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.ITmfVirtualTableDataProvider;
 import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.ITmfVirtualTableModel;
@@ -208,9 +220,54 @@ public class DataProviderService {
 
     private static final @NonNull Logger LOGGER = TraceCompassLog.getLogger(DataProviderService.class);
 
+    // Query types used to detect superseded queries
+    private static final String QUERY_TREE = "tree"; //$NON-NLS-1$
+    private static final String QUERY_XY = "xy"; //$NON-NLS-1$
+    private static final String QUERY_STATES = "states"; //$NON-NLS-1$
+    private static final String QUERY_ARROWS = "arrows"; //$NON-NLS-1$
+    private static final String QUERY_TOOLTIP = "tooltip"; //$NON-NLS-1$
+    private static final String QUERY_ANNOTATION_CATEGORIES = "annotationCategories"; //$NON-NLS-1$
+    private static final String QUERY_ANNOTATIONS = "annotations"; //$NON-NLS-1$
+    private static final String QUERY_COLUMNS = "columns"; //$NON-NLS-1$
+    private static final String QUERY_LINES = "lines"; //$NON-NLS-1$
+    private static final String QUERY_STYLES = "styles"; //$NON-NLS-1$
+
+    // Query types of the batch endpoint, named after the path of their endpoint
+    private static final String BATCH_DATA_TREE = "data/tree"; //$NON-NLS-1$
+    private static final String BATCH_XY_TREE = "XY/tree"; //$NON-NLS-1$
+    private static final String BATCH_XY = "XY/xy"; //$NON-NLS-1$
+    private static final String BATCH_GENERIC_XY_TREE = "genericXY/tree"; //$NON-NLS-1$
+    private static final String BATCH_GENERIC_XY = "genericXY/xy"; //$NON-NLS-1$
+    private static final String BATCH_TIME_GRAPH_TREE = "timeGraph/tree"; //$NON-NLS-1$
+    private static final String BATCH_STATES = "timeGraph/states"; //$NON-NLS-1$
+    private static final String BATCH_ARROWS = "timeGraph/arrows"; //$NON-NLS-1$
+    private static final String BATCH_TIME_GRAPH_TOOLTIP = "timeGraph/tooltip"; //$NON-NLS-1$
+    private static final String BATCH_ANNOTATIONS = "annotations"; //$NON-NLS-1$
+    private static final String BATCH_ANNOTATION_CATEGORIES = "annotationCategories"; //$NON-NLS-1$
+    private static final String BATCH_COLUMNS = "table/columns"; //$NON-NLS-1$
+    private static final String BATCH_LINES = "table/lines"; //$NON-NLS-1$
+    private static final String BATCH_STYLES = "style"; //$NON-NLS-1$
+    private static final String BATCH_MARKER_SET_ID_KEY = "markerSetId"; //$NON-NLS-1$
+    private static final int MAX_BATCH_QUERIES = 100;
+    private static final String BATCH_VIEW_SUFFIX = "#batch-"; //$NON-NLS-1$
+
+    /*
+     * Client request of the batch query run by the current thread, so that the
+     * endpoint methods serve it as a query of its batch
+     */
+    private static final ThreadLocal<ClientRequest> BATCH_QUERY_REQUEST = new ThreadLocal<>();
+
     private final DataProviderManager manager = DataProviderManager.getInstance();
     private final XmlDataProviderManager xmlManager = XmlDataProviderManager.getInstance();
 
+    @Context
+    private HttpServletRequest fHttpRequest;
+
+    @Context
+    private HttpHeaders fHttpHeaders;
+
+    private @Nullable ClientRequest fClientRequest = null;
+
     /**
      * Getter for the list of data provider descriptions
      *
@@ -231,10 +288,7 @@ public class DataProviderService {
         if (experiment == null) {
             return ErrorResponseUtil.newErrorResponse(Status.NOT_FOUND, NO_SUCH_TRACE);
         }
-        List<IDataProviderDescriptor> list = DataProviderManager.getInstance().getAvailableProviders(experiment);
-        list.addAll(xmlManager.getXmlDataProviderDescriptors(experiment, EnumSet.of(OutputType.TIME_GRAPH)));
-        list.addAll(xmlManager.getXmlDataProviderDescriptors(experiment, EnumSet.of(OutputType.XY)));
-        list.sort(Comparator.comparing(IDataProviderDescriptor::getName));
+        List<IDataProviderDescriptor> list = new ArrayList<>(DataProviderDescriptorCache.getDescriptors(expUUID, () -> loadDescriptors(experiment)));
 
         /*
          * Remove unwanted data providers:
@@ -281,7 +335,7 @@ public class DataProviderService {
             return ErrorResponseUtil.newErrorResponse(Status.NOT_FOUND, NO_SUCH_TRACE);
         }
 
-        IDataProviderDescriptor provider = getDescriptor(experiment, outputId);
+        IDataProviderDescriptor provider = getDescriptor(expUUID, experiment, outputId);
         if (provider != null) {
             return Response.ok(provider).build();
         }
@@ -374,7 +428,7 @@ public class DataProviderService {
     @Path("/XY/{outputId}/xy")
     @Tag(name = X_Y)
     @Consumes(MediaType.APPLICATION_JSON)
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({ MediaType.APPLICATION_JSON, BinaryModelResponseWriter.MEDIA_TYPE_QS })
     @Operation(summary = "API to get the XY model", description = "Unique endpoint for all xy models, " +
             "ensures that the same template is followed for all endpoints.", responses = {
                     @ApiResponse(responseCode = "200", description = "Return the queried XYResponse", content = @Content(schema = @Schema(implementation = XYResponse.class))),
@@ -395,7 +449,8 @@ public class DataProviderService {
             return errorResponse;
         }
         try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "DataProviderService#getXY") //$NON-NLS-1$
-                .setCategory(outputId).build()) {
+                .setCategory(outputId).build();
+                QueryProgressMonitor monitor = beginQuery(expUUID, outputId, QUERY_XY)) {
             TmfExperiment experiment = ExperimentManagerService.getExperimentByUUID(expUUID);
             if (experiment == null) {
                 return ErrorResponseUtil.newErrorResponse(Status.NOT_FOUND, NO_SUCH_TRACE);
@@ -420,7 +475,12 @@ public class DataProviderService {
                 return ErrorResponseUtil.newErrorResponse(Status.BAD_REQUEST, errorMessage);
             }
 
-            TmfModelResponse<@NonNull ITmfXyModel> response = provider.fetchXY(params, null);
+            long generation = QueryResultCache.getGeneration(expUUID);
+            TmfModelResponse<?> response = QueryResultCache.get(expUUID, outputId, QUERY_XY, params);
+            if (response == null) {
+                response = provider.fetchXY(params, monitor);
+                QueryResultCache.put(expUUID, generation, outputId, QUERY_XY, params, response);
+            }
             return Response.ok(response).build();
         }
     }
@@ -476,7 +536,7 @@ public class DataProviderService {
     @Path("/genericXY/{outputId}/xy")
     @Tag(name = GXY)
     @Consumes(MediaType.APPLICATION_JSON)
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({ MediaType.APPLICATION_JSON, BinaryModelResponseWriter.MEDIA_TYPE_QS })
     @Operation(summary = "API to get the xy model", description = "Unique endpoint for all xy models, " +
             "ensures that the same template is followed for all endpoints.", responses = {
                     @ApiResponse(responseCode = "200", description = "Return the queried xy response", content = @Content(schema = @Schema(implementation = XYResponse.class))),
@@ -497,7 +557,8 @@ public class DataProviderService {
             return errorResponse;
         }
         try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "DataProviderService#fetchXY") //$NON-NLS-1$
-                .setCategory(outputId).build()) {
+                .setCategory(outputId).build();
+                QueryProgressMonitor monitor = beginQuery(expUUID, outputId, QUERY_XY)) {
             TmfExperiment experiment = ExperimentManagerService.getExperimentByUUID(expUUID);
             if (experiment == null) {
                 return ErrorResponseUtil.newErrorResponse(Status.NOT_FOUND, NO_SUCH_TRACE);
@@ -516,7 +577,12 @@ public class DataProviderService {
             if (errorMessage != null) {
                 return ErrorResponseUtil.newErrorResponse(Status.BAD_REQUEST, errorMessage);            }
 
-            TmfModelResponse<@NonNull ITmfXyModel> response = provider.fetchXY(params, null);
+            long generation = QueryResultCache.getGeneration(expUUID);
+            TmfModelResponse<?> response = QueryResultCache.get(expUUID, outputId, QUERY_XY, params);
+            if (response == null) {
+                response = provider.fetchXY(params, monitor);
+                QueryResultCache.put(expUUID, generation, outputId, QUERY_XY, params, response);
+            }
             return Response.ok(response).build();
         }
     }
@@ -601,7 +667,7 @@ public class DataProviderService {
     @Path("/timeGraph/{outputId}/states")
     @Tag(name = TGR)
     @Consumes(MediaType.APPLICATION_JSON)
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({ MediaType.APPLICATION_JSON, BinaryModelResponseWriter.MEDIA_TYPE_QS })
     @Operation(summary = "API to get the Time Graph states", description = "Unique entry point for all TimeGraph states, ensures that the same template is followed for all views", responses = {
             @ApiResponse(responseCode = "200", description = "Returns a list of time graph rows", content = @Content(schema = @Schema(implementation = TimeGraphStatesResponse.class))),
             @ApiResponse(responseCode = "400", description = MISSING_PARAMETERS, content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
@@ -621,7 +687,8 @@ public class DataProviderService {
             return errorResponse;
         }
         try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "DataProviderService#getStates") //$NON-NLS-1$
-                .setCategory(outputId).build()) {
+                .setCategory(outputId).build();
+                QueryProgressMonitor monitor = beginQuery(expUUID, outputId, QUERY_STATES)) {
             TmfExperiment experiment = ExperimentManagerService.getExperimentByUUID(expUUID);
             if (experiment == null) {
                 return ErrorResponseUtil.newErrorResponse(Status.NOT_FOUND, NO_SUCH_TRACE);
@@ -645,7 +712,12 @@ public class DataProviderService {
                 return ErrorResponseUtil.newErrorResponse(Status.BAD_REQUEST, errorMessage);
             }
 
-            TmfModelResponse<TimeGraphModel> response = provider.fetchRowModel(params, null);
+            long generation = QueryResultCache.getGeneration(expUUID);
+            TmfModelResponse<?> response = QueryResultCache.get(expUUID, outputId, QUERY_STATES, params);
+            if (response == null) {
+                response = provider.fetchRowModel(params, monitor);
+                QueryResultCache.put(expUUID, generation, outputId, QUERY_STATES, params, response);
+            }
             return Response.ok(response).build();
         }
     }
@@ -667,7 +739,7 @@ public class DataProviderService {
     @Path("/timeGraph/{outputId}/arrows")
     @Tag(name = TGR)
     @Consumes(MediaType.APPLICATION_JSON)
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({ MediaType.APPLICATION_JSON, BinaryModelResponseWriter.MEDIA_TYPE_QS })
     @Operation(summary = "API to get the Time Graph arrows", description = "Unique entry point for all TimeGraph models, " +
             "ensures that the same template is followed for all models", responses = {
                     @ApiResponse(responseCode = "200", description = "Returns a sampled list of TimeGraph arrows", content = @Content(schema = @Schema(implementation = TimeGraphArrowsResponse.class))),
@@ -688,7 +760,8 @@ public class DataProviderService {
             return errorResponse;
         }
         try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "DataProviderService#getArrows") //$NON-NLS-1$
-                .setCategory(outputId).build()) {
+                .setCategory(outputId).build();
+                QueryProgressMonitor monitor = beginQuery(expUUID, outputId, QUERY_ARROWS)) {
             TmfExperiment experiment = ExperimentManagerService.getExperimentByUUID(expUUID);
             if (experiment == null) {
                 return ErrorResponseUtil.newErrorResponse(Status.NOT_FOUND, NO_SUCH_TRACE);
@@ -707,7 +780,12 @@ public class DataProviderService {
                 return ErrorResponseUtil.newErrorResponse(Status.BAD_REQUEST, errorMessage);
             }
 
-            TmfModelResponse<@NonNull List<@NonNull ITimeGraphArrow>> response = provider.fetchArrows(params, null);
+            long generation = QueryResultCache.getGeneration(expUUID);
+            TmfModelResponse<?> response = QueryResultCache.get(expUUID, outputId, QUERY_ARROWS, params);
+            if (response == null) {
+                response = provider.fetchArrows(params, monitor);
+                QueryResultCache.put(expUUID, generation, outputId, QUERY_ARROWS, params, response);
+            }
             return Response.ok(response).build();
         }
     }
@@ -770,7 +848,8 @@ public class DataProviderService {
             return ErrorResponseUtil.newErrorResponse(Status.BAD_REQUEST, MISSING_OUTPUTID);
         }
         try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "DataProviderService#getAnnotationCategories") //$NON-NLS-1$
-                .setCategory(outputId).build()) {
+                .setCategory(outputId).build();
+                QueryProgressMonitor monitor = beginQuery(expUUID, outputId, QUERY_ANNOTATION_CATEGORIES)) {
             TmfExperiment experiment = ExperimentManagerService.getExperimentByUUID(expUUID);
             if (experiment == null) {
                 return ErrorResponseUtil.newErrorResponse(Status.NOT_FOUND, NO_SUCH_TRACE);
@@ -793,7 +872,7 @@ public class DataProviderService {
                 @NonNull Map<@NonNull String, @NonNull Object> params =
                         (markerSetId == null) ? Collections.emptyMap() :
                             ImmutableMap.of(DataProviderParameterUtils.REQUESTED_MARKER_SET_KEY, markerSetId);
-                TmfModelResponse<@NonNull AnnotationCategoriesModel> traceAnnotations = traceAnnotationProvider.fetchAnnotationCategories(params, null);
+                TmfModelResponse<@NonNull AnnotationCategoriesModel> traceAnnotations = traceAnnotationProvider.fetchAnnotationCategories(params, monitor);
                 if (traceAnnotations.getStatus() == ITmfResponse.Status.CANCELLED || traceAnnotations.getStatus() == ITmfResponse.Status.FAILED) {
                     return Response.ok(new TmfModelResponse<>(new AnnotationCategoriesModel(Collections.emptyList()), traceAnnotations.getStatus(), traceAnnotations.getStatusMessage())).build();
                 }
@@ -802,7 +881,7 @@ public class DataProviderService {
             }
             // Fetch data provider annotation categories
             if (provider instanceof IOutputAnnotationProvider) {
-                TmfModelResponse<@NonNull AnnotationCategoriesModel> annotations = ((IOutputAnnotationProvider) provider).fetchAnnotationCategories(Collections.emptyMap(), null);
+                TmfModelResponse<@NonNull AnnotationCategoriesModel> annotations = ((IOutputAnnotationProvider) provider).fetchAnnotationCategories(Collections.emptyMap(), monitor);
                 if (annotations.getStatus() == ITmfResponse.Status.CANCELLED || annotations.getStatus() == ITmfResponse.Status.FAILED) {
                     return Response.ok(new TmfModelResponse<>(new AnnotationCategoriesModel(Collections.emptyList()), annotations.getStatus(), annotations.getStatusMessage())).build();
                 }
@@ -855,7 +934,8 @@ public class DataProviderService {
             return errorResponse;
         }
         try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "DataProviderService#getAnnotations") //$NON-NLS-1$
-                .setCategory(outputId).build()) {
+                .setCategory(outputId).build();
+                QueryProgressMonitor monitor = beginQuery(expUUID, outputId, QUERY_ANNOTATIONS)) {
             TmfExperiment experiment = ExperimentManagerService.getExperimentByUUID(expUUID);
             if (experiment == null) {
                 return ErrorResponseUtil.newErrorResponse(Status.NOT_FOUND, NO_SUCH_TRACE);
@@ -881,7 +961,7 @@ public class DataProviderService {
             // Fetch trace annotations
             TraceAnnotationProvider traceAnnotationProvider = ExperimentManagerService.getTraceAnnotationProvider(expUUID);
             if (traceAnnotationProvider != null) {
-                TmfModelResponse<@NonNull AnnotationModel> traceAnnotations = traceAnnotationProvider.fetchAnnotations(params, null);
+                TmfModelResponse<@NonNull AnnotationModel> traceAnnotations = traceAnnotationProvider.fetchAnnotations(params, monitor);
                 if (traceAnnotations.getStatus() == ITmfResponse.Status.CANCELLED || traceAnnotations.getStatus() == ITmfResponse.Status.FAILED) {
                     return Response.ok(new TmfModelResponse<>(new AnnotationModel(Collections.emptyMap()), traceAnnotations.getStatus(), traceAnnotations.getStatusMessage())).build();
                 }
@@ -890,7 +970,7 @@ public class DataProviderService {
             }
             // Fetch data provider annotations
             if (provider instanceof IOutputAnnotationProvider) {
-                TmfModelResponse<@NonNull AnnotationModel> annotations = ((IOutputAnnotationProvider) provider).fetchAnnotations(params, null);
+                TmfModelResponse<@NonNull AnnotationModel> annotations = ((IOutputAnnotationProvider) provider).fetchAnnotations(params, monitor);
                 if (annotations.getStatus() == ITmfResponse.Status.CANCELLED || annotations.getStatus() == ITmfResponse.Status.FAILED) {
                     return Response.ok(new TmfModelResponse<>(new AnnotationModel(Collections.emptyMap()), annotations.getStatus(), annotations.getStatusMessage())).build();
                 }
@@ -949,7 +1029,8 @@ public class DataProviderService {
             return errorResponse;
         }
         try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "DataProviderService#getTimeGraphTooltip") //$NON-NLS-1$
-                .setCategory(outputId).build()) {
+                .setCategory(outputId).build();
+                QueryProgressMonitor monitor = beginQuery(expUUID, outputId, QUERY_TOOLTIP)) {
             TmfExperiment experiment = ExperimentManagerService.getExperimentByUUID(expUUID);
             if (experiment == null) {
                 return ErrorResponseUtil.newErrorResponse(Status.NOT_FOUND, NO_SUCH_TRACE);
@@ -968,7 +1049,12 @@ public class DataProviderService {
                 return ErrorResponseUtil.newErrorResponse(Status.BAD_REQUEST, errorMessage);
             }
 
-            TmfModelResponse<@NonNull Map<@NonNull String, @NonNull String>> response = provider.fetchTooltip(params, null);
+            long generation = QueryResultCache.getGeneration(expUUID);
+            TmfModelResponse<?> response = QueryResultCache.get(expUUID, outputId, QUERY_TOOLTIP, params);
+            if (response == null) {
+                response = provider.fetchTooltip(params, monitor);
+                QueryResultCache.put(expUUID, generation, outputId, QUERY_TOOLTIP, params, response);
+            }
             return Response.ok(response).build();
         }
     }
@@ -1022,7 +1108,8 @@ public class DataProviderService {
         }
         Map<String, Object> params = queryParameters.getParameters();
         try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "DataProviderService#getColumns") //$NON-NLS-1$
-                .setCategory(outputId).build()) {
+                .setCategory(outputId).build();
+                QueryProgressMonitor monitor = beginQuery(expUUID, outputId, QUERY_COLUMNS)) {
             TmfExperiment experiment = ExperimentManagerService.getExperimentByUUID(expUUID);
             if (experiment == null) {
                 return ErrorResponseUtil.newErrorResponse(Status.NOT_FOUND, NO_SUCH_TRACE);
@@ -1034,7 +1121,7 @@ public class DataProviderService {
                 return ErrorResponseUtil.newErrorResponse(Status.METHOD_NOT_ALLOWED, NO_PROVIDER);
             }
 
-            TmfModelResponse<?> response = provider.fetchColumns(params, null);
+            TmfModelResponse<?> response = provider.fetchColumns(params, monitor);
             if (response.getStatus() == ITmfResponse.Status.FAILED) {
                 return ErrorResponseUtil.newErrorResponse(Status.BAD_REQUEST, response.getStatusMessage());
             }
@@ -1065,9 +1152,10 @@ public class DataProviderService {
     @Path("/table/{outputId}/lines")
     @Tag(name = VTB)
     @Consumes(MediaType.APPLICATION_JSON)
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({ MediaType.APPLICATION_JSON, VirtualTableLinesStreamWriter.MEDIA_TYPE })
     @Operation(summary = "API to get virtual table lines", responses = {
-            @ApiResponse(responseCode = "200", description = "Returns a table model with a 2D array of strings and metadata", content = @Content(schema = @Schema(implementation = VirtualTableResponse.class))),
+            @ApiResponse(responseCode = "200", description = "Returns a table model with a 2D array of strings and metadata. " +
+                    "If '" + VirtualTableLinesStreamWriter.MEDIA_TYPE + "' is preferred over JSON in the Accept header, the lines are streamed as newline delimited JSON while they are read", content = @Content(schema = @Schema(implementation = VirtualTableResponse.class))),
             @ApiResponse(responseCode = "400", description = INVALID_PARAMETERS, content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "404", description = PROVIDER_NOT_FOUND, content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "405", description = NO_PROVIDER, content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
@@ -1088,7 +1176,8 @@ public class DataProviderService {
             return errorResponse;
         }
         try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "DataProviderService#getLines") //$NON-NLS-1$
-                .setCategory(outputId).build()) {
+                .setCategory(outputId).build();
+                QueryProgressMonitor monitor = beginQuery(expUUID, outputId, QUERY_LINES)) {
             TmfExperiment experiment = ExperimentManagerService.getExperimentByUUID(expUUID);
             if (experiment == null) {
                 return ErrorResponseUtil.newErrorResponse(Status.NOT_FOUND, NO_SUCH_TRACE);
@@ -1105,7 +1194,13 @@ public class DataProviderService {
                 return ErrorResponseUtil.newErrorResponse(Status.BAD_REQUEST, errorMessage);
             }
 
-            TmfModelResponse<?> response = provider.fetchLines(params, null);
+            if (getClientRequest().isStreamAccepted()) {
+                // The lines are fetched while the response is written, with a new query monitor
+                VirtualTableLinesStream stream = new VirtualTableLinesStream(provider, params, () -> beginQuery(expUUID, outputId, QUERY_LINES));
+                return Response.ok(stream, VirtualTableLinesStreamWriter.MEDIA_TYPE).build();
+            }
+
+            TmfModelResponse<?> response = provider.fetchLines(params, monitor);
             if (response.getStatus() == ITmfResponse.Status.FAILED) {
                 return ErrorResponseUtil.newErrorResponse(Status.BAD_REQUEST, response.getStatusMessage());
             }
@@ -1113,6 +1208,49 @@ public class DataProviderService {
         }
     }
 
+    private QueryProgressMonitor beginQuery(UUID expUUID, String outputId, String queryType) {
+        ClientRequest request = getClientRequest();
+        return QueryCancellationManager.begin(request.fClientId, request.fViewId, expUUID, outputId, queryType, request.fConnectionState);
+    }
+
+    /**
+     * Get the data of the client request that the queries need. It is read
+     * from the request context the first time, on the request thread, so that
+     * the queries of a batch can then use it from other threads.
+     */
+    private ClientRequest getClientRequest() {
+        ClientRequest batchQueryRequest = BATCH_QUERY_REQUEST.get();
+        if (batchQueryRequest != null) {
+            return batchQueryRequest;
+        }
+        ClientRequest request = fClientRequest;
+        if (request == null) {
+            request = new ClientRequest(fHttpRequest, fHttpHeaders);
+            fClientRequest = request;
+        }
+        return request;
+    }
+
+    /**
+     * Whether the client prefers the table lines to be streamed, i.e. whether
+     * the stream media type comes before JSON in its acceptable media types.
+     */
+    private static boolean isStreamAccepted(@Nullable HttpHeaders headers) {
+        if (headers == null) {
+            return false;
+        }
+        MediaType streamType = MediaType.valueOf(VirtualTableLinesStreamWriter.MEDIA_TYPE);
+        for (MediaType acceptable : headers.getAcceptableMediaTypes()) {
+            if (acceptable.isCompatible(MediaType.APPLICATION_JSON_TYPE)) {
+                return false;
+            }
+            if (acceptable.isCompatible(streamType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private Response getTree(UUID expUUID, String outputId, QueryParameters queryParameters) {
         Response errorResponse = validateParameters(outputId, queryParameters);
         if (errorResponse != null) {
@@ -1124,7 +1262,8 @@ public class DataProviderService {
             return ErrorResponseUtil.newErrorResponse(Status.BAD_REQUEST, errorMessage);
         }
         try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "DataProviderService#getTree") //$NON-NLS-1$
-                .setCategory(outputId).build()) {
+                .setCategory(outputId).build();
+                QueryProgressMonitor monitor = beginQuery(expUUID, outputId, QUERY_TREE)) {
             TmfExperiment experiment = ExperimentManagerService.getExperimentByUUID(expUUID);
             if (experiment == null) {
                 return ErrorResponseUtil.newErrorResponse(Status.NOT_FOUND, NO_SUCH_TRACE);
@@ -1149,7 +1288,12 @@ public class DataProviderService {
                 timeRequested = ImmutableList.of(experiment.getStartTime().toNanos(), experiment.getEndTime().toNanos());
                 params.put(DataProviderParameterUtils.REQUESTED_TIME_KEY, timeRequested);
             }
-            TmfModelResponse<?> treeResponse = provider.fetchTree(params, null);
+            long generation = QueryResultCache.getGeneration(expUUID);
+            TmfModelResponse<?> treeResponse = QueryResultCache.get(expUUID, outputId, QUERY_TREE, params);
+            if (treeResponse == null) {
+                treeResponse = provider.fetchTree(params, monitor);
+                QueryResultCache.put(expUUID, generation, outputId, QUERY_TREE, params, treeResponse);
+            }
             Object model = treeResponse.getModel();
             return Response.ok(model instanceof TmfTreeModel ? new TmfModelResponse<>(new TreeModelWrapper((TmfTreeModel<@NonNull ITmfTreeDataModel>) model), treeResponse.getStatus(), treeResponse.getStatusMessage()) : treeResponse).build();
         }
@@ -1192,7 +1336,8 @@ public class DataProviderService {
         }
         Map<String, Object> params = queryParameters.getParameters();
         try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "DataProviderService#getStyles") //$NON-NLS-1$
-                .setCategory(outputId).build()) {
+                .setCategory(outputId).build();
+                QueryProgressMonitor monitor = beginQuery(expUUID, outputId, QUERY_STYLES)) {
             TmfExperiment experiment = ExperimentManagerService.getExperimentByUUID(expUUID);
             if (experiment == null) {
                 return ErrorResponseUtil.newErrorResponse(Status.NOT_FOUND, NO_SUCH_TRACE);
@@ -1207,7 +1352,7 @@ public class DataProviderService {
             }
 
             if (provider instanceof IOutputStyleProvider) {
-                TmfModelResponse<@NonNull OutputStyleModel> styleModelResponse = ((IOutputStyleProvider) provider).fetchStyle(params, null);
+                TmfModelResponse<@NonNull OutputStyleModel> styleModelResponse = ((IOutputStyleProvider) provider).fetchStyle(params, monitor);
                 return Response.ok(styleModelResponse).build();
             }
 
@@ -1217,6 +1362,153 @@ public class DataProviderService {
         }
     }
 
+    /**
+     * Run several queries on the outputs of an experiment, concurrently, and
+     * return all their results in a single response. Each query is served as
+     * by the endpoint of its type, so that a view can be refreshed with a
+     * single round trip.
+     *
+     * @param expUUID
+     *            desired experiment UUID
+     * @param batchParameters
+     *            the queries to run, as described by
+     *            {@link BatchQueryParameters}
+     * @return a {@link Response} with the result, if successful a list of
+     *         {@link BatchQueryResult}, in the order of the queries
+     */
+    @POST
+    @Path("/batch")
+    @Tag(name = EXP)
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "API to run several output queries of this experiment in a single request", responses = {
+            @ApiResponse(responseCode = "200", description = "Returns the result of each query, in the order of the queries. " +
+                    "Each result holds the status and the response that the endpoint of the query type would have returned", content = @Content(array = @ArraySchema(schema = @Schema(implementation = org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.BatchQueryResult.class)))),
+            @ApiResponse(responseCode = "400", description = INVALID_PARAMETERS, content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Response getBatch(
+            @Parameter(description = EXP_UUID) @PathParam("expUUID") UUID expUUID,
+            @RequestBody(description = "Queries to run concurrently, each with the output ID, the type and the parameters of the query", content = {
+                    @Content(examples = @ExampleObject("{\"queries\":[" +
+                            "{\"id\":\"tree\",\"outputId\":\"org.eclipse.tracecompass.analysis.os.linux.core.threadstatus.ThreadStatusDataProvider\",\"type\":\"timeGraph/tree\",\"parameters\":{" + TIMERANGE_EX_TREE + "}}," +
+                            "{\"id\":\"states\",\"outputId\":\"org.eclipse.tracecompass.analysis.os.linux.core.threadstatus.ThreadStatusDataProvider\",\"type\":\"timeGraph/states\",\"parameters\":{" + TIMERANGE_EX + "," + ITEMS_EX + "}}" +
+                            "]}"), schema = @Schema(implementation = org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.BatchQueryParameters.class))
+            }, required = true) BatchQueryParameters batchParameters) {
+
+        if (batchParameters == null || batchParameters.getQueries().isEmpty()) {
+            return ErrorResponseUtil.newErrorResponse(Status.BAD_REQUEST, MISSING_PARAMETERS);
+        }
+        List<BatchQuery> queries = batchParameters.getQueries();
+        if (queries.size() > MAX_BATCH_QUERIES) {
+            return ErrorResponseUtil.newErrorResponse(Status.BAD_REQUEST, INVALID_PARAMETERS, String.format("A batch cannot have more than %d queries", MAX_BATCH_QUERIES)); //$NON-NLS-1$
+        }
+        try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "DataProviderService#getBatch") //$NON-NLS-1$
+                .setCategory(String.valueOf(queries.size())).build()) {
+            // The request context is not available on the other threads, so read what the queries need from it first
+            ClientRequest request = getClientRequest();
+            List<Future<BatchQueryResult>> futures = new ArrayList<>();
+            for (int i = 1; i < queries.size(); i++) {
+                BatchQuery query = queries.get(i);
+                ClientRequest queryRequest = request.forBatchQuery(i);
+                futures.add(BatchQueryExecutor.submit(() -> runBatchQuery(expUUID, query, queryRequest)));
+            }
+            // The first query runs on this thread while it waits for the others
+            List<BatchQueryResult> results = new ArrayList<>();
+            results.add(runBatchQuery(expUUID, queries.get(0), request.forBatchQuery(0)));
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(getBatchResult(futures.get(i), queries.get(i + 1)));
+            }
+            return Response.ok(results).build();
+        }
+    }
+
+    private static BatchQueryResult getBatchResult(Future<BatchQueryResult> future, BatchQuery query) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return newBatchQueryResult(query, ErrorResponseUtil.newErrorResponse(Status.SERVICE_UNAVAILABLE, CommonStatusMessage.TASK_CANCELLED));
+        } catch (ExecutionException e) {
+            Activator.getInstance().logError("Error running batch query " + query, e.getCause()); //$NON-NLS-1$
+            return newBatchQueryResult(query, ErrorResponseUtil.newErrorResponse(Status.INTERNAL_SERVER_ERROR, String.valueOf(e.getCause())));
+        }
+    }
+
+    private BatchQueryResult runBatchQuery(UUID expUUID, BatchQuery query, ClientRequest request) {
+        BATCH_QUERY_REQUEST.set(request);
+        try {
+            return runBatchQuery(expUUID, query);
+        } finally {
+            BATCH_QUERY_REQUEST.remove();
+        }
+    }
+
+    private BatchQueryResult runBatchQuery(UUID expUUID, BatchQuery query) {
+        String outputId = query.getOutputId();
+        String type = query.getType();
+        if (outputId == null) {
+            return newBatchQueryResult(query, ErrorResponseUtil.newErrorResponse(Status.BAD_REQUEST, MISSING_OUTPUTID));
+        }
+        if (type == null) {
+            return newBatchQueryResult(query, ErrorResponseUtil.newErrorResponse(Status.BAD_REQUEST, INVALID_PARAMETERS, "Missing query type")); //$NON-NLS-1$
+        }
+        Response response;
+        switch (type) {
+        case BATCH_DATA_TREE:
+            response = getDataTree(expUUID, outputId, query);
+            break;
+        case BATCH_XY_TREE:
+            response = getXYTree(expUUID, outputId, query);
+            break;
+        case BATCH_XY:
+            response = getXY(expUUID, outputId, query);
+            break;
+        case BATCH_GENERIC_XY_TREE:
+            response = getGenericXYChartTree(expUUID, outputId, query);
+            break;
+        case BATCH_GENERIC_XY:
+            response = getGenericXY(expUUID, outputId, query);
+            break;
+        case BATCH_TIME_GRAPH_TREE:
+            response = getTimeGraphTree(expUUID, outputId, query);
+            break;
+        case BATCH_STATES:
+            response = getStates(expUUID, outputId, query);
+            break;
+        case BATCH_ARROWS:
+            response = getArrows(expUUID, outputId, query);
+            break;
+        case BATCH_TIME_GRAPH_TOOLTIP:
+            response = getTimeGraphTooltip(expUUID, outputId, query);
+            break;
+        case BATCH_ANNOTATIONS:
+            response = getAnnotations(expUUID, outputId, query);
+            break;
+        case BATCH_ANNOTATION_CATEGORIES:
+            Object markerSetId = query.getParameters().get(BATCH_MARKER_SET_ID_KEY);
+            response = getAnnotationCategories(expUUID, outputId, markerSetId instanceof String ? (String) markerSetId : null);
+            break;
+        case BATCH_COLUMNS:
+            response = getColumns(expUUID, outputId, query);
+            break;
+        case BATCH_LINES:
+            response = getLines(expUUID, outputId, query);
+            break;
+        case BATCH_STYLES:
+            response = getStyles(expUUID, outputId, query);
+            break;
+        default:
+            response = ErrorResponseUtil.newErrorResponse(Status.BAD_REQUEST, INVALID_PARAMETERS, "Unknown query type: " + type); //$NON-NLS-1$
+            break;
+        }
+        return newBatchQueryResult(query, response);
+    }
+
+    private static BatchQueryResult newBatchQueryResult(BatchQuery query, Response response) {
+        return new BatchQueryResult(query.getId(), query.getOutputId(), query.getType(), response.getStatus(), response.getEntity());
+    }
+
     /**
      * Query the data provider for a list of available configuration source
      * types.
@@ -1250,7 +1542,7 @@ public class DataProviderService {
             return ErrorResponseUtil.newErrorResponse(Status.BAD_REQUEST, MISSING_OUTPUTID);
         }
 
-        IDataProviderDescriptor sourceDescriptor = getDescriptor(experiment, outputId);
+        IDataProviderDescriptor sourceDescriptor = getDescriptor(expUUID, experiment, outputId);
         IDataProviderFactory factory = manager.getFactory(outputId);
         if (sourceDescriptor == null || factory == null) {
             return ErrorResponseUtil.newErrorResponse(Status.NOT_FOUND, NO_SUCH_PROVIDER);
@@ -1298,7 +1590,7 @@ public class DataProviderService {
             return ErrorResponseUtil.newErrorResponse(Status.BAD_REQUEST, MISSING_OUTPUTID);
         }
 
-        IDataProviderDescriptor sourceDescriptor = getDescriptor(experiment, outputId);
+        IDataProviderDescriptor sourceDescriptor = getDescriptor(expUUID, experiment, outputId);
         IDataProviderFactory factory = manager.getFactory(outputId);
         if (sourceDescriptor == null || factory == null) {
             return ErrorResponseUtil.newErrorResponse(Status.NOT_FOUND, NO_SUCH_PROVIDER);
@@ -1360,7 +1652,7 @@ public class DataProviderService {
                 return errorResponse;
             }
 
-            IDataProviderDescriptor parentDescriptor = getDescriptor(experiment, outputId);
+            IDataProviderDescriptor parentDescriptor = getDescriptor(expUUID, experiment, outputId);
             if (parentDescriptor == null) {
                 return ErrorResponseUtil.newErrorResponse(Status.NOT_FOUND, NO_SUCH_PROVIDER + ": " + outputId); //$NON-NLS-1$
             }
@@ -1387,6 +1679,7 @@ public class DataProviderService {
                 return ErrorResponseUtil.newErrorResponse(Status.NOT_FOUND, NO_SUCH_CONFIGURATION_TYPE);
             }
             IDataProviderDescriptor returnDescr = configurator.createDataProviderDescriptors(experiment, inputConfig);
+            DataProviderDescriptorCache.invalidate(expUUID);
             return Response.ok(returnDescr).build();
         } catch (TmfConfigurationException e) {
             return ErrorResponseUtil.newErrorResponse(Status.BAD_REQUEST, e.getMessage());
@@ -1434,12 +1727,12 @@ public class DataProviderService {
                 return ErrorResponseUtil.newErrorResponse(Status.NOT_FOUND, NO_SUCH_TRACE);
             }
 
-            IDataProviderDescriptor parentDescriptor = getDescriptor(experiment, outputId);
+            IDataProviderDescriptor parentDescriptor = getDescriptor(expUUID, experiment, outputId);
             if (parentDescriptor == null) {
                 return ErrorResponseUtil.newErrorResponse(Status.NOT_FOUND, NO_SUCH_PROVIDER + ": " + outputId); //$NON-NLS-1$
             }
 
-            IDataProviderDescriptor derivedDescriptor = getDescriptor(experiment, derivedOutputId);
+            IDataProviderDescriptor derivedDescriptor = getDescriptor(expUUID, experiment, derivedOutputId);
             if (derivedDescriptor == null) {
                 return ErrorResponseUtil.newErrorResponse(Status.NOT_FOUND, NO_SUCH_DERIVED_PROVIDER + ": " + derivedOutputId); //$NON-NLS-1$
             }
@@ -1458,10 +1751,14 @@ public class DataProviderService {
             List<IDataProviderDescriptor> allDerivedDps = manager.getAvailableProviders(experiment, derivedDescriptor.getConfiguration());
 
             // Remove any derived data provider instances stored in the manager
-            allDerivedDps.forEach(desc -> manager.removeDataProvider(experiment, desc.getId()));
+            allDerivedDps.forEach(desc -> {
+                manager.removeDataProvider(experiment, desc.getId());
+                QueryResultCache.invalidate(expUUID, desc.getId());
+            });
 
             // Clean-up configuration
             configurator.removeDataProviderDescriptor(experiment, derivedDescriptor);
+            DataProviderDescriptorCache.invalidate(expUUID);
 
             return Response.ok(derivedDescriptor).build();
         } catch (TmfConfigurationException e) {
@@ -1490,16 +1787,57 @@ public class DataProviderService {
         return null;
     }
 
-    private @Nullable IDataProviderDescriptor getDescriptor(@NonNull ITmfTrace experiment, @NonNull String outputId) {
+    private @Nullable IDataProviderDescriptor getDescriptor(UUID expUUID, @NonNull ITmfTrace experiment, @NonNull String outputId) {
+        return DataProviderDescriptorCache.getDescriptor(expUUID, outputId, () -> loadDescriptors(experiment));
+    }
+
+    private Collection<IDataProviderDescriptor> loadDescriptors(@NonNull ITmfTrace experiment) {
         List<IDataProviderDescriptor> list = manager.getAvailableProviders(experiment);
         list.addAll(xmlManager.getXmlDataProviderDescriptors(experiment, EnumSet.of(OutputType.TIME_GRAPH)));
         list.addAll(xmlManager.getXmlDataProviderDescriptors(experiment, EnumSet.of(OutputType.XY)));
+        return list;
+    }
+
+    /**
+     * The data of a client request that its queries need: the identity of the
+     * client and view, the state of its connection and whether it accepts a
+     * stream of table lines. The queries of a batch each have their own view,
+     * so that they do not supersede each other, and never stream their lines,
+     * since they are returned in the JSON response of the batch.
+     */
+    private static final class ClientRequest {
+        private final @Nullable String fClientId;
+        private final @Nullable String fViewId;
+        private final BooleanSupplier fConnectionState;
+        private final boolean fStreamAccepted;
+
+        public ClientRequest(@Nullable HttpServletRequest request, @Nullable HttpHeaders headers) {
+            fClientId = request == null ? null : request.getHeader(QueryCancellationManager.CLIENT_ID_HEADER);
+            fViewId = request == null ? null : request.getHeader(QueryCancellationManager.VIEW_ID_HEADER);
+            fConnectionState = QueryCancellationManager.getConnectionState(request);
+            fStreamAccepted = DataProviderService.isStreamAccepted(headers);
+        }
 
-        Optional<IDataProviderDescriptor> provider = list.stream().filter(p -> p.getId().equals(outputId)).findFirst();
-        if (provider.isPresent()) {
-            return provider.get();
+        private ClientRequest(@Nullable String clientId, @Nullable String viewId, BooleanSupplier connectionState, boolean streamAccepted) {
+            fClientId = clientId;
+            fViewId = viewId;
+            fConnectionState = connectionState;
+            fStreamAccepted = streamAccepted;
+        }
+
+        /**
+         * Get the request of a query of a batch. The query supersedes the
+         * query at the same index in the previous batch of the client and
+         * view.
+         */
+        public ClientRequest forBatchQuery(int index) {
+            String viewId = fViewId;
+            return new ClientRequest(fClientId, (viewId == null ? "" : viewId) + BATCH_VIEW_SUFFIX + index, fConnectionState, false); //$NON-NLS-1$
+        }
+
+        public boolean isStreamAccepted() {
+            return fStreamAccepted;
         }
-        return null;
     }
 
 }
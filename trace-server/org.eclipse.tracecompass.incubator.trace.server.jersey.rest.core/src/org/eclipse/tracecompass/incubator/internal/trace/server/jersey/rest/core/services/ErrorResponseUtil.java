@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services;
 
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
@@ -33,7 +34,7 @@ public class ErrorResponseUtil {
      * @return the error response
      */
     public static Response newErrorResponse(Status status, String title) {
-        return Response.status(status).entity(new ErrorResponseImpl(title)).build();
+        return Response.status(status).type(MediaType.APPLICATION_JSON).entity(new ErrorResponseImpl(title)).build();
     }
 
     /**
@@ -49,7 +50,7 @@ public class ErrorResponseUtil {
      * @return the error response
      */
     public static Response newErrorResponse(Status status, String title, String detail) {
-        return Response.status(status).entity(new ErrorResponseImpl(title, detail)).build();
+        return Response.status(status).type(MediaType.APPLICATION_JSON).entity(new ErrorResponseImpl(title, detail)).build();
     }
 
     /**
@@ -67,7 +68,7 @@ public class ErrorResponseUtil {
      * @return the error response
      */
     public static Response newErrorResponse(Status status, String title, String detail, Trace trace) {
-        return Response.status(status).entity(new TraceErrorResponseImpl(title, detail, trace)).build();
+        return Response.status(status).type(MediaType.APPLICATION_JSON).entity(new TraceErrorResponseImpl(title, detail, trace)).build();
     }
 
     /**
@@ -85,6 +86,6 @@ public class ErrorResponseUtil {
      * @return the error response
      */
     public static Response newErrorResponse(Status status, String title, String detail, Experiment experiment) {
-        return Response.status(status).entity(new ExperimentErrorResponseImpl(title, detail, experiment)).build();
+        return Response.status(status).type(MediaType.APPLICATION_JSON).entity(new ExperimentErrorResponseImpl(title, detail, experiment)).build();
     }
 }
@@ -34,6 +34,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
@@ -100,11 +103,16 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = EndpointConstants.EXP)
 public class ExperimentManagerService {
 
-    private static final Map<UUID, List<UUID>> TRACE_UUIDS = Collections.synchronizedMap(new HashMap<>());
-    private static final Map<UUID, Map<UUID, ITmfTrace>> TRACE_INSTANCES = Collections.synchronizedMap(new HashMap<>());
-    private static final Map<UUID, IResource> EXPERIMENT_RESOURCES = Collections.synchronizedMap(initExperimentResources());
-    private static final Map<UUID, TmfExperiment> EXPERIMENTS = Collections.synchronizedMap(new HashMap<>());
-    private static final Map<UUID, TraceAnnotationProvider> TRACE_ANNOTATION_PROVIDERS = Collections.synchronizedMap(new HashMap<>());
+    private static final Map<UUID, List<UUID>> TRACE_UUIDS = new ConcurrentHashMap<>();
+    private static final Map<UUID, Map<UUID, ITmfTrace>> TRACE_INSTANCES = new ConcurrentHashMap<>();
+    private static final Map<UUID, IResource> EXPERIMENT_RESOURCES = new ConcurrentHashMap<>(initExperimentResources());
+    private static final Map<UUID, TmfExperiment> EXPERIMENTS = new ConcurrentHashMap<>();
+    private static final Map<UUID, TraceAnnotationProvider> TRACE_ANNOTATION_PROVIDERS = new ConcurrentHashMap<>();
+    /*
+     * Experiments being instantiated, so that only the requests for the same
+     * experiment wait for its instantiation
+     */
+    private static final Map<UUID, PendingExperiment> PENDING_EXPERIMENTS = new ConcurrentHashMap<>();
 
     private static final String EXPERIMENTS_FOLDER = "Experiments"; //$NON-NLS-1$
     private static final String TRACES_FOLDER = "Traces"; //$NON-NLS-1$
@@ -123,18 +131,16 @@ public class ExperimentManagerService {
             @ApiResponse(responseCode = "200", description = "Returns a list of experiments", content = @Content(array = @ArraySchema(schema = @Schema(implementation = org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.Experiment.class))))
     })
     public Response getExperiments() {
-        synchronized (EXPERIMENT_RESOURCES) {
-            List<Experiment> experiments = Lists.transform(new ArrayList<>(EXPERIMENT_RESOURCES.entrySet()), e -> {
-                UUID expUUID = e.getKey();
-                TmfExperiment experiment = EXPERIMENTS.get(expUUID);
-                if (experiment != null) {
-                    return Experiment.from(experiment, expUUID);
-                }
-                IResource experimentResource = e.getValue();
-                return Experiment.from(experimentResource, expUUID);
-            });
-            return Response.ok(experiments).build();
-        }
+        List<Experiment> experiments = Lists.transform(new ArrayList<>(EXPERIMENT_RESOURCES.entrySet()), e -> {
+            UUID expUUID = e.getKey();
+            TmfExperiment experiment = EXPERIMENTS.get(expUUID);
+            if (experiment != null) {
+                return Experiment.from(experiment, expUUID);
+            }
+            IResource experimentResource = e.getValue();
+            return Experiment.from(experimentResource, expUUID);
+        });
+        return Response.ok(experiments).build();
     }
 
     private static Map<UUID, IResource> initExperimentResources() {
@@ -220,6 +226,14 @@ public class ExperimentManagerService {
         if (resource == null) {
             return ErrorResponseUtil.newErrorResponse(Status.NOT_FOUND, "No experiment found with uuid " + expUUID); //$NON-NLS-1$
         }
+        QueryCancellationManager.cancelAll(expUUID);
+        QueryResultCache.invalidate(expUUID);
+        DataProviderDescriptorCache.invalidate(expUUID);
+        PendingExperiment pending = PENDING_EXPERIMENTS.get(expUUID);
+        if (pending != null && !pending.isOpenedByCurrentThread()) {
+            // Wait for the instantiation in progress, to dispose the experiment
+            pending.fFuture.exceptionally(e -> null).join();
+        }
         TmfExperiment experiment = EXPERIMENTS.remove(expUUID);
         Experiment experimentModel = experiment != null ? Experiment.from(experiment, expUUID) : Experiment.from(resource, expUUID);
         if (experiment != null) {
@@ -230,12 +244,10 @@ public class ExperimentManagerService {
         TRACE_UUIDS.remove(expUUID);
         TRACE_INSTANCES.remove(expUUID);
         boolean deleteResources = true;
-        synchronized (EXPERIMENTS) {
-            for (TmfExperiment e : EXPERIMENTS.values()) {
-                if (resource.equals(e.getResource())) {
-                    deleteResources = false;
-                    break;
-                }
+        for (TmfExperiment e : EXPERIMENTS.values()) {
+            if (resource.equals(e.getResource())) {
+                deleteResources = false;
+                break;
             }
         }
         if (deleteResources) {
@@ -350,7 +362,7 @@ public class ExperimentManagerService {
 
         TRACE_UUIDS.put(expUUID, traceUUIDs);
         EXPERIMENT_RESOURCES.put(expUUID, resource);
-        TmfExperiment experiment = createExperimentInstance(expUUID);
+        TmfExperiment experiment = openExperiment(expUUID);
         if (experiment == null) {
             return ErrorResponseUtil.newErrorResponse(Status.INTERNAL_SERVER_ERROR, "Failed to instantiate experiment"); //$NON-NLS-1$
         }
@@ -547,14 +559,74 @@ public class ExperimentManagerService {
      *            queried {@link UUID}
      * @return the experiment or null if none match.
      */
-    public static synchronized @Nullable TmfExperiment getExperimentByUUID(UUID expUUID) {
+    public static @Nullable TmfExperiment getExperimentByUUID(UUID expUUID) {
         TmfExperiment experiment = EXPERIMENTS.get(expUUID);
         if (experiment == null) {
-            experiment = createExperimentInstance(expUUID);
+            experiment = openExperiment(expUUID);
         }
         return experiment;
     }
 
+    /**
+     * Instantiate an experiment, or wait for its instantiation if it is
+     * already in progress in another request. Requests for other experiments
+     * are not blocked.
+     *
+     * The experiment is only available once its instantiation is complete, so
+     * a call made during the instantiation by the thread instantiating it, for
+     * example from the handler of the trace opened signal, returns null
+     * instead of waiting for itself.
+     *
+     * @param expUUID
+     *            the experiment UUID
+     * @return the experiment or null if it could not be instantiated
+     */
+    private static @Nullable TmfExperiment openExperiment(UUID expUUID) {
+        PendingExperiment opening = new PendingExperiment();
+        PendingExperiment pending = PENDING_EXPERIMENTS.putIfAbsent(expUUID, opening);
+        if (pending != null) {
+            if (pending.isOpenedByCurrentThread()) {
+                return EXPERIMENTS.get(expUUID);
+            }
+            try {
+                return pending.fFuture.join();
+            } catch (CompletionException e) {
+                // Rethrow the failure of the instantiation as it was thrown in the other request
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+        try {
+            // The experiment may have been opened since the caller's lookup
+            TmfExperiment experiment = EXPERIMENTS.get(expUUID);
+            if (experiment == null) {
+                experiment = createExperimentInstance(expUUID);
+            }
+            opening.fFuture.complete(experiment);
+            return experiment;
+        } catch (RuntimeException | Error e) {
+            opening.fFuture.completeExceptionally(e);
+            throw e;
+        } finally {
+            PENDING_EXPERIMENTS.remove(expUUID, opening);
+        }
+    }
+
+    /**
+     * Get the experiments that are currently open
+     *
+     * @return an unmodifiable view of the open experiments, by UUID
+     */
+    public static Map<UUID, TmfExperiment> getOpenExperiments() {
+        return Collections.unmodifiableMap(EXPERIMENTS);
+    }
+
     /**
      * Get the list of trace UUIDs of an experiment from the experiment manager.
      *
@@ -585,9 +657,7 @@ public class ExperimentManagerService {
      * @return true if the given trace is in use by any experiment
      */
     public static boolean isTraceInUse(UUID uuid) {
-        synchronized (TRACE_UUIDS) {
-            return TRACE_UUIDS.values().stream().anyMatch(traceUUIDs -> traceUUIDs.contains(uuid));
-        }
+        return TRACE_UUIDS.values().stream().anyMatch(traceUUIDs -> traceUUIDs.contains(uuid));
     }
 
     /**
@@ -605,12 +675,14 @@ public class ExperimentManagerService {
      * Dispose method to be only called at server shutdown. It disposes experiments, traces etc.
      */
     public static void dispose() {
+        QueryCancellationManager.dispose();
+        BatchQueryExecutor.dispose();
+        QueryResultCache.invalidateAll();
+        DataProviderDescriptorCache.invalidateAll();
         for (TmfExperiment experiment : EXPERIMENTS.values()) {
-            if (experiment != null) {
-                TmfSignalManager.dispatchSignal(new TmfTraceClosedSignal(experiment, experiment));
-                // Experiment dispose() will dispose its traces as well.
-                experiment.dispose();
-            }
+            TmfSignalManager.dispatchSignal(new TmfTraceClosedSignal(experiment, experiment));
+            // Experiment dispose() will dispose its traces as well.
+            experiment.dispose();
         }
         EXPERIMENTS.clear();
         TRACE_UUIDS.clear();
@@ -618,4 +690,17 @@ public class ExperimentManagerService {
         EXPERIMENT_RESOURCES.clear();
         TRACE_ANNOTATION_PROVIDERS.clear();
     }
+
+    /**
+     * The instantiation in progress of an experiment, with the thread that
+     * instantiates it
+     */
+    private static final class PendingExperiment {
+        private final Thread fThread = Thread.currentThread();
+        private final CompletableFuture<@Nullable TmfExperiment> fFuture = new CompletableFuture<>();
+
+        public boolean isOpenedByCurrentThread() {
+            return fThread == Thread.currentThread();
+        }
+    }
 }
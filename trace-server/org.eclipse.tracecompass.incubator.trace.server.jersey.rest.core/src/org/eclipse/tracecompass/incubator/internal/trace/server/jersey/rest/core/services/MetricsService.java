@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Service to scrape the performance metrics of the server, in the Prometheus
+ * text exposition format
+ */
+@Path("/metrics")
+@Tag(name = EndpointConstants.DIA)
+public class MetricsService {
+
+    /**
+     * Getter for the server metrics
+     *
+     * @return the metrics, see {@link ServerMetrics}
+     */
+    @GET
+    @Produces(MediaType.TEXT_PLAIN)
+    @Operation(summary = "Get the performance metrics of this server in the Prometheus text format", responses = {
+            @ApiResponse(responseCode = "200", description = "The latency, response size, thread pool, indexing and JVM metrics of the server", content = @Content(schema = @Schema(implementation = String.class)))
+    })
+    public Response getMetrics() {
+        return Response.ok(ServerMetrics.scrape()).type(ServerMetrics.CONTENT_TYPE).build();
+    }
+}
@@ -0,0 +1,243 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.ee8.nested.HttpChannel;
+import org.eclipse.jetty.ee8.nested.Request;
+import org.eclipse.jetty.io.EndPoint;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.Activator;
+
+/**
+ * Keeps track of the queries currently served by the {@link DataProviderService}
+ * and provides the {@link QueryProgressMonitor} to pass to the data providers.
+ *
+ * A query is cancelled when:
+ * <ul>
+ * <li>a newer query of the same type arrives from the same client and view for
+ * the same experiment and output,</li>
+ * <li>the query timeout, configured in seconds with the system property
+ * {@link #PROPERTY_QUERY_TIMEOUT}, expires,</li>
+ * <li>the connection to the client is closed,</li>
+ * <li>the experiment is closed.</li>
+ * </ul>
+ *
+ * The client is identified by the {@link #CLIENT_ID_HEADER} header and the view
+ * by the optional {@link #VIEW_ID_HEADER} header. Queries without a client ID
+ * never supersede each other: several clients can share the same address, and
+ * a client can have several queries of the same type in flight, e.g. for
+ * different pages of a table. Every query is tracked per experiment, with or
+ * without a client ID, so that all of them are cancelled when the experiment
+ * is closed or the server stops.
+ */
+public final class QueryCancellationManager {
+
+    /**
+     * System property to configure the query timeout in seconds. A value
+     * smaller or equal to 0 disables the timeout.
+     */
+    public static final String PROPERTY_QUERY_TIMEOUT = "traceserver.queryTimeout"; //$NON-NLS-1$
+
+    /**
+     * HTTP header that clients can set to identify themselves, so that
+     * superseded queries are detected across connections
+     */
+    public static final String CLIENT_ID_HEADER = "X-Client-Id"; //$NON-NLS-1$
+
+    /**
+     * HTTP header that clients can set to identify the view sending the query,
+     * so that the queries of different views of a client for the same output
+     * do not supersede each other
+     */
+    public static final String VIEW_ID_HEADER = "X-View-Id"; //$NON-NLS-1$
+
+    private static final long DEFAULT_QUERY_TIMEOUT = 300;
+    private static final String SEPARATOR = "|"; //$NON-NLS-1$
+
+    /* Running queries of the identified clients, by supersede key */
+    private static final Map<String, QueryProgressMonitor> SUPERSEDABLE_QUERIES = new ConcurrentHashMap<>();
+    /* All running queries, by experiment */
+    private static final Map<UUID, Set<QueryProgressMonitor>> EXPERIMENT_QUERIES = new ConcurrentHashMap<>();
+    private static final long QUERY_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(readQueryTimeout());
+
+    private QueryCancellationManager() {
+        // Do nothing
+    }
+
+    private static long readQueryTimeout() {
+        String timeoutStr = System.getProperty(PROPERTY_QUERY_TIMEOUT);
+        if (timeoutStr == null || timeoutStr.isEmpty()) {
+            return DEFAULT_QUERY_TIMEOUT;
+        }
+        try {
+            return Long.parseLong(timeoutStr);
+        } catch (NumberFormatException e) {
+            Activator.getInstance().logWarning(String.format("Invalid query timeout specified: %s. Will use default timeout %d", timeoutStr, DEFAULT_QUERY_TIMEOUT)); //$NON-NLS-1$
+            return DEFAULT_QUERY_TIMEOUT;
+        }
+    }
+
+    /**
+     * Register a new query and get the progress monitor to use while serving
+     * it. If the request identifies its client, any query of the same type
+     * from the same client and view for the same experiment and output that is
+     * still running is cancelled. The returned monitor must be closed once the
+     * query is served.
+     *
+     * @param request
+     *            the HTTP request of the query, or <code>null</code> if not
+     *            available
+     * @param expUUID
+     *            the UUID of the queried experiment
+     * @param outputId
+     *            the queried output ID
+     * @param queryType
+     *            the type of query, e.g. "states" or "xy"
+     * @return the progress monitor for this query
+     */
+    public static QueryProgressMonitor begin(@Nullable HttpServletRequest request, UUID expUUID, String outputId, String queryType) {
+        String clientId = request == null ? null : request.getHeader(CLIENT_ID_HEADER);
+        String viewId = request == null ? null : request.getHeader(VIEW_ID_HEADER);
+        return begin(clientId, viewId, expUUID, outputId, queryType, getConnectionState(request));
+    }
+
+    /**
+     * Register a new query and get the progress monitor to use while serving
+     * it. If a client ID is given, any query of the same type from the same
+     * client and view for the same experiment and output that is still running
+     * is cancelled. The returned monitor must be closed once the query is
+     * served.
+     *
+     * @param clientId
+     *            the ID of the client, or <code>null</code> if the client is
+     *            not identified
+     * @param viewId
+     *            the ID of the view of the client, or <code>null</code>
+     * @param expUUID
+     *            the UUID of the queried experiment
+     * @param outputId
+     *            the queried output ID
+     * @param queryType
+     *            the type of query, e.g. "states" or "xy"
+     * @param connectionState
+     *            supplier that returns false once the connection to the client
+     *            is closed
+     * @return the progress monitor for this query
+     */
+    public static QueryProgressMonitor begin(@Nullable String clientId, @Nullable String viewId, UUID expUUID, String outputId, String queryType, BooleanSupplier connectionState) {
+        String key = null;
+        if (clientId != null && !clientId.isEmpty()) {
+            key = String.join(SEPARATOR, clientId, viewId == null ? "" : viewId, String.valueOf(expUUID), outputId, queryType); //$NON-NLS-1$
+        }
+        QueryProgressMonitor monitor = new QueryProgressMonitor(key, expUUID, outputId, queryType, QUERY_TIMEOUT_NANOS, connectionState);
+        EXPERIMENT_QUERIES.compute(expUUID, (uuid, monitors) -> {
+            Set<QueryProgressMonitor> set = monitors == null ? ConcurrentHashMap.newKeySet() : monitors;
+            set.add(monitor);
+            return set;
+        });
+        if (key != null) {
+            QueryProgressMonitor previous = SUPERSEDABLE_QUERIES.put(key, monitor);
+            if (previous != null) {
+                previous.setCanceled(true);
+            }
+        }
+        return monitor;
+    }
+
+    /**
+     * Unregister a query that was served. This is called when the monitor is
+     * closed.
+     *
+     * @param monitor
+     *            the monitor of the query
+     */
+    static void end(QueryProgressMonitor monitor) {
+        String key = monitor.getKey();
+        if (key != null) {
+            SUPERSEDABLE_QUERIES.remove(key, monitor);
+        }
+        UUID expUUID = monitor.getExperimentUUID();
+        if (expUUID != null) {
+            EXPERIMENT_QUERIES.computeIfPresent(expUUID, (uuid, monitors) -> {
+                monitors.remove(monitor);
+                return monitors.isEmpty() ? null : monitors;
+            });
+        }
+    }
+
+    /**
+     * Cancel all running queries for an experiment, for example when the
+     * experiment is closed. The queries stay active until they are closed.
+     *
+     * @param expUUID
+     *            the UUID of the experiment
+     */
+    public static void cancelAll(UUID expUUID) {
+        Set<QueryProgressMonitor> monitors = EXPERIMENT_QUERIES.get(expUUID);
+        if (monitors != null) {
+            monitors.forEach(monitor -> monitor.setCanceled(true));
+        }
+    }
+
+    /**
+     * Cancel all running queries. To be called at server shutdown.
+     */
+    public static void dispose() {
+        EXPERIMENT_QUERIES.values().forEach(monitors -> monitors.forEach(monitor -> monitor.setCanceled(true)));
+        EXPERIMENT_QUERIES.clear();
+        SUPERSEDABLE_QUERIES.clear();
+    }
+
+    /**
+     * Get the number of queries currently registered
+     *
+     * @return the number of running queries
+     */
+    public static int getActiveQueryCount() {
+        int count = 0;
+        for (Set<QueryProgressMonitor> monitors : EXPERIMENT_QUERIES.values()) {
+            count += monitors.size();
+        }
+        return count;
+    }
+
+    /**
+     * Get the state of the connection of a request, which can be read after
+     * the request context is released
+     *
+     * @param request
+     *            the HTTP request, or <code>null</code> if not available
+     * @return supplier that returns false once the connection to the client
+     *         is closed
+     */
+    static BooleanSupplier getConnectionState(@Nullable HttpServletRequest request) {
+        if (request == null) {
+            return () -> true;
+        }
+        Request baseRequest = Request.getBaseRequest(request);
+        HttpChannel channel = baseRequest == null ? null : baseRequest.getHttpChannel();
+        EndPoint endPoint = channel == null ? null : channel.getEndPoint();
+        if (endPoint == null) {
+            return () -> true;
+        }
+        return endPoint::isOpen;
+    }
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services;
+
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Progress monitor passed to the data providers when serving a query. It is
+ * cancelled when the query is superseded by a newer query of the same client
+ * for the same output, when the query timeout expires or when the client
+ * connection is closed.
+ *
+ * Instances are obtained with {@link QueryCancellationManager#begin} and must
+ * be closed once the query is served.
+ */
+public class QueryProgressMonitor extends NullProgressMonitor implements AutoCloseable {
+
+    private final @Nullable String fKey;
+    private final @Nullable UUID fExpUUID;
+    private final @Nullable String fOutputId;
+    private final @Nullable String fQueryType;
+    private final long fStartTime;
+    private final boolean fHasDeadline;
+    private final long fDeadline;
+    private final BooleanSupplier fConnectionOpen;
+
+    /**
+     * Constructor
+     *
+     * @param key
+     *            the key used to detect superseded queries, or
+     *            <code>null</code> if the query can't be superseded
+     * @param expUUID
+     *            the UUID of the queried experiment, or <code>null</code>
+     * @param timeoutNanos
+     *            the query timeout in nanoseconds, a value smaller or equal to
+     *            0 disables the timeout
+     * @param connectionOpen
+     *            supplier returning <code>false</code> once the client
+     *            connection is closed
+     */
+    public QueryProgressMonitor(@Nullable String key, @Nullable UUID expUUID, long timeoutNanos, BooleanSupplier connectionOpen) {
+        this(key, expUUID, null, null, timeoutNanos, connectionOpen);
+    }
+
+    /**
+     * Constructor for a query whose duration is recorded in the
+     * {@link ServerMetrics}
+     *
+     * @param key
+     *            the key used to detect superseded queries, or
+     *            <code>null</code> if the query can't be superseded
+     * @param expUUID
+     *            the UUID of the queried experiment, or <code>null</code>
+     * @param outputId
+     *            the queried output ID, or <code>null</code> to not record
+     *            the query duration
+     * @param queryType
+     *            the type of query, or <code>null</code> to not record the
+     *            query duration
+     * @param timeoutNanos
+     *            the query timeout in nanoseconds, a value smaller or equal to
+     *            0 disables the timeout
+     * @param connectionOpen
+     *            supplier returning <code>false</code> once the client
+     *            connection is closed
+     */
+    public QueryProgressMonitor(@Nullable String key, @Nullable UUID expUUID, @Nullable String outputId, @Nullable String queryType, long timeoutNanos, BooleanSupplier connectionOpen) {
+        fKey = key;
+        fExpUUID = expUUID;
+        fOutputId = outputId;
+        fQueryType = queryType;
+        fStartTime = System.nanoTime();
+        fHasDeadline = timeoutNanos > 0;
+        fDeadline = fStartTime + timeoutNanos;
+        fConnectionOpen = connectionOpen;
+    }
+
+    @Override
+    public boolean isCanceled() {
+        if (super.isCanceled()) {
+            return true;
+        }
+        if ((fHasDeadline && System.nanoTime() - fDeadline > 0) || !fConnectionOpen.getAsBoolean()) {
+            setCanceled(true);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get the key used to detect superseded queries
+     *
+     * @return the key, or <code>null</code> if the query can't be superseded
+     */
+    public @Nullable String getKey() {
+        return fKey;
+    }
+
+    /**
+     * Get the UUID of the queried experiment
+     *
+     * @return the experiment UUID, or <code>null</code>
+     */
+    public @Nullable UUID getExperimentUUID() {
+        return fExpUUID;
+    }
+
+    @Override
+    public void close() {
+        QueryCancellationManager.end(this);
+        String outputId = fOutputId;
+        String queryType = fQueryType;
+        if (outputId != null && queryType != null) {
+            ServerMetrics.queryCompleted(outputId, queryType, System.nanoTime() - fStartTime, isCanceled());
+        }
+    }
+}
@@ -0,0 +1,366 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.Activator;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphRowModel;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphModel;
+import org.eclipse.tracecompass.tmf.core.model.tree.TmfTreeModel;
+import org.eclipse.tracecompass.tmf.core.model.xy.ISeriesModel;
+import org.eclipse.tracecompass.tmf.core.model.xy.ITmfXyModel;
+import org.eclipse.tracecompass.tmf.core.response.ITmfResponse;
+import org.eclipse.tracecompass.tmf.core.response.TmfModelResponse;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.primitives.Ints;
+
+/**
+ * Cache of the data provider query results served by the
+ * {@link DataProviderService}. Results are keyed on the experiment UUID, the
+ * output ID, the query type and the normalized query parameters, so that
+ * identical queries from view refreshes, split views or different users on the
+ * same experiment are served without going back to the state system.
+ *
+ * Only {@link ITmfResponse.Status#COMPLETED} responses are cached. The cache is
+ * bounded by the approximate memory size of the cached models, configured in
+ * megabytes with the system property {@link #PROPERTY_CACHE_SIZE}. Entries of an
+ * experiment are invalidated when the experiment is closed.
+ *
+ * Experiment UUIDs are derived from the experiment names, so an experiment
+ * created again with the same name has the same UUID. Each experiment has a
+ * generation, which is part of the keys and is incremented when its entries
+ * are invalidated. A query reads the generation with
+ * {@link #getGeneration(UUID)} before calling the data provider, and its
+ * response is not cached if the experiment was closed in the meantime.
+ */
+public final class QueryResultCache {
+
+    /**
+     * System property to configure the maximum size of the cache in megabytes.
+     * A value of 0 disables the cache.
+     */
+    public static final String PROPERTY_CACHE_SIZE = "traceserver.queryCacheSize"; //$NON-NLS-1$
+
+    private static final long DEFAULT_CACHE_SIZE = 128;
+    private static final long MEGABYTE = 1024L * 1024L;
+    private static final String SEPARATOR = "|"; //$NON-NLS-1$
+
+    /*
+     * Approximate retained size in bytes of the model elements, used to weigh
+     * the cache entries.
+     */
+    private static final long RESPONSE_WEIGHT = 128;
+    private static final long TREE_ENTRY_WEIGHT = 160;
+    private static final long ROW_WEIGHT = 48;
+    private static final long STATE_WEIGHT = 72;
+    private static final long SERIES_WEIGHT = 96;
+    private static final long POINT_WEIGHT = 16;
+    private static final long ELEMENT_WEIGHT = 64;
+
+    private static final long MAX_WEIGHT = readCacheSize() * MEGABYTE;
+    private static final @Nullable Cache<CacheKey, TmfModelResponse<?>> CACHE = MAX_WEIGHT > 0 ? CacheBuilder.newBuilder()
+            .maximumWeight(MAX_WEIGHT)
+            .weigher((CacheKey key, TmfModelResponse<?> value) -> Ints.saturatedCast(key.fKey.length() * 2L + weigh(value)))
+            .removalListener(notification -> {
+                CacheKey key = notification.getKey();
+                if (key != null && notification.getCause() != RemovalCause.REPLACED) {
+                    removeFromIndex(key);
+                }
+            })
+            .build() : null;
+
+    /* Generation of the experiments, experiments without one are at 0 */
+    private static final Map<UUID, Long> GENERATIONS = new ConcurrentHashMap<>();
+    /* Keys of the cached responses, by experiment and output */
+    private static final Map<UUID, Map<String, Set<CacheKey>>> INDEX = new ConcurrentHashMap<>();
+
+    /**
+     * Key of a cached response, the experiment and output are kept to find
+     * the key in the index when it is evicted
+     */
+    private static final class CacheKey {
+        private final UUID fExpUUID;
+        private final String fOutputId;
+        private final long fGeneration;
+        private final String fKey;
+
+        public CacheKey(UUID expUUID, String outputId, long generation, String key) {
+            fExpUUID = expUUID;
+            fOutputId = outputId;
+            fGeneration = generation;
+            fKey = key;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fGeneration, fKey);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) obj;
+            return fGeneration == other.fGeneration && fKey.equals(other.fKey);
+        }
+    }
+
+    private QueryResultCache() {
+        // Do nothing
+    }
+
+    private static long readCacheSize() {
+        String sizeStr = System.getProperty(PROPERTY_CACHE_SIZE);
+        if (sizeStr == null || sizeStr.isEmpty()) {
+            return DEFAULT_CACHE_SIZE;
+        }
+        try {
+            return Math.max(0, Long.parseLong(sizeStr));
+        } catch (NumberFormatException e) {
+            Activator.getInstance().logWarning(String.format("Invalid query cache size specified: %s. Will use default size %d MB", sizeStr, DEFAULT_CACHE_SIZE)); //$NON-NLS-1$
+            return DEFAULT_CACHE_SIZE;
+        }
+    }
+
+    /**
+     * Get a cached response
+     *
+     * @param expUUID
+     *            the experiment UUID
+     * @param outputId
+     *            the output ID
+     * @param queryType
+     *            the type of query, e.g. "states" or "xy"
+     * @param parameters
+     *            the query parameters
+     * @return the cached response, or <code>null</code> if there is none
+     */
+    public static @Nullable TmfModelResponse<?> get(UUID expUUID, String outputId, String queryType, Map<String, Object> parameters) {
+        Cache<CacheKey, TmfModelResponse<?>> cache = CACHE;
+        if (cache == null) {
+            return null;
+        }
+        return cache.getIfPresent(new CacheKey(expUUID, outputId, getGeneration(expUUID), getKey(expUUID, outputId, queryType, parameters)));
+    }
+
+    /**
+     * Get the current generation of an experiment, to read before calling the
+     * data provider and to pass to
+     * {@link #put(UUID, long, String, String, Map, TmfModelResponse)}
+     *
+     * @param expUUID
+     *            the experiment UUID
+     * @return the generation of the experiment
+     */
+    public static long getGeneration(UUID expUUID) {
+        return GENERATIONS.getOrDefault(expUUID, 0L);
+    }
+
+    /**
+     * Cache a response if it is completed. A running or failed response
+     * invalidates the cached responses of the output, as the underlying
+     * analysis results may have changed. The response is dropped if the
+     * experiment was invalidated since the query started.
+     *
+     * @param expUUID
+     *            the experiment UUID
+     * @param generation
+     *            the generation of the experiment when the query started
+     * @param outputId
+     *            the output ID
+     * @param queryType
+     *            the type of query, e.g. "states" or "xy"
+     * @param parameters
+     *            the query parameters
+     * @param response
+     *            the response returned by the data provider
+     */
+    public static void put(UUID expUUID, long generation, String outputId, String queryType, Map<String, Object> parameters, TmfModelResponse<?> response) {
+        Cache<CacheKey, TmfModelResponse<?>> cache = CACHE;
+        if (cache == null || generation != getGeneration(expUUID)) {
+            return;
+        }
+        ITmfResponse.Status status = response.getStatus();
+        if (status == ITmfResponse.Status.RUNNING || status == ITmfResponse.Status.FAILED) {
+            invalidate(expUUID, outputId);
+            return;
+        }
+        if (status != ITmfResponse.Status.COMPLETED || response.getModel() == null) {
+            return;
+        }
+        CacheKey key = new CacheKey(expUUID, outputId, generation, getKey(expUUID, outputId, queryType, parameters));
+        // Indexed first, so that an eviction right after the put finds it
+        INDEX.computeIfAbsent(expUUID, uuid -> new ConcurrentHashMap<>())
+                .computeIfAbsent(outputId, id -> ConcurrentHashMap.newKeySet())
+                .add(key);
+        cache.put(key, response);
+    }
+
+    /**
+     * Invalidate the cached responses of an experiment, for example when it is
+     * closed. The responses of the queries that are still running are not
+     * cached.
+     *
+     * @param expUUID
+     *            the experiment UUID
+     */
+    public static void invalidate(UUID expUUID) {
+        GENERATIONS.merge(expUUID, 1L, Long::sum);
+        Map<String, Set<CacheKey>> outputs = INDEX.remove(expUUID);
+        Cache<CacheKey, TmfModelResponse<?>> cache = CACHE;
+        if (outputs != null && cache != null) {
+            outputs.values().forEach(cache::invalidateAll);
+        }
+    }
+
+    /**
+     * Invalidate the cached responses of an output of an experiment
+     *
+     * @param expUUID
+     *            the experiment UUID
+     * @param outputId
+     *            the output ID
+     */
+    public static void invalidate(UUID expUUID, String outputId) {
+        Map<String, Set<CacheKey>> outputs = INDEX.get(expUUID);
+        Set<CacheKey> keys = outputs == null ? null : outputs.remove(outputId);
+        Cache<CacheKey, TmfModelResponse<?>> cache = CACHE;
+        if (keys != null && cache != null) {
+            cache.invalidateAll(keys);
+        }
+    }
+
+    /**
+     * Invalidate all cached responses
+     */
+    public static void invalidateAll() {
+        Cache<CacheKey, TmfModelResponse<?>> cache = CACHE;
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+        INDEX.clear();
+    }
+
+    /**
+     * Get the number of cached responses
+     *
+     * @return the number of cached responses
+     */
+    public static long size() {
+        Cache<CacheKey, TmfModelResponse<?>> cache = CACHE;
+        return cache == null ? 0 : cache.size();
+    }
+
+    private static void removeFromIndex(CacheKey key) {
+        Map<String, Set<CacheKey>> outputs = INDEX.get(key.fExpUUID);
+        Set<CacheKey> keys = outputs == null ? null : outputs.get(key.fOutputId);
+        if (keys != null) {
+            keys.remove(key);
+        }
+    }
+
+    /**
+     * Get the cache key of a query. The parameters are normalized so that the
+     * order of the map keys does not matter.
+     *
+     * @param expUUID
+     *            the experiment UUID
+     * @param outputId
+     *            the output ID
+     * @param queryType
+     *            the type of query
+     * @param parameters
+     *            the query parameters
+     * @return the cache key
+     */
+    @VisibleForTesting
+    public static String getKey(UUID expUUID, String outputId, String queryType, Map<String, Object> parameters) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(expUUID).append(SEPARATOR).append(outputId).append(SEPARATOR).append(queryType).append(SEPARATOR);
+        appendNormalized(sb, parameters);
+        return sb.toString();
+    }
+
+    private static void appendNormalized(StringBuilder sb, @Nullable Object value) {
+        if (value instanceof Map<?, ?>) {
+            Map<String, @Nullable Object> sorted = new TreeMap<>();
+            for (Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                sorted.put(String.valueOf(entry.getKey()), entry.getValue());
+            }
+            sb.append('{');
+            for (Entry<String, @Nullable Object> entry : sorted.entrySet()) {
+                sb.append(entry.getKey()).append('=');
+                appendNormalized(sb, entry.getValue());
+                sb.append(',');
+            }
+            sb.append('}');
+        } else if (value instanceof Collection<?>) {
+            sb.append('[');
+            for (Object element : (Collection<?>) value) {
+                appendNormalized(sb, element);
+                sb.append(',');
+            }
+            sb.append(']');
+        } else if (value instanceof Number) {
+            // Integer and Long values of the same number are equivalent
+            Number number = (Number) value;
+            if (number.doubleValue() == number.longValue()) {
+                sb.append(number.longValue());
+            } else {
+                sb.append(number.doubleValue());
+            }
+        } else if (value instanceof String) {
+            sb.append('"').append(value).append('"');
+        } else {
+            sb.append(Objects.toString(value));
+        }
+    }
+
+    private static long weigh(TmfModelResponse<?> response) {
+        Object model = response.getModel();
+        long weight = RESPONSE_WEIGHT;
+        if (model instanceof TimeGraphModel) {
+            for (ITimeGraphRowModel row : ((TimeGraphModel) model).getRows()) {
+                weight += ROW_WEIGHT + row.getStates().size() * STATE_WEIGHT;
+            }
+        } else if (model instanceof ITmfXyModel) {
+            for (ISeriesModel series : ((ITmfXyModel) model).getSeriesData()) {
+                weight += SERIES_WEIGHT + series.getData().length * POINT_WEIGHT;
+            }
+        } else if (model instanceof TmfTreeModel<?>) {
+            weight += ((TmfTreeModel<?>) model).getEntries().size() * TREE_ENTRY_WEIGHT;
+        } else if (model instanceof Map<?, ?>) {
+            weight += ((Map<?, ?>) model).size() * ELEMENT_WEIGHT;
+        } else if (model instanceof List<?>) {
+            weight += ((List<?>) model).size() * ELEMENT_WEIGHT;
+        }
+        return weight;
+    }
+}
@@ -0,0 +1,350 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.tracecompass.tmf.core.trace.experiment.TmfExperiment;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Collects the performance metrics of the trace server and formats them in the
+ * Prometheus text exposition format, for the {@link MetricsService}.
+ *
+ * Recording a measure only increments lock-free counters of a metric looked up
+ * by its labels, so it can be done on every request. The JVM, thread pool and
+ * experiment metrics are read when the metrics are scraped.
+ */
+public final class ServerMetrics {
+
+    /**
+     * Content type of the Prometheus text exposition format
+     */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8"; //$NON-NLS-1$
+
+    private static final String PREFIX = "traceserver_"; //$NON-NLS-1$
+    private static final String COUNTER = "counter"; //$NON-NLS-1$
+    private static final String GAUGE = "gauge"; //$NON-NLS-1$
+    private static final String HISTOGRAM = "histogram"; //$NON-NLS-1$
+
+    /* Bucket upper bounds, in seconds and in bytes */
+    private static final double[] LATENCY_BUCKETS = { 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60 };
+    private static final double[] SIZE_BUCKETS = { 256, 1024, 4096, 16384, 65536, 262144, 1048576, 4194304, 16777216, 67108864 };
+
+    private static final Map<String, Histogram> REQUEST_DURATION = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> RESPONSE_SIZE = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> REQUESTS = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> QUERY_DURATION = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> QUERIES_CANCELLED = new ConcurrentHashMap<>();
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+
+    private static @Nullable QueuedThreadPool sfThreadPool = null;
+
+    private ServerMetrics() {
+        // Do nothing
+    }
+
+    /**
+     * Record that the server started handling a request
+     */
+    public static void requestStarted() {
+        IN_FLIGHT.incrementAndGet();
+    }
+
+    /**
+     * Record that the server completed a request, including the writing of
+     * its response
+     *
+     * @param method
+     *            the HTTP method
+     * @param route
+     *            the path template of the endpoint, for example
+     *            "/experiments/{expUUID}"
+     * @param status
+     *            the HTTP status of the response
+     * @param durationNanos
+     *            the duration of the request, in nanoseconds
+     * @param responseSize
+     *            the size of the response entity in bytes, or a negative
+     *            value if the response had no entity
+     */
+    public static void requestCompleted(String method, String route, int status, long durationNanos, long responseSize) {
+        IN_FLIGHT.decrementAndGet();
+        String labels = labels("method", method, "route", route); //$NON-NLS-1$ //$NON-NLS-2$
+        histogram(REQUEST_DURATION, labels, LATENCY_BUCKETS).observe(durationNanos / 1e9);
+        if (responseSize >= 0) {
+            histogram(RESPONSE_SIZE, labels, SIZE_BUCKETS).observe(responseSize);
+        }
+        counter(REQUESTS, labels + ",status=\"" + status + '"').increment(); //$NON-NLS-1$
+    }
+
+    /**
+     * Record the execution of a data provider query
+     *
+     * @param outputId
+     *            the ID of the queried output
+     * @param queryType
+     *            the type of query, e.g. "states" or "xy"
+     * @param durationNanos
+     *            the duration of the query, in nanoseconds
+     * @param cancelled
+     *            whether the query was cancelled
+     */
+    public static void queryCompleted(String outputId, String queryType, long durationNanos, boolean cancelled) {
+        String labels = labels("output", outputId, "query", queryType); //$NON-NLS-1$ //$NON-NLS-2$
+        histogram(QUERY_DURATION, labels, LATENCY_BUCKETS).observe(durationNanos / 1e9);
+        if (cancelled) {
+            counter(QUERIES_CANCELLED, labels).increment();
+        }
+    }
+
+    /**
+     * Set the thread pool executing the requests, to report its saturation
+     *
+     * @param threadPool
+     *            the thread pool of the server, or <code>null</code> when the
+     *            server is stopped
+     */
+    public static void setThreadPool(@Nullable QueuedThreadPool threadPool) {
+        sfThreadPool = threadPool;
+    }
+
+    /**
+     * Clear all the recorded metrics
+     */
+    @VisibleForTesting
+    public static void reset() {
+        REQUEST_DURATION.clear();
+        RESPONSE_SIZE.clear();
+        REQUESTS.clear();
+        QUERY_DURATION.clear();
+        QUERIES_CANCELLED.clear();
+        IN_FLIGHT.set(0);
+    }
+
+    /**
+     * Get the current metrics in the Prometheus text exposition format
+     *
+     * @return the metrics
+     */
+    public static String scrape() {
+        StringBuilder sb = new StringBuilder();
+        writeHistograms(sb, "http_request_duration_seconds", "Duration of the HTTP requests, including the writing of the response", REQUEST_DURATION); //$NON-NLS-1$ //$NON-NLS-2$
+        writeHistograms(sb, "http_response_size_bytes", "Size of the HTTP response entities before compression", RESPONSE_SIZE); //$NON-NLS-1$ //$NON-NLS-2$
+        writeCounters(sb, "http_requests_total", "Number of completed HTTP requests", REQUESTS); //$NON-NLS-1$ //$NON-NLS-2$
+        writeHeader(sb, "http_requests_in_flight", "Number of HTTP requests being served", GAUGE); //$NON-NLS-1$ //$NON-NLS-2$
+        writeSample(sb, PREFIX + "http_requests_in_flight", null, IN_FLIGHT.get()); //$NON-NLS-1$
+        writeHistograms(sb, "query_duration_seconds", "Duration of the data provider queries", QUERY_DURATION); //$NON-NLS-1$ //$NON-NLS-2$
+        writeCounters(sb, "queries_cancelled_total", "Number of cancelled data provider queries", QUERIES_CANCELLED); //$NON-NLS-1$ //$NON-NLS-2$
+        writeHeader(sb, "queries_active", "Number of data provider queries being served", GAUGE); //$NON-NLS-1$ //$NON-NLS-2$
+        writeSample(sb, PREFIX + "queries_active", null, QueryCancellationManager.getActiveQueryCount()); //$NON-NLS-1$
+        writeHeader(sb, "query_cache_entries", "Number of query results in the cache", GAUGE); //$NON-NLS-1$ //$NON-NLS-2$
+        writeSample(sb, PREFIX + "query_cache_entries", null, QueryResultCache.size()); //$NON-NLS-1$
+        writeThreadPool(sb);
+        writeExperiments(sb);
+        writeJvm(sb);
+        return sb.toString();
+    }
+
+    private static void writeThreadPool(StringBuilder sb) {
+        QueuedThreadPool threadPool = sfThreadPool;
+        if (threadPool == null) {
+            return;
+        }
+        writeHeader(sb, "threads", "Number of threads of the request thread pool", GAUGE); //$NON-NLS-1$ //$NON-NLS-2$
+        writeSample(sb, PREFIX + "threads", labels("state", "busy"), threadPool.getBusyThreads()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        writeSample(sb, PREFIX + "threads", labels("state", "idle"), threadPool.getIdleThreads()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        writeHeader(sb, "threads_max", "Maximum number of threads of the request thread pool", GAUGE); //$NON-NLS-1$ //$NON-NLS-2$
+        writeSample(sb, PREFIX + "threads_max", null, threadPool.getMaxThreads()); //$NON-NLS-1$
+        writeHeader(sb, "thread_pool_queue_size", "Number of jobs waiting for a thread of the request thread pool", GAUGE); //$NON-NLS-1$ //$NON-NLS-2$
+        writeSample(sb, PREFIX + "thread_pool_queue_size", null, threadPool.getQueueSize()); //$NON-NLS-1$
+        writeHeader(sb, "thread_pool_utilization", "Ratio of the maximum threads of the request thread pool that are busy", GAUGE); //$NON-NLS-1$ //$NON-NLS-2$
+        writeSample(sb, PREFIX + "thread_pool_utilization", null, threadPool.getUtilizationRate()); //$NON-NLS-1$
+    }
+
+    private static void writeExperiments(StringBuilder sb) {
+        Map<UUID, TmfExperiment> experiments = ExperimentManagerService.getOpenExperiments();
+        writeHeader(sb, "experiment_events", "Number of events indexed in the open experiments, its rate is the indexing throughput", GAUGE); //$NON-NLS-1$ //$NON-NLS-2$
+        for (Entry<UUID, TmfExperiment> entry : experiments.entrySet()) {
+            writeSample(sb, PREFIX + "experiment_events", experimentLabels(entry), entry.getValue().getNbEvents()); //$NON-NLS-1$
+        }
+        writeHeader(sb, "experiment_indexing", "Whether the open experiments are being indexed", GAUGE); //$NON-NLS-1$ //$NON-NLS-2$
+        for (Entry<UUID, TmfExperiment> entry : experiments.entrySet()) {
+            writeSample(sb, PREFIX + "experiment_indexing", experimentLabels(entry), entry.getValue().isIndexing() ? 1 : 0); //$NON-NLS-1$
+        }
+    }
+
+    private static String experimentLabels(Entry<UUID, TmfExperiment> entry) {
+        return labels("uuid", entry.getKey().toString(), "name", entry.getValue().getName()); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private static void writeJvm(StringBuilder sb) {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        MemoryUsage nonHeap = ManagementFactory.getMemoryMXBean().getNonHeapMemoryUsage();
+        String heapLabels = labels("area", "heap"); //$NON-NLS-1$ //$NON-NLS-2$
+        String nonHeapLabels = labels("area", "nonheap"); //$NON-NLS-1$ //$NON-NLS-2$
+        sb.append("# HELP jvm_memory_bytes_used Used bytes of a given JVM memory area.\n# TYPE jvm_memory_bytes_used gauge\n"); //$NON-NLS-1$
+        writeSample(sb, "jvm_memory_bytes_used", heapLabels, heap.getUsed()); //$NON-NLS-1$
+        writeSample(sb, "jvm_memory_bytes_used", nonHeapLabels, nonHeap.getUsed()); //$NON-NLS-1$
+        sb.append("# HELP jvm_memory_bytes_committed Committed bytes of a given JVM memory area.\n# TYPE jvm_memory_bytes_committed gauge\n"); //$NON-NLS-1$
+        writeSample(sb, "jvm_memory_bytes_committed", heapLabels, heap.getCommitted()); //$NON-NLS-1$
+        writeSample(sb, "jvm_memory_bytes_committed", nonHeapLabels, nonHeap.getCommitted()); //$NON-NLS-1$
+        sb.append("# HELP jvm_memory_bytes_max Max bytes of a given JVM memory area.\n# TYPE jvm_memory_bytes_max gauge\n"); //$NON-NLS-1$
+        writeSample(sb, "jvm_memory_bytes_max", heapLabels, heap.getMax()); //$NON-NLS-1$
+        writeSample(sb, "jvm_memory_bytes_max", nonHeapLabels, nonHeap.getMax()); //$NON-NLS-1$
+        sb.append("# HELP jvm_gc_collection_seconds Time spent in a given JVM garbage collector in seconds.\n# TYPE jvm_gc_collection_seconds summary\n"); //$NON-NLS-1$
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            String gcLabels = labels("gc", gc.getName()); //$NON-NLS-1$
+            writeSample(sb, "jvm_gc_collection_seconds_count", gcLabels, gc.getCollectionCount()); //$NON-NLS-1$
+            writeSample(sb, "jvm_gc_collection_seconds_sum", gcLabels, gc.getCollectionTime() / 1000.0); //$NON-NLS-1$
+        }
+        sb.append("# HELP jvm_threads_current Current thread count of a JVM.\n# TYPE jvm_threads_current gauge\n"); //$NON-NLS-1$
+        writeSample(sb, "jvm_threads_current", null, ManagementFactory.getThreadMXBean().getThreadCount()); //$NON-NLS-1$
+        sb.append("# HELP process_uptime_seconds Uptime of the JVM in seconds.\n# TYPE process_uptime_seconds gauge\n"); //$NON-NLS-1$
+        writeSample(sb, "process_uptime_seconds", null, TimeUnit.MILLISECONDS.toSeconds(ManagementFactory.getRuntimeMXBean().getUptime())); //$NON-NLS-1$
+    }
+
+    private static void writeHistograms(StringBuilder sb, String name, String help, Map<String, Histogram> histograms) {
+        writeHeader(sb, name, help, HISTOGRAM);
+        // Sort by labels so that the series keep the same order between scrapes
+        for (Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+            entry.getValue().write(sb, PREFIX + name, entry.getKey());
+        }
+    }
+
+    private static void writeCounters(StringBuilder sb, String name, String help, Map<String, LongAdder> counters) {
+        writeHeader(sb, name, help, COUNTER);
+        for (Entry<String, LongAdder> entry : new TreeMap<>(counters).entrySet()) {
+            writeSample(sb, PREFIX + name, entry.getKey(), entry.getValue().sum());
+        }
+    }
+
+    private static void writeHeader(StringBuilder sb, String name, String help, String type) {
+        sb.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n'); //$NON-NLS-1$
+        sb.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n'); //$NON-NLS-1$
+    }
+
+    private static void writeSample(StringBuilder sb, String name, @Nullable String labels, double value) {
+        sb.append(name);
+        if (labels != null && !labels.isEmpty()) {
+            sb.append('{').append(labels).append('}');
+        }
+        sb.append(' ').append(format(value)).append('\n');
+    }
+
+    private static String format(double value) {
+        if (value == Double.POSITIVE_INFINITY) {
+            return "+Inf"; //$NON-NLS-1$
+        }
+        if (value == (long) value) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static Histogram histogram(Map<String, Histogram> histograms, String labels, double[] buckets) {
+        Histogram histogram = histograms.get(labels);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(labels, l -> new Histogram(buckets));
+        }
+        return histogram;
+    }
+
+    private static LongAdder counter(Map<String, LongAdder> counters, String labels) {
+        LongAdder counter = counters.get(labels);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(labels, l -> new LongAdder());
+        }
+        return counter;
+    }
+
+    /**
+     * Format label names and values, escaping the values as required by the
+     * exposition format
+     */
+    private static String labels(String... namesAndValues) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i + 1 < namesAndValues.length; i += 2) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(namesAndValues[i]).append("=\""); //$NON-NLS-1$
+            String value = namesAndValues[i + 1];
+            for (int j = 0; j < value.length(); j++) {
+                char c = value.charAt(j);
+                if (c == '\\' || c == '"') {
+                    sb.append('\\').append(c);
+                } else if (c == '\n') {
+                    sb.append("\\n"); //$NON-NLS-1$
+                } else {
+                    sb.append(c);
+                }
+            }
+            sb.append('"');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Histogram with fixed buckets, which can be updated concurrently without
+     * locking
+     */
+    private static final class Histogram {
+        private final double[] fBounds;
+        private final LongAdder[] fCounts;
+        private final DoubleAdder fSum = new DoubleAdder();
+
+        public Histogram(double[] bounds) {
+            fBounds = bounds;
+            // The last count is for the values above the last bound
+            fCounts = new LongAdder[bounds.length + 1];
+            for (int i = 0; i < fCounts.length; i++) {
+                fCounts[i] = new LongAdder();
+            }
+        }
+
+        public void observe(double value) {
+            int i = 0;
+            while (i < fBounds.length && value > fBounds[i]) {
+                i++;
+            }
+            fCounts[i].increment();
+            fSum.add(value);
+        }
+
+        public void write(StringBuilder sb, String name, String labels) {
+            String prefix = labels.isEmpty() ? "" : labels + ','; //$NON-NLS-1$
+            long cumulative = 0;
+            for (int i = 0; i < fCounts.length; i++) {
+                cumulative += fCounts[i].sum();
+                double bound = i < fBounds.length ? fBounds[i] : Double.POSITIVE_INFINITY;
+                writeSample(sb, name + "_bucket", prefix + "le=\"" + format(bound) + '"', cumulative); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            writeSample(sb, name + "_sum", labels, fSum.sum()); //$NON-NLS-1$
+            writeSample(sb, name + "_count", labels, cumulative); //$NON-NLS-1$
+        }
+    }
+}
@@ -27,7 +27,6 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +34,7 @@ import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.Consumes;
@@ -92,7 +92,12 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = EndpointConstants.TRA)
 public class TraceManagerService {
 
-    private static final Map<UUID, IResource> TRACES = Collections.synchronizedMap(initTraces());
+    private static final Map<UUID, IResource> TRACES = new ConcurrentHashMap<>(initTraces());
+    /*
+     * Lock for the creation and cleanup of the trace folders in the workspace,
+     * which can share parent folders
+     */
+    private static final Object FOLDER_LOCK = new Object();
 
     private static final String TRACES_FOLDER = "Traces"; //$NON-NLS-1$
 
@@ -107,16 +112,14 @@ public class TraceManagerService {
             @ApiResponse(responseCode = "200", description = "Returns a list of traces", content = @Content(array = @ArraySchema(schema = @Schema(implementation = org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.Trace.class))))
     })
     public Response getTraces() {
-        synchronized (TRACES) {
-            List<Trace> traces = new ArrayList<>();
-            for (UUID uuid : TRACES.keySet()) {
-                Trace trace = createTraceModel(uuid);
-                if (trace != null) {
-                    traces.add(trace);
-                }
+        List<Trace> traces = new ArrayList<>();
+        for (UUID uuid : TRACES.keySet()) {
+            Trace trace = createTraceModel(uuid);
+            if (trace != null) {
+                traces.add(trace);
             }
-            return Response.ok(traces).build();
         }
+        return Response.ok(traces).build();
     }
 
     private static Map<UUID, IResource> initTraces() {
@@ -207,14 +210,12 @@ public class TraceManagerService {
             java.nio.file.Path targetPath = Paths.get(path);
             if (oldLocation == null || !targetPath.equals(Paths.get(oldLocation.toString())) ||
                     !traceType.equals(resource.getPersistentProperty(TmfCommonConstants.TRACETYPE))) {
-                synchronized (TRACES) {
-                    Optional<@NonNull Entry<UUID, IResource>> oldEntry = TRACES.entrySet().stream().filter(entry -> resource.equals(entry.getValue())).findFirst();
-                    if (!oldEntry.isPresent()) {
-                        return ErrorResponseUtil.newErrorResponse(Status.INTERNAL_SERVER_ERROR, "Failed to find conflicting trace"); //$NON-NLS-1$
-                    }
-                    UUID oldUUID = oldEntry.get().getKey();
-                    return ErrorResponseUtil.newErrorResponse(Status.CONFLICT, NAME_EXISTS, NAME_EXISTS_DETAIL, createTraceModel(oldUUID));
+                Optional<@NonNull Entry<UUID, IResource>> oldEntry = TRACES.entrySet().stream().filter(entry -> resource.equals(entry.getValue())).findFirst();
+                if (!oldEntry.isPresent()) {
+                    return ErrorResponseUtil.newErrorResponse(Status.INTERNAL_SERVER_ERROR, "Failed to find conflicting trace"); //$NON-NLS-1$
                 }
+                UUID oldUUID = oldEntry.get().getKey();
+                return ErrorResponseUtil.newErrorResponse(Status.CONFLICT, NAME_EXISTS, NAME_EXISTS_DETAIL, createTraceModel(oldUUID));
             }
         }
         UUID uuid = getTraceUUID(resource);
@@ -335,21 +336,23 @@ public class TraceManagerService {
      * @throws CoreException
      *             if an error occurs
      */
-    private static synchronized boolean createResource(String path, IResource resource) throws CoreException {
-        // create the resource hierarchy.
-        IPath targetLocation = new org.eclipse.core.runtime.Path(path);
-        createFolder((IFolder) resource.getParent(), null);
-        if (!ResourceUtil.createSymbolicLink(resource, targetLocation, true, null)) {
-            return false;
-        }
+    private static boolean createResource(String path, IResource resource) throws CoreException {
+        synchronized (FOLDER_LOCK) {
+            // create the resource hierarchy.
+            IPath targetLocation = new org.eclipse.core.runtime.Path(path);
+            createFolder((IFolder) resource.getParent(), null);
+            if (!ResourceUtil.createSymbolicLink(resource, targetLocation, true, null)) {
+                return false;
+            }
 
-        // create supplementary folder on file system:
-        IFolder supplRootFolder = resource.getProject().getFolder(TmfCommonConstants.TRACE_SUPPLEMENTARY_FOLDER_NAME);
-        IFolder supplFolder = supplRootFolder.getFolder(resource.getProjectRelativePath().removeFirstSegments(1));
-        createFolder(supplFolder, null);
-        resource.setPersistentProperty(TmfCommonConstants.TRACE_SUPPLEMENTARY_FOLDER, supplFolder.getLocation().toOSString());
+            // create supplementary folder on file system:
+            IFolder supplRootFolder = resource.getProject().getFolder(TmfCommonConstants.TRACE_SUPPLEMENTARY_FOLDER_NAME);
+            IFolder supplFolder = supplRootFolder.getFolder(resource.getProjectRelativePath().removeFirstSegments(1));
+            createFolder(supplFolder, null);
+            resource.setPersistentProperty(TmfCommonConstants.TRACE_SUPPLEMENTARY_FOLDER, supplFolder.getLocation().toOSString());
 
-        return true;
+            return true;
+        }
     }
 
     /**
@@ -431,15 +434,17 @@ public class TraceManagerService {
         }
     }
 
-    private static synchronized void cleanupFolders(File folder, File root) {
-        File current = folder;
-        while (current.isDirectory() && !current.equals(root)) {
-            File[] listFiles = current.listFiles();
-            if (listFiles == null || listFiles.length != 0) {
-                break;
+    private static void cleanupFolders(File folder, File root) {
+        synchronized (FOLDER_LOCK) {
+            File current = folder;
+            while (current.isDirectory() && !current.equals(root)) {
+                File[] listFiles = current.listFiles();
+                if (listFiles == null || listFiles.length != 0) {
+                    break;
+                }
+                current.delete();
+                current = current.getParentFile();
             }
-            current.delete();
-            current = current.getParentFile();
         }
     }
 
@@ -0,0 +1,371 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.Providers;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
+import org.eclipse.tracecompass.tmf.core.model.ISampling;
+import org.eclipse.tracecompass.tmf.core.model.ISampling.Categories;
+import org.eclipse.tracecompass.tmf.core.model.ISampling.Range;
+import org.eclipse.tracecompass.tmf.core.model.ISampling.Ranges;
+import org.eclipse.tracecompass.tmf.core.model.ISampling.Timestamps;
+import org.eclipse.tracecompass.tmf.core.model.OutputElementStyle;
+import org.eclipse.tracecompass.tmf.core.model.StyleProperties;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphArrow;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphRowModel;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphState;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphModel;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphState;
+import org.eclipse.tracecompass.tmf.core.model.xy.ISeriesModel;
+import org.eclipse.tracecompass.tmf.core.model.xy.ITmfXyModel;
+import org.eclipse.tracecompass.tmf.core.response.TmfModelResponse;
+import org.eclipse.tracecompass.traceeventlogger.LogUtils.ScopeLog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Writes the {@link TmfModelResponse} of the time graph states, time graph
+ * arrows and XY endpoints in a compact columnar binary encoding, when the
+ * client requests the {@link #MEDIA_TYPE} media type. JSON remains the default
+ * representation.
+ *
+ * The encoding is, with all integers as unsigned LEB128 variable-length
+ * integers, signed values zig-zag encoded, and all strings as indexes in the
+ * string dictionary (0 for <code>null</code>, i + 1 for the i-th string):
+ *
+ * <pre>
+ * response := "TSPB" version:byte modelType:byte dictionary status:string statusMessage:string model
+ * dictionary := count (length utf8-bytes)*
+ * states := rowCount (entryIdDelta stateCount (startDelta duration label:string style:string tags)*)*
+ * arrows := count (startDelta duration sourceIdDelta targetIdDelta style:string)*
+ * xy := title:string seriesCount (id name:string style:string xDescription:string yDescription:string sampling yCount y:double*)*
+ * sampling := 0 count timestampDelta* | 1 count category:string* | 2 count (startDelta length)* | 3
+ * </pre>
+ *
+ * Entry ids are delta encoded with the previous row, state start times with
+ * the end time of the previous state, arrow start times and ids with the
+ * previous arrow and timestamps with the previous timestamp. Styles and axis
+ * descriptions are dictionary encoded as their JSON representation, so that
+ * each distinct style is sent only once. Y values are big-endian IEEE 754
+ * doubles.
+ */
+@Provider
+@Produces(BinaryModelResponseWriter.MEDIA_TYPE)
+public class BinaryModelResponseWriter implements MessageBodyWriter<TmfModelResponse<?>> {
+
+    /**
+     * Media type of the binary encoding
+     */
+    public static final String MEDIA_TYPE = "application/vnd.tsp.binary"; //$NON-NLS-1$
+
+    /**
+     * Media type of the binary encoding, with a quality factor lower than JSON
+     * so that JSON stays the default representation. To use in the
+     * {@link Produces} annotations of the endpoints supporting the encoding.
+     */
+    public static final String MEDIA_TYPE_QS = MEDIA_TYPE + ";qs=0.5"; //$NON-NLS-1$
+
+    /**
+     * Version of the encoding
+     */
+    public static final byte VERSION = 1;
+
+    /** Model type of a response without model */
+    public static final byte MODEL_NONE = 0;
+    /** Model type of a time graph states response */
+    public static final byte MODEL_STATES = 1;
+    /** Model type of a time graph arrows response */
+    public static final byte MODEL_ARROWS = 2;
+    /** Model type of a XY response */
+    public static final byte MODEL_XY = 3;
+
+    private static final byte[] MAGIC = { 'T', 'S', 'P', 'B' };
+    private static final byte SAMPLING_TIMESTAMPS = 0;
+    private static final byte SAMPLING_CATEGORIES = 1;
+    private static final byte SAMPLING_RANGES = 2;
+    private static final byte SAMPLING_NONE = 3;
+
+    private static final @NonNull Logger LOGGER = TraceCompassLog.getLogger(BinaryModelResponseWriter.class);
+
+    @Context
+    private @Nullable Providers fProviders;
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return TmfModelResponse.class.isAssignableFrom(type) && MediaType.valueOf(MEDIA_TYPE).isCompatible(mediaType);
+    }
+
+    @Override
+    public void writeTo(TmfModelResponse<?> response, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException, WebApplicationException {
+        try (ScopeLog sl = new ScopeLog(LOGGER, Level.FINE, "BinaryModelResponseWrite")) { //$NON-NLS-1$
+            entityStream.write(encode(response, getObjectMapper()));
+        }
+    }
+
+    private ObjectMapper getObjectMapper() {
+        Providers providers = fProviders;
+        ContextResolver<ObjectMapper> resolver = providers == null ? null : providers.getContextResolver(ObjectMapper.class, MediaType.APPLICATION_JSON_TYPE);
+        ObjectMapper mapper = resolver == null ? null : resolver.getContext(ObjectMapper.class);
+        return mapper != null ? mapper : new JacksonObjectMapperProvider().getContext(ObjectMapper.class);
+    }
+
+    /**
+     * Encode a model response
+     *
+     * @param response
+     *            the response to encode
+     * @param mapper
+     *            the object mapper used to serialize the styles and axis
+     *            descriptions
+     * @return the encoded response
+     * @throws IOException
+     *             if the model can't be encoded
+     */
+    @VisibleForTesting
+    public static byte[] encode(TmfModelResponse<?> response, ObjectMapper mapper) throws IOException {
+        Encoder encoder = new Encoder(mapper);
+        encoder.writeString(response.getStatus().name());
+        encoder.writeString(response.getStatusMessage());
+        Object model = response.getModel();
+        byte modelType;
+        if (model == null) {
+            modelType = MODEL_NONE;
+        } else if (model instanceof TimeGraphModel) {
+            modelType = MODEL_STATES;
+            encoder.writeStates((TimeGraphModel) model);
+        } else if (model instanceof ITmfXyModel) {
+            modelType = MODEL_XY;
+            encoder.writeXy((ITmfXyModel) model);
+        } else if (model instanceof Collection<?>) {
+            modelType = MODEL_ARROWS;
+            encoder.writeArrows((Collection<?>) model);
+        } else {
+            throw new IOException("Model can't be encoded in binary: " + model.getClass().getName()); //$NON-NLS-1$
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(encoder.fBody.size() + 256);
+        out.write(MAGIC);
+        out.write(VERSION);
+        out.write(modelType);
+        ByteArrayOutputStream dictionary = new ByteArrayOutputStream();
+        writeVarLong(dictionary, encoder.fStrings.size());
+        for (String string : encoder.fStrings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(dictionary, bytes.length);
+            dictionary.write(bytes);
+        }
+        dictionary.writeTo(out);
+        encoder.fBody.writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        long v = value;
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    /**
+     * Encodes the model into the body, filling the string dictionary
+     */
+    private static class Encoder {
+        private final ObjectMapper fMapper;
+        private final ByteArrayOutputStream fBody = new ByteArrayOutputStream(4096);
+        private final List<String> fStrings = new ArrayList<>();
+        private final Map<String, Integer> fStringIndexes = new HashMap<>();
+        private final Map<Object, String> fJsonCache = new HashMap<>();
+        private final Map<Integer, String> fValueStyleCache = new HashMap<>();
+
+        public Encoder(ObjectMapper mapper) {
+            fMapper = mapper;
+        }
+
+        private void writeStates(TimeGraphModel model) throws JsonProcessingException {
+            writeVarLong(fBody, model.getRows().size());
+            long prevEntryId = 0;
+            long prevEnd = 0;
+            for (ITimeGraphRowModel row : model.getRows()) {
+                writeSigned(row.getEntryID() - prevEntryId);
+                prevEntryId = row.getEntryID();
+                writeVarLong(fBody, row.getStates().size());
+                for (ITimeGraphState state : row.getStates()) {
+                    long start = state.getStartTime();
+                    writeSigned(start - prevEnd);
+                    writeSigned(state.getDuration());
+                    prevEnd = start + state.getDuration();
+                    writeString(state.getLabel());
+                    OutputElementStyle style = state instanceof TimeGraphState ? ((TimeGraphState) state).getStyle() : null;
+                    if (style != null) {
+                        writeJson(style);
+                    } else if (state.getValue() != Integer.MIN_VALUE) {
+                        // Transform the value to a style, as in the JSON encoding
+                        writeValueStyle(state.getValue());
+                    } else {
+                        writeString(null);
+                    }
+                    writeVarLong(fBody, state instanceof TimeGraphState ? ((TimeGraphState) state).getActiveProperties() & 0xFFFFFFFFL : 0);
+                }
+            }
+        }
+
+        private void writeArrows(Collection<?> arrows) throws IOException {
+            writeVarLong(fBody, arrows.size());
+            long prevStart = 0;
+            long prevSource = 0;
+            long prevTarget = 0;
+            for (Object element : arrows) {
+                if (!(element instanceof ITimeGraphArrow)) {
+                    throw new IOException("Model can't be encoded in binary: " + element.getClass().getName()); //$NON-NLS-1$
+                }
+                ITimeGraphArrow arrow = (ITimeGraphArrow) element;
+                writeSigned(arrow.getStartTime() - prevStart);
+                writeSigned(arrow.getDuration());
+                writeSigned(arrow.getSourceId() - prevSource);
+                writeSigned(arrow.getDestinationId() - prevTarget);
+                prevStart = arrow.getStartTime();
+                prevSource = arrow.getSourceId();
+                prevTarget = arrow.getDestinationId();
+                OutputElementStyle style = arrow.getStyle();
+                if (style != null) {
+                    writeJson(style);
+                } else {
+                    writeString(null);
+                }
+            }
+        }
+
+        private void writeXy(ITmfXyModel model) throws IOException {
+            writeString(model.getTitle());
+            writeVarLong(fBody, model.getSeriesData().size());
+            for (ISeriesModel series : model.getSeriesData()) {
+                writeSigned(series.getId());
+                writeString(series.getName());
+                String type = series.getDisplayType().name().toLowerCase().trim();
+                writeJson(new OutputElementStyle(null, ImmutableMap.of(StyleProperties.SERIES_TYPE, type)));
+                writeJson(series.getXAxisDescription());
+                writeJson(series.getYAxisDescription());
+                writeSampling(series.getSampling());
+                double[] data = series.getData();
+                writeVarLong(fBody, data.length);
+                for (double value : data) {
+                    long bits = Double.doubleToLongBits(value);
+                    for (int shift = 56; shift >= 0; shift -= 8) {
+                        fBody.write((int) (bits >>> shift));
+                    }
+                }
+            }
+        }
+
+        private void writeSampling(@Nullable ISampling sampling) {
+            if (sampling instanceof Timestamps timestamps) {
+                fBody.write(SAMPLING_TIMESTAMPS);
+                long[] values = timestamps.timestamps();
+                writeVarLong(fBody, values.length);
+                long prev = 0;
+                for (long value : values) {
+                    writeSigned(value - prev);
+                    prev = value;
+                }
+            } else if (sampling instanceof Categories categories) {
+                fBody.write(SAMPLING_CATEGORIES);
+                writeVarLong(fBody, categories.categories().size());
+                for (String category : categories.categories()) {
+                    writeString(category);
+                }
+            } else if (sampling instanceof Ranges ranges) {
+                fBody.write(SAMPLING_RANGES);
+                writeVarLong(fBody, ranges.ranges().size());
+                long prevEnd = 0;
+                for (Range<@NonNull Long> range : ranges.ranges()) {
+                    writeSigned(range.start() - prevEnd);
+                    writeSigned(range.end() - range.start());
+                    prevEnd = range.end();
+                }
+            } else {
+                fBody.write(SAMPLING_NONE);
+            }
+        }
+
+        private void writeSigned(long value) {
+            // Zig-zag encoding, so that small negative values are small
+            writeVarLong(fBody, (value << 1) ^ (value >> 63));
+        }
+
+        private void writeString(@Nullable String string) {
+            if (string == null) {
+                writeVarLong(fBody, 0);
+                return;
+            }
+            Integer index = fStringIndexes.get(string);
+            if (index == null) {
+                fStrings.add(string);
+                index = fStrings.size();
+                fStringIndexes.put(string, index);
+            }
+            writeVarLong(fBody, index);
+        }
+
+        private void writeValueStyle(int value) throws JsonProcessingException {
+            String json = fValueStyleCache.get(value);
+            if (json == null) {
+                json = fMapper.writeValueAsString(new OutputElementStyle(String.valueOf(value)));
+                fValueStyleCache.put(value, json);
+            }
+            writeString(json);
+        }
+
+        private void writeJson(@Nullable Object value) throws JsonProcessingException {
+            if (value == null) {
+                writeString(null);
+                return;
+            }
+            String json = fJsonCache.get(value);
+            if (json == null) {
+                json = fMapper.writeValueAsString(value);
+                fJsonCache.put(value, json);
+            }
+            writeString(json);
+        }
+    }
+}
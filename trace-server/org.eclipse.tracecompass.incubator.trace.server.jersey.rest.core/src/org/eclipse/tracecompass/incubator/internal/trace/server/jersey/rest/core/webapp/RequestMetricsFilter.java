@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import javax.annotation.Priority;
+import javax.ws.rs.Path;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.ServerMetrics;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+/**
+ * A filter that records the duration and response size of each request in the
+ * {@link ServerMetrics}. The requests are grouped by the path template of the
+ * matched endpoint, so that the number of metrics does not grow with the
+ * number of experiments.
+ *
+ * The request is completed once its response entity is written, so the
+ * duration includes the serialization of the model. The size of the entity is
+ * counted before compression. Requests that end without writing an entity,
+ * for example HEAD requests or requests failing with an unmapped exception,
+ * are completed when Jersey finishes processing them. A request is only
+ * completed once.
+ */
+@Provider
+@Priority(Priorities.USER)
+public class RequestMetricsFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor, ApplicationEventListener {
+
+    private static final String START_TIME_PROPERTY = "metrics-start-time"; //$NON-NLS-1$
+    private static final String ROUTE_PROPERTY = "metrics-route"; //$NON-NLS-1$
+    private static final String METHOD_PROPERTY = "metrics-method"; //$NON-NLS-1$
+    private static final String STATUS_PROPERTY = "metrics-status"; //$NON-NLS-1$
+    private static final String COMPLETED_PROPERTY = "metrics-completed"; //$NON-NLS-1$
+    private static final String UNMATCHED = "unmatched"; //$NON-NLS-1$
+
+    private static final Map<Method, String> ROUTES = new ConcurrentHashMap<>();
+
+    @Context
+    private ResourceInfo fResourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        requestContext.setProperty(START_TIME_PROPERTY, System.nanoTime());
+        requestContext.setProperty(ROUTE_PROPERTY, getRoute(fResourceInfo));
+        requestContext.setProperty(METHOD_PROPERTY, requestContext.getMethod());
+        requestContext.setProperty(COMPLETED_PROPERTY, new AtomicBoolean());
+        ServerMetrics.requestStarted();
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException {
+        if (requestContext.getProperty(START_TIME_PROPERTY) == null) {
+            // The request was not matched to an endpoint
+            return;
+        }
+        if (responseContext.hasEntity()) {
+            // Completed once the entity is written
+            requestContext.setProperty(STATUS_PROPERTY, responseContext.getStatus());
+            return;
+        }
+        complete(requestContext::getProperty, responseContext.getStatus(), -1);
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException {
+        Object status = context.getProperty(STATUS_PROPERTY);
+        if (!(status instanceof Integer)) {
+            context.proceed();
+            return;
+        }
+        CountingOutputStream stream = new CountingOutputStream(context.getOutputStream());
+        context.setOutputStream(stream);
+        try {
+            context.proceed();
+        } finally {
+            complete(context::getProperty, (Integer) status, stream.getCount());
+        }
+    }
+
+    @Override
+    public void onEvent(@Nullable ApplicationEvent event) {
+        // Do nothing
+    }
+
+    @Override
+    public @Nullable RequestEventListener onRequest(@Nullable RequestEvent requestEvent) {
+        return event -> {
+            if (event.getType() != RequestEvent.Type.FINISHED) {
+                return;
+            }
+            ContainerRequest request = event.getContainerRequest();
+            ContainerResponse response = event.getContainerResponse();
+            int status = response == null ? 500 : response.getStatus();
+            complete(request::getProperty, status, -1);
+        };
+    }
+
+    private static void complete(Function<String, @Nullable Object> properties, int status, long size) {
+        Object completed = properties.apply(COMPLETED_PROPERTY);
+        if (!(completed instanceof AtomicBoolean) || !((AtomicBoolean) completed).compareAndSet(false, true)) {
+            // The request was not started or is already completed
+            return;
+        }
+        Object startTime = properties.apply(START_TIME_PROPERTY);
+        Object method = properties.apply(METHOD_PROPERTY);
+        Object route = properties.apply(ROUTE_PROPERTY);
+        long duration = startTime instanceof Long ? System.nanoTime() - (Long) startTime : 0;
+        ServerMetrics.requestCompleted(method instanceof String ? (String) method : UNMATCHED, route instanceof String ? (String) route : UNMATCHED, status, duration, size);
+    }
+
+    private static String getRoute(@Nullable ResourceInfo resourceInfo) {
+        Method method = resourceInfo == null ? null : resourceInfo.getResourceMethod();
+        Class<?> resourceClass = resourceInfo == null ? null : resourceInfo.getResourceClass();
+        if (method == null || resourceClass == null) {
+            return UNMATCHED;
+        }
+        String route = ROUTES.get(method);
+        if (route == null) {
+            Path classPath = resourceClass.getAnnotation(Path.class);
+            Path methodPath = method.getAnnotation(Path.class);
+            route = join(classPath == null ? "" : classPath.value(), methodPath == null ? "" : methodPath.value()); //$NON-NLS-1$ //$NON-NLS-2$
+            ROUTES.put(method, route);
+        }
+        return route;
+    }
+
+    private static String join(String classPath, String methodPath) {
+        StringBuilder sb = new StringBuilder();
+        for (String part : new String[] { classPath, methodPath }) {
+            String trimmed = part.replaceAll("^/+|/+$", ""); //$NON-NLS-1$ //$NON-NLS-2$
+            if (!trimmed.isEmpty()) {
+                sb.append('/').append(trimmed);
+            }
+        }
+        return sb.length() == 0 ? "/" : sb.toString(); //$NON-NLS-1$
+    }
+
+    /**
+     * Output stream counting the bytes written to it
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long fCount = 0;
+
+        public CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            fCount++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            fCount += len;
+        }
+
+        public long getCount() {
+            return fCount;
+        }
+    }
+}
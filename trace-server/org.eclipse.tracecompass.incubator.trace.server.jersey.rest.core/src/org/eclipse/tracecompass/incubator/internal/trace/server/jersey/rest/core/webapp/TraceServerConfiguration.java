@@ -40,15 +40,34 @@ public class TraceServerConfiguration {
     private static final String PROPERTY_USESSL = "traceserver.useSSL"; //$NON-NLS-1$
     private static final String PROPERTY_KEYSTORE = "traceserver.keystore"; //$NON-NLS-1$
     private static final String PROPERTY_KEYSTORE_PASS = "traceserver.keystorepass"; //$NON-NLS-1$
+    private static final String PROPERTY_MIN_THREADS = "traceserver.minThreads"; //$NON-NLS-1$
+    private static final String PROPERTY_MAX_THREADS = "traceserver.maxThreads"; //$NON-NLS-1$
+    private static final String PROPERTY_MAX_QUEUED = "traceserver.maxQueuedRequests"; //$NON-NLS-1$
+    private static final String PROPERTY_IDLE_TIMEOUT = "traceserver.idleTimeout"; //$NON-NLS-1$
+    private static final String PROPERTY_VIRTUAL_THREADS = "traceserver.virtualThreads"; //$NON-NLS-1$
 
     private static final int DEFAULT_HTTP_PORT = 8080;
     private static final int DEFAULT_SSL_PORT = 8443;
+    private static final int DEFAULT_MIN_THREADS = 8;
+    private static final int DEFAULT_MAX_THREADS = 200;
+    /*
+     * Jetty reserves threads of the pool for the connector acceptors and
+     * selectors, a smaller pool would not leave threads for the requests
+     */
+    private static final int MIN_MAX_THREADS = 8;
+    private static final int DEFAULT_MAX_QUEUED = 0;
+    private static final int DEFAULT_IDLE_TIMEOUT = 30000;
 
     private final int fPort;
     private final boolean fUseSSL;
     private final @Nullable String fKeystore;
     private final @Nullable String fKeystorePass;
     private final @Nullable String fHost;
+    private final int fMinThreads;
+    private final int fMaxThreads;
+    private final int fMaxQueuedRequests;
+    private final int fIdleTimeout;
+    private final boolean fUseVirtualThreads;
 
     /**
      * Create the trace server configuration
@@ -80,11 +99,36 @@ public class TraceServerConfiguration {
             }
         }
         String host = System.getProperty(PROPERTY_HOST);
-        if (host != null && !host.isEmpty()) {
-            return new TraceServerConfiguration(host, port, useSSL, keystore, keystorePass);
-        }
         // Otherwise host already assumed as null, meaning 0.0.0.0 or wild-card.
-        return new TraceServerConfiguration(port, useSSL, keystore, keystorePass);
+        host = host == null || host.isEmpty() ? null : host;
+
+        int maxThreads = getIntProperty(PROPERTY_MAX_THREADS, DEFAULT_MAX_THREADS, MIN_MAX_THREADS);
+        int minThreads = getIntProperty(PROPERTY_MIN_THREADS, Math.min(DEFAULT_MIN_THREADS, maxThreads), 1);
+        if (minThreads > maxThreads) {
+            Activator.getInstance().logWarning(String.format("Minimum thread count %d is greater than the maximum thread count %d. Will use %d", minThreads, maxThreads, maxThreads)); //$NON-NLS-1$
+            minThreads = maxThreads;
+        }
+        int maxQueued = getIntProperty(PROPERTY_MAX_QUEUED, DEFAULT_MAX_QUEUED, 0);
+        int idleTimeout = getIntProperty(PROPERTY_IDLE_TIMEOUT, DEFAULT_IDLE_TIMEOUT, 0);
+        boolean useVirtualThreads = Boolean.getBoolean(PROPERTY_VIRTUAL_THREADS);
+        return new TraceServerConfiguration(host, port, useSSL, keystore, keystorePass, minThreads, maxThreads, maxQueued, idleTimeout, useVirtualThreads);
+    }
+
+    private static int getIntProperty(String property, int defaultValue, int minValue) {
+        String valueStr = System.getProperty(property);
+        if (valueStr == null || valueStr.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            int value = Integer.parseInt(valueStr);
+            if (value >= minValue) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through to the warning below
+        }
+        Activator.getInstance().logWarning(String.format("Invalid value specified for %s: %s. Will use default value %d", property, valueStr, defaultValue)); //$NON-NLS-1$
+        return defaultValue;
     }
 
     /**
@@ -121,12 +165,49 @@ public class TraceServerConfiguration {
      *            The host to use
      */
     @VisibleForTesting
-    public TraceServerConfiguration(String host, int port, boolean useSSL, @Nullable String keystore, @Nullable String keystorePass) {
+    public TraceServerConfiguration(@Nullable String host, int port, boolean useSSL, @Nullable String keystore, @Nullable String keystorePass) {
+        this(host, port, useSSL, keystore, keystorePass, DEFAULT_MIN_THREADS, DEFAULT_MAX_THREADS, DEFAULT_MAX_QUEUED, DEFAULT_IDLE_TIMEOUT, false);
+    }
+
+    /**
+     * Constructor. Use only for unit tests, otherwise use {@link #create()} to
+     * automatically get the configuration parameters
+     *
+     * @param host
+     *            The host to use
+     * @param port
+     *            The port to use
+     * @param useSSL
+     *            Whether to use SSL
+     * @param keystore
+     *            The path to the SSL keystore
+     * @param keystorePass
+     *            The keystore password
+     * @param minThreads
+     *            The minimum number of request threads
+     * @param maxThreads
+     *            The maximum number of request threads, at least 8
+     * @param maxQueuedRequests
+     *            The maximum number of requests waiting for a thread, or 0
+     *            for an unbounded queue
+     * @param idleTimeout
+     *            The idle timeout of threads and connections, in milliseconds
+     * @param useVirtualThreads
+     *            Whether to execute requests on virtual threads
+     */
+    @VisibleForTesting
+    public TraceServerConfiguration(@Nullable String host, int port, boolean useSSL, @Nullable String keystore, @Nullable String keystorePass,
+            int minThreads, int maxThreads, int maxQueuedRequests, int idleTimeout, boolean useVirtualThreads) {
         fHost = host;
         fPort = port;
         fUseSSL = useSSL;
         fKeystore = keystore;
         fKeystorePass = keystorePass;
+        fMinThreads = minThreads;
+        fMaxThreads = maxThreads;
+        fMaxQueuedRequests = maxQueuedRequests;
+        fIdleTimeout = idleTimeout;
+        fUseVirtualThreads = useVirtualThreads;
     }
 
     /**
@@ -179,4 +260,53 @@ public class TraceServerConfiguration {
     public @Nullable String getKeystorePass() {
         return fKeystorePass;
     }
+
+    /**
+     * Get the minimum number of threads kept in the request thread pool
+     *
+     * @return The minimum number of threads
+     */
+    public int getMinThreads() {
+        return fMinThreads;
+    }
+
+    /**
+     * Get the maximum number of threads in the request thread pool
+     *
+     * @return The maximum number of threads
+     */
+    public int getMaxThreads() {
+        return fMaxThreads;
+    }
+
+    /**
+     * Get the maximum number of requests that may wait for a thread. Requests
+     * beyond this limit are rejected.
+     *
+     * @return The maximum number of queued requests, or 0 if the queue is
+     *         unbounded
+     */
+    public int getMaxQueuedRequests() {
+        return fMaxQueuedRequests;
+    }
+
+    /**
+     * Get the idle timeout after which idle threads are stopped and idle
+     * connections are closed
+     *
+     * @return The idle timeout, in milliseconds
+     */
+    public int getIdleTimeout() {
+        return fIdleTimeout;
+    }
+
+    /**
+     * Get whether requests should be executed on virtual threads, when the
+     * runtime supports them
+     *
+     * @return if <code>true</code>, requests are executed on virtual threads
+     */
+    public boolean useVirtualThreads() {
+        return fUseVirtualThreads;
+    }
 }
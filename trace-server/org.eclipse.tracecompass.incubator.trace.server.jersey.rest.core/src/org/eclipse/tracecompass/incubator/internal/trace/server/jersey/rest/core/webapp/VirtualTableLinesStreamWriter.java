@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.Providers;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views.VirtualTableLinesStream;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.QueryProgressMonitor;
+import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.ITmfVirtualTableModel;
+import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.IVirtualTableLine;
+import org.eclipse.tracecompass.tmf.core.dataprovider.DataProviderParameterUtils;
+import org.eclipse.tracecompass.tmf.core.model.CommonStatusMessage;
+import org.eclipse.tracecompass.tmf.core.response.ITmfResponse;
+import org.eclipse.tracecompass.tmf.core.response.TmfModelResponse;
+import org.eclipse.tracecompass.traceeventlogger.LogUtils.ScopeLog;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes the lines of a {@link VirtualTableLinesStream} as newline delimited
+ * JSON, while they are fetched from the data provider. The first object holds
+ * the column IDs, the index of the first line and the size of the table, as in
+ * the JSON table model. Each following object is a line, serialized as in the
+ * JSON table model, and the last object holds the status of the query:
+ *
+ * <pre>
+ * {"columnIds":[0,1],"lowIndex":0,"size":1000000}
+ * {"index":0,"cells":[{"content":"..."},{"content":"..."}]}
+ * ...
+ * {"status":"COMPLETED","statusMessage":"Completed"}
+ * </pre>
+ *
+ * The lines are fetched and flushed {@link #PAGE_SIZE} at a time, following
+ * pages continue after the index of the last line of the previous page. If the
+ * requested count is not specified, the lines are streamed until the end of
+ * the table.
+ */
+@SuppressWarnings("restriction")
+@Provider
+@Produces(VirtualTableLinesStreamWriter.MEDIA_TYPE)
+public class VirtualTableLinesStreamWriter implements MessageBodyWriter<VirtualTableLinesStream> {
+
+    /**
+     * Newline delimited JSON media type
+     */
+    public static final String MEDIA_TYPE = "application/x-ndjson"; //$NON-NLS-1$
+
+    /**
+     * Maximum number of lines fetched from the data provider at once
+     */
+    public static final int PAGE_SIZE = 1000;
+
+    private static final @NonNull Logger LOGGER = TraceCompassLog.getLogger(VirtualTableLinesStreamWriter.class);
+
+    @Context
+    private @Nullable Providers fProviders;
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return VirtualTableLinesStream.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public void writeTo(VirtualTableLinesStream stream, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException, WebApplicationException {
+        try (ScopeLog sl = new ScopeLog(LOGGER, Level.FINE, "VirtualTableLinesStreamWrite"); //$NON-NLS-1$
+                QueryProgressMonitor monitor = stream.beginQuery();
+                JsonGenerator gen = getObjectMapper().getFactory().createGenerator(entityStream)) {
+            // The response stream is closed by the container
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            write(stream, gen, monitor);
+        }
+    }
+
+    private static void write(VirtualTableLinesStream stream, JsonGenerator gen, QueryProgressMonitor monitor) throws IOException {
+        Map<String, Object> parameters = stream.getParameters();
+        Object countObj = parameters.get(DataProviderParameterUtils.REQUESTED_TABLE_COUNT_KEY);
+        long remaining = countObj instanceof Number ? ((Number) countObj).longValue() : Long.MAX_VALUE;
+        boolean headerWritten = false;
+        ITmfResponse.Status status = ITmfResponse.Status.COMPLETED;
+        String statusMessage = CommonStatusMessage.COMPLETED;
+        while (remaining > 0) {
+            if (monitor.isCanceled()) {
+                status = ITmfResponse.Status.CANCELLED;
+                statusMessage = CommonStatusMessage.TASK_CANCELLED;
+                break;
+            }
+            int pageSize = (int) Math.min(remaining, PAGE_SIZE);
+            parameters.put(DataProviderParameterUtils.REQUESTED_TABLE_COUNT_KEY, pageSize);
+            TmfModelResponse<?> response = stream.fetchLines(parameters, monitor);
+            status = response.getStatus();
+            statusMessage = response.getStatusMessage();
+            Object model = response.getModel();
+            if (status == ITmfResponse.Status.FAILED || status == ITmfResponse.Status.CANCELLED || !(model instanceof ITmfVirtualTableModel)) {
+                break;
+            }
+            ITmfVirtualTableModel<?> tableModel = (ITmfVirtualTableModel<?>) model;
+            if (!headerWritten) {
+                gen.writeStartObject();
+                gen.writeObjectField("columnIds", tableModel.getColumnIds()); //$NON-NLS-1$
+                gen.writeNumberField("lowIndex", tableModel.getIndex()); //$NON-NLS-1$
+                gen.writeNumberField("size", tableModel.getSize()); //$NON-NLS-1$
+                gen.writeEndObject();
+                gen.writeRaw('\n');
+                headerWritten = true;
+            }
+            List<? extends IVirtualTableLine> lines = tableModel.getLines();
+            for (IVirtualTableLine line : lines) {
+                gen.writeObject(line);
+                gen.writeRaw('\n');
+            }
+            // Send the page to the client before fetching the next one
+            gen.flush();
+            if (lines.size() < pageSize) {
+                break;
+            }
+            remaining -= lines.size();
+            // The following pages start after the last line, in the forward direction
+            parameters.remove(DataProviderParameterUtils.REQUESTED_TIME_KEY);
+            parameters.remove(DataProviderParameterUtils.TABLE_SEARCH_DIRECTION_KEY);
+            parameters.put(DataProviderParameterUtils.REQUESTED_TABLE_INDEX_KEY, lines.get(lines.size() - 1).getIndex() + 1);
+        }
+        gen.writeStartObject();
+        gen.writeStringField("status", status.name()); //$NON-NLS-1$
+        gen.writeStringField("statusMessage", statusMessage); //$NON-NLS-1$
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+        gen.flush();
+    }
+
+    private ObjectMapper getObjectMapper() {
+        Providers providers = fProviders;
+        ContextResolver<ObjectMapper> resolver = providers == null ? null : providers.getContextResolver(ObjectMapper.class, MediaType.APPLICATION_JSON_TYPE);
+        ObjectMapper mapper = resolver == null ? null : resolver.getContext(ObjectMapper.class);
+        return mapper != null ? mapper : new JacksonObjectMapperProvider().getContext(ObjectMapper.class);
+    }
+}
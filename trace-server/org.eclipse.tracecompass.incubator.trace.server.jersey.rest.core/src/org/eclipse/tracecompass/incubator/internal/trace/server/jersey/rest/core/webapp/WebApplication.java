@@ -25,13 +25,19 @@ import org.eclipse.jetty.server.HttpConnectionFactory;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.ServerConnector;
 import org.eclipse.jetty.server.SslConnectionFactory;
+import org.eclipse.jetty.util.BlockingArrayQueue;
+import org.eclipse.jetty.util.VirtualThreads;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.Activator;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.BookmarkManagerService;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.ConfigurationManagerService;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.DataProviderService;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.ExperimentManagerService;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.HealthService;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.IdentifierService;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.MetricsService;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.ServerMetrics;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.TraceManagerService;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.TraceServerOpenApiResource;
 import org.eclipse.tracecompass.tmf.core.TmfCommonConstants;
@@ -54,6 +60,7 @@ public class WebApplication {
 
     private static final String CONTEXT_PATH = "/tsp/api"; //$NON-NLS-1$
     private static final String PATH_SPEC = "/*"; //$NON-NLS-1$
+    private static final String THREAD_POOL_NAME = "trace-server"; //$NON-NLS-1$
 
     private Server fServer;
     private final TraceServerConfiguration fConfig;
@@ -91,7 +98,9 @@ public class WebApplication {
         ServletHolder holder = new ServletHolder(sc);
         sch.addServlet(holder, PATH_SPEC);
 
-        fServer = new Server();
+        QueuedThreadPool threadPool = getThreadPool(fConfig);
+        ServerMetrics.setThreadPool(threadPool);
+        fServer = new Server(threadPool);
         // https://www.programcreek.com/java-api-examples/?api=org.eclipse.jetty.server.SslConnectionFactory
 
         @SuppressWarnings("resource")
@@ -137,13 +146,41 @@ public class WebApplication {
         rc.register(ExperimentManagerService.class);
         rc.register(DataProviderService.class);
         rc.register(HealthService.class);
+        rc.register(MetricsService.class);
         rc.register(IdentifierService.class);
         rc.register(CORSFilter.class);
         rc.register(JacksonObjectMapperProvider.class);
+        rc.register(BinaryModelResponseWriter.class);
+        rc.register(VirtualTableLinesStreamWriter.class);
         EncodingFilter.enableFor(rc, GZipEncoder.class);
         rc.register(TraceServerOpenApiResource.class);
         rc.register(BookmarkManagerService.class);
         rc.register(RequestResponseLogger.class);
+        rc.register(RequestMetricsFilter.class);
+    }
+
+    /**
+     * Get the thread pool executing the requests of the server, as configured
+     * by the server configuration.
+     *
+     * @param config
+     *            a class describing the desired server configuration
+     * @return a configured thread pool
+     */
+    protected static QueuedThreadPool getThreadPool(TraceServerConfiguration config) {
+        int maxQueued = config.getMaxQueuedRequests();
+        QueuedThreadPool threadPool = new QueuedThreadPool(config.getMaxThreads(), config.getMinThreads(), config.getIdleTimeout(),
+                maxQueued > 0 ? new BlockingArrayQueue<>(maxQueued) : null);
+        threadPool.setName(THREAD_POOL_NAME);
+        if (config.useVirtualThreads()) {
+            if (VirtualThreads.areSupported()) {
+                // Jetty keeps its selectors on platform threads and executes the requests on virtual threads
+                threadPool.setVirtualThreadsExecutor(VirtualThreads.getDefaultVirtualThreadsExecutor());
+            } else {
+                Activator.getInstance().logWarning("Virtual threads requested, but they are not supported by the Java runtime. Will use platform threads instead"); //$NON-NLS-1$
+            }
+        }
+        return threadPool;
     }
 
     /**
@@ -180,6 +217,7 @@ public class WebApplication {
         }
         serverConnector.setHost(config.getHost());
         serverConnector.setPort(config.getPort());
+        serverConnector.setIdleTimeout(config.getIdleTimeout());
         return serverConnector;
     }
 
@@ -197,6 +235,7 @@ public class WebApplication {
      * Method to stop the web application
      */
     public void stop() {
+        ServerMetrics.setThreadPool(null);
         try {
             fServer.stop();
         } catch (Exception ex) {
@@ -0,0 +1,366 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.tsp.client.core.binary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.Provider;
+
+import org.eclipse.tracecompass.incubator.tsp.client.core.JSON;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.OutputElementStyle;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.Range;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.SeriesModel;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.TimeGraphArrow;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.TimeGraphArrowsResponse;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.TimeGraphModel;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.TimeGraphRowModel;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.TimeGraphState;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.TimeGraphStatesResponse;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.XYAxisDescription;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.XYModel;
+import org.eclipse.tracecompass.incubator.tsp.client.core.model.XYResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads the compact binary encoding of the time graph states, time graph
+ * arrows and XY responses of the trace server into the TSP model classes.
+ *
+ * The encoding is requested by setting the {@link #MEDIA_TYPE} media type in
+ * the <code>Accept</code> header of the query, with this reader registered on
+ * the HTTP client, for example:
+ *
+ * <pre>
+ * Client client = apiClient.getHttpClient().register(BinaryModelReader.class);
+ * TimeGraphStatesResponse response = client.target(apiClient.getBasePath())
+ *         .path("experiments/" + expUUID + "/outputs/timeGraph/" + outputId + "/states")
+ *         .request(BinaryModelReader.MEDIA_TYPE, MediaType.APPLICATION_JSON)
+ *         .post(Entity.json(parameters), TimeGraphStatesResponse.class);
+ * </pre>
+ *
+ * Styles and axis descriptions are sent once per response, so identical styles
+ * are shared by the decoded states, arrows and series.
+ */
+@Provider
+@Consumes(BinaryModelReader.MEDIA_TYPE)
+public class BinaryModelReader implements MessageBodyReader<Object> {
+
+    /**
+     * Media type of the binary encoding
+     */
+    public static final String MEDIA_TYPE = "application/vnd.tsp.binary"; //$NON-NLS-1$
+
+    private static final int VERSION = 1;
+    private static final int MODEL_NONE = 0;
+    private static final int MODEL_STATES = 1;
+    private static final int MODEL_ARROWS = 2;
+    private static final int MODEL_XY = 3;
+    private static final int SAMPLING_TIMESTAMPS = 0;
+    private static final int SAMPLING_CATEGORIES = 1;
+    private static final int SAMPLING_RANGES = 2;
+    private static final byte[] MAGIC = { 'T', 'S', 'P', 'B' };
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return (type == TimeGraphStatesResponse.class || type == TimeGraphArrowsResponse.class || type == XYResponse.class)
+                && MediaType.valueOf(MEDIA_TYPE).isCompatible(mediaType);
+    }
+
+    @Override
+    public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException, WebApplicationException {
+        byte[] data = entityStream.readAllBytes();
+        if (type == TimeGraphStatesResponse.class) {
+            return decodeStates(data);
+        } else if (type == TimeGraphArrowsResponse.class) {
+            return decodeArrows(data);
+        } else if (type == XYResponse.class) {
+            return decodeXY(data);
+        }
+        throw new IOException("Unsupported type: " + type.getName()); //$NON-NLS-1$
+    }
+
+    /**
+     * Decode a time graph states response
+     *
+     * @param data
+     *            the encoded response
+     * @return the decoded response
+     * @throws IOException
+     *             if the data is not a valid encoded states response
+     */
+    public static TimeGraphStatesResponse decodeStates(byte[] data) throws IOException {
+        Decoder decoder = new Decoder(data, MODEL_STATES);
+        TimeGraphStatesResponse response = new TimeGraphStatesResponse()
+                .status(TimeGraphStatesResponse.StatusEnum.fromValue(decoder.readString()))
+                .statusMessage(decoder.readString());
+        if (decoder.fModelType == MODEL_NONE) {
+            return response.model(null);
+        }
+        int rowCount = decoder.readCount();
+        List<TimeGraphRowModel> rows = new ArrayList<>(rowCount);
+        long entryId = 0;
+        long end = 0;
+        for (int i = 0; i < rowCount; i++) {
+            entryId += decoder.readSigned();
+            int stateCount = decoder.readCount();
+            List<TimeGraphState> states = new ArrayList<>(stateCount);
+            for (int j = 0; j < stateCount; j++) {
+                long start = end + decoder.readSigned();
+                end = start + decoder.readSigned();
+                TimeGraphState state = new TimeGraphState().start(start).end(end)
+                        .label(decoder.readString())
+                        .style(decoder.readStyle());
+                int tags = (int) decoder.readUnsigned();
+                if (tags != 0) {
+                    state.tags(tags);
+                }
+                states.add(state);
+            }
+            rows.add(new TimeGraphRowModel().entryId(entryId).states(states));
+        }
+        return response.model(new TimeGraphModel().rows(rows));
+    }
+
+    /**
+     * Decode a time graph arrows response
+     *
+     * @param data
+     *            the encoded response
+     * @return the decoded response
+     * @throws IOException
+     *             if the data is not a valid encoded arrows response
+     */
+    public static TimeGraphArrowsResponse decodeArrows(byte[] data) throws IOException {
+        Decoder decoder = new Decoder(data, MODEL_ARROWS);
+        TimeGraphArrowsResponse response = new TimeGraphArrowsResponse()
+                .status(TimeGraphArrowsResponse.StatusEnum.fromValue(decoder.readString()))
+                .statusMessage(decoder.readString());
+        if (decoder.fModelType == MODEL_NONE) {
+            return response.model(null);
+        }
+        int count = decoder.readCount();
+        List<TimeGraphArrow> arrows = new ArrayList<>(count);
+        long start = 0;
+        long sourceId = 0;
+        long targetId = 0;
+        for (int i = 0; i < count; i++) {
+            start += decoder.readSigned();
+            long end = start + decoder.readSigned();
+            sourceId += decoder.readSigned();
+            targetId += decoder.readSigned();
+            arrows.add(new TimeGraphArrow().start(start).end(end)
+                    .sourceId(sourceId).targetId(targetId)
+                    .style(decoder.readStyle()));
+        }
+        return response.model(arrows);
+    }
+
+    /**
+     * Decode a XY response
+     *
+     * @param data
+     *            the encoded response
+     * @return the decoded response
+     * @throws IOException
+     *             if the data is not a valid encoded XY response
+     */
+    public static XYResponse decodeXY(byte[] data) throws IOException {
+        Decoder decoder = new Decoder(data, MODEL_XY);
+        XYResponse response = new XYResponse()
+                .status(XYResponse.StatusEnum.fromValue(decoder.readString()))
+                .statusMessage(decoder.readString());
+        if (decoder.fModelType == MODEL_NONE) {
+            return response.model(null);
+        }
+        XYModel model = new XYModel().title(decoder.readString());
+        int seriesCount = decoder.readCount();
+        List<SeriesModel> seriesList = new ArrayList<>(seriesCount);
+        for (int i = 0; i < seriesCount; i++) {
+            SeriesModel series = new SeriesModel()
+                    .seriesId(decoder.readSigned())
+                    .seriesName(decoder.readString())
+                    .style(decoder.readStyle())
+                    .xValuesDescription(decoder.readAxisDescription())
+                    .yValuesDescription(decoder.readAxisDescription());
+            int sampling = decoder.readByte();
+            if (sampling == SAMPLING_TIMESTAMPS) {
+                int count = decoder.readCount();
+                List<Long> xValues = new ArrayList<>(count);
+                long x = 0;
+                for (int j = 0; j < count; j++) {
+                    x += decoder.readSigned();
+                    xValues.add(x);
+                }
+                series.xValues(xValues);
+            } else if (sampling == SAMPLING_CATEGORIES) {
+                int count = decoder.readCount();
+                List<String> categories = new ArrayList<>(count);
+                for (int j = 0; j < count; j++) {
+                    categories.add(decoder.readString());
+                }
+                series.xCategories(categories);
+            } else if (sampling == SAMPLING_RANGES) {
+                int count = decoder.readCount();
+                List<Range> ranges = new ArrayList<>(count);
+                long end = 0;
+                for (int j = 0; j < count; j++) {
+                    long start = end + decoder.readSigned();
+                    end = start + decoder.readSigned();
+                    ranges.add(new Range().start(start).end(end));
+                }
+                series.xRanges(ranges);
+            }
+            int count = decoder.readCount();
+            List<Double> yValues = new ArrayList<>(count);
+            for (int j = 0; j < count; j++) {
+                yValues.add(decoder.readDouble());
+            }
+            seriesList.add(series.yValues(yValues));
+        }
+        return response.model(model.series(seriesList));
+    }
+
+    /**
+     * Reads the header, the dictionary and the primitive values of an encoded
+     * response
+     */
+    private static class Decoder {
+        private final byte[] fData;
+        private final int fModelType;
+        private final String[] fStrings;
+        private final Map<Integer, OutputElementStyle> fStyles = new HashMap<>();
+        private final Map<Integer, XYAxisDescription> fAxisDescriptions = new HashMap<>();
+        private final ObjectMapper fMapper = JSON.getDefault().getMapper();
+        private int fPosition = 0;
+
+        public Decoder(byte[] data, int expectedModelType) throws IOException {
+            fData = data;
+            for (byte b : MAGIC) {
+                if (readByte() != b) {
+                    throw new IOException("Invalid binary model response"); //$NON-NLS-1$
+                }
+            }
+            int version = readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary model response version: " + version); //$NON-NLS-1$
+            }
+            fModelType = readByte();
+            if (fModelType != MODEL_NONE && fModelType != expectedModelType) {
+                throw new IOException("Unexpected binary model type: " + fModelType); //$NON-NLS-1$
+            }
+            int count = readCount();
+            fStrings = new String[count];
+            for (int i = 0; i < count; i++) {
+                int length = readCount();
+                if (length > fData.length - fPosition) {
+                    throw new IOException("Truncated binary model response"); //$NON-NLS-1$
+                }
+                fStrings[i] = new String(fData, fPosition, length, StandardCharsets.UTF_8);
+                fPosition += length;
+            }
+        }
+
+        public int readByte() throws IOException {
+            if (fPosition >= fData.length) {
+                throw new IOException("Truncated binary model response"); //$NON-NLS-1$
+            }
+            return fData[fPosition++];
+        }
+
+        public long readUnsigned() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Invalid variable-length integer"); //$NON-NLS-1$
+        }
+
+        public long readSigned() throws IOException {
+            long value = readUnsigned();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        public int readCount() throws IOException {
+            long count = readUnsigned();
+            if (count < 0 || count > fData.length) {
+                // Each element is encoded on at least one byte
+                throw new IOException("Invalid element count: " + count); //$NON-NLS-1$
+            }
+            return (int) count;
+        }
+
+        public double readDouble() throws IOException {
+            long bits = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                bits = (bits << 8) | (readByte() & 0xFF);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        private int readStringIndex() throws IOException {
+            long index = readUnsigned();
+            if (index < 0 || index > fStrings.length) {
+                throw new IOException("Invalid string index: " + index); //$NON-NLS-1$
+            }
+            return (int) index;
+        }
+
+        public String readString() throws IOException {
+            int index = readStringIndex();
+            return index == 0 ? null : fStrings[index - 1];
+        }
+
+        public OutputElementStyle readStyle() throws IOException {
+            int index = readStringIndex();
+            if (index == 0) {
+                return null;
+            }
+            OutputElementStyle style = fStyles.get(index);
+            if (style == null) {
+                style = fMapper.readValue(fStrings[index - 1], OutputElementStyle.class);
+                fStyles.put(index, style);
+            }
+            return style;
+        }
+
+        public XYAxisDescription readAxisDescription() throws IOException {
+            int index = readStringIndex();
+            if (index == 0) {
+                return null;
+            }
+            XYAxisDescription description = fAxisDescriptions.get(index);
+            if (description == null) {
+                description = fMapper.readValue(fStrings[index - 1], XYAxisDescription.class);
+                fAxisDescriptions.put(index, description);
+            }
+            return description;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.ftrace.core.tests.perf;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.incubator.ftrace.core.tests.ActivatorTest;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.GenericFtraceField;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.IGenericFtraceConstants;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Benchmarks the parsing of the lines of text ftrace traces, compared to only
+ * matching them with {@link IGenericFtraceConstants#FTRACE_PATTERN}
+ */
+public class FtraceParserBenchmark {
+
+    private static final String TEST_ID = "org.eclipse.tracecompass.incubator.ftrace#Line parsing#";
+    private static final String PARSE_LINE = "Parse lines";
+    private static final String MATCH_PATTERN = "Match pattern";
+
+    private static final int LOOP_COUNT = 25;
+    private static final int REPEAT_COUNT = 50;
+
+    private static final List<String> LINES = new ArrayList<>();
+
+    /**
+     * Read the lines of all the text traces of the test bundle
+     *
+     * @throws IOException
+     *             if an error occurred while reading the traces
+     */
+    @BeforeClass
+    public static void init() throws IOException {
+        File[] traces = ActivatorTest.getAbsoluteFilePath("res").toFile().listFiles();
+        assertTrue(traces != null && traces.length > 0);
+        for (File trace : traces) {
+            LINES.addAll(Files.readAllLines(trace.toPath(), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Benchmark {@link GenericFtraceField#parseLine(String)}
+     */
+    @Test
+    public void testParseLine() {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = perf.createPerformanceMeter(TEST_ID + PARSE_LINE);
+        perf.tagAsSummary(pm, PARSE_LINE, Dimension.CPU_TIME);
+
+        for (int i = 0; i < LOOP_COUNT; i++) {
+            pm.start();
+            int parsed = 0;
+            for (int j = 0; j < REPEAT_COUNT; j++) {
+                for (String line : LINES) {
+                    if (GenericFtraceField.parseLine(line) != null) {
+                        parsed++;
+                    }
+                }
+            }
+            pm.stop();
+            assertTrue(parsed > 0);
+        }
+        pm.commit();
+    }
+
+    /**
+     * Benchmark matching the lines with the regular expression, as a
+     * reference for {@link #testParseLine()}
+     */
+    @Test
+    public void testMatchPattern() {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = perf.createPerformanceMeter(TEST_ID + MATCH_PATTERN);
+        perf.tagAsSummary(pm, MATCH_PATTERN, Dimension.CPU_TIME);
+
+        for (int i = 0; i < LOOP_COUNT; i++) {
+            pm.start();
+            int matched = 0;
+            for (int j = 0; j < REPEAT_COUNT; j++) {
+                for (String line : LINES) {
+                    Matcher matcher = IGenericFtraceConstants.FTRACE_PATTERN.matcher(line);
+                    if (matcher.matches()) {
+                        matched++;
+                    }
+                }
+            }
+            pm.stop();
+            assertTrue(matched > 0);
+        }
+        pm.commit();
+    }
+}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.ftrace.core.tests.binary.buffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.parser.BinaryFTraceFileMapping;
+import org.junit.Test;
+
+/**
+ * Tests for {@link BinaryFTraceFileMapping}
+ */
+public class BinaryFTraceFileMappingTest {
+
+    /**
+     * Test the reads of the primitive values, in both byte orders
+     *
+     * @throws IOException
+     *             If an error occurred while writing or mapping the file
+     */
+    @Test
+    public void testRead() throws IOException {
+        byte[] content = ByteBuffer.allocate(23).order(ByteOrder.LITTLE_ENDIAN)
+                .put((byte) 7)
+                .putShort((short) -2)
+                .putInt(123456)
+                .putLong(-3L)
+                .putDouble(1.5)
+                .array();
+        File file = createFile(content);
+        try (BinaryFTraceFileMapping mapping = new BinaryFTraceFileMapping(file.getAbsolutePath())) {
+            assertEquals(content.length, mapping.length());
+            mapping.order(ByteOrder.LITTLE_ENDIAN);
+            assertEquals(7, mapping.getByte(0));
+            assertEquals(-2, mapping.getShort(1));
+            assertEquals(123456, mapping.getInt(3));
+            assertEquals(-3L, mapping.getLong(7));
+            assertEquals(1.5, mapping.getDouble(15), 0.0);
+
+            byte[] dst = new byte[4];
+            mapping.get(3, dst);
+            assertArrayEquals(Arrays.copyOfRange(content, 3, 7), dst);
+
+            mapping.order(ByteOrder.BIG_ENDIAN);
+            assertEquals(Integer.reverseBytes(123456), mapping.getInt(3));
+        } finally {
+            Files.delete(file.toPath());
+        }
+    }
+
+    /**
+     * Test that the file is unmapped when the mapping is closed, after which
+     * it can no longer be read
+     *
+     * @throws IOException
+     *             If an error occurred while writing or mapping the file
+     */
+    @Test
+    public void testClose() throws IOException {
+        File file = createFile(new byte[] { 1, 2, 3, 4 });
+        try {
+            BinaryFTraceFileMapping mapping = new BinaryFTraceFileMapping(file.getAbsolutePath());
+            assertEquals(1, mapping.getByte(0));
+            mapping.close();
+            try {
+                mapping.getByte(0);
+                fail("Read after close");
+            } catch (IndexOutOfBoundsException e) {
+                // Expected
+            }
+            // Closing again does nothing
+            mapping.close();
+        } finally {
+            Files.delete(file.toPath());
+        }
+    }
+
+    /**
+     * Test reading past the end of the file
+     *
+     * @throws IOException
+     *             If an error occurred while writing or mapping the file
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testReadPastEnd() throws IOException {
+        File file = createFile(new byte[] { 1, 2, 3, 4 });
+        try (BinaryFTraceFileMapping mapping = new BinaryFTraceFileMapping(file.getAbsolutePath())) {
+            mapping.get(2, new byte[4]);
+        } finally {
+            Files.delete(file.toPath());
+        }
+    }
+
+    private static File createFile(byte[] content) throws IOException {
+        File file = File.createTempFile("ftrace", ".dat"); //$NON-NLS-1$ //$NON-NLS-2$
+        Files.write(file.toPath(), content);
+        return file;
+    }
+}
@@ -15,11 +15,15 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.List;
+
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.parser.BinaryFTraceFileParser;
 import org.eclipse.tracecompass.incubator.ftrace.core.tests.shared.FTraceUtils;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.event.BinaryFTraceEvent;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.header.BinaryFTraceCPUDataPage;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.header.BinaryFTraceFileCPU;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.header.BinaryFTraceHeaderInfo;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.iterator.BinaryFTraceCPUSectionIterator;
@@ -225,4 +229,25 @@ public class BinaryFTraceCPUSectionIteratorTest {
             assertEquals(event.getFields().get("name"), BinaryFTraceCPUSectionIteratorTestData.MID_PAGE1_EVENT_NAME);
         }
     }
+
+    /**
+     * Test that the page of a time stamp is found by the page index of the CPU
+     * section
+     */
+    @Test
+    public void testPageIndex() {
+        List<BinaryFTraceCPUDataPage> pages = cpu.getPages();
+        int lastPage = pages.size() - 1;
+        assertEquals(0, cpu.getPageIndex(Long.MIN_VALUE));
+        assertEquals(0, cpu.getPageIndex(BinaryFTraceCPUSectionIteratorTestData.PAGE0_FIRST_EVENT_TS));
+        assertEquals(lastPage, cpu.getPageIndex(Long.MAX_VALUE));
+        assertEquals(1, cpu.getPageIndex(BinaryFTraceCPUSectionIteratorTestData.MID_PAGE1_EVENT_TS));
+        for (int i = 0; i < pages.size(); i++) {
+            long pageTimeStamp = pages.get(i).getTimeStamp();
+            assertSame(pages.get(i), pages.get(cpu.getPageIndex(pageTimeStamp)));
+            if (i > 0 && pages.get(i - 1).getTimeStamp() < pageTimeStamp) {
+                assertEquals(i - 1, cpu.getPageIndex(pageTimeStamp - 1));
+            }
+        }
+    }
 }
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.ftrace.core.tests.binary.iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.event.BinaryFTraceEvent;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.iterator.BinaryFTraceEventReadAhead;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.iterator.BinaryFTraceResponse;
+import org.junit.Test;
+
+/**
+ * Test the {@link BinaryFTraceEventReadAhead} class, which decodes the events
+ * of a CPU section on a worker pool
+ */
+public class BinaryFTraceEventReadAheadTest {
+
+    private static final int EVENT_COUNT = 5000;
+
+    /**
+     * Test that all the events are returned in order, followed by the end of
+     * the CPU section
+     */
+    @Test
+    public void testReadAllEvents() {
+        AtomicLong position = new AtomicLong(-1);
+        BinaryFTraceEventReadAhead readAhead = new BinaryFTraceEventReadAhead(
+                () -> position.incrementAndGet() < EVENT_COUNT ? BinaryFTraceResponse.OK : BinaryFTraceResponse.FINISH,
+                () -> createEvent(position.get()),
+                null);
+        assertNull(readAhead.getCurrentEvent());
+        for (long i = 0; i < EVENT_COUNT; i++) {
+            assertEquals(BinaryFTraceResponse.OK, readAhead.readNextEvent());
+            BinaryFTraceEvent event = readAhead.getCurrentEvent();
+            assertNotNull(event);
+            assertEquals(i, event.getTimeSinceBoot());
+        }
+        assertEquals(BinaryFTraceResponse.FINISH, readAhead.readNextEvent());
+        assertNull(readAhead.getCurrentEvent());
+        assertEquals(BinaryFTraceResponse.FINISH, readAhead.readNextEvent());
+    }
+
+    /**
+     * Test that the current event given at creation is returned before the
+     * decoded events, and that events that cannot be decoded are skipped
+     */
+    @Test
+    public void testCurrentEventAndSkippedEvents() {
+        AtomicLong position = new AtomicLong(10);
+        BinaryFTraceEventReadAhead readAhead = new BinaryFTraceEventReadAhead(
+                () -> position.incrementAndGet() < 20 ? BinaryFTraceResponse.OK : BinaryFTraceResponse.ERROR,
+                () -> position.get() % 2 == 0 ? createEvent(position.get()) : null,
+                createEvent(10));
+        BinaryFTraceEvent event = readAhead.getCurrentEvent();
+        assertNotNull(event);
+        assertEquals(10, event.getTimeSinceBoot());
+        for (long i = 12; i < 20; i += 2) {
+            assertEquals(BinaryFTraceResponse.OK, readAhead.readNextEvent());
+            event = readAhead.getCurrentEvent();
+            assertNotNull(event);
+            assertEquals(i, event.getTimeSinceBoot());
+        }
+        assertEquals(BinaryFTraceResponse.ERROR, readAhead.readNextEvent());
+        assertNull(readAhead.getCurrentEvent());
+    }
+
+    /**
+     * Test that the reader is no longer called once the read ahead is
+     * cancelled
+     *
+     * @throws InterruptedException
+     *             if the test is interrupted
+     */
+    @Test
+    public void testCancel() throws InterruptedException {
+        AtomicLong position = new AtomicLong(-1);
+        BinaryFTraceEventReadAhead readAhead = new BinaryFTraceEventReadAhead(
+                () -> {
+                    position.incrementAndGet();
+                    return BinaryFTraceResponse.OK;
+                },
+                () -> createEvent(position.get()),
+                null);
+        assertEquals(BinaryFTraceResponse.OK, readAhead.readNextEvent());
+        readAhead.cancel();
+        long read = position.get();
+        Thread.sleep(100);
+        assertEquals(read, position.get());
+    }
+
+    private static BinaryFTraceEvent createEvent(long timestamp) {
+        return new BinaryFTraceEvent(timestamp, Collections.emptyMap(), "event", 0); //$NON-NLS-1$
+    }
+}
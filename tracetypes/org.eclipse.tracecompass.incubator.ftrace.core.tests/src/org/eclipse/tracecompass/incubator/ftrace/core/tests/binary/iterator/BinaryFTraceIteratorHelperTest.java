@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.ftrace.core.tests.binary.iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.nio.ByteBuffer;
+
+import org.eclipse.tracecompass.incubator.ftrace.core.tests.shared.FTraceUtils;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.header.BinaryFTraceDataType;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.header.BinaryFTraceFormatField;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.header.BinaryFTraceFormatField.BinaryFTraceFormatFieldBuilder;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.header.BinaryFTraceHeaderInfo;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.header.BinaryFTraceValueSign;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.iterator.BinaryFTraceIteratorHelper;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.parser.BinaryFTraceFileParser;
+import org.eclipse.tracecompass.testtraces.ftrace.FtraceTestTrace;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests for the decoding of the field values by
+ * {@link BinaryFTraceIteratorHelper}
+ */
+public class BinaryFTraceIteratorHelperTest {
+
+    private static BinaryFTraceHeaderInfo fHeader;
+    private static BinaryFTraceIteratorHelper fHelper;
+
+    /**
+     * Initialize the helper with the header of a trace, for its byte order
+     *
+     * @throws Exception
+     *             if an error occurred while parsing the trace
+     */
+    @BeforeClass
+    public static void init() throws Exception {
+        fHeader = BinaryFTraceFileParser.parse(FTraceUtils.getTraceAbsolutePath(FtraceTestTrace.TEST_2_6_SINGLE_EVENT));
+        fHelper = new BinaryFTraceIteratorHelper(fHeader);
+    }
+
+    /**
+     * Test the decoding of signed and unsigned integer fields
+     */
+    @Test
+    public void testIntegerFields() {
+        byte[] data = ByteBuffer.allocate(16).order(fHeader.getEndianess())
+                .put((byte) -1)
+                .put((byte) 0)
+                .putShort((short) -2)
+                .putInt(-3)
+                .putLong(-4L)
+                .array();
+
+        assertEquals(-1L, fHelper.getFieldValue(createField(BinaryFTraceDataType.CHAR, 0, 1, BinaryFTraceValueSign.SIGNED), data));
+        assertEquals(255L, fHelper.getFieldValue(createField(BinaryFTraceDataType.CHAR, 0, 1, BinaryFTraceValueSign.UNSIGNED), data));
+        assertEquals(-2L, fHelper.getFieldValue(createField(BinaryFTraceDataType.SHORT, 2, 2, BinaryFTraceValueSign.SIGNED), data));
+        assertEquals(65534L, fHelper.getFieldValue(createField(BinaryFTraceDataType.SHORT, 2, 2, BinaryFTraceValueSign.UNSIGNED), data));
+        assertEquals(-3L, fHelper.getFieldValue(createField(BinaryFTraceDataType.INT, 4, 4, BinaryFTraceValueSign.SIGNED), data));
+        assertEquals(4294967293L, fHelper.getFieldValue(createField(BinaryFTraceDataType.INT, 4, 4, BinaryFTraceValueSign.UNSIGNED), data));
+        assertEquals(-4L, fHelper.getFieldValue(createField(BinaryFTraceDataType.LONG, 8, 8, BinaryFTraceValueSign.SIGNED), data));
+        assertEquals(Long.toUnsignedString(-4L), fHelper.getFieldValue(createField(BinaryFTraceDataType.LONG, 8, 8, BinaryFTraceValueSign.UNSIGNED), data));
+
+        // Fields outside of the payload have no value
+        assertNull(fHelper.getFieldValue(createField(BinaryFTraceDataType.LONG, 12, 8, BinaryFTraceValueSign.SIGNED), data));
+    }
+
+    /**
+     * Test the decoding of string fields, with a fixed length or stored at the
+     * end of the payload
+     */
+    @Test
+    public void testStringFields() {
+        byte[] data = ByteBuffer.allocate(16).order(fHeader.getEndianess())
+                .put(new byte[] { 'l', 's', 0, 'x' })
+                .putInt((3 << 16) | 8)
+                .put(new byte[] { 'a', 'b', 'c', 0, 0, 0, 0, 0 })
+                .array();
+
+        BinaryFTraceFormatField comm = new BinaryFTraceFormatFieldBuilder()
+                .fieldType(BinaryFTraceDataType.CHAR)
+                .offset(0)
+                .size(4)
+                .array(4)
+                .build();
+        assertEquals("ls", fHelper.getFieldValue(comm, data));
+
+        BinaryFTraceFormatField dataLoc = new BinaryFTraceFormatFieldBuilder()
+                .fieldType(BinaryFTraceDataType.CHAR)
+                .offset(4)
+                .size(4)
+                .array(BinaryFTraceFormatFieldBuilder.UNKNOWN_ARRAY_LENGTH)
+                .dataLoc(true)
+                .build();
+        assertEquals("abc", fHelper.getFieldValue(dataLoc, data));
+    }
+
+    /**
+     * Test that a pointer field without a printk mapping is decoded as its
+     * address in hexadecimal
+     */
+    @Test
+    public void testPointerField() {
+        long address = 0xffffffff81000000L;
+        byte[] data = ByteBuffer.allocate(12).order(fHeader.getEndianess())
+                .putLong(address)
+                .putInt(0x81000000)
+                .array();
+        BinaryFTraceFormatField pointer = new BinaryFTraceFormatFieldBuilder()
+                .fieldType(BinaryFTraceDataType.LONG)
+                .offset(0)
+                .size(8)
+                .pointer(true)
+                .build();
+        assertEquals("0xffffffff81000000", fHelper.getFieldValue(pointer, data));
+
+        // 4-byte pointers are 32-bit addresses
+        BinaryFTraceFormatField pointer32 = new BinaryFTraceFormatFieldBuilder()
+                .fieldType(BinaryFTraceDataType.INT)
+                .offset(8)
+                .size(4)
+                .pointer(true)
+                .build();
+        assertEquals("0x81000000", fHelper.getFieldValue(pointer32, data));
+    }
+
+    /**
+     * Test that a non string field with an array length of 0 is decoded as an
+     * address in hexadecimal, like a pointer
+     */
+    @Test
+    public void testZeroLengthArrayField() {
+        long address = 0xffffffff81000000L;
+        byte[] data = ByteBuffer.allocate(8).order(fHeader.getEndianess()).putLong(address).array();
+        BinaryFTraceFormatField array = new BinaryFTraceFormatFieldBuilder()
+                .fieldType(BinaryFTraceDataType.LONG)
+                .offset(0)
+                .size(8)
+                .array(0)
+                .build();
+        assertEquals("0xffffffff81000000", fHelper.getFieldValue(array, data));
+
+        // An empty array has no address
+        BinaryFTraceFormatField emptyArray = new BinaryFTraceFormatFieldBuilder()
+                .fieldType(BinaryFTraceDataType.LONG)
+                .offset(8)
+                .size(0)
+                .array(0)
+                .build();
+        assertEquals("0x0", fHelper.getFieldValue(emptyArray, data));
+    }
+
+    private static BinaryFTraceFormatField createField(BinaryFTraceDataType type, int offset, int size, BinaryFTraceValueSign sign) {
+        return new BinaryFTraceFormatFieldBuilder()
+                .fieldType(type)
+                .offset(offset)
+                .size(size)
+                .signed(sign)
+                .build();
+    }
+}
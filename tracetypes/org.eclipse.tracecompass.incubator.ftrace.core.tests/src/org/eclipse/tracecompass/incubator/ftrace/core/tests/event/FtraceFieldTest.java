@@ -13,6 +13,7 @@ package org.eclipse.tracecompass.incubator.ftrace.core.tests.event;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 import java.util.List;
 import java.util.Map;
@@ -212,6 +213,49 @@ public class FtraceFieldTest {
         }
     }
 
+    /**
+     * Testing of parse line with the tgid after the pid, as written with the
+     * record-tgid option
+     */
+    @Test
+    public void testParseTgid() {
+        String line = "          chrome-2136  ( 2101) [003] d..3  1342.874935: sched_switch: prev_comm=chrome prev_pid=2136 prev_prio=120 prev_state=S ==> next_comm=swapper/3 next_pid=0 next_prio=120";
+
+        GenericFtraceField field = GenericFtraceField.parseLine(line);
+
+        assertNotNull(field);
+        assertEquals((Integer) 3, field.getCpu());
+        assertEquals((Integer) 2101, field.getPid());
+        assertEquals((Integer) 2136, field.getTid());
+        assertEquals(1342874935000L, (long) field.getTs());
+        assertEquals("sched_switch", field.getName());
+        assertEquals((Long) 2136L, field.getContent().getFieldValue(Long.class, "prev_pid"));
+
+        line = "          <idle>-0     (-------) [002] d..2   149.136514: sched_switch: prev_comm=swapper/2 prev_pid=0 prev_prio=120 prev_state=R+ ==> next_comm=kworker/u16:6 next_pid=214 next_prio=120";
+        field = GenericFtraceField.parseLine(line);
+
+        assertNotNull(field);
+        assertEquals((Integer) 0, field.getPid());
+        assertEquals((Integer) 0, field.getTid());
+        assertEquals("kworker/u16:6", field.getContent().getFieldValue(String.class, "next_comm"));
+    }
+
+    /**
+     * Testing of parse line with lines that are not events
+     */
+    @Test
+    public void testParseInvalidLines() {
+        assertNull(GenericFtraceField.parseLine(""));
+        assertNull(GenericFtraceField.parseLine("# tracer: nop"));
+        assertNull(GenericFtraceField.parseLine("cpus=8"));
+        // No pid, no cpu, no timestamp
+        assertNull(GenericFtraceField.parseLine("kworker  [000] d..4  3210.263482: sched_wakeup: comm=daemonsu"));
+        assertNull(GenericFtraceField.parseLine("kworker/0:0-9514  d..4  3210.263482: sched_wakeup: comm=daemonsu"));
+        assertNull(GenericFtraceField.parseLine("kworker/0:0-9514  [000] d..4  sched_wakeup: comm=daemonsu"));
+        // Parenthesis in the middle of the data
+        assertNull(GenericFtraceField.parseLine("test/1-1316  [005] ....   713.920983: sys_recvmsg(fd: 3) flags: 0"));
+    }
+
     @NonNullByDefault
     private static class ResultsParse {
 
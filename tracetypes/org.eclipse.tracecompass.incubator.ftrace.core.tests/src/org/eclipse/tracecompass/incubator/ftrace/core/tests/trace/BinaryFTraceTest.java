@@ -12,13 +12,22 @@
 package org.eclipse.tracecompass.incubator.ftrace.core.tests.trace;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 
 import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.tracecompass.incubator.ftrace.core.tests.shared.FTraceUtils;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.trace.BinaryFTrace;
 import org.eclipse.tracecompass.testtraces.ftrace.FtraceTestTrace;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
 import org.junit.Test;
 
 /**
@@ -69,4 +78,44 @@ public class BinaryFTraceTest {
         assertEquals(0x04, status.getSeverity());
         ftraceTrace.dispose();
     }
+
+    /**
+     * Test disposing the trace while another thread seeks and reads it. The
+     * reads in progress complete, the following ones find no event, and the
+     * JVM does not crash reading the unmapped file.
+     *
+     * @throws Exception
+     *             If an error occurred while opening the trace, or if the
+     *             test was interrupted
+     */
+    @Test
+    public void testDisposeWhileReading() throws Exception {
+        BinaryFTrace ftraceTrace = new BinaryFTrace();
+        ftraceTrace.initTrace(null, FTraceUtils.getTraceAbsolutePath(FtraceTestTrace.TEST_2_6_MULTIPLE_CPUS), TmfEvent.class);
+        CountDownLatch reading = new CountDownLatch(1);
+        AtomicBoolean disposed = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                while (!disposed.get()) {
+                    ITmfContext context = ftraceTrace.seekEvent((ITmfLocation) null);
+                    ITmfEvent event = ftraceTrace.getNext(context);
+                    while (event != null) {
+                        reading.countDown();
+                        event = ftraceTrace.getNext(context);
+                    }
+                    context.dispose();
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        reader.start();
+        reading.await();
+        ftraceTrace.dispose();
+        disposed.set(true);
+        reader.join(10000);
+        assertFalse(reader.isAlive());
+        assertNull(failure.get());
+    }
 }
@@ -12,6 +12,7 @@
 package org.eclipse.tracecompass.incubator.internal.ftrace.core;
 
 import org.eclipse.tracecompass.common.core.TraceCompassActivator;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.iterator.BinaryFTraceEventReadAhead;
 
 /**
  * Activator
@@ -51,6 +52,7 @@ public class Activator extends TraceCompassActivator {
 
     @Override
     protected void stopActions() {
+        BinaryFTraceEventReadAhead.shutdown();
     }
 
 }
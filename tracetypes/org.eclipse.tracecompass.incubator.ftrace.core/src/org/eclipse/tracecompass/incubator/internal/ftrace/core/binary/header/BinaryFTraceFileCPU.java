@@ -11,6 +11,7 @@
 
 package org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.header;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -25,6 +26,10 @@ public class BinaryFTraceFileCPU {
     private final int fCpu;
     private final List<BinaryFTraceCPUDataPage> fLstPages;
 
+    // Time stamps of the pages, to find the page of a time stamp in O(log n)
+    private final long[] fPageTimeStamps;
+    private final boolean fSorted;
+
     /**
      * Constructor
      *
@@ -44,6 +49,14 @@ public class BinaryFTraceFileCPU {
         fSectionSize = size;
         fCpu = cpu;
         fLstPages = lstPages;
+
+        fPageTimeStamps = new long[lstPages.size()];
+        boolean sorted = true;
+        for (int i = 0; i < fPageTimeStamps.length; i++) {
+            fPageTimeStamps[i] = lstPages.get(i).getTimeStamp();
+            sorted &= (i == 0 || fPageTimeStamps[i - 1] <= fPageTimeStamps[i]);
+        }
+        fSorted = sorted;
     }
 
     /**
@@ -84,4 +97,40 @@ public class BinaryFTraceFileCPU {
     public List<BinaryFTraceCPUDataPage> getPages() {
         return fLstPages;
     }
+
+    /**
+     * Get the index of the page that may contain the first event with a time
+     * stamp equal or larger than the time stamp parameter, which is the last
+     * page whose time stamp is smaller or equal to the time stamp parameter.
+     * The pages of a CPU section are in chronological order, so the page is
+     * found with a binary search on the page time stamps.
+     *
+     * @param timeStamp
+     *            The time stamp to look for
+     * @return The index of the page in {@link #getPages()}, or -1 if the CPU
+     *         section has no pages
+     */
+    public int getPageIndex(long timeStamp) {
+        if (fPageTimeStamps.length == 0) {
+            return -1;
+        }
+        if (!fSorted) {
+            // Should not happen in a valid trace, fall back to a linear search
+            int index = 0;
+            while (index + 1 < fPageTimeStamps.length && timeStamp >= fPageTimeStamps[index + 1]) {
+                index++;
+            }
+            return index;
+        }
+        int index = Arrays.binarySearch(fPageTimeStamps, timeStamp);
+        if (index >= 0) {
+            // Move to the last page with the same time stamp
+            while (index + 1 < fPageTimeStamps.length && fPageTimeStamps[index + 1] == timeStamp) {
+                index++;
+            }
+            return index;
+        }
+        // The insertion point is the first page with a larger time stamp
+        return Math.max(0, -index - 2);
+    }
 }
@@ -13,6 +13,7 @@ package org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.header;
 
 import java.nio.ByteOrder;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -27,6 +28,8 @@ import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.parser.Bin
  * @author Hoang Thuan Pham
  */
 public class BinaryFTraceHeaderInfo {
+    private static final String HEX_PREFIX = "0x"; //$NON-NLS-1$
+
     private String fFilePath;
 
     // Some metadata aboout the file
@@ -43,6 +46,7 @@ public class BinaryFTraceHeaderInfo {
     private List<BinaryFTraceEventSystem> fEventSystems;
     private Map<String, BinaryFTraceFunctionAddressNameMapping> fFunctionMapping;
     private Map<String, String> fPrintKPointerStringMapping;
+    private final Map<Long, String> fPrintKStringsByAddress;
     private Map<Integer, String> fProcessIDNameMapping;
     private List<BinaryFTraceOption> fOptions;
     private Map<String, BinaryFTraceFormatField> fEventCommonFields;
@@ -74,6 +78,7 @@ public class BinaryFTraceHeaderInfo {
         fEventSystems = builder.fBuilderEventSystems;
         fFunctionMapping = builder.fBuilderFunctionMapping;
         fPrintKPointerStringMapping = builder.fBuilderPrintKPointerStringMapping;
+        fPrintKStringsByAddress = indexByAddress(fPrintKPointerStringMapping);
         fProcessIDNameMapping = builder.fBuilderProcessIDNameMapping;
         fOptions = builder.fBuilderOptions;
         fEventCommonFields = builder.fBuilderEventCommonFields;
@@ -91,6 +96,14 @@ public class BinaryFTraceHeaderInfo {
         return new BinaryFTraceByteBuffer(fTraceMapping);
     }
 
+    /**
+     * Unmap the trace file. The buffers obtained with
+     * {@link #getMappedBuffer()} must no longer be read after this.
+     */
+    public void dispose() {
+        fTraceMapping.close();
+    }
+
     /**
      * Get the file path to the trace file.
      *
@@ -211,6 +224,37 @@ public class BinaryFTraceHeaderInfo {
         return fPrintKPointerStringMapping;
     }
 
+    /**
+     * Get the string mapped to an address by the printk mapping, without
+     * formatting the address.
+     *
+     * @param address
+     *            The address
+     * @return The string mapped to the address; or null if there is none
+     */
+    public String getPrintKString(long address) {
+        return fPrintKStringsByAddress.get(address);
+    }
+
+    private static Map<Long, String> indexByAddress(Map<String, String> mapping) {
+        if (mapping == null || mapping.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, String> index = new HashMap<>();
+        for (Map.Entry<String, String> entry : mapping.entrySet()) {
+            String address = entry.getKey();
+            if (address.startsWith(HEX_PREFIX)) {
+                address = address.substring(HEX_PREFIX.length());
+            }
+            try {
+                index.put(Long.parseUnsignedLong(address, 16), entry.getValue());
+            } catch (NumberFormatException e) {
+                // Not an address, it cannot match a pointer field
+            }
+        }
+        return index;
+    }
+
     /**
      * Get the process ID to name mapping as a map. The key is the process ID.
      *
@@ -29,13 +29,36 @@ import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
  * @Author: Hoang Thuan Pham
  */
 public class BinaryFTraceCPUSectionIterator implements AutoCloseable {
+    /**
+     * Decode the events ahead of time on a worker pool, only useful if there
+     * is more than one core
+     */
+    private static final boolean READ_AHEAD = Runtime.getRuntime().availableProcessors() > 1;
+
     private final @Nullable BinaryFTraceHeaderInfo headerInfo;
 
     private @Nullable BinaryFTraceCPUPageIterator fCurrPageIterator;
 
+    /** The CPU section, to find the page of a time stamp **/
+    private final BinaryFTraceFileCPU fCpu;
+
     /** The first page of the CPU section, required to reset the iterator **/
     private BinaryFTraceCPUDataPage fHeadPage;
 
+    /**
+     * The events decoded ahead of time. When set, only the read ahead uses
+     * the page iterators, until it is cancelled.
+     */
+    private @Nullable BinaryFTraceEventReadAhead fReadAhead;
+
+    /**
+     * Whether the next event was read since the creation or the last seek.
+     * The read ahead only starts on the second read, so that an iterator
+     * that is created or seeked to read a single event decodes nothing
+     * more.
+     */
+    private boolean fReadSinceSeek = false;
+
     /**
      * Constructor
      *
@@ -48,6 +71,7 @@ public class BinaryFTraceCPUSectionIterator implements AutoCloseable {
      */
     public BinaryFTraceCPUSectionIterator(BinaryFTraceFileCPU cpu, BinaryFTraceHeaderInfo headerInfo) throws IOException {
         this.headerInfo = headerInfo;
+        fCpu = cpu;
 
         if (!cpu.getPages().isEmpty()) {
             fHeadPage = cpu.getPages().get(0); // Get the first page
@@ -56,7 +80,6 @@ public class BinaryFTraceCPUSectionIterator implements AutoCloseable {
             fHeadPage = null;
             fCurrPageIterator = null;
         }
-
     }
 
     /**
@@ -68,6 +91,18 @@ public class BinaryFTraceCPUSectionIterator implements AutoCloseable {
      *         the next event.
      */
     public BinaryFTraceResponse readNextEvent() {
+        BinaryFTraceEventReadAhead readAhead = fReadAhead;
+        if (readAhead == null && fReadSinceSeek) {
+            readAhead = startReadAhead();
+        }
+        if (readAhead != null) {
+            return readAhead.readNextEvent();
+        }
+        fReadSinceSeek = true;
+        return readNextPageEvent();
+    }
+
+    private BinaryFTraceResponse readNextPageEvent() {
         BinaryFTraceCPUPageIterator iter = fCurrPageIterator;
         BinaryFTraceResponse response = BinaryFTraceResponse.ERROR;
 
@@ -114,6 +149,12 @@ public class BinaryFTraceCPUSectionIterator implements AutoCloseable {
      * @return The current timestamp of the CPU section iterator.
      */
     public long getCurrentTimeStamp() {
+        BinaryFTraceEventReadAhead readAhead = fReadAhead;
+        if (readAhead != null) {
+            BinaryFTraceEvent event = readAhead.getCurrentEvent();
+            return event != null ? event.getTimeSinceBoot() : TmfTimestamp.BIG_BANG.toNanos();
+        }
+
         BinaryFTraceCPUPageIterator iter = fCurrPageIterator;
         if (iter != null) {
             return iter.getCurrentTimeStamp();
@@ -130,6 +171,7 @@ public class BinaryFTraceCPUSectionIterator implements AutoCloseable {
      */
     @Override
     public void close() throws IOException {
+        stopReadAhead();
         BinaryFTraceCPUPageIterator iter = fCurrPageIterator;
         if (iter != null) {
             iter.close();
@@ -142,6 +184,14 @@ public class BinaryFTraceCPUSectionIterator implements AutoCloseable {
      * @return The current event as a BinaryFTrace event.
      */
     public @Nullable BinaryFTraceEvent getCurrentEvent() {
+        BinaryFTraceEventReadAhead readAhead = fReadAhead;
+        if (readAhead != null) {
+            return readAhead.getCurrentEvent();
+        }
+        return getCurrentPageEvent();
+    }
+
+    private @Nullable BinaryFTraceEvent getCurrentPageEvent() {
         BinaryFTraceCPUPageIterator iter = fCurrPageIterator;
         if (iter != null) {
             return iter.getCurrentEvent();
@@ -162,22 +212,18 @@ public class BinaryFTraceCPUSectionIterator implements AutoCloseable {
      *             If the iterator cannot locate an timestamp.
      */
     public boolean seek(long timestamp) throws IOException {
-        // First we reset the iterator
+        // First we stop decoding from the previous position and reset the iterator
+        stopReadAhead();
         resetIterator();
 
-        BinaryFTraceCPUDataPage currPage = fHeadPage;
+        int pageIndex = fCpu.getPageIndex(timestamp);
         boolean ret = false;
 
-        if (currPage != null) {
+        if (pageIndex >= 0) {
+            // Only the page that may contain the time stamp is read
+            BinaryFTraceCPUDataPage currPage = fCpu.getPages().get(pageIndex);
             BinaryFTraceCPUDataPage nextPage = currPage.getNextPage();
 
-            if (timestamp > currPage.getTimeStamp()) {
-                while (nextPage != null && timestamp >= nextPage.getTimeStamp()) {
-                    currPage = nextPage;
-                    nextPage = currPage.getNextPage();
-                }
-            }
-
             BinaryFTraceCPUPageIterator iter = BinaryFTraceIteratorHelper.getPageIterator(currPage, headerInfo);
             if (iter != null) {
                 ret = iter.seek(timestamp);
@@ -205,6 +251,29 @@ public class BinaryFTraceCPUSectionIterator implements AutoCloseable {
         return ret;
     }
 
+    /**
+     * Start decoding the events following the current position ahead of time
+     *
+     * @return The read ahead, or null if the events are not decoded ahead
+     */
+    private @Nullable BinaryFTraceEventReadAhead startReadAhead() {
+        BinaryFTraceEventReadAhead readAhead = null;
+        if (READ_AHEAD && fCurrPageIterator != null) {
+            readAhead = new BinaryFTraceEventReadAhead(this::readNextPageEvent, this::getCurrentPageEvent, getCurrentPageEvent());
+            fReadAhead = readAhead;
+        }
+        return readAhead;
+    }
+
+    private void stopReadAhead() {
+        BinaryFTraceEventReadAhead readAhead = fReadAhead;
+        if (readAhead != null) {
+            readAhead.cancel();
+            fReadAhead = null;
+        }
+        fReadSinceSeek = false;
+    }
+
     /**
      * Reset the iterator from the start.
      * @throws IOException
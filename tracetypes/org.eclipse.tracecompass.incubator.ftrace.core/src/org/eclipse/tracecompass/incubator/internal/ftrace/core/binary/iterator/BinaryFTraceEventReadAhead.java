@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.iterator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.Activator;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.event.BinaryFTraceEvent;
+
+/**
+ * Decodes the events of a CPU section ahead of time on a worker pool, so that
+ * the CPU sections of a trace are decoded in parallel while the reading thread
+ * only merges them by time stamp.
+ *
+ * The events are decoded in batches put in a bounded queue. The first batch is
+ * small so that a seek followed by a few reads does not decode much more than
+ * needed, and the following batches grow up to {@link #MAX_BATCH_SIZE}. The
+ * decoding stops when the queue is full and resumes when the reader takes a
+ * batch, so that no worker thread is ever blocked waiting for a reader.
+ *
+ * The pool has one thread per core and a bounded queue of batches to decode.
+ * When that queue is full, the batch is decoded by the thread that requested
+ * it. The pool is shut down with the plug-in.
+ */
+public class BinaryFTraceEventReadAhead {
+
+    private static final int MIN_BATCH_SIZE = 8;
+    private static final int MAX_BATCH_SIZE = 512;
+    private static final int MAX_QUEUED_BATCHES = 4;
+    private static final int MAX_QUEUED_TASKS = 1024;
+
+    private static @Nullable ThreadPoolExecutor sExecutor;
+
+    private final Supplier<BinaryFTraceResponse> fReader;
+    private final Supplier<@Nullable BinaryFTraceEvent> fDecoder;
+    private final BlockingQueue<Batch> fQueue = new LinkedBlockingQueue<>();
+    private final AtomicBoolean fScheduled = new AtomicBoolean();
+    private final Object fDecodeLock = new Object();
+
+    private volatile boolean fCancelled = false;
+    private volatile boolean fDone = false;
+    private int fBatchSize = MIN_BATCH_SIZE;
+
+    private @Nullable Batch fCurrentBatch;
+    private int fCurrentIndex;
+
+    /**
+     * Constructor. The decoding starts immediately.
+     *
+     * @param reader
+     *            Reads the next event of the CPU section, called on a worker
+     *            thread
+     * @param decoder
+     *            Decodes the event read by the reader, called on a worker
+     *            thread
+     * @param currentEvent
+     *            The current event of the CPU section, already decoded, or
+     *            null if there is none
+     */
+    public BinaryFTraceEventReadAhead(Supplier<BinaryFTraceResponse> reader, Supplier<@Nullable BinaryFTraceEvent> decoder, @Nullable BinaryFTraceEvent currentEvent) {
+        fReader = reader;
+        fDecoder = decoder;
+        if (currentEvent != null) {
+            fCurrentBatch = new Batch(Collections.singletonList(currentEvent), null);
+        }
+        schedule();
+    }
+
+    private static synchronized ThreadPoolExecutor getExecutor() {
+        ThreadPoolExecutor executor = sExecutor;
+        if (executor == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+            executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(MAX_QUEUED_TASKS), runnable -> {
+                Thread thread = new Thread(runnable, "BinaryFTraceDecoder-" + threadCount.incrementAndGet()); //$NON-NLS-1$
+                thread.setDaemon(true);
+                return thread;
+            }, (runnable, pool) -> runnable.run());
+            executor.allowCoreThreadTimeOut(true);
+            sExecutor = executor;
+        }
+        return executor;
+    }
+
+    /**
+     * Shut down the worker pool. The read aheads still in use after this
+     * decode their batches on the reading thread.
+     */
+    public static synchronized void shutdown() {
+        ThreadPoolExecutor executor = sExecutor;
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Move to the next decoded event, waiting for it to be decoded if needed
+     *
+     * @return {@link BinaryFTraceResponse#OK} if there is a next event, or the
+     *         response that ended the CPU section
+     */
+    public BinaryFTraceResponse readNextEvent() {
+        Batch batch = fCurrentBatch;
+        if (batch != null && fCurrentIndex + 1 < batch.fEvents.size()) {
+            fCurrentIndex++;
+            return BinaryFTraceResponse.OK;
+        }
+        if (batch != null && batch.fEnd != null) {
+            fCurrentIndex = batch.fEvents.size();
+            return batch.fEnd;
+        }
+        try {
+            batch = fQueue.poll();
+            if (batch == null) {
+                schedule();
+                batch = fQueue.take();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fCurrentBatch = null;
+            return BinaryFTraceResponse.ERROR;
+        }
+        // Refill the queue while the batch is read
+        schedule();
+        fCurrentBatch = batch;
+        fCurrentIndex = 0;
+        if (batch.fEvents.isEmpty()) {
+            BinaryFTraceResponse end = batch.fEnd;
+            return end != null ? end : readNextEvent();
+        }
+        return BinaryFTraceResponse.OK;
+    }
+
+    /**
+     * Get the current decoded event
+     *
+     * @return The current event, or null if there are no more events
+     */
+    public @Nullable BinaryFTraceEvent getCurrentEvent() {
+        Batch batch = fCurrentBatch;
+        if (batch == null || fCurrentIndex >= batch.fEvents.size()) {
+            return null;
+        }
+        return batch.fEvents.get(fCurrentIndex);
+    }
+
+    /**
+     * Stop the decoding and wait for the batch being decoded, after which the
+     * reader and decoder are no longer called
+     */
+    public void cancel() {
+        fCancelled = true;
+        synchronized (fDecodeLock) {
+            fQueue.clear();
+        }
+    }
+
+    private void schedule() {
+        if (fCancelled || fDone || fQueue.size() >= MAX_QUEUED_BATCHES) {
+            return;
+        }
+        if (fScheduled.compareAndSet(false, true)) {
+            getExecutor().execute(this::decodeBatch);
+        }
+    }
+
+    private void decodeBatch() {
+        synchronized (fDecodeLock) {
+            if (!fCancelled && !fDone) {
+                List<BinaryFTraceEvent> events = new ArrayList<>(fBatchSize);
+                BinaryFTraceResponse end = null;
+                try {
+                    while (end == null && events.size() < fBatchSize) {
+                        BinaryFTraceResponse response = fReader.get();
+                        if (response == BinaryFTraceResponse.OK) {
+                            BinaryFTraceEvent event = fDecoder.get();
+                            if (event != null) {
+                                events.add(event);
+                            }
+                        } else {
+                            end = response;
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    Activator.getInstance().logError("An error occured while decoding binary FTrace events.", e); //$NON-NLS-1$
+                    end = BinaryFTraceResponse.ERROR;
+                }
+                fBatchSize = Math.min(fBatchSize * 2, MAX_BATCH_SIZE);
+                fDone = end != null;
+                fQueue.add(new Batch(events, end));
+            }
+            fScheduled.set(false);
+        }
+        schedule();
+    }
+
+    /**
+     * Decoded events, and the response that ended the CPU section after them
+     * if it was reached
+     */
+    private static class Batch {
+        private final List<BinaryFTraceEvent> fEvents;
+        private final @Nullable BinaryFTraceResponse fEnd;
+
+        public Batch(List<BinaryFTraceEvent> events, @Nullable BinaryFTraceResponse end) {
+            fEvents = Collections.unmodifiableList(events);
+            fEnd = end;
+        }
+    }
+}
@@ -13,7 +13,6 @@ package org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.iterator;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -46,7 +45,7 @@ public class BinaryFTraceIteratorHelper {
 
     private static final int DATA_LOC_OFFSET = 0x0000FFFF;
 
-    private static final String hexPrefix = "0x"; //$NON-NLS-1$
+    private static final String HEX_PREFIX = "0x"; //$NON-NLS-1$
 
     /**
      * Constructor
@@ -112,7 +111,8 @@ public class BinaryFTraceIteratorHelper {
 
     /**
      * Extract all field values from the binary payload of a binary FTrace
-     * event.
+     * event. The values are read directly from the payload using the event
+     * format, without copying the bytes of each field.
      *
      * @param eventFormat
      *            The {@link BinaryFTraceEventFormat} that contains information
@@ -122,18 +122,21 @@ public class BinaryFTraceIteratorHelper {
      * @return A Map containing all the the parsed field values.
      */
     public Map<String, Object> parseEventData(BinaryFTraceEventFormat eventFormat, byte[] data) {
-        Map<String, Object> eventProperties = new HashMap<>();
+        Map<String, BinaryFTraceFormatField> commonFields = eventFormat.getCommonFields();
+        Map<String, BinaryFTraceFormatField> customFields = eventFormat.getCustomFields();
+        Map<String, Object> eventProperties = new HashMap<>(2 * (commonFields.size() + customFields.size() + 1));
         eventProperties.put("name", eventFormat.getEventName()); // Store //$NON-NLS-1$
                                                                  // the
                                                                  // event name
 
-        for (Entry<String, BinaryFTraceFormatField> fieldEntry : eventFormat.getCommonFields().entrySet()) {
-            Object value = getFieldValue(fieldEntry.getValue(), data);
+        ByteBuffer payload = wrap(data);
+        for (Entry<String, BinaryFTraceFormatField> fieldEntry : commonFields.entrySet()) {
+            Object value = getFieldValue(fieldEntry.getValue(), payload);
             eventProperties.put(fieldEntry.getKey(), value);
         }
 
-        for (Entry<String, BinaryFTraceFormatField> fieldEntry : eventFormat.getCustomFields().entrySet()) {
-            Object value = getFieldValue(fieldEntry.getValue(), data);
+        for (Entry<String, BinaryFTraceFormatField> fieldEntry : customFields.entrySet()) {
+            Object value = getFieldValue(fieldEntry.getValue(), payload);
             eventProperties.put(fieldEntry.getKey(), value);
         }
 
@@ -150,33 +153,11 @@ public class BinaryFTraceIteratorHelper {
      *            FTrace event.
      * @param data
      *            The binary payload of a binary FTrace event.
-     * @return An {@link Object} that is the extracted value.
+     * @return An {@link Object} that is the extracted value; or null if the
+     *         field is outside of the payload.
      */
     public Object getFieldValue(BinaryFTraceFormatField formatField, byte[] data) {
-        if (formatField.isPointer()) {
-            byte[] fieldData = extractValue(formatField, data);
-            return readStringPointerField(fieldData);
-        }
-
-        if (formatField.isString()) {
-            byte[] fieldData = new byte[0];
-            if (formatField.isDataLoc()) {
-                fieldData = extractDataLocValue(formatField, data);
-            } else {
-                fieldData = extractValue(formatField, data);
-            }
-
-            return readStringField(fieldData);
-        }
-
-        if (formatField.getArrayLength() == 0) {
-            // For now for non string type we just print out the pointer value
-            byte[] fieldData = extractValue(formatField, data);
-            return readStringPointerField(fieldData);
-        }
-
-        byte[] fieldData = extractValue(formatField, data);
-        return getPrimitiveDataValue(formatField, fieldData);
+        return getFieldValue(formatField, wrap(data));
     }
 
     /**
@@ -190,29 +171,59 @@ public class BinaryFTraceIteratorHelper {
      */
     public BinaryFTraceEventFormat getEventFormat(byte[] data) {
         BinaryFTraceFormatField commonTypeField = fHeader.getEventCommonFields().get("common_type"); //$NON-NLS-1$
-        Long eventId = (Long) getFieldValue(commonTypeField, data);
+        Object eventId = getFieldValue(commonTypeField, data);
 
-        if (eventId == null) {
+        if (!(eventId instanceof Long)) {
             return null;
         }
 
-        return fHeader.getEventFormatByID(eventId.intValue());
+        return fHeader.getEventFormatByID(((Long) eventId).intValue());
     }
 
-    private Object getPrimitiveDataValue(BinaryFTraceFormatField formatField, byte[] data) {
+    private ByteBuffer wrap(byte[] data) {
+        return ByteBuffer.wrap(data).order(fHeader.getEndianess());
+    }
+
+    private Object getFieldValue(BinaryFTraceFormatField formatField, ByteBuffer payload) {
+        int offset = formatField.getOffset();
+        int size = formatField.getSize();
+        if (offset < 0 || size < 0 || offset + size > payload.limit()) {
+            return null;
+        }
+
+        if (formatField.isPointer()) {
+            return readPointerField(offset, size, payload);
+        }
+
+        if (formatField.isString()) {
+            if (formatField.isDataLoc()) {
+                return readDataLocStringField(offset, size, payload);
+            }
+            return readStringField(payload, offset, size);
+        }
+
+        if (formatField.getArrayLength() == 0) {
+            // For now for non string type we just print out the pointer value
+            return readPointerField(offset, size, payload);
+        }
+
+        return getPrimitiveDataValue(formatField, offset, size, payload);
+    }
+
+    private static Object getPrimitiveDataValue(BinaryFTraceFormatField formatField, int offset, int size, ByteBuffer payload) {
         Object value = null;
         switch (formatField.getFieldType()) {
         case CHAR:
-            value = readCharField(formatField, data);
+            value = readCharField(formatField, offset, size, payload);
             break;
         case SHORT:
-            value = readShortField(formatField, data);
+            value = readShortField(formatField, offset, size, payload);
             break;
         case INT:
-            value = readIntField(formatField, data);
+            value = readIntField(formatField, offset, size, payload);
             break;
         case LONG:
-            value = readLongField(formatField, data);
+            value = readLongField(formatField, offset, size, payload);
             break;
         case UNKNOWN:
             break;
@@ -223,21 +234,23 @@ public class BinaryFTraceIteratorHelper {
         return value;
     }
 
-    private static String readStringField(byte[] fieldData) {
-        for (int i = 0; i < fieldData.length; i++) {
-            if (fieldData[i] == 0) {
-                return new String(fieldData, 0, i);
+    private static String readStringField(ByteBuffer payload, int offset, int size) {
+        byte[] data = payload.array();
+        int start = payload.arrayOffset() + offset;
+        for (int i = 0; i < size; i++) {
+            if (data[start + i] == 0) {
+                return new String(data, start, i);
             }
         }
-        return new String(fieldData);
+        return new String(data, start, size);
     }
 
-    private static Long readCharField(BinaryFTraceFormatField formatField, byte[] fieldData) {
+    private static Long readCharField(BinaryFTraceFormatField formatField, int offset, int size, ByteBuffer payload) {
         /** A char for ftrace is a 8bit = 1byte value */
-        if (fieldData.length == 1) {
-            Byte byteValue = fieldData[0];
+        if (size == 1) {
+            byte byteValue = payload.get(offset);
 
-            if (formatField.getSigned() == BinaryFTraceValueSign.SIGNED || canBeSignedByte(byteValue)) {
+            if (formatField.getSigned() == BinaryFTraceValueSign.SIGNED || byteValue >= 0) {
                 return Long.valueOf(byteValue);
             }
 
@@ -247,94 +260,83 @@ public class BinaryFTraceIteratorHelper {
         return null;
     }
 
-    private static boolean canBeSignedByte(Byte byteValue) {
-        return (Byte.toUnsignedInt(byteValue) - Byte.toUnsignedInt(Byte.MAX_VALUE)) <= 0;
-    }
-
-    private Object readShortField(BinaryFTraceFormatField formatField, byte[] fieldData) {
-        Short shortValue = ByteBuffer.wrap(fieldData).order(fHeader.getEndianess()).getShort();
+    private static Long readShortField(BinaryFTraceFormatField formatField, int offset, int size, ByteBuffer payload) {
+        if (size < Short.BYTES) {
+            return null;
+        }
+        short shortValue = payload.getShort(offset);
 
-        if (formatField.getSigned() == BinaryFTraceValueSign.SIGNED || canBeSignedShort(shortValue)) {
+        if (formatField.getSigned() == BinaryFTraceValueSign.SIGNED || shortValue >= 0) {
             return Long.valueOf(shortValue);
         }
 
         return Short.toUnsignedLong(shortValue);
     }
 
-    private static boolean canBeSignedShort(Short shortValue) {
-        return (Short.toUnsignedInt(shortValue) - Short.toUnsignedInt(Short.MAX_VALUE)) <= 0;
-    }
-
-    private Object readIntField(BinaryFTraceFormatField formatField, byte[] fieldData) {
-        Integer intValue = ByteBuffer.wrap(fieldData).order(fHeader.getEndianess()).getInt();
+    private static Long readIntField(BinaryFTraceFormatField formatField, int offset, int size, ByteBuffer payload) {
+        if (size < Integer.BYTES) {
+            return null;
+        }
+        int intValue = payload.getInt(offset);
 
-        if (formatField.getSigned() == BinaryFTraceValueSign.SIGNED || canBeSignedInt(intValue)) {
+        if (formatField.getSigned() == BinaryFTraceValueSign.SIGNED || intValue >= 0) {
             return Long.valueOf(intValue);
         }
 
         return Integer.toUnsignedLong(intValue);
     }
 
-    private static boolean canBeSignedInt(Integer byteValue) {
-        return Integer.compareUnsigned(byteValue, Integer.MAX_VALUE) <= 0;
-    }
-
-    private Object readLongField(BinaryFTraceFormatField formatField, byte[] fieldData) {
-        Long longValue = ByteBuffer.wrap(fieldData).order(fHeader.getEndianess()).getLong();
+    private static Object readLongField(BinaryFTraceFormatField formatField, int offset, int size, ByteBuffer payload) {
+        if (size < Long.BYTES) {
+            return null;
+        }
+        long longValue = payload.getLong(offset);
 
         // If the value is unsigned, but can not be fit into a signed value, we
         // return a string of the unsigned value
-        if (formatField.getSigned() == BinaryFTraceValueSign.UNSIGNED && !canBeSignedLong(longValue)) {
+        if (formatField.getSigned() == BinaryFTraceValueSign.UNSIGNED && longValue < 0) {
             return Long.toUnsignedString(longValue);
         }
 
         return longValue;
     }
 
-    private static boolean canBeSignedLong(Long longValue) {
-        return Long.compareUnsigned(longValue, Long.MAX_VALUE) <= 0;
-    }
-
-    private static byte[] extractValue(BinaryFTraceFormatField field, byte[] data) {
-        int size = field.getSize();
-        int offset = field.getOffset();
-        byte[] valueInBytes = Arrays.copyOfRange(data, offset, size + offset);
-
-        return valueInBytes;
-    }
-
-    private byte[] extractDataLocValue(BinaryFTraceFormatField field, byte[] data) {
+    private String readDataLocStringField(int offset, int size, ByteBuffer payload) {
         // The dynamic field should be 4 bytes
-        if (field.getSize() != 4) {
+        if (size != Integer.BYTES) {
             return null;
         }
 
-        byte[] dataLocationInBytes = Arrays.copyOfRange(data, field.getOffset(), field.getOffset() + field.getSize()); // The
-        int dataLocation = ByteBuffer.wrap(dataLocationInBytes).order(fHeader.getEndianess()).getInt();
-
+        int dataLocation = payload.getInt(offset);
         int length = BinaryFTraceIteratorHelper.getDataLocLength(dataLocation);
-        int offset = BinaryFTraceIteratorHelper.getDataLocOffset(dataLocation);
+        int dataOffset = BinaryFTraceIteratorHelper.getDataLocOffset(dataLocation);
 
-        if (offset + length <= data.length) {
-            byte[] valueInBytes = Arrays.copyOfRange(data, offset, offset + length);
-            return valueInBytes;
+        if (dataOffset + length <= payload.limit()) {
+            return readStringField(payload, dataOffset, length);
         }
 
-        return new byte[0];
+        return ""; //$NON-NLS-1$
     }
 
-    private String readStringPointerField(byte[] fieldData) {
-        long pointerAddress = ByteBuffer.wrap(fieldData).order(fHeader.getEndianess()).getLong();
+    private String readPointerField(int offset, int size, ByteBuffer payload) {
+        long pointerAddress = 0;
+        if (size >= Long.BYTES) {
+            pointerAddress = payload.getLong(offset);
+        } else if (size >= Integer.BYTES) {
+            pointerAddress = Integer.toUnsignedLong(payload.getInt(offset));
+        }
+        // Else the field is too small to hold an address, e.g. a zero length
+        // array, and its address is 0
 
         // If the we have a mapping of address to string in the file header, get
         // the string
-        String hexAddress = hexPrefix + Long.toHexString(pointerAddress);
-        if (fHeader.getPrintKPointerStringMapping().containsKey(hexAddress)) {
-            return fHeader.getPrintKPointerStringMapping().get(hexAddress);
+        String mappedString = fHeader.getPrintKString(pointerAddress);
+        if (mappedString != null) {
+            return mappedString;
         }
 
         // Else we return the hex string representation like trace-cmd
-        return hexAddress;
+        return HEX_PREFIX + Long.toHexString(pointerAddress);
     }
 
     private static int getDataLocLength(int dataLoc) {
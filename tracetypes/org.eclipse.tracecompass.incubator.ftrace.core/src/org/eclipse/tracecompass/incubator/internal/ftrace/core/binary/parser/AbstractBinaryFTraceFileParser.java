@@ -25,6 +25,7 @@ import static org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.eve
 
 import java.nio.ByteOrder;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -381,7 +382,7 @@ public abstract class AbstractBinaryFTraceFileParser {
 
         BinaryFTraceCPUDataPage nextPage = null;
         BinaryFTraceCPUDataPageBuilder pageBuilder = new BinaryFTraceCPUDataPageBuilder();
-        List<BinaryFTraceCPUDataPage> listPages = new ArrayList<>();
+        List<BinaryFTraceCPUDataPage> listPages = new ArrayList<>(pageCount);
         long pageStartingOffset = sectionStartingOffset + sectionSize - pageSize;
 
         /*
@@ -404,11 +405,13 @@ public abstract class AbstractBinaryFTraceFileParser {
                     .build();
 
             // Add the page to the list and set the next page
-            listPages.add(0, currentPage);
+            listPages.add(currentPage);
             nextPage = currentPage;
             pageStartingOffset = pageStartingOffset - pageSize;
         }
 
+        // The pages were added from the last one, avoiding quadratic inserts
+        Collections.reverse(listPages);
         return listPages;
     }
 
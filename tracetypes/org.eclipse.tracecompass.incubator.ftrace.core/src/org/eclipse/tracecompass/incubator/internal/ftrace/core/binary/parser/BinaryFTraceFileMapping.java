@@ -2,19 +2,35 @@ package org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.parser;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileChannel.MapMode;
-import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.Activator;
 
 /**
- * Helper class to map a large file (> 2GB) using a list of MappedByteBuffers.
+ * Helper class to map a large file (> 2GB) using an array of MappedByteBuffers.
  *
  * Provides an interface (read only) similar to ByteBuffer, but uses a long
- * index instead of int.
+ * index instead of int. The segment of an index is found with a shift and its
+ * offset in the segment with a mask. Each segment overlaps into the next one,
+ * so reads of primitive values never need to be split between two segments.
+ *
+ * The file is unmapped when the mapping is closed, instead of when the buffers
+ * are garbage collected, so that the file is not kept locked. Reading an
+ * unmapped buffer crashes the JVM, so the owner of the mapping must stop its
+ * readers before closing it, the reads themselves are not guarded. The reads
+ * started after the mapping is closed fail.
  */
-public final class BinaryFTraceFileMapping {
+public final class BinaryFTraceFileMapping implements AutoCloseable {
     /**
      * Length of the file segment mapped by each buffer.
      */
@@ -26,8 +42,15 @@ public final class BinaryFTraceFileMapping {
      */
     public static final long SEGMENT_OVERLAP = 1 << 20; // 1MB overlap
 
+    private static final int SEGMENT_SHIFT = Long.numberOfTrailingZeros(SEGMENT_LEN);
+    private static final long SEGMENT_MASK = SEGMENT_LEN - 1;
+
+    private static final MappedByteBuffer[] CLOSED = new MappedByteBuffer[0];
+    private static final @Nullable MethodHandle INVOKE_CLEANER = findInvokeCleaner();
+
     private final long fLength;
-    private ArrayList<MappedByteBuffer> fMappedBuffers = new ArrayList<>();
+    private volatile MappedByteBuffer[] fMappedBuffers;
+    private final AtomicBoolean fUnmapped = new AtomicBoolean();
 
     /**
      * Create a mapping for the given file.
@@ -40,15 +63,17 @@ public final class BinaryFTraceFileMapping {
             @SuppressWarnings("resource")
             FileChannel channel = file.getChannel(); // channel is closed automatically by the file
             fLength = file.length();
-            final int segmentCount = (int)(fLength / SEGMENT_LEN);
-            fMappedBuffers.ensureCapacity(segmentCount + 1);
+            final int segmentCount = (int) (fLength >>> SEGMENT_SHIFT);
+            long remaining = fLength & SEGMENT_MASK;
+            MappedByteBuffer[] buffers = new MappedByteBuffer[remaining > 0 ? segmentCount + 1 : segmentCount];
             for (int i = 0; i < segmentCount; i++) {
-                fMappedBuffers.add(channel.map(MapMode.READ_ONLY, i * SEGMENT_LEN, SEGMENT_LEN + SEGMENT_OVERLAP));
+                long position = i * SEGMENT_LEN;
+                buffers[i] = channel.map(MapMode.READ_ONLY, position, Math.min(SEGMENT_LEN + SEGMENT_OVERLAP, fLength - position));
             }
-            long remaining = fLength - segmentCount * SEGMENT_LEN;
             if (remaining > 0) {
-                fMappedBuffers.add(channel.map(MapMode.READ_ONLY, segmentCount * SEGMENT_LEN, remaining));
+                buffers[segmentCount] = channel.map(MapMode.READ_ONLY, segmentCount * SEGMENT_LEN, remaining);
             }
+            fMappedBuffers = buffers;
         }
     }
 
@@ -70,8 +95,20 @@ public final class BinaryFTraceFileMapping {
      * @param dst the byte array to fill
      */
     public void get(long index, byte[] dst) {
-        MappedByteBuffer mappedBuffer = fMappedBuffers.get((int) (index / SEGMENT_LEN));
-        mappedBuffer.get((int)(index % SEGMENT_LEN), dst);
+        MappedByteBuffer[] buffers = fMappedBuffers;
+        int copied = 0;
+        long position = index;
+        while (copied < dst.length) {
+            MappedByteBuffer mappedBuffer = segment(buffers, position);
+            int offset = offset(position);
+            int length = Math.min(dst.length - copied, mappedBuffer.limit() - offset);
+            if (length <= 0) {
+                throw new IndexOutOfBoundsException("Read past the end of the file at " + position); //$NON-NLS-1$
+            }
+            mappedBuffer.get(offset, dst, copied, length);
+            copied += length;
+            position += length;
+        }
     }
 
     /**
@@ -81,8 +118,7 @@ public final class BinaryFTraceFileMapping {
      * @return the value
      */
     public byte getByte(long index) {
-        MappedByteBuffer mappedBuffer = fMappedBuffers.get((int) (index / SEGMENT_LEN));
-        return mappedBuffer.get((int)(index % SEGMENT_LEN));
+        return segment(fMappedBuffers, index).get(offset(index));
     }
 
     /**
@@ -92,8 +128,7 @@ public final class BinaryFTraceFileMapping {
      * @return the value
      */
     public int getInt(long index) {
-        MappedByteBuffer mappedBuffer = fMappedBuffers.get((int) (index / SEGMENT_LEN));
-        return mappedBuffer.getInt((int)(index % SEGMENT_LEN));
+        return segment(fMappedBuffers, index).getInt(offset(index));
     }
 
     /**
@@ -103,8 +138,7 @@ public final class BinaryFTraceFileMapping {
      * @return the value
      */
     public double getDouble(long index) {
-        MappedByteBuffer mappedBuffer = fMappedBuffers.get((int) (index / SEGMENT_LEN));
-        return mappedBuffer.getDouble((int)(index % SEGMENT_LEN));
+        return segment(fMappedBuffers, index).getDouble(offset(index));
     }
 
     /**
@@ -113,20 +147,18 @@ public final class BinaryFTraceFileMapping {
      * @param index position to read from
      * @return the value
      */
-   public long getLong(long index) {
-        MappedByteBuffer mappedBuffer = fMappedBuffers.get((int) (index / SEGMENT_LEN));
-        return mappedBuffer.getLong((int)(index % SEGMENT_LEN));
+    public long getLong(long index) {
+        return segment(fMappedBuffers, index).getLong(offset(index));
     }
 
-   /**
-    * Read a short (2 bytes) from the given position.
-    *
-    * @param index position to read from
-    * @return the value
-    */
+    /**
+     * Read a short (2 bytes) from the given position.
+     *
+     * @param index position to read from
+     * @return the value
+     */
     public short getShort(long index) {
-        MappedByteBuffer mappedBuffer = fMappedBuffers.get((int) (index / SEGMENT_LEN));
-        return mappedBuffer.getShort((int)(index % SEGMENT_LEN));
+        return segment(fMappedBuffers, index).getShort(offset(index));
     }
 
     /**
@@ -137,4 +169,55 @@ public final class BinaryFTraceFileMapping {
     public long length() {
         return fLength;
     }
-}
\ No newline at end of file
+
+    /**
+     * Unmap the file. No read must be in progress, reads done after this fail
+     * with an {@link IndexOutOfBoundsException}. If the buffers cannot be
+     * unmapped explicitly on this JVM, they are released when garbage
+     * collected.
+     */
+    @Override
+    public void close() {
+        if (!fUnmapped.compareAndSet(false, true)) {
+            return;
+        }
+        MappedByteBuffer[] buffers = fMappedBuffers;
+        fMappedBuffers = CLOSED;
+        MethodHandle invokeCleaner = INVOKE_CLEANER;
+        if (invokeCleaner == null) {
+            return;
+        }
+        for (MappedByteBuffer buffer : buffers) {
+            try {
+                invokeCleaner.invoke(buffer);
+            } catch (Throwable e) {
+                Activator.getInstance().logError("Cannot unmap the binary FTrace file", e); //$NON-NLS-1$
+                return;
+            }
+        }
+    }
+
+    private static MappedByteBuffer segment(MappedByteBuffer[] buffers, long index) {
+        return buffers[(int) (index >>> SEGMENT_SHIFT)];
+    }
+
+    private static int offset(long index) {
+        return (int) (index & SEGMENT_MASK);
+    }
+
+    /**
+     * Get the handle to sun.misc.Unsafe#invokeCleaner, the only way to unmap
+     * a buffer before it is garbage collected on Java 17
+     */
+    private static @Nullable MethodHandle findInvokeCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe"); //$NON-NLS-1$
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe"); //$NON-NLS-1$
+            theUnsafe.setAccessible(true);
+            MethodHandle invokeCleaner = MethodHandles.lookup().findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class)); //$NON-NLS-1$
+            return invokeCleaner.bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
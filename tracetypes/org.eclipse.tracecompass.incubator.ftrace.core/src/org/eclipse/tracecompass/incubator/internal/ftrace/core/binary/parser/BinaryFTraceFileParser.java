@@ -81,9 +81,8 @@ public class BinaryFTraceFileParser extends AbstractBinaryFTraceFileParser {
      *             Cannot open or parse the file
      */
     public static BinaryFTraceVersionHeader getFtraceVersionHeader(String path) throws TmfTraceException {
-        try {
-            BinaryFTraceByteBuffer buffer = new BinaryFTraceByteBuffer(path);
-            return getFtraceVersionHeader(buffer);
+        try (BinaryFTraceFileMapping traceMapping = new BinaryFTraceFileMapping(path)) {
+            return getFtraceVersionHeader(new BinaryFTraceByteBuffer(traceMapping));
         } catch (IOException e) {
             throw new TmfTraceException("Cannot open trace file", e); //$NON-NLS-1$
         }
@@ -108,11 +107,16 @@ public class BinaryFTraceFileParser extends AbstractBinaryFTraceFileParser {
      *             Cannot open or parse the file
      */
     public static BinaryFTraceHeaderInfo parse(String path) throws TmfTraceException {
+        BinaryFTraceFileMapping traceMapping;
+        try {
+            traceMapping = new BinaryFTraceFileMapping(path);
+        } catch (IOException ex) {
+            throw new TmfTraceException(ex.getMessage(), ex);
+        }
         try {
             BinaryFTraceHeaderInfoBuilder builder = new BinaryFTraceHeaderInfoBuilder();
             builder.filePath(path);
 
-            BinaryFTraceFileMapping traceMapping = new BinaryFTraceFileMapping(path);
             BinaryFTraceByteBuffer buffer = new BinaryFTraceByteBuffer(traceMapping);
 
             // Parse initial data section
@@ -157,8 +161,10 @@ public class BinaryFTraceFileParser extends AbstractBinaryFTraceFileParser {
                 builder.cpus(parseFlyRecordSection(buffer, cpuCount, pageSize));
             }
             return builder.build(traceMapping);
-        } catch (IOException ex) {
-            throw new TmfTraceException(ex.getMessage(), ex);
+        } catch (TmfTraceException | RuntimeException ex) {
+            // The mapping is only kept by a successfully parsed header
+            traceMapping.close();
+            throw ex;
         }
     }
 
@@ -23,8 +23,6 @@ import org.eclipse.tracecompass.tmf.core.event.TmfEventField;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Ftrace field class
@@ -38,17 +36,6 @@ import java.util.regex.Pattern;
 @NonNullByDefault
 public class GenericFtraceField {
 
-    private static final Pattern KEYVAL_KEY_PATTERN = Pattern.compile("(?<key>[^\\s=\\[\\],]+)(?<separator>[=:])"); //$NON-NLS-1$
-    private static final Pattern KEYVAL_VALUE_PATTERN = Pattern.compile("\\s*(?<value>[^\\[\\],]+).*"); //$NON-NLS-1$
-    private static final Pattern KEYVAL_VALUE_DOCKER_BYPASS = Pattern.compile("\\S+:\\[\\S+:\\S+\\]"); //$NON-NLS-1$
-    private static final Map<String, Pattern> KEYVAL_KEY_PATTERN_MAP = Map.of("=", Pattern.compile("(?<key>[^\\s=\\[\\],]+)(?<separator>=)"), //$NON-NLS-1$ //$NON-NLS-2$
-            ":", Pattern.compile("(?<key>[^\\s=\\[\\],]+)(?<separator>:)"), //$NON-NLS-1$ //$NON-NLS-2$
-            "", KEYVAL_KEY_PATTERN); //$NON-NLS-1$
-    private static final String KEYVAL_KEY_GROUP = "key"; //$NON-NLS-1$
-    private static final String KEYVAL_VALUE_GROUP = "value"; //$NON-NLS-1$
-
-
-    private static final double SECONDS_TO_NANO = 1000000000.0;
     private static final Map<Character, @NonNull Long> PREV_STATE_LUT;
 
     static {
@@ -103,21 +90,16 @@ public class GenericFtraceField {
      * @return An event field
      */
     public static @Nullable GenericFtraceField parseLine(String line) {
-        Matcher matcher = IGenericFtraceConstants.FTRACE_PATTERN.matcher(line);
-        if (matcher.matches()) {
-            Integer pid = Integer.parseInt(matcher.group(IGenericFtraceConstants.FTRACE_PID_GROUP));
+        GenericFtraceLine ftraceLine = GenericFtraceLine.parse(line);
+        if (ftraceLine != null) {
+            Integer pid = ftraceLine.getPid();
             Integer tid = pid;
-            Integer cpu = Integer.parseInt(matcher.group(IGenericFtraceConstants.FTRACE_CPU_GROUP));
-            Double timestampInSec = Double.parseDouble(matcher.group(IGenericFtraceConstants.FTRACE_TIMESTAMP_GROUP));
-            Long timestampInNano = (long) (timestampInSec * SECONDS_TO_NANO);
-
-            String name = matcher.group(IGenericFtraceConstants.FTRACE_NAME_GROUP);
-            name = name.trim();
+            Integer cpu = ftraceLine.getCpu();
+            Long timestampInNano = ftraceLine.getTimestamp();
 
-            String separator = matcher.group(IGenericFtraceConstants.FTRACE_SEPARATOR_GROUP);
-            separator = separator.trim();
-
-            String attributes = matcher.group(IGenericFtraceConstants.FTRACE_DATA_GROUP);
+            String name = ftraceLine.getName();
+            String separator = ftraceLine.getSeparator();
+            String attributes = ftraceLine.getData();
 
             name = eventNameRewrite(name, separator);
 
@@ -126,35 +108,34 @@ public class GenericFtraceField {
              * between the tgid and the pid, we know the event happened on a thread and that
              * the tgid is the actual pid, and the pid the tid.
              */
-            String tgid = matcher.group(IGenericFtraceConstants.FTRACE_TGID_GROUP);
-            if (tgid != null) {
-                Integer tgidNumeric = Integer.parseInt(tgid);
-                if (!tgidNumeric.equals(pid)) {
-                    pid = tgidNumeric;
-                }
+            Integer tgidNumeric = ftraceLine.getTgid();
+            if (tgidNumeric != null && !tgidNumeric.equals(pid)) {
+                pid = tgidNumeric;
             }
 
             Map<@NonNull String, @NonNull Object> fields = new HashMap<>();
 
-            if (attributes != null && !attributes.isEmpty()) {
+            if (!attributes.isEmpty()) {
+                /*
+                 * Split the attributes in "key=value" or "key: value" pairs. Once
+                 * a separator is found, the following keys use the same one.
+                 */
                 int valStart = 0;
-                Matcher keyvalMatcher = KEYVAL_KEY_PATTERN.matcher(attributes);
                 String key = null;
-                separator = null;
-                while (keyvalMatcher.find()) {
+                char keySeparator = 0;
+                int[] nextKey = findKey(attributes, valStart, keySeparator);
+                while (nextKey != null) {
                     if (key != null) {
-                        int start = keyvalMatcher.start();
-                        String value = attributes.substring(0, start);
-                        putKeyValueField(name, fields, key, value);
+                        putKeyValueField(name, fields, key, attributes.substring(valStart, nextKey[0]));
                     }
-                    valStart = keyvalMatcher.end();
-                    key = keyvalMatcher.group(KEYVAL_KEY_GROUP);
-                    separator = keyvalMatcher.group(IGenericFtraceConstants.FTRACE_SEPARATOR_GROUP);
-                    attributes = attributes.substring(valStart);
-                    keyvalMatcher = KEYVAL_KEY_PATTERN_MAP.getOrDefault(separator, KEYVAL_KEY_PATTERN).matcher(attributes);
+                    key = attributes.substring(nextKey[0], nextKey[1]);
+                    keySeparator = attributes.charAt(nextKey[1]);
+                    valStart = nextKey[1] + 1;
+                    nextKey = findKey(attributes, valStart, keySeparator);
                 }
+                attributes = attributes.substring(valStart);
 
-                if (key != null && valStart > 0) {
+                if (key != null) {
                     putKeyValueField(name, fields, key, attributes);
                 }
 
@@ -176,14 +157,52 @@ public class GenericFtraceField {
         return null;
     }
 
-    private static void putKeyValueField(String name, Map<@NonNull String, @NonNull Object> fields, String key, String value) {
-        String actualValue;
-        Matcher valMatcher = KEYVAL_VALUE_PATTERN.matcher(value);
-        if (!KEYVAL_VALUE_DOCKER_BYPASS.matcher(value).find() && valMatcher.matches()) {
-            actualValue = valMatcher.group(KEYVAL_VALUE_GROUP).trim();
-        } else {
-            actualValue = value.trim();
+    /**
+     * Find the next key of the attributes, a sequence of characters other than
+     * whitespaces, '=', '[', ']' and ',' followed by the key separator.
+     *
+     * @param attributes
+     *            the attributes
+     * @param from
+     *            the index to search from
+     * @param separator
+     *            the key separator, '=' or ':', or 0 to accept both
+     * @return the start and end of the key, the separator being at the end, or
+     *         null if there is no more key
+     */
+    private static int @Nullable [] findKey(String attributes, int from, char separator) {
+        int length = attributes.length();
+        int index = from;
+        while (index < length) {
+            if (!isKeyCharacter(attributes.charAt(index))) {
+                index++;
+                continue;
+            }
+            int start = index;
+            int colon = -1;
+            while (index < length && isKeyCharacter(attributes.charAt(index))) {
+                if (attributes.charAt(index) == ':' && index > start) {
+                    colon = index;
+                }
+                index++;
+            }
+            // The longest key wins, a '=' after the sequence before its last ':'
+            if (separator != ':' && index < length && attributes.charAt(index) == '=') {
+                return new int[] { start, index };
+            }
+            if (separator != '=' && colon >= 0) {
+                return new int[] { start, colon };
+            }
         }
+        return null;
+    }
+
+    private static boolean isKeyCharacter(char c) {
+        return c != '=' && c != '[' && c != ']' && c != ',' && !GenericFtraceLine.isWhitespace(c);
+    }
+
+    private static void putKeyValueField(String name, Map<@NonNull String, @NonNull Object> fields, String key, String value) {
+        String actualValue = getActualValue(value);
         if (!actualValue.trim().isEmpty()) {
             // This is a temporary solution. Refactor suggestions
             // are welcome.
@@ -202,6 +221,65 @@ public class GenericFtraceField {
         }
     }
 
+    /**
+     * Get the value of a field from the text between its key and the next
+     * key: the text up to the first '[', ']' or ',', unless the value starts
+     * with one of those or contains a docker "name:[type:id]" reference.
+     */
+    private static String getActualValue(String value) {
+        if (isDockerReference(value)) {
+            return value.trim();
+        }
+        int length = value.length();
+        int start = 0;
+        while (start < length && GenericFtraceLine.isWhitespace(value.charAt(start))) {
+            start++;
+        }
+        int end = start;
+        while (end < length && !isValueDelimiter(value.charAt(end))) {
+            end++;
+        }
+        for (int i = end; i < length; i++) {
+            if (GenericFtraceLine.isLineTerminator(value.charAt(i))) {
+                return value.trim();
+            }
+        }
+        if (end == start) {
+            // Nothing before the delimiter, keep the value as is if it starts with it
+            return start == 0 ? value.trim() : ""; //$NON-NLS-1$
+        }
+        return value.substring(start, end).trim();
+    }
+
+    private static boolean isValueDelimiter(char c) {
+        return c == '[' || c == ']' || c == ',';
+    }
+
+    /**
+     * Check if a value contains a docker reference, like "cgroup:[docker:1a2b]",
+     * that is non whitespaces followed by ":[", non whitespaces, ':', non
+     * whitespaces and ']'.
+     */
+    private static boolean isDockerReference(String value) {
+        int length = value.length();
+        int index = value.indexOf(":[", 1); //$NON-NLS-1$
+        while (index >= 0) {
+            if (!GenericFtraceLine.isWhitespace(value.charAt(index - 1)) && index + 2 < length && !GenericFtraceLine.isWhitespace(value.charAt(index + 2))) {
+                int colon = -1;
+                for (int i = index + 3; i < length && !GenericFtraceLine.isWhitespace(value.charAt(i)); i++) {
+                    char c = value.charAt(i);
+                    if (c == ':' && colon < 0) {
+                        colon = i;
+                    } else if (c == ']' && colon >= 0 && i > colon + 1) {
+                        return true;
+                    }
+                }
+            }
+            index = value.indexOf(":[", index + 1); //$NON-NLS-1$
+        }
+        return false;
+    }
+
     private static Object decodeString(String val) {
         try {
             if (val.startsWith("0x") || val.startsWith("0X")) { //$NON-NLS-1$ //$NON-NLS-2$
@@ -0,0 +1,449 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.ftrace.core.event;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * An event line of a text ftrace trace, like:
+ *
+ * <pre>
+ * kworker/u16:6-214   [002] d...   149.136514: sched_switch: prev_comm=kworker/u16:6 prev_pid=214
+ * </pre>
+ *
+ * The line is scanned character by character instead of being matched against
+ * {@link IGenericFtraceConstants#FTRACE_PATTERN}, and accepts the same lines.
+ * Only the positions of the parts of the line are kept, the values are parsed
+ * when they are requested.
+ */
+@NonNullByDefault
+public final class GenericFtraceLine {
+
+    private static final double SECONDS_TO_NANO = 1000000000.0;
+
+    /**
+     * Powers of ten that are exactly represented as doubles, so that a
+     * timestamp with at most 15 digits is computed with a single correctly
+     * rounded division, like {@link Double#parseDouble(String)} would.
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    /*
+     * The event names of the traces come from a small fixed set of trace
+     * points, so they are shared. Other strings, like the field values, are
+     * not.
+     */
+    private static final int MAX_EVENT_NAMES = 4096;
+    private static final Map<String, String> EVENT_NAMES = new ConcurrentHashMap<>();
+
+    private final String fLine;
+    private final int fPidStart;
+    private final int fPidEnd;
+    private final int fTgidStart;
+    private final int fTgidEnd;
+    private final int fCpuStart;
+    private final int fCpuEnd;
+    private final int fTimestampStart;
+    private final int fTimestampEnd;
+    private final int fNameStart;
+    private final int fNameEnd;
+    private final String fSeparator;
+    private final int fDataStart;
+    private final int fDataEnd;
+
+    private GenericFtraceLine(String line, int[] pid, int[] cpu, int[] timestamp, int[] name, String separator, int[] data) {
+        fLine = line;
+        fPidStart = pid[0];
+        fPidEnd = pid[1];
+        fTgidStart = pid[2];
+        fTgidEnd = pid[3];
+        fCpuStart = cpu[0];
+        fCpuEnd = cpu[1];
+        fTimestampStart = timestamp[0];
+        fTimestampEnd = timestamp[1];
+        fNameStart = name[0];
+        fNameEnd = name[1];
+        fSeparator = separator;
+        fDataStart = data[0];
+        fDataEnd = data[1];
+    }
+
+    /**
+     * Scan a line of an ftrace output file
+     *
+     * @param line
+     *            The line to scan
+     * @return The event line, or null if the line is not an event
+     */
+    public static @Nullable GenericFtraceLine parse(String line) {
+        /*
+         * The command name may contain anything, the longest command name
+         * followed by a valid preamble wins, so try the CPU brackets from the
+         * end of the line.
+         */
+        int bracket = line.lastIndexOf('[');
+        while (bracket >= 0) {
+            GenericFtraceLine parsed = parseAt(line, bracket);
+            if (parsed != null) {
+                return parsed;
+            }
+            bracket = line.lastIndexOf('[', bracket - 1);
+        }
+        return null;
+    }
+
+    /**
+     * Check if a line of an ftrace output file is an event
+     *
+     * @param line
+     *            The line to check
+     * @return True if the line is an event
+     */
+    public static boolean matches(String line) {
+        return parse(line) != null;
+    }
+
+    private static @Nullable GenericFtraceLine parseAt(String line, int bracket) {
+        // [cpu]
+        int cpuEnd = skipDigits(line, bracket + 1);
+        if (cpuEnd == bracket + 1 || cpuEnd >= line.length() || line.charAt(cpuEnd) != ']') {
+            return null;
+        }
+        int[] pid = parsePid(line, bracket);
+        if (pid == null) {
+            return null;
+        }
+
+        // Optional flags, then the time stamp
+        int flagsStart = skipWhitespaces(line, cpuEnd + 1);
+        if (flagsStart == cpuEnd + 1) {
+            return null;
+        }
+        int flagsEnd = skipNonWhitespaces(line, flagsStart);
+        int timestampStart = skipWhitespaces(line, flagsEnd);
+        GenericFtraceLine parsed = null;
+        if (flagsEnd > flagsStart && timestampStart > flagsEnd) {
+            parsed = parseFromTimestamp(line, timestampStart, pid, bracket, cpuEnd);
+        }
+        if (parsed == null) {
+            parsed = parseFromTimestamp(line, flagsStart, pid, bracket, cpuEnd);
+        }
+        return parsed;
+    }
+
+    /**
+     * Scan the "comm-pid" or "comm-pid (tgid)" part of the line backwards from
+     * the CPU bracket
+     *
+     * @return The start and end of the pid and tgid, or null if the part is
+     *         not valid. The tgid start and end are -1 if there is no tgid.
+     */
+    private static int @Nullable [] parsePid(String line, int bracket) {
+        int end = skipWhitespacesBackward(line, bracket - 1);
+        if (end == bracket - 1 || end < 0) {
+            return null;
+        }
+        if (line.charAt(end) != ')') {
+            return parsePidDigits(line, end + 1, -1, -1);
+        }
+
+        // (tgid), the tgid may be missing or preceded by non digits
+        int tgidEnd = end;
+        int tgidStart = skipDigitsBackward(line, end - 1) + 1;
+        int index = tgidStart - 1;
+        while (index >= 0 && !isDigit(line.charAt(index))) {
+            if (line.charAt(index) == '(') {
+                int pidEnd = skipWhitespacesBackward(line, index - 1);
+                if (pidEnd < index - 1 && pidEnd >= 0) {
+                    int[] pid = tgidStart < tgidEnd ?
+                            parsePidDigits(line, pidEnd + 1, tgidStart, tgidEnd) :
+                            parsePidDigits(line, pidEnd + 1, -1, -1);
+                    if (pid != null) {
+                        return pid;
+                    }
+                }
+            }
+            index--;
+        }
+        return null;
+    }
+
+    private static int @Nullable [] parsePidDigits(String line, int pidEnd, int tgidStart, int tgidEnd) {
+        int dash = skipDigitsBackward(line, pidEnd - 1);
+        if (dash == pidEnd - 1 || dash < 0 || line.charAt(dash) != '-') {
+            return null;
+        }
+        // The command name cannot contain line terminators
+        for (int i = skipWhitespaces(line, 0); i < dash; i++) {
+            if (isLineTerminator(line.charAt(i))) {
+                return null;
+            }
+        }
+        return new int[] { dash + 1, pidEnd, tgidStart, tgidEnd };
+    }
+
+    private static @Nullable GenericFtraceLine parseFromTimestamp(String line, int timestampStart, int[] pid, int bracket, int cpuEnd) {
+        int length = line.length();
+
+        // timestamp[.fraction]: name
+        int timestampEnd = skipDigits(line, timestampStart);
+        if (timestampEnd == timestampStart) {
+            return null;
+        }
+        if (timestampEnd < length && line.charAt(timestampEnd) == '.') {
+            int fractionEnd = skipDigits(line, timestampEnd + 1);
+            if (fractionEnd == timestampEnd + 1) {
+                return null;
+            }
+            timestampEnd = fractionEnd;
+        }
+        if (timestampEnd + 1 >= length || line.charAt(timestampEnd) != ':' || line.charAt(timestampEnd + 1) != ' ') {
+            return null;
+        }
+        int nameStart = timestampEnd + 2;
+        int nameEnd = nameStart;
+        while (nameEnd < length && isWordCharacter(line.charAt(nameEnd))) {
+            nameEnd++;
+        }
+        if (nameEnd == nameStart || nameEnd >= length) {
+            return null;
+        }
+
+        // Separator, one of ": ", "(" or " -> "
+        String separator;
+        int dataStart;
+        char c = line.charAt(nameEnd);
+        if (c == ':') {
+            dataStart = skipWhitespaces(line, nameEnd + 1);
+            if (dataStart == nameEnd + 1) {
+                return null;
+            }
+            separator = ":"; //$NON-NLS-1$
+        } else if (c == '(') {
+            dataStart = nameEnd + 1;
+            separator = "("; //$NON-NLS-1$
+        } else {
+            int arrow = skipWhitespaces(line, nameEnd);
+            if (arrow == nameEnd || !line.startsWith(IGenericFtraceConstants.FTRACE_EXIT_SYSCALL_SEPARATOR, arrow)) {
+                return null;
+            }
+            int arrowEnd = arrow + IGenericFtraceConstants.FTRACE_EXIT_SYSCALL_SEPARATOR.length();
+            dataStart = skipWhitespaces(line, arrowEnd);
+            if (dataStart == arrowEnd) {
+                return null;
+            }
+            separator = IGenericFtraceConstants.FTRACE_EXIT_SYSCALL_SEPARATOR;
+        }
+
+        // The data contains no parenthesis, but may be followed by one
+        int dataEnd = length;
+        if (dataEnd > dataStart && line.charAt(dataEnd - 1) == ')') {
+            dataEnd--;
+        }
+        int parenthesis = line.indexOf(')', dataStart);
+        if (parenthesis >= 0 && parenthesis < dataEnd) {
+            return null;
+        }
+
+        return new GenericFtraceLine(line, pid,
+                new int[] { bracket + 1, cpuEnd },
+                new int[] { timestampStart, timestampEnd },
+                new int[] { nameStart, nameEnd },
+                separator,
+                new int[] { dataStart, dataEnd });
+    }
+
+    /**
+     * Get the process ID
+     *
+     * @return The process ID
+     */
+    public int getPid() {
+        return Integer.parseInt(fLine, fPidStart, fPidEnd, 10);
+    }
+
+    /**
+     * Get the thread group ID
+     *
+     * @return The thread group ID, or null if it is not in the line
+     */
+    public @Nullable Integer getTgid() {
+        if (fTgidStart < 0) {
+            return null;
+        }
+        return Integer.parseInt(fLine, fTgidStart, fTgidEnd, 10);
+    }
+
+    /**
+     * Get the CPU number
+     *
+     * @return The CPU number
+     */
+    public int getCpu() {
+        return Integer.parseInt(fLine, fCpuStart, fCpuEnd, 10);
+    }
+
+    /**
+     * Get the time stamp
+     *
+     * @return The time stamp in nanoseconds
+     */
+    public long getTimestamp() {
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean fraction = false;
+        for (int i = fTimestampStart; i < fTimestampEnd; i++) {
+            char c = fLine.charAt(i);
+            if (c == '.') {
+                fraction = true;
+                continue;
+            }
+            if (mantissa != 0 || c != '0') {
+                digits++;
+            }
+            mantissa = mantissa * 10 + (c - '0');
+            if (fraction) {
+                fractionDigits++;
+            }
+            if (digits > MAX_EXACT_DIGITS || fractionDigits >= POWERS_OF_TEN.length) {
+                // Too many digits to be exact, let the JDK round the value
+                double seconds = Double.parseDouble(fLine.substring(fTimestampStart, fTimestampEnd));
+                return (long) (seconds * SECONDS_TO_NANO);
+            }
+        }
+        double seconds = mantissa / POWERS_OF_TEN[fractionDigits];
+        return (long) (seconds * SECONDS_TO_NANO);
+    }
+
+    /**
+     * Get the event name
+     *
+     * @return The event name, interned
+     */
+    public String getName() {
+        return internName(fLine.substring(fNameStart, fNameEnd));
+    }
+
+    /**
+     * Get the separator between the event name and the data
+     *
+     * @return ":", "(" or "->"
+     */
+    public String getSeparator() {
+        return fSeparator;
+    }
+
+    /**
+     * Get the event data, after the separator
+     *
+     * @return The event data, may be empty
+     */
+    public String getData() {
+        return fLine.substring(fDataStart, fDataEnd);
+    }
+
+    /*
+     * Get the shared instance of an event name, so that the events do not each
+     * keep their own copy. Only a limited number of names are shared.
+     */
+    private static String internName(String name) {
+        String interned = EVENT_NAMES.get(name);
+        if (interned != null) {
+            return interned;
+        }
+        if (EVENT_NAMES.size() >= MAX_EVENT_NAMES) {
+            return name;
+        }
+        interned = EVENT_NAMES.putIfAbsent(name, name);
+        return interned != null ? interned : name;
+    }
+
+    /**
+     * Check if a character matches the regular expression \s
+     *
+     * @param c
+     *            The character
+     * @return True if the character is a whitespace
+     */
+    static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Check if a character is a line terminator, not matched by the regular
+     * expression .
+     *
+     * @param c
+     *            The character
+     * @return True if the character is a line terminator
+     */
+    static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWordCharacter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isDigit(c) || c == '_';
+    }
+
+    private static int skipDigits(String line, int start) {
+        int index = start;
+        while (index < line.length() && isDigit(line.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int skipDigitsBackward(String line, int start) {
+        int index = start;
+        while (index >= 0 && isDigit(line.charAt(index))) {
+            index--;
+        }
+        return index;
+    }
+
+    private static int skipWhitespaces(String line, int start) {
+        int index = start;
+        while (index < line.length() && isWhitespace(line.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int skipWhitespacesBackward(String line, int start) {
+        int index = start;
+        while (index >= 0 && isWhitespace(line.charAt(index))) {
+            index--;
+        }
+        return index;
+    }
+
+    private static int skipNonWhitespaces(String line, int start) {
+        int index = start;
+        while (index < line.length() && !isWhitespace(line.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+}
@@ -12,7 +12,12 @@
 package org.eclipse.tracecompass.incubator.internal.ftrace.core.strategies;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.context.BinaryFTraceContext;
@@ -40,6 +45,7 @@ import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
 public class BinaryFTraceV6Strategy implements IBinaryFTraceStrategy {
     private static final byte[] MAGIC_VALUES = { 0x17, 0x08, 0x44, 't', 'r', 'a', 'c', 'i', 'n', 'g' };
     private BinaryFTraceHeaderInfo fTraceHeaderData;
+    private final Set<BinaryFTraceIterator> fIterators = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
     @NonNull
     private final BinaryFTrace fFTrace;
 
@@ -139,13 +145,31 @@ public class BinaryFTraceV6Strategy implements IBinaryFTraceStrategy {
 
     @Override
     public ITmfContext createIterator() throws IOException {
-        return new BinaryFTraceIterator(fTraceHeaderData, fFTrace);
+        BinaryFTraceIterator iterator = new BinaryFTraceIterator(fTraceHeaderData, fFTrace);
+        fIterators.add(iterator);
+        return iterator;
     }
 
     @Override
     public void dispose() {
-        // release (indirect) references to mem-mapped file buffers so that tracecompass
-        // can garbage-collect them and unlock the file (e.g. if the user wants to delete it)
+        BinaryFTraceHeaderInfo traceHeaderData = fTraceHeaderData;
         fTraceHeaderData = null;
+        if (traceHeaderData == null) {
+            return;
+        }
+        /*
+         * Stop the iterators, and the events they decode ahead, before
+         * unmapping the file so that the file is unlocked right away (e.g. if
+         * the user wants to delete it) and nothing reads the unmapped memory.
+         */
+        List<BinaryFTraceIterator> iterators;
+        synchronized (fIterators) {
+            iterators = new ArrayList<>(fIterators);
+            fIterators.clear();
+        }
+        for (BinaryFTraceIterator iterator : iterators) {
+            iterator.dispose();
+        }
+        traceHeaderData.dispose();
     }
 }
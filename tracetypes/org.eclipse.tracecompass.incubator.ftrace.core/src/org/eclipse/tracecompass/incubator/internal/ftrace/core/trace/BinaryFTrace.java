@@ -16,10 +16,13 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
@@ -28,18 +31,25 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.Activator;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.context.BinaryFTraceLocation;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.header.BinaryFTraceVersionHeader;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.parser.BinaryFTraceFileParser;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.strategies.BinaryFTraceV6Strategy;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.strategies.IBinaryFTraceStrategy;
+import org.eclipse.tracecompass.internal.tmf.core.trace.indexer.TmfBTreeTraceIndexer;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
 import org.eclipse.tracecompass.tmf.core.project.model.ITmfPropertiesProvider;
 import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
 import org.eclipse.tracecompass.tmf.core.trace.TraceValidationStatus;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfPersistentlyIndexable;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfTraceIndexer;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint.ITmfCheckpoint;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint.TmfCheckpoint;
 import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
 
 /**
@@ -48,15 +58,27 @@ import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
  * conditions are not met, the helper will convert and process the trace as a
  * text file as a fallback mechanism.
  *
+ * The checkpoints of binary traces, mapping event ranks to locations, are
+ * stored in the supplementary files of the trace so that they are computed only
+ * once.
+ *
  * @author Matthew Khouzam
  * @author Hoang Thuan Pham
  */
-public class BinaryFTrace extends GenericFtrace implements ITmfPropertiesProvider {
+@SuppressWarnings("restriction")
+public class BinaryFTrace extends GenericFtrace implements ITmfPropertiesProvider, ITmfPersistentlyIndexable {
 
     private static final String TRACE_CMD = "trace-cmd"; //$NON-NLS-1$
     private static final String REPORT = "report"; //$NON-NLS-1$
     private final @NonNull Map<@NonNull String, @NonNull String> fProperties = new LinkedHashMap<>();
     private IBinaryFTraceStrategy fStrategy;
+    private int fCheckpointSize = -1;
+
+    /**
+     * The binary contexts are seeked and read concurrently, but not while the
+     * trace is disposed, which unmaps the file
+     */
+    private final ReentrantReadWriteLock fDisposeLock = new ReentrantReadWriteLock();
 
     @Override
     public IStatus validate(IProject project, String path) {
@@ -116,10 +138,48 @@ public class BinaryFTrace extends GenericFtrace implements ITmfPropertiesProvide
     }
 
     @Override
-    public synchronized void dispose() {
+    protected ITmfTraceIndexer createIndexer(int interval) {
+        // The indexer is created before the strategy, check the file directly
+        String path = getPath();
+        if (path != null && getStrategy(new File(path)) != null) {
+            return new TmfBTreeTraceIndexer(this, interval);
+        }
+        return super.createIndexer(interval);
+    }
+
+    @Override
+    public ITmfLocation restoreLocation(ByteBuffer bufferIn) {
+        return new BinaryFTraceLocation(bufferIn);
+    }
+
+    @Override
+    public synchronized int getCheckpointSize() {
+        if (fCheckpointSize == -1) {
+            TmfCheckpoint checkpoint = new TmfCheckpoint(TmfTimestamp.fromNanos(0), new BinaryFTraceLocation(0, 0), 0);
+            ByteBuffer buffer = ByteBuffer.allocate(ITmfCheckpoint.MAX_SERIALIZE_SIZE);
+            buffer.clear();
+            checkpoint.serialize(buffer);
+            fCheckpointSize = buffer.position();
+        }
+        return fCheckpointSize;
+    }
+
+    @Override
+    public void dispose() {
         super.dispose();
-        if (fStrategy != null) {
-            fStrategy.dispose();
+        /*
+         * The trace is not locked while waiting for the reads in progress,
+         * since they lock it to update the trace attributes.
+         */
+        IBinaryFTraceStrategy strategy = fStrategy;
+        if (strategy != null) {
+            Lock lock = fDisposeLock.writeLock();
+            lock.lock();
+            try {
+                strategy.dispose();
+            } finally {
+                lock.unlock();
+            }
         }
     }
 
@@ -186,9 +246,22 @@ public class BinaryFTrace extends GenericFtrace implements ITmfPropertiesProvide
     }
 
     @Override
-    public synchronized ITmfEvent getNext(final ITmfContext context) {
-        if (fStrategy != null) {
-            return fStrategy.getNext(context);
+    public ITmfEvent getNext(final ITmfContext context) {
+        /*
+         * Each binary context reads its own iterator, the contexts of
+         * different requests do not need to wait for each other, only for the
+         * trace to be disposed. The text fallback reads a shared file and
+         * synchronizes in the parent class.
+         */
+        IBinaryFTraceStrategy strategy = fStrategy;
+        if (strategy != null) {
+            Lock lock = fDisposeLock.readLock();
+            lock.lock();
+            try {
+                return strategy.getNext(context);
+            } finally {
+                lock.unlock();
+            }
         }
 
         return super.getNext(context);
@@ -214,8 +287,16 @@ public class BinaryFTrace extends GenericFtrace implements ITmfPropertiesProvide
 
     @Override
     public ITmfContext seekEvent(ITmfLocation location) {
-        if (fStrategy != null) {
-            return fStrategy.seekEvent(location);
+        // Seeking reads the file to find the event at the location
+        IBinaryFTraceStrategy strategy = fStrategy;
+        if (strategy != null) {
+            Lock lock = fDisposeLock.readLock();
+            lock.lock();
+            try {
+                return strategy.seekEvent(location);
+            } finally {
+                lock.unlock();
+            }
         }
 
         return super.seekEvent(location);
@@ -19,6 +19,7 @@ import org.eclipse.tracecompass.incubator.internal.ftrace.core.Activator;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.GenericFtraceAspects;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.GenericFtraceEvent;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.GenericFtraceField;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.GenericFtraceLine;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.IGenericFtraceConstants;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.layout.GenericFtraceEventLayout;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
@@ -35,7 +36,6 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
-import java.util.regex.Matcher;
 
 /**
  * Generic Ftrace trace.
@@ -161,14 +161,12 @@ public abstract class GenericFtrace extends TmfTrace implements IKernelTrace {
             if (line == null) {
                 return context;
             }
-            Matcher matcher = IGenericFtraceConstants.FTRACE_PATTERN.matcher(line);
-            while (!matcher.matches()) {
+            while (!GenericFtraceLine.matches(line)) {
                 lineStartOffset = fileInput.getFilePointer();
                 line = fileInput.readLine();
                 if (line == null) {
                     break;
                 }
-                matcher = IGenericFtraceConstants.FTRACE_PATTERN.matcher(line);
             }
             fileInput.seek(lineStartOffset);
         } else if (location.getLocationInfo() instanceof Long) {
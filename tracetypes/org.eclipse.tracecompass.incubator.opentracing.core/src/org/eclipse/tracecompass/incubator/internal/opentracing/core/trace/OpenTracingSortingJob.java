@@ -16,6 +16,9 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.PrintWriter;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.tracecompass.incubator.internal.analysis.core.json.JsonEventSorter;
 import org.eclipse.tracecompass.internal.jsontrace.core.job.SortingJob;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 
@@ -27,13 +30,19 @@ import com.google.gson.stream.JsonReader;
 
 /**
  * Sorting job particular to open tracing that has a list of processes after the
- * list of events
+ * list of events. The events are sorted in parallel by a
+ * {@link JsonEventSorter}.
  *
  * @author Katherine Nadeau
  *
  */
 public class OpenTracingSortingJob extends SortingJob {
 
+    private static final String START_TIME_KEY = "startTime"; //$NON-NLS-1$
+    private static final int BRACKETS_TO_SKIP = 2;
+
+    private final ITmfTrace fTrace;
+
     /**
      * Constructor
      *
@@ -43,7 +52,13 @@ public class OpenTracingSortingJob extends SortingJob {
      *            the path to the trace file
      */
     public OpenTracingSortingJob(ITmfTrace trace, String path) {
-        super(trace, path, "\"startTime\":", 2); //$NON-NLS-1$
+        super(trace, path, "\"startTime\":", BRACKETS_TO_SKIP); //$NON-NLS-1$
+        fTrace = trace;
+    }
+
+    @Override
+    protected IStatus run(IProgressMonitor monitor) {
+        return new JsonEventSorter(START_TIME_KEY).sortTrace(fTrace, getPath(), input -> JsonEventSorter.skipToArray(input, BRACKETS_TO_SKIP), this::processMetadata, monitor);
     }
 
     @Override
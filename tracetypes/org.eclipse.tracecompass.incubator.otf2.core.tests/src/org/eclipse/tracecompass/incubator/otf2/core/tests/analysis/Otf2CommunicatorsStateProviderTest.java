@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.otf2.core.tests.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.communicators.Otf2CommunicatorsStateProvider;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundException;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStub;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStubNs;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Test the matching of the MPI messages and requests by the
+ * {@link Otf2CommunicatorsStateProvider}. The communicator attribute holds the
+ * number of locations expected to use the communicator, which shows which
+ * send each receive was matched with.
+ */
+public class Otf2CommunicatorsStateProviderTest {
+
+    private static final String TRACE_FILE = "testfiles/traces/communicators.xml"; //$NON-NLS-1$
+    private static final String SS_ID = "test-ss"; //$NON-NLS-1$
+    private static final String COMMUNICATOR = "Communicator 0"; //$NON-NLS-1$
+    private static final String MPI_RECV = "MPI_Recv"; //$NON-NLS-1$
+    private static final String MPI_IRECV = "MPI_Irecv"; //$NON-NLS-1$
+    private static final String MPI_WAIT = "MPI_Wait"; //$NON-NLS-1$
+
+    private static @Nullable TmfXmlTraceStub sTrace;
+    private static @Nullable ITmfStateSystem sStateSystem;
+
+    /**
+     * Build the state system of the provider for the test trace
+     */
+    @BeforeClass
+    public static void setUp() {
+        TmfXmlTraceStub trace = new TmfXmlTraceStubNs();
+        String path = new File(TRACE_FILE).getAbsolutePath();
+        IStatus status = trace.validate(null, path);
+        if (!status.isOK()) {
+            fail(status.getMessage());
+        }
+        try {
+            trace.initTrace(null, path, TmfEvent.class);
+        } catch (TmfTraceException e) {
+            fail(e.getMessage());
+        }
+        trace.indexTrace(true);
+        sTrace = trace;
+
+        ITmfStateSystemBuilder ss = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createInMemoryBackend(SS_ID, 0));
+        Otf2CommunicatorsStateProvider provider = new Otf2CommunicatorsStateProvider(trace);
+        provider.assignTargetStateSystem(ss);
+        ITmfContext context = trace.seekEvent(0L);
+        ITmfEvent event = trace.getNext(context);
+        while (event != null) {
+            provider.processEvent(event);
+            event = trace.getNext(context);
+        }
+        context.dispose();
+        // Closes the state system at the last event
+        provider.dispose();
+        sStateSystem = ss;
+    }
+
+    /**
+     * Dispose the test data
+     */
+    @AfterClass
+    public static void tearDown() {
+        ITmfStateSystem ss = sStateSystem;
+        if (ss != null) {
+            ss.dispose();
+        }
+        TmfXmlTraceStub trace = sTrace;
+        if (trace != null) {
+            trace.dispose();
+        }
+    }
+
+    /**
+     * Test that the messages with the same identifiers are received in the
+     * order they were sent. Rank 1 enters its first receive before the second
+     * message is sent, so matching it with the second message would add
+     * locations to the communicator from that time.
+     *
+     * @throws AttributeNotFoundException
+     *             if an attribute is missing
+     * @throws StateSystemDisposedException
+     *             if the state system is disposed
+     */
+    @Test
+    public void testFifoMatching() throws AttributeNotFoundException, StateSystemDisposedException {
+        assertInterval(0, 11, null, COMMUNICATOR);
+        assertInterval(12, 21, 1L, COMMUNICATOR);
+        assertInterval(22, 31, 2L, COMMUNICATOR);
+        assertInterval(32, 41, 1L, COMMUNICATOR);
+        assertInterval(42, 49, 0L, COMMUNICATOR);
+
+        assertInterval(15, 33, MPI_RECV, COMMUNICATOR, "Rank 1"); //$NON-NLS-1$
+        assertInterval(34, 39, null, COMMUNICATOR, "Rank 1"); //$NON-NLS-1$
+        assertInterval(40, 43, MPI_RECV, COMMUNICATOR, "Rank 1"); //$NON-NLS-1$
+    }
+
+    /**
+     * Test that two IRecv requests launched with the same request ID are
+     * completed in the order they were launched, and that the updates stored
+     * while a request is unresolved are written once it is
+     *
+     * @throws AttributeNotFoundException
+     *             if an attribute is missing
+     * @throws StateSystemDisposedException
+     *             if the state system is disposed
+     */
+    @Test
+    public void testRequestIdReuse() throws AttributeNotFoundException, StateSystemDisposedException {
+        assertInterval(50, 53, 2L, COMMUNICATOR);
+        assertInterval(54, 60, 4L, COMMUNICATOR);
+        assertInterval(61, 63, 3L, COMMUNICATOR);
+        assertInterval(64, 70, 2L, COMMUNICATOR);
+        assertInterval(71, 73, 1L, COMMUNICATOR);
+
+        assertInterval(50, 51, MPI_IRECV, COMMUNICATOR, "Rank 2"); //$NON-NLS-1$
+        assertInterval(52, 53, null, COMMUNICATOR, "Rank 2"); //$NON-NLS-1$
+        assertInterval(54, 55, MPI_IRECV, COMMUNICATOR, "Rank 2"); //$NON-NLS-1$
+        assertInterval(56, 69, null, COMMUNICATOR, "Rank 2"); //$NON-NLS-1$
+        assertInterval(70, 71, MPI_WAIT, COMMUNICATOR, "Rank 2"); //$NON-NLS-1$
+        assertInterval(72, 72, null, COMMUNICATOR, "Rank 2"); //$NON-NLS-1$
+        assertInterval(73, 74, MPI_WAIT, COMMUNICATOR, "Rank 2"); //$NON-NLS-1$
+        assertInterval(75, 92, null, COMMUNICATOR, "Rank 2"); //$NON-NLS-1$
+    }
+
+    /**
+     * Test that a receive without a sent message and an IRecv completion
+     * without a launched request are dropped, and that the dropped completion
+     * leaves its message to the next receive
+     *
+     * @throws AttributeNotFoundException
+     *             if an attribute is missing
+     * @throws StateSystemDisposedException
+     *             if the state system is disposed
+     */
+    @Test
+    public void testDroppedReceives() throws AttributeNotFoundException, StateSystemDisposedException {
+        assertInterval(74, 83, 0L, COMMUNICATOR);
+        assertInterval(84, 90, 1L, COMMUNICATOR);
+        assertInterval(91, 92, 0L, COMMUNICATOR);
+
+        // The regions of the dropped receives are still shown
+        assertInterval(80, 81, MPI_RECV, COMMUNICATOR, "Rank 1"); //$NON-NLS-1$
+        assertInterval(82, 85, null, COMMUNICATOR, "Rank 1"); //$NON-NLS-1$
+        assertInterval(86, 87, MPI_WAIT, COMMUNICATOR, "Rank 1"); //$NON-NLS-1$
+        assertInterval(88, 89, null, COMMUNICATOR, "Rank 1"); //$NON-NLS-1$
+        assertInterval(90, 91, MPI_RECV, COMMUNICATOR, "Rank 1"); //$NON-NLS-1$
+    }
+
+    private static void assertInterval(long start, long end, @Nullable Object value, String... path) throws AttributeNotFoundException, StateSystemDisposedException {
+        ITmfStateSystem ss = sStateSystem;
+        assertNotNull(ss);
+        ITmfStateInterval interval = ss.querySingleState(start, ss.getQuarkAbsolute(path));
+        String attribute = String.join("/", path); //$NON-NLS-1$
+        assertEquals(attribute + " start", start, interval.getStartTime()); //$NON-NLS-1$
+        assertEquals(attribute + " end", end, interval.getEndTime()); //$NON-NLS-1$
+        assertEquals(attribute + " value", value, interval.getValue()); //$NON-NLS-1$
+    }
+}
@@ -13,15 +13,13 @@ package org.eclipse.tracecompass.incubator.internal.otf2.core.analysis;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
-import java.util.regex.Matcher;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.incubator.internal.otf2.core.Activator;
 import org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.callstack.Otf2CallStackStateProvider;
-import org.eclipse.tracecompass.incubator.internal.otf2.core.trace.AttributeDefinition;
+import org.eclipse.tracecompass.incubator.internal.otf2.core.trace.Otf2DefinitionRegistry;
+import org.eclipse.tracecompass.incubator.otf2.core.trace.Otf2Trace;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
@@ -52,29 +50,16 @@ public abstract class AbstractOtf2StateProvider extends AbstractTmfStateProvider
     protected static final int UNKNOWN_ID = -1;
 
     /**
-     * Attribute id to attribute event definition
+     * Builder of the definitions, only used if the trace does not provide its
+     * definition registry
      */
-    protected final Map<Integer, AttributeDefinition> fAttributeDefinitions;
+    private final Otf2DefinitionRegistry.@Nullable Builder fDefinitionsBuilder;
 
     /**
-     * String id to string value mapping
+     * Global definitions of the trace, null when definitions were added to
+     * the builder since it was last built
      */
-    private final Map<Integer, String> fStringId;
-
-    /**
-     * Region id to string id mapping
-     */
-    private final Map<Integer, Integer> fRegionStringId;
-
-    /**
-     * Communicator id to group id mapping
-     */
-    private final Map<Integer, Integer> fCommunicatorGroup;
-
-    /**
-     * Group id to group members mapping
-     */
-    private final Map<Integer, @Nullable ArrayList<Long>> fGroupMembers;
+    private @Nullable Otf2DefinitionRegistry fDefinitions;
 
     /**
      * Constructor
@@ -86,11 +71,17 @@ public abstract class AbstractOtf2StateProvider extends AbstractTmfStateProvider
      */
     protected AbstractOtf2StateProvider(@Nullable ITmfTrace trace, String id) {
         super(Objects.requireNonNull(trace), id);
-        fStringId = new HashMap<>();
-        fRegionStringId = new HashMap<>();
-        fCommunicatorGroup = new HashMap<>();
-        fGroupMembers = new HashMap<>();
-        fAttributeDefinitions = new HashMap<>();
+        /*
+         * The trace reads its global definitions when it is opened, the
+         * providers share its registry instead of rebuilding their own
+         */
+        if (trace instanceof Otf2Trace) {
+            fDefinitionsBuilder = null;
+            fDefinitions = ((Otf2Trace) trace).getDefinitions();
+        } else {
+            fDefinitionsBuilder = new Otf2DefinitionRegistry.Builder();
+            fDefinitions = null;
+        }
     }
 
     @Override
@@ -113,17 +104,12 @@ public abstract class AbstractOtf2StateProvider extends AbstractTmfStateProvider
         if (ssb == null) {
             return;
         }
-        String ctfEventName = event.getName();
-        Matcher matcher = IOtf2Constants.OTF2_EVENT_NAME_PATTERN.matcher(ctfEventName);
-        if (!matcher.matches()) {
+        Otf2EventName eventName = Otf2EventName.parse(event.getName());
+        if (eventName == null) {
             return;
         }
-        String eventType = matcher.group(IOtf2Constants.OTF2_TYPE_GROUP);
-        String otf2EventName = matcher.group(IOtf2Constants.OTF2_NAME_GROUP);
-        if (otf2EventName == null) {
-            return;
-        }
-        switch (eventType) {
+        String otf2EventName = eventName.getName();
+        switch (eventName.getType()) {
         case IOtf2Constants.OTF2_GLOBAL_DEFINITION: {
             processGlobalDefinition(event, otf2EventName);
             break;
@@ -173,13 +159,7 @@ public abstract class AbstractOtf2StateProvider extends AbstractTmfStateProvider
      *            The event to process
      */
     protected void processStringDefinition(ITmfEvent event) {
-        ITmfEventField content = event.getContent();
-        Integer stringReference = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_SELF);
-        String stringValue = content.getFieldValue(String.class, IOtf2Fields.OTF2_STRING_VALUE);
-        if (stringReference == null || stringValue == null) {
-            return;
-        }
-        fStringId.put(stringReference, stringValue);
+        addDefinition(event, IOtf2GlobalDefinitions.OTF2_STRING);
     }
 
     /**
@@ -190,13 +170,7 @@ public abstract class AbstractOtf2StateProvider extends AbstractTmfStateProvider
      *            The event to process
      */
     protected void processRegionDefinition(ITmfEvent event) {
-        ITmfEventField content = event.getContent();
-        Integer regionReference = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_SELF);
-        Integer stringReference = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_NAME);
-        if (regionReference == null || stringReference == null) {
-            return;
-        }
-        fRegionStringId.put(regionReference, stringReference);
+        addDefinition(event, IOtf2GlobalDefinitions.OTF2_REGION);
     }
 
     /**
@@ -207,13 +181,7 @@ public abstract class AbstractOtf2StateProvider extends AbstractTmfStateProvider
      *            The event to process
      */
     protected void processCommunicatorDefinition(ITmfEvent event) {
-        ITmfEventField content = event.getContent();
-        Integer communicatorReference = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_SELF);
-        Integer groupReference = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_GROUP);
-        if (communicatorReference == null || groupReference == null) {
-            return;
-        }
-        fCommunicatorGroup.put(communicatorReference, groupReference);
+        addDefinition(event, IOtf2GlobalDefinitions.OTF2_COMM);
     }
 
     /**
@@ -224,21 +192,7 @@ public abstract class AbstractOtf2StateProvider extends AbstractTmfStateProvider
      *            The event to process
      */
     protected void processGroupDefinition(ITmfEvent event) {
-        ITmfEventField content = event.getContent();
-        Integer groupReference = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_SELF);
-        Integer numberOfMembers = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_NUMBER_OF_MEMBERS);
-        if (groupReference == null || numberOfMembers == null) {
-            return;
-        }
-        if (numberOfMembers == 0) {
-            fGroupMembers.put(groupReference, null);
-            return;
-        }
-        ArrayList<Long> membersArray = new ArrayList<>(numberOfMembers);
-        for (int i = 0; i < numberOfMembers; i++) {
-            membersArray.add(UNKNOWN_LOCATION_ID);
-        }
-        fGroupMembers.put(groupReference, membersArray);
+        addDefinition(event, IOtf2GlobalDefinitions.OTF2_GROUP);
     }
 
     /**
@@ -249,19 +203,7 @@ public abstract class AbstractOtf2StateProvider extends AbstractTmfStateProvider
      *            The event to process
      */
     protected void processGroupMemberDefinition(ITmfEvent event) {
-        ITmfEventField content = event.getContent();
-        Integer groupReference = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_GROUP);
-        Integer rank = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_RANK);
-        Long locationReference = content.getFieldValue(Long.class, IOtf2Fields.OTF2_LOCATION);
-        if (groupReference == null || rank == null || locationReference == null) {
-            return;
-        }
-        ArrayList<Long> membersArray = fGroupMembers.get(groupReference);
-        if (membersArray == null) {
-            return;
-        }
-        membersArray.set(rank, locationReference);
-        fGroupMembers.put(groupReference, membersArray);
+        addDefinition(event, IOtf2GlobalDefinitions.OTF2_GROUP_MEMBER);
     }
 
     /**
@@ -271,15 +213,35 @@ public abstract class AbstractOtf2StateProvider extends AbstractTmfStateProvider
      *            The event to process
      */
     protected void processAttributeDefinition(ITmfEvent event) {
-        Integer attributeId = event.getContent().getFieldValue(Integer.class, IOtf2Fields.OTF2_SELF);
-        Integer nameId = event.getContent().getFieldValue(Integer.class, IOtf2Fields.OTF2_NAME);
-        Integer descriptionId = event.getContent().getFieldValue(Integer.class, IOtf2Fields.OTF2_DESCRIPTION);
-        Integer typeId = event.getContent().getFieldValue(Integer.class, IOtf2Fields.OTF2_TYPE);
-        if (attributeId != null && nameId != null && descriptionId != null && typeId != null) {
-            fAttributeDefinitions.put(attributeId, new AttributeDefinition(nameId, descriptionId, typeId));
+        addDefinition(event, IOtf2GlobalDefinitions.OTF2_ATTRIBUTE);
+    }
+
+    /*
+     * The definitions are already in the registry of an OTF2 trace, they are
+     * only added for the other traces
+     */
+    private void addDefinition(ITmfEvent event, String name) {
+        Otf2DefinitionRegistry.Builder builder = fDefinitionsBuilder;
+        if (builder != null) {
+            builder.addDefinition(event, name);
+            fDefinitions = null;
         }
     }
 
+    /**
+     * Gets the global definitions of the trace
+     *
+     * @return the definition registry
+     */
+    protected Otf2DefinitionRegistry getDefinitions() {
+        Otf2DefinitionRegistry definitions = fDefinitions;
+        if (definitions == null) {
+            definitions = Objects.requireNonNull(fDefinitionsBuilder).build();
+            fDefinitions = definitions;
+        }
+        return definitions;
+    }
+
     /**
      * Process an OTF2 event
      *
@@ -327,13 +289,8 @@ public abstract class AbstractOtf2StateProvider extends AbstractTmfStateProvider
      *            The communicator id
      * @return The rank of the location into the communicator
      */
-    protected int getRank(Long location, Integer communicatorReference) {
-        Integer groupReference = fCommunicatorGroup.get(communicatorReference);
-        ArrayList<Long> members = fGroupMembers.get(groupReference);
-        if (members == null) {
-            return UNKNOWN_RANK;
-        }
-        return members.indexOf(location);
+    protected int getRank(long location, int communicatorReference) {
+        return getDefinitions().getRank(location, communicatorReference);
     }
 
     /**
@@ -342,11 +299,7 @@ public abstract class AbstractOtf2StateProvider extends AbstractTmfStateProvider
      * @return the value of the string
      */
     protected String getStringFromStringId(int stringId) {
-        String stringValue = fStringId.get(stringId);
-        if (stringValue == null) {
-            return IOtf2Constants.UNKNOWN_STRING;
-        }
-        return stringValue;
+        return getDefinitions().getString(stringId);
     }
 
     /**
@@ -356,11 +309,7 @@ public abstract class AbstractOtf2StateProvider extends AbstractTmfStateProvider
      * @return the name of the region
      */
     protected String getRegionNameFromRegionId(int regionId) {
-        Integer stringId = fRegionStringId.get(regionId);
-        if (stringId == null) {
-            return IOtf2Constants.UNKNOWN_STRING;
-        }
-        return getStringFromStringId(stringId);
+        return getDefinitions().getRegionName(regionId);
     }
 
     /**
@@ -370,21 +319,12 @@ public abstract class AbstractOtf2StateProvider extends AbstractTmfStateProvider
      * @return the list of the members in the communicator
      */
     protected ArrayList<Long> getMembersFromCommunicatorReference(int communicatorReference) {
-        Integer groupReference = fCommunicatorGroup.get(communicatorReference);
-        ArrayList<Long> members = fGroupMembers.get(groupReference);
-        if (members == null) {
-            return new ArrayList<>();
+        long[] members = getDefinitions().getCommunicatorMembers(communicatorReference);
+        ArrayList<Long> membersList = new ArrayList<>(members.length);
+        for (long member : members) {
+            membersList.add(member);
         }
-        return members;
-    }
-
-    /**
-     * Getter for the fStringId field
-     *
-     * @return the fStringId field
-     */
-    protected Map<Integer, String> getStringId() {
-        return fStringId;
+        return membersList;
     }
 
     /**
@@ -397,11 +337,11 @@ public abstract class AbstractOtf2StateProvider extends AbstractTmfStateProvider
      * @return The rank of the location into the communicator, unknown if the
      *         rank number is >= to the number of members defined.
      */
-    protected long getLocationIdFromRank(Integer rank, Integer communicatorReference) {
-        ArrayList<Long> members = getMembersFromCommunicatorReference(communicatorReference);
-        if (rank >= members.size()) {
+    protected long getLocationIdFromRank(int rank, int communicatorReference) {
+        long[] members = getDefinitions().getCommunicatorMembers(communicatorReference);
+        if (rank < 0 || rank >= members.length) {
             return UNKNOWN_RANK;
         }
-        return members.get(rank);
+        return members[rank];
     }
 }
@@ -0,0 +1,80 @@
+/**********************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.otf2.core.analysis;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The type and name of an OTF2 event, parsed from the name of the CTF event
+ * with {@link IOtf2Constants#OTF2_EVENT_NAME_PATTERN}. A trace only has a few
+ * distinct event names, so each one is parsed once and the result is cached.
+ */
+public final class Otf2EventName {
+
+    private static final Otf2EventName NO_MATCH = new Otf2EventName("", ""); //$NON-NLS-1$ //$NON-NLS-2$
+    private static final Map<String, Otf2EventName> CACHE = new ConcurrentHashMap<>();
+
+    private final String fType;
+    private final String fName;
+
+    private Otf2EventName(String type, String name) {
+        fType = type;
+        fName = name;
+    }
+
+    /**
+     * Parses the name of a CTF event of an OTF2 trace
+     *
+     * @param ctfEventName
+     *            the name of the CTF event
+     * @return the type and name of the OTF2 event, or null if the name does
+     *         not match the OTF2 event name pattern
+     */
+    public static @Nullable Otf2EventName parse(String ctfEventName) {
+        Otf2EventName eventName = CACHE.computeIfAbsent(ctfEventName, name -> {
+            Matcher matcher = IOtf2Constants.OTF2_EVENT_NAME_PATTERN.matcher(name);
+            if (!matcher.matches()) {
+                return NO_MATCH;
+            }
+            String type = matcher.group(IOtf2Constants.OTF2_TYPE_GROUP);
+            String otf2Name = matcher.group(IOtf2Constants.OTF2_NAME_GROUP);
+            if (type == null || otf2Name == null) {
+                return NO_MATCH;
+            }
+            return new Otf2EventName(type, otf2Name);
+        });
+        return eventName == NO_MATCH ? null : eventName;
+    }
+
+    /**
+     * Gets the type of the event, like
+     * {@link IOtf2Constants#OTF2_GLOBAL_DEFINITION}
+     *
+     * @return the type of the event
+     */
+    public String getType() {
+        return fType;
+    }
+
+    /**
+     * Gets the name of the event within its type
+     *
+     * @return the name of the event
+     */
+    public String getName() {
+        return fName;
+    }
+}
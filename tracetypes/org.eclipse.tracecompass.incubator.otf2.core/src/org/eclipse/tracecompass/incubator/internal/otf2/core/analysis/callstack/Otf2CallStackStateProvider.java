@@ -80,7 +80,7 @@ public class Otf2CallStackStateProvider extends AbstractOtf2StateProvider {
          * retrieved and initialized if it was not done before.
          */
         public void initializeQuarks(ITmfStateSystemBuilder ssb) {
-            String fullName = getFullName(getStringId());
+            String fullName = getFullName(getDefinitions());
             long parentId = getParentId();
             if (isRootNode()) {
                 fSystemTreeNodeQuark = ssb.getQuarkAbsoluteAndAdd(PROCESSES, fullName);
@@ -130,7 +130,7 @@ public class Otf2CallStackStateProvider extends AbstractOtf2StateProvider {
 
         public void initializeQuarks(ITmfStateSystemBuilder ssb) {
             long parentId = getParentId();
-            String fullName = getFullName(getStringId());
+            String fullName = getFullName(getDefinitions());
             int nodeQuark = getSystemTreeNodeQuark(parentId);
             if (nodeQuark != UNKNOWN_ID) {
                 fLocationGroupQuark = ssb.getQuarkRelativeAndAdd(nodeQuark, fullName);
@@ -181,7 +181,7 @@ public class Otf2CallStackStateProvider extends AbstractOtf2StateProvider {
          */
         public void initializeQuarks(ITmfStateSystemBuilder ssb) {
             // Get the name of the location
-            String locationName = getName(getStringId());
+            String locationName = getName(getDefinitions());
 
             // Create the associated quark
             int processQuark = getLocationGroupQuark(getLocationGroupId());
@@ -11,11 +11,11 @@
 
 package org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.communicators;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -70,6 +70,11 @@ public class Otf2CommunicatorsStateProvider extends AbstractOtf2StateProvider {
         private int fRank;
         private long fRequestEndTimestamp;
         private boolean fRequestResolved;
+        /*
+         * Next unresolved request with the same ID, in the rare case where an
+         * ID is reused before the request is resolved
+         */
+        private @Nullable IRecvRequest fNextWithSameID;
 
         public IRecvRequest(String operationName, long requestBeginTimestamp, long requestID) {
             fOperationName = operationName;
@@ -79,6 +84,7 @@ public class Otf2CommunicatorsStateProvider extends AbstractOtf2StateProvider {
             fRank = UNKNOWN_RANK;
             fRequestEndTimestamp = 0;
             fRequestResolved = false;
+            fNextWithSameID = null;
         }
 
     }
@@ -113,9 +119,15 @@ public class Otf2CommunicatorsStateProvider extends AbstractOtf2StateProvider {
         private boolean fInCommunication;
         private boolean fInIRecvRequest;
         private int fRank;
-        private final List<MessageIdentifiers> fSentMessages;
-        private final Map<Long, Long> fRequestIdBeginTimestamp;
+        /*
+         * Messages sent by this location and not received yet, in the order
+         * they were sent, indexed by communicator, ranks and tag
+         */
+        private final Map<MessageIdentifiers, Deque<MessageIdentifiers>> fSentMessages;
+        /* IRecv requests in the order they were launched */
         private final Deque<IRecvRequest> fIRecvRequests;
+        /* Unresolved IRecv requests, indexed by request ID */
+        private final Map<Long, IRecvRequest> fUnresolvedIRecvRequests;
         private final Deque<StateSystemUpdateTriplet> fPendingStateSystemUpdates;
 
         public CommunicatorsLocation(ITmfEvent event) {
@@ -126,26 +138,34 @@ public class Otf2CommunicatorsStateProvider extends AbstractOtf2StateProvider {
             fInCommunication = false;
             fInIRecvRequest = false;
             fRank = UNKNOWN_RANK;
-            fSentMessages = new ArrayList<>();
-            fRequestIdBeginTimestamp = new HashMap<>();
-            fIRecvRequests = new LinkedList<>();
-            fPendingStateSystemUpdates = new LinkedList<>();
+            fSentMessages = new HashMap<>();
+            fIRecvRequests = new ArrayDeque<>();
+            fUnresolvedIRecvRequests = new HashMap<>();
+            fPendingStateSystemUpdates = new ArrayDeque<>();
         }
 
         /**
          * This method is called when an IRecvRequest was checked and resolved
          * (the corresponding IRecv event has been encountered). It updates the
          * IRecvRequest object created for this request
+         *
+         * @return the resolved request, or null if there is no unresolved
+         *         request with this ID
          */
-        private void searchAndUpdateIRecvRequest(long requestID, Communicator communicator, int rank) {
-            for (IRecvRequest request : fIRecvRequests) {
-                if (request.fRequestID == requestID) {
-                    request.fCommunicator = communicator;
-                    request.fRank = rank;
-                    request.fRequestResolved = true;
-                    break;
-                }
+        private @Nullable IRecvRequest searchAndUpdateIRecvRequest(long requestID, Communicator communicator, int rank) {
+            IRecvRequest request = fUnresolvedIRecvRequests.remove(requestID);
+            if (request == null) {
+                return null;
+            }
+            IRecvRequest next = request.fNextWithSameID;
+            if (next != null) {
+                fUnresolvedIRecvRequests.put(requestID, next);
+                request.fNextWithSameID = null;
             }
+            request.fCommunicator = communicator;
+            request.fRank = rank;
+            request.fRequestResolved = true;
+            return request;
         }
 
         /**
@@ -253,8 +273,15 @@ public class Otf2CommunicatorsStateProvider extends AbstractOtf2StateProvider {
             }
             fInCommunication = true;
             fInIRecvRequest = true;
-            fRequestIdBeginTimestamp.put(requestID, fLatestEnteredTimestamp);
-            fIRecvRequests.add(new IRecvRequest(fLatestEnteredRegion, fLatestEnteredTimestamp, requestID));
+            IRecvRequest request = new IRecvRequest(fLatestEnteredRegion, fLatestEnteredTimestamp, requestID);
+            fIRecvRequests.add(request);
+            IRecvRequest previous = fUnresolvedIRecvRequests.putIfAbsent(requestID, request);
+            if (previous != null) {
+                while (previous.fNextWithSameID != null) {
+                    previous = previous.fNextWithSameID;
+                }
+                previous.fNextWithSameID = request;
+            }
         }
 
         /**
@@ -305,7 +332,8 @@ public class Otf2CommunicatorsStateProvider extends AbstractOtf2StateProvider {
             if (destRank == null || messageTag == null || srcRank == UNKNOWN_RANK) {
                 return;
             }
-            fSentMessages.add(new MessageIdentifiers(communicator.fId, srcRank, destRank, messageTag, srcEvent.getTimestamp().toNanos()));
+            MessageIdentifiers message = new MessageIdentifiers(communicator.fId, srcRank, destRank, messageTag, srcEvent.getTimestamp().toNanos());
+            fSentMessages.computeIfAbsent(message, key -> new ArrayDeque<>()).add(message);
             fCurrentCommunicator = communicator;
             fRank = srcRank;
         }
@@ -335,10 +363,12 @@ public class Otf2CommunicatorsStateProvider extends AbstractOtf2StateProvider {
             if (srcLocation == null) {
                 return;
             }
-            // Searches for the associated sent message
+            // Searches for the first associated sent message
             MessageIdentifiers message = new MessageIdentifiers(communicator.fId, srcRank, destRank, messageTag);
-            int messageIndex = srcLocation.fSentMessages.indexOf(message);
-            MessageIdentifiers sentMessage = srcLocation.fSentMessages.remove(messageIndex);
+            Deque<MessageIdentifiers> sentMessages = srcLocation.fSentMessages.get(message);
+            if (sentMessages == null) {
+                return;
+            }
 
             Long recvBeginTimestamp = fLatestEnteredTimestamp;
             /*
@@ -352,15 +382,22 @@ public class Otf2CommunicatorsStateProvider extends AbstractOtf2StateProvider {
                     return;
                 }
 
-                searchAndUpdateIRecvRequest(requestId, communicator, destRank);
-                if (fIRecvRequests.getFirst().fRequestID == requestId) {
-                    flushUpdatesUntilUnresolvedRequest();
-                }
-                Long requestBeginTimestamp = fRequestIdBeginTimestamp.remove(requestId);
-                if (requestBeginTimestamp == null) {
+                IRecvRequest request = searchAndUpdateIRecvRequest(requestId, communicator, destRank);
+                if (request == null) {
                     return;
                 }
-                recvBeginTimestamp = requestBeginTimestamp;
+                if (fIRecvRequests.getFirst() == request) {
+                    flushUpdatesUntilUnresolvedRequest();
+                }
+                recvBeginTimestamp = request.fRequestBeginTimestamp;
+            }
+            /*
+             * The message is only taken once the receive is matched, so that a
+             * dropped receive leaves it to the next one
+             */
+            MessageIdentifiers sentMessage = sentMessages.removeFirst();
+            if (sentMessages.isEmpty()) {
+                srcLocation.fSentMessages.remove(message);
             }
 
             // The changes for the communicator are stored
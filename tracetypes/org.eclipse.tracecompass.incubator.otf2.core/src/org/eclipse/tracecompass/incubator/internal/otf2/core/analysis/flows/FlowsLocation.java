@@ -10,9 +10,8 @@
 
 package org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.flows;
 
-import java.util.Map;
-
 import org.eclipse.tracecompass.incubator.internal.otf2.core.trace.Location;
+import org.eclipse.tracecompass.incubator.internal.otf2.core.trace.Otf2DefinitionRegistry;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
 import org.eclipse.tracecompass.statesystem.core.StateSystemBuilderUtils;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
@@ -48,11 +47,11 @@ class FlowsLocation extends Location implements IFlowsNode {
      *            the state system builder
      * @param locationGroupMap
      *            a map containing the different location groups and their IDs
-     * @param stringIdMap
-     *            a map containing the different strings and their IDs
+     * @param definitions
+     *            the global definitions of the trace
      */
-    public void initializeQuarks(ITmfStateSystemBuilder ssb, FlowsNodeMap<Long, FlowsLocationGroup> locationGroupMap, Map<Integer, String> stringIdMap) {
-        String locationName = getName(stringIdMap);
+    public void initializeQuarks(ITmfStateSystemBuilder ssb, FlowsNodeMap<Long, FlowsLocationGroup> locationGroupMap, Otf2DefinitionRegistry definitions) {
+        String locationName = getName(definitions);
         long parentId = getLocationGroupId();
         int parentInputQuark = locationGroupMap.getNodeQuark(parentId, INPUT);
         int parentOutputQuark = locationGroupMap.getNodeQuark(parentId, OUTPUT);
@@ -10,9 +10,8 @@
 
 package org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.flows;
 
-import java.util.Map;
-
 import org.eclipse.tracecompass.incubator.internal.otf2.core.trace.LocationGroup;
+import org.eclipse.tracecompass.incubator.internal.otf2.core.trace.Otf2DefinitionRegistry;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 
@@ -44,12 +43,12 @@ class FlowsLocationGroup extends LocationGroup implements IFlowsNode {
      *            the state system builder
      * @param systemTreeNodeMap
      *            a map containing the different system tree nodes and their IDs
-     * @param stringIdMap
-     *            a map containing the different strings and their IDs
+     * @param definitions
+     *            the global definitions of the trace
      */
-    public void initializeQuarks(ITmfStateSystemBuilder ssb, FlowsNodeMap<Long, FlowsSystemTreeNode> systemTreeNodeMap, Map<Integer, String> stringIdMap) {
+    public void initializeQuarks(ITmfStateSystemBuilder ssb, FlowsNodeMap<Long, FlowsSystemTreeNode> systemTreeNodeMap, Otf2DefinitionRegistry definitions) {
         long parentId = getParentId();
-        String fullName = getFullName(stringIdMap);
+        String fullName = getFullName(definitions);
         int parentInputQuark = systemTreeNodeMap.getNodeQuark(parentId, INPUT);
         int parentOutputQuark = systemTreeNodeMap.getNodeQuark(parentId, OUTPUT);
         if (parentInputQuark != UNKNOWN_ID && parentOutputQuark != UNKNOWN_ID) {
@@ -10,9 +10,8 @@
 
 package org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.flows;
 
-import java.util.Map;
-
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.otf2.core.trace.Otf2DefinitionRegistry;
 import org.eclipse.tracecompass.incubator.internal.otf2.core.trace.SystemTreeNode;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
@@ -46,11 +45,11 @@ class FlowsSystemTreeNode extends SystemTreeNode implements IFlowsNode {
      *            the state system builder
      * @param systemTreeNodeMap
      *            a map containing the different system tree nodes and their IDs
-     * @param stringIdMap
-     *            a map containing the different strings and their IDs
+     * @param definitions
+     *            the global definitions of the trace
      */
-    public void initializeQuarks(ITmfStateSystemBuilder ssb, @Nullable FlowsNodeMap<Long, FlowsSystemTreeNode> systemTreeNodeMap, Map<Integer, String> stringIdMap) {
-        String fullName = getFullName(stringIdMap);
+    public void initializeQuarks(ITmfStateSystemBuilder ssb, @Nullable FlowsNodeMap<Long, FlowsSystemTreeNode> systemTreeNodeMap, Otf2DefinitionRegistry definitions) {
+        String fullName = getFullName(definitions);
         long parentId = getParentId();
         if (isRootNode()) {
             fInputQuark = ssb.getQuarkAbsoluteAndAdd(INPUT, fullName);
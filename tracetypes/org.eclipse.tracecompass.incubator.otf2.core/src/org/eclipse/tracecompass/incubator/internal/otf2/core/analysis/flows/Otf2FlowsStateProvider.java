@@ -141,17 +141,17 @@ public class Otf2FlowsStateProvider extends AbstractOtf2StateProvider {
     private void initializeQuarks(ITmfStateSystemBuilder ssb) {
         for (FlowsSystemTreeNode systemTreeNode : fMapSystemTreeNode.values()) {
             if (systemTreeNode != null) {
-                systemTreeNode.initializeQuarks(ssb, fMapSystemTreeNode, getStringId());
+                systemTreeNode.initializeQuarks(ssb, fMapSystemTreeNode, getDefinitions());
             }
         }
         for (FlowsLocationGroup locationGroup : fMapLocationGroup.values()) {
             if (locationGroup != null) {
-                locationGroup.initializeQuarks(ssb, fMapSystemTreeNode, getStringId());
+                locationGroup.initializeQuarks(ssb, fMapSystemTreeNode, getDefinitions());
             }
         }
         for (FlowsLocation location : fMapLocation.values()) {
             if (location != null) {
-                location.initializeQuarks(ssb, fMapLocationGroup, getStringId());
+                location.initializeQuarks(ssb, fMapLocationGroup, getDefinitions());
             }
         }
         fInitialized = true;
@@ -243,7 +243,7 @@ public class Otf2FlowsStateProvider extends AbstractOtf2StateProvider {
         int eventAttributeIndex = -1;
         for (Pair<Integer, Object> attribute : fEventAttributes) {
             eventAttributeIndex++;
-            AttributeDefinition attributeDefinition = this.fAttributeDefinitions.get(attribute.getFirst());
+            AttributeDefinition attributeDefinition = getDefinitions().getAttributeDefinition(attribute.getFirst());
             if (attributeDefinition != null && attributeDefinition.getType() == Otf2Type.OTF2_TYPE_LOCATION_GROUP) {
                 groupLocationId = (Long) attribute.getSecond();
             }
@@ -10,9 +10,6 @@
  **********************************************************************/
 package org.eclipse.tracecompass.incubator.internal.otf2.core.trace;
 
-import java.util.Map;
-
-import org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.IOtf2Constants;
 import org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.Otf2Type;
 
 /**
@@ -45,23 +42,23 @@ public class AttributeDefinition {
     /**
      * Gets the name of the attribute from the nameId
      *
-     * @param stringIdMap
-     *            Mappings of id number to strings
+     * @param definitions
+     *            The global definitions of the trace
      * @return The name of the attribute
      */
-    public String getName(Map<Integer, String> stringIdMap) {
-        return stringIdMap.getOrDefault(fNameId, IOtf2Constants.UNKNOWN_STRING);
+    public String getName(Otf2DefinitionRegistry definitions) {
+        return definitions.getString(fNameId);
     }
 
     /**
      * Gets the description of the attribute from the descriptionId
      *
-     * @param stringIdMap
-     *            Mappings of id number to strings
+     * @param definitions
+     *            The global definitions of the trace
      * @return The description of the attribute
      */
-    public String getDescription(Map<Integer, String> stringIdMap) {
-        return stringIdMap.getOrDefault(fDescriptionId, IOtf2Constants.UNKNOWN_STRING);
+    public String getDescription(Otf2DefinitionRegistry definitions) {
+        return definitions.getString(fDescriptionId);
     }
 
     /**
@@ -10,8 +10,6 @@
 
 package org.eclipse.tracecompass.incubator.internal.otf2.core.trace;
 
-import java.util.Map;
-
 import org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.IOtf2Constants;
 import org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.IOtf2Fields;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
@@ -51,16 +49,12 @@ public class Location {
     /**
      * Gets the name of this location
      *
-     * @param stringIdMap
-     *            a map associating strings to their IDs
+     * @param definitions
+     *            the global definitions of the trace
      * @return the name of this Location
      */
-    public String getName(Map<Integer, String> stringIdMap) {
-        String name = stringIdMap.get((int) fNameId);
-        if (name == null) {
-            return IOtf2Constants.UNKNOWN_STRING;
-        }
-        return name;
+    public String getName(Otf2DefinitionRegistry definitions) {
+        return definitions.getString((int) fNameId);
     }
 
     /**
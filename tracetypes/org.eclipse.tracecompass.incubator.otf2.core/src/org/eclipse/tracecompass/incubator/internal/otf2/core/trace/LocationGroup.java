@@ -10,8 +10,6 @@
 
 package org.eclipse.tracecompass.incubator.internal.otf2.core.trace;
 
-import java.util.Map;
-
 import org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.IOtf2Constants;
 import org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.IOtf2Fields;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
@@ -55,14 +53,13 @@ public class LocationGroup {
     /**
      * Get the complete name of this LocationGroup
      *
-     * @param stringIdMap
-     *            a map with the different strings of the trace and their IDs
+     * @param definitions
+     *            the global definitions of the trace
      * @return the full name of this LocationGroup
      */
-    public String getFullName(Map<Integer, String> stringIdMap) {
-        String name = stringIdMap.get((int) fNameId);
-        if (fType > 0 && name != null) {
-            return name;
+    public String getFullName(Otf2DefinitionRegistry definitions) {
+        if (fType > 0) {
+            return definitions.getString((int) fNameId);
         }
         return IOtf2Constants.UNKNOWN_STRING;
     }
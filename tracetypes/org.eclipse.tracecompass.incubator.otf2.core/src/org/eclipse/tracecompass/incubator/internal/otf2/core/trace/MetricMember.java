@@ -11,9 +11,7 @@
 package org.eclipse.tracecompass.incubator.internal.otf2.core.trace;
 
 import static org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.IOtf2Constants.OTF2_UNKNOWN_STRING;
-import static org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.IOtf2Constants.UNKNOWN_STRING;
 
-import java.util.Map;
 import java.util.Objects;
 
 import org.eclipse.jdt.annotation.Nullable;
@@ -50,26 +48,21 @@ public class MetricMember {
      *
      * @param event
      *            an event representing a metric member
-     * @param stringIds
-     *            the map associating the string IDs to their values for this
-     *            trace
+     * @param definitions
+     *            the global definitions of this trace read so far
      */
-    public MetricMember(ITmfEvent event, Map<Integer, String> stringIds) {
+    public MetricMember(ITmfEvent event, Otf2DefinitionRegistry.Builder definitions) {
         ITmfEventField content = event.getContent();
         Long selfId = content.getFieldValue(Long.class, IOtf2Fields.OTF2_SELF);
         fMetricMemberId = selfId != null ? selfId : IOtf2Constants.OTF2_UNKNOWN_METRIC_MEMBER;
 
         Long nameId = content.getFieldValue(Long.class, IOtf2Fields.OTF2_NAME);
         nameId = nameId != null ? nameId : OTF2_UNKNOWN_STRING;
-        String name = stringIds.get(nameId.intValue());
-        name = name != null ? name : UNKNOWN_STRING;
-        fName = name;
+        fName = definitions.getString(nameId.intValue());
 
         Long descriptionId = content.getFieldValue(Long.class, IOtf2Fields.OTF2_DESCRIPTION);
         descriptionId = descriptionId != null ? descriptionId : OTF2_UNKNOWN_STRING;
-        String description = stringIds.get(descriptionId.intValue());
-        description = description != null ? description : UNKNOWN_STRING;
-        fDescription = description;
+        fDescription = definitions.getString(descriptionId.intValue());
 
         Integer metricType = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_METRIC_TYPE);
         fMetricType = metricType != null ? metricType : IOtf2Constants.OTF2_UNKNOWN_METRIC_TYPE;
@@ -91,9 +84,7 @@ public class MetricMember {
 
         Long unitId = content.getFieldValue(Long.class, IOtf2Fields.OTF2_UNIT);
         unitId = unitId != null ? unitId : OTF2_UNKNOWN_STRING;
-        String unit = stringIds.get(unitId.intValue());
-        unit = unit != null ? unit : UNKNOWN_STRING;
-        fUnit = unit;
+        fUnit = definitions.getString(unitId.intValue());
     }
 
     /**
@@ -0,0 +1,348 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.otf2.core.trace;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.IOtf2Constants;
+import org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.IOtf2Fields;
+import org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.IOtf2GlobalDefinitions;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
+
+/**
+ * Immutable registry of the global definitions of an OTF2 trace that are
+ * referenced by the events: strings, regions, communicators, groups and
+ * attributes.
+ *
+ * OTF2 definitions are referenced by small consecutive IDs, so they are kept in
+ * arrays indexed by their ID instead of maps. The registry is built once when
+ * the trace is opened and shared by all the analyses of the trace.
+ */
+public final class Otf2DefinitionRegistry {
+
+    private static final int UNKNOWN_ID = -1;
+    private static final long UNKNOWN_LOCATION_ID = -1;
+    private static final long[] NO_MEMBERS = new long[0];
+    private static final int[] NO_RANKS = new int[0];
+
+    private final @Nullable String[] fStrings;
+    private final int[] fRegionStrings;
+    private final int[] fCommunicatorGroups;
+    private final long @Nullable [][] fGroupMembers;
+    /*
+     * Location to rank index of each group: the distinct locations of the
+     * members in ascending order, and the lowest rank of each location
+     */
+    private final long[][] fGroupSortedLocations;
+    private final int[][] fGroupSortedRanks;
+    private final @Nullable AttributeDefinition[] fAttributes;
+
+    private Otf2DefinitionRegistry(Builder builder) {
+        fStrings = Arrays.copyOf(builder.fStrings, builder.fNbStrings);
+        fRegionStrings = Arrays.copyOf(builder.fRegionStrings, builder.fNbRegions);
+        fCommunicatorGroups = Arrays.copyOf(builder.fCommunicatorGroups, builder.fNbCommunicators);
+        long @Nullable [][] groupMembers = Arrays.copyOf(builder.fGroupMembers, builder.fNbGroups);
+        for (int i = 0; i < groupMembers.length; i++) {
+            long[] members = groupMembers[i];
+            groupMembers[i] = members != null ? members.clone() : null;
+        }
+        fGroupMembers = groupMembers;
+        fGroupSortedLocations = new long[groupMembers.length][];
+        fGroupSortedRanks = new int[groupMembers.length][];
+        for (int i = 0; i < groupMembers.length; i++) {
+            indexGroup(i, groupMembers[i]);
+        }
+        fAttributes = Arrays.copyOf(builder.fAttributes, builder.fNbAttributes);
+    }
+
+    /**
+     * Gets the value of a string
+     *
+     * @param stringId
+     *            the ID of the string
+     * @return the value of the string, or {@link IOtf2Constants#UNKNOWN_STRING}
+     *         if it is not defined
+     */
+    public String getString(int stringId) {
+        String value = (stringId >= 0 && stringId < fStrings.length) ? fStrings[stringId] : null;
+        return value != null ? value : IOtf2Constants.UNKNOWN_STRING;
+    }
+
+    /**
+     * Gets the name of a region of code
+     *
+     * @param regionId
+     *            the ID of the region
+     * @return the name of the region, or {@link IOtf2Constants#UNKNOWN_STRING}
+     *         if it is not defined
+     */
+    public String getRegionName(int regionId) {
+        if (regionId < 0 || regionId >= fRegionStrings.length) {
+            return IOtf2Constants.UNKNOWN_STRING;
+        }
+        return getString(fRegionStrings[regionId]);
+    }
+
+    /**
+     * Gets the members of a communicator, the location at each rank
+     *
+     * @param communicatorId
+     *            the ID of the communicator
+     * @return the location IDs of the members, indexed by rank, -1 for the
+     *         ranks whose member is not defined. This array is shared and must
+     *         not be modified.
+     */
+    public long[] getCommunicatorMembers(int communicatorId) {
+        if (communicatorId < 0 || communicatorId >= fCommunicatorGroups.length) {
+            return NO_MEMBERS;
+        }
+        int groupId = fCommunicatorGroups[communicatorId];
+        long[] members = (groupId >= 0 && groupId < fGroupMembers.length) ? fGroupMembers[groupId] : null;
+        return members != null ? members : NO_MEMBERS;
+    }
+
+    /**
+     * Gets the rank of a location in a communicator
+     *
+     * @param locationId
+     *            the ID of the location
+     * @param communicatorId
+     *            the ID of the communicator
+     * @return the rank of the location, or -1 if it is not a member of the
+     *         communicator
+     */
+    public int getRank(long locationId, int communicatorId) {
+        if (communicatorId < 0 || communicatorId >= fCommunicatorGroups.length) {
+            return UNKNOWN_ID;
+        }
+        int groupId = fCommunicatorGroups[communicatorId];
+        if (groupId < 0 || groupId >= fGroupSortedLocations.length) {
+            return UNKNOWN_ID;
+        }
+        int index = Arrays.binarySearch(fGroupSortedLocations[groupId], locationId);
+        return index >= 0 ? fGroupSortedRanks[groupId][index] : UNKNOWN_ID;
+    }
+
+    private void indexGroup(int groupId, long @Nullable [] groupMembers) {
+        if (groupMembers == null) {
+            fGroupSortedLocations[groupId] = NO_MEMBERS;
+            fGroupSortedRanks[groupId] = NO_RANKS;
+            return;
+        }
+        long[] members = groupMembers;
+        // The sort is stable, so the lowest rank of a location comes first
+        int[] ranks = IntStream.range(0, members.length)
+                .filter(rank -> members[rank] != UNKNOWN_LOCATION_ID)
+                .boxed()
+                .sorted(Comparator.comparingLong(rank -> members[rank]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        long[] locations = new long[ranks.length];
+        int nbLocations = 0;
+        for (int rank : ranks) {
+            if (nbLocations == 0 || locations[nbLocations - 1] != members[rank]) {
+                locations[nbLocations] = members[rank];
+                ranks[nbLocations] = rank;
+                nbLocations++;
+            }
+        }
+        fGroupSortedLocations[groupId] = Arrays.copyOf(locations, nbLocations);
+        fGroupSortedRanks[groupId] = Arrays.copyOf(ranks, nbLocations);
+    }
+
+    /**
+     * Gets the definition of an attribute
+     *
+     * @param attributeId
+     *            the ID of the attribute
+     * @return the definition of the attribute, or null if it is not defined
+     */
+    public @Nullable AttributeDefinition getAttributeDefinition(int attributeId) {
+        return (attributeId >= 0 && attributeId < fAttributes.length) ? fAttributes[attributeId] : null;
+    }
+
+    /**
+     * Builder of a definition registry, to which the global definitions are
+     * added as they are read
+     */
+    public static final class Builder {
+
+        private @Nullable String[] fStrings = new @Nullable String[16];
+        private int fNbStrings = 0;
+        private int[] fRegionStrings = ensureCapacity(new int[0], 15);
+        private int fNbRegions = 0;
+        private int[] fCommunicatorGroups = ensureCapacity(new int[0], 15);
+        private int fNbCommunicators = 0;
+        private long @Nullable [][] fGroupMembers = new long[16][];
+        private int fNbGroups = 0;
+        private @Nullable AttributeDefinition[] fAttributes = new @Nullable AttributeDefinition[16];
+        private int fNbAttributes = 0;
+
+        /**
+         * Adds a global definition to the registry
+         *
+         * @param event
+         *            the event of the global definition
+         * @param name
+         *            the name of the global definition
+         * @return true if the definition is kept in the registry, false if it
+         *         is not a kind of definition that the registry holds
+         */
+        public boolean addDefinition(ITmfEvent event, String name) {
+            switch (name) {
+            case IOtf2GlobalDefinitions.OTF2_STRING:
+                addString(event.getContent());
+                return true;
+            case IOtf2GlobalDefinitions.OTF2_REGION:
+                addRegion(event.getContent());
+                return true;
+            case IOtf2GlobalDefinitions.OTF2_COMM:
+                addCommunicator(event.getContent());
+                return true;
+            case IOtf2GlobalDefinitions.OTF2_GROUP:
+                addGroup(event.getContent());
+                return true;
+            case IOtf2GlobalDefinitions.OTF2_GROUP_MEMBER:
+                addGroupMember(event.getContent());
+                return true;
+            case IOtf2GlobalDefinitions.OTF2_ATTRIBUTE:
+                addAttribute(event.getContent());
+                return true;
+            default:
+                return false;
+            }
+        }
+
+        /**
+         * Gets the value of a string added so far, so that definitions can be
+         * resolved while the definitions are read
+         *
+         * @param stringId
+         *            the ID of the string
+         * @return the value of the string, or
+         *         {@link IOtf2Constants#UNKNOWN_STRING} if it is not defined
+         *         yet
+         */
+        public String getString(int stringId) {
+            String value = (stringId >= 0 && stringId < fNbStrings) ? fStrings[stringId] : null;
+            return value != null ? value : IOtf2Constants.UNKNOWN_STRING;
+        }
+
+        /**
+         * Builds the registry with the definitions added so far
+         *
+         * @return the registry
+         */
+        public Otf2DefinitionRegistry build() {
+            return new Otf2DefinitionRegistry(this);
+        }
+
+        private void addString(ITmfEventField content) {
+            Integer stringId = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_SELF);
+            String value = content.getFieldValue(String.class, IOtf2Fields.OTF2_STRING_VALUE);
+            if (stringId == null || stringId < 0 || value == null) {
+                return;
+            }
+            if (stringId >= fStrings.length) {
+                fStrings = Arrays.copyOf(fStrings, newLength(fStrings.length, stringId));
+            }
+            fStrings[stringId] = value;
+            fNbStrings = Math.max(fNbStrings, stringId + 1);
+        }
+
+        private void addRegion(ITmfEventField content) {
+            Integer regionId = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_SELF);
+            Integer stringId = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_NAME);
+            if (regionId == null || regionId < 0 || stringId == null) {
+                return;
+            }
+            fRegionStrings = ensureCapacity(fRegionStrings, regionId);
+            fRegionStrings[regionId] = stringId;
+            fNbRegions = Math.max(fNbRegions, regionId + 1);
+        }
+
+        private void addCommunicator(ITmfEventField content) {
+            Integer communicatorId = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_SELF);
+            Integer groupId = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_GROUP);
+            if (communicatorId == null || communicatorId < 0 || groupId == null) {
+                return;
+            }
+            fCommunicatorGroups = ensureCapacity(fCommunicatorGroups, communicatorId);
+            fCommunicatorGroups[communicatorId] = groupId;
+            fNbCommunicators = Math.max(fNbCommunicators, communicatorId + 1);
+        }
+
+        private void addGroup(ITmfEventField content) {
+            Integer groupId = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_SELF);
+            Integer nbMembers = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_NUMBER_OF_MEMBERS);
+            if (groupId == null || groupId < 0 || nbMembers == null || nbMembers < 0) {
+                return;
+            }
+            if (groupId >= fGroupMembers.length) {
+                fGroupMembers = Arrays.copyOf(fGroupMembers, newLength(fGroupMembers.length, groupId));
+            }
+            long[] members = new long[nbMembers];
+            Arrays.fill(members, UNKNOWN_LOCATION_ID);
+            fGroupMembers[groupId] = members;
+            fNbGroups = Math.max(fNbGroups, groupId + 1);
+        }
+
+        private void addGroupMember(ITmfEventField content) {
+            Integer groupId = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_GROUP);
+            Integer rank = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_RANK);
+            Long locationId = content.getFieldValue(Long.class, IOtf2Fields.OTF2_LOCATION);
+            if (groupId == null || groupId < 0 || groupId >= fNbGroups || rank == null || locationId == null) {
+                return;
+            }
+            long[] members = fGroupMembers[groupId];
+            if (members == null || rank < 0 || rank >= members.length) {
+                return;
+            }
+            members[rank] = locationId;
+        }
+
+        private void addAttribute(ITmfEventField content) {
+            Integer attributeId = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_SELF);
+            Integer nameId = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_NAME);
+            Integer descriptionId = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_DESCRIPTION);
+            Integer typeId = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_TYPE);
+            if (attributeId == null || attributeId < 0 || nameId == null || descriptionId == null || typeId == null) {
+                return;
+            }
+            if (attributeId >= fAttributes.length) {
+                fAttributes = Arrays.copyOf(fAttributes, newLength(fAttributes.length, attributeId));
+            }
+            fAttributes[attributeId] = new AttributeDefinition(nameId, descriptionId, typeId);
+            fNbAttributes = Math.max(fNbAttributes, attributeId + 1);
+        }
+
+        /*
+         * Grow an ID to ID array so that it can hold an ID, the IDs that were
+         * not defined are unknown
+         */
+        private static int[] ensureCapacity(int[] array, int id) {
+            if (id < array.length) {
+                return array;
+            }
+            int[] newArray = Arrays.copyOf(array, newLength(array.length, id));
+            Arrays.fill(newArray, array.length, newArray.length, UNKNOWN_ID);
+            return newArray;
+        }
+
+        private static int newLength(int length, int id) {
+            return Math.max(length * 2, id + 1);
+        }
+    }
+}
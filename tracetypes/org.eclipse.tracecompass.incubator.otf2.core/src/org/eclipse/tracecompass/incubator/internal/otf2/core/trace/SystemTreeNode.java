@@ -13,8 +13,6 @@ package org.eclipse.tracecompass.incubator.internal.otf2.core.trace;
 import static org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.IOtf2Constants.OTF2_UNKNOWN_STRING;
 import static org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.IOtf2Constants.OTF2_UNKNOWN_SYSTEM_TREE_NODE;
 
-import java.util.Map;
-
 import org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.IOtf2Constants;
 import org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.IOtf2Fields;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
@@ -59,14 +57,13 @@ public class SystemTreeNode {
     /**
      * A method to get the complete name for this system tree node
      *
-     * @param stringIdMap
-     *            a map containing the associations between the string IDs and
-     *            their actual values
+     * @param definitions
+     *            the global definitions of the trace
      * @return the full name of this system tree node
      */
-    public String getFullName(Map<Integer, String> stringIdMap) {
-        String name = stringIdMap.get((int) fNameId);
-        String className = stringIdMap.get((int) fClassNameId);
+    public String getFullName(Otf2DefinitionRegistry definitions) {
+        String name = definitions.getString((int) fNameId);
+        String className = definitions.getString((int) fClassNameId);
         return className + WHITESPACE + name;
     }
 
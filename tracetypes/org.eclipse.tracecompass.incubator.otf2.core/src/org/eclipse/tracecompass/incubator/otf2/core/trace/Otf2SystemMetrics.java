@@ -20,6 +20,7 @@ import java.util.Set;
 
 import org.eclipse.tracecompass.incubator.internal.otf2.core.trace.MetricClass;
 import org.eclipse.tracecompass.incubator.internal.otf2.core.trace.MetricMember;
+import org.eclipse.tracecompass.incubator.internal.otf2.core.trace.Otf2DefinitionRegistry;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.util.Pair;
 
@@ -40,12 +41,11 @@ public class Otf2SystemMetrics {
      *
      * @param event
      *            the event containing the definition of this new metricMember
-     * @param stringIds
-     *            the map associating the string IDs to their values for this
-     *            trace
+     * @param definitions
+     *            the global definitions of this trace read so far
      */
-    public void addMetricMember(ITmfEvent event, Map<Integer, String> stringIds) {
-        MetricMember metricMember = new MetricMember(event, stringIds);
+    public void addMetricMember(ITmfEvent event, Otf2DefinitionRegistry.Builder definitions) {
+        MetricMember metricMember = new MetricMember(event, definitions);
         fMetricMembers.put(metricMember.getId(), metricMember);
     }
 
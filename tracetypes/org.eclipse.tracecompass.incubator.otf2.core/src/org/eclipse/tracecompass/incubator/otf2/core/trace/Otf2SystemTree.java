@@ -18,6 +18,7 @@ import java.util.Map;
 
 import org.eclipse.tracecompass.incubator.internal.otf2.core.trace.Location;
 import org.eclipse.tracecompass.incubator.internal.otf2.core.trace.LocationGroup;
+import org.eclipse.tracecompass.incubator.internal.otf2.core.trace.Otf2DefinitionRegistry;
 import org.eclipse.tracecompass.incubator.internal.otf2.core.trace.SystemTreeNode;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 
@@ -71,13 +72,12 @@ public class Otf2SystemTree {
      * Constructs the different aspects that allows resolving the name of the
      * cluster/node/process/thread on which an event occurs
      *
-     * @param stringIds
-     *            the map associating the string IDs to their values for this
-     *            trace
+     * @param definitions
+     *            the global definitions of this trace
      * @return the different system aspects
      */
     @SuppressWarnings("null")
-    public Iterator<Otf2NodeAspect> getSystemAspects(Map<Integer, String> stringIds) {
+    public Iterator<Otf2NodeAspect> getSystemAspects(Otf2DefinitionRegistry definitions) {
         Otf2NodeAspect clusterAspect = new Otf2ClusterAspect();
         Otf2NodeAspect physicalNodeAspect = new Otf2PhysicalNodeAspect();
         Otf2NodeAspect processAspect = new Otf2ProcessAspect();
@@ -85,20 +85,20 @@ public class Otf2SystemTree {
 
         for (Location location : fLocations.values()) {
             Long locationId = location.getId();
-            threadAspect.addNodeName(locationId, location.getName(stringIds));
+            threadAspect.addNodeName(locationId, location.getName(definitions));
 
             Long processId = location.getLocationGroupId();
             LocationGroup process = fLocationGroups.get(processId);
             if (process != null) {
-                processAspect.addNodeName(locationId, process.getFullName(stringIds));
+                processAspect.addNodeName(locationId, process.getFullName(definitions));
 
                 SystemTreeNode physicalNode = fSystemTreeNodes.get(process.getParentId());
                 if (physicalNode != null) {
-                    physicalNodeAspect.addNodeName(locationId, physicalNode.getFullName(stringIds));
+                    physicalNodeAspect.addNodeName(locationId, physicalNode.getFullName(definitions));
 
                     SystemTreeNode cluster = fSystemTreeNodes.get(physicalNode.getParentId());
                     if (cluster != null) {
-                        clusterAspect.addNodeName(locationId, cluster.getFullName(stringIds));
+                        clusterAspect.addNodeName(locationId, cluster.getFullName(definitions));
                     }
                 }
             }
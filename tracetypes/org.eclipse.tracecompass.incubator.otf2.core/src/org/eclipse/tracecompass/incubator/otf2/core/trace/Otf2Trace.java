@@ -11,12 +11,8 @@
 
 package org.eclipse.tracecompass.incubator.otf2.core.trace;
 
-import static org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.IOtf2Constants.OTF2_TYPE_GROUP;
-
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
@@ -26,10 +22,10 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.incubator.internal.otf2.core.Activator;
 import org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.IOtf2Constants;
-import org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.IOtf2Fields;
 import org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.IOtf2GlobalDefinitions;
+import org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.Otf2EventName;
+import org.eclipse.tracecompass.incubator.internal.otf2.core.trace.Otf2DefinitionRegistry;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
-import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
 import org.eclipse.tracecompass.tmf.core.event.aspect.ITmfEventAspect;
 import org.eclipse.tracecompass.tmf.core.event.aspect.TmfBaseAspects;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
@@ -56,6 +52,7 @@ import com.google.common.collect.ImmutableSet;
 public class Otf2Trace extends CtfTmfTrace {
 
     private Collection<ITmfEventAspect<?>> fAspects = TmfBaseAspects.getBaseAspects();
+    private Otf2DefinitionRegistry fDefinitions = new Otf2DefinitionRegistry.Builder().build();
 
     @Override
     public Iterable<ITmfEventAspect<?>> getEventAspects() {
@@ -85,6 +82,16 @@ public class Otf2Trace extends CtfTmfTrace {
         return status;
     }
 
+    /**
+     * Gets the global definitions of this trace, read when the trace is
+     * initialized and shared by its analyses
+     *
+     * @return the definition registry
+     */
+    public Otf2DefinitionRegistry getDefinitions() {
+        return fDefinitions;
+    }
+
     @Override
     public TmfTraceContext createTraceContext(TmfTimeRange selection, TmfTimeRange windowRange, @Nullable IFile editorFile, @Nullable ITmfFilter filter) {
         return new TmfTraceContext(selection, windowRange, editorFile, filter);
@@ -107,24 +114,20 @@ public class Otf2Trace extends CtfTmfTrace {
 
         Otf2SystemTree systemTree = new Otf2SystemTree();
         Otf2SystemMetrics systemMetrics = new Otf2SystemMetrics();
-        Map<Integer, String> stringIds = new HashMap<>();
+        Otf2DefinitionRegistry.Builder definitionsBuilder = new Otf2DefinitionRegistry.Builder();
 
         boolean readingDefinitions = true;
 
         while (event != null && readingDefinitions) {
-            String eventName = event.getName();
-            Matcher matcher = IOtf2Constants.OTF2_EVENT_NAME_PATTERN.matcher(eventName);
+            Otf2EventName eventName = Otf2EventName.parse(event.getName());
 
-            if (matcher.matches() && matcher.group(OTF2_TYPE_GROUP).equals(IOtf2Constants.OTF2_EVENT)) {
+            if (eventName != null && eventName.getType().equals(IOtf2Constants.OTF2_EVENT)) {
                 readingDefinitions = false;
             }
 
-            if (matcher.matches() && matcher.group(OTF2_TYPE_GROUP).equals(IOtf2Constants.OTF2_GLOBAL_DEFINITION)) {
-                String definition = matcher.group(IOtf2Constants.OTF2_NAME_GROUP);
+            if (eventName != null && eventName.getType().equals(IOtf2Constants.OTF2_GLOBAL_DEFINITION)) {
+                String definition = eventName.getName();
                 switch (definition) {
-                case IOtf2GlobalDefinitions.OTF2_STRING:
-                    addString(event, stringIds);
-                    break;
                 case IOtf2GlobalDefinitions.OTF2_SYSTEM_TREE_NODE:
                     systemTree.addSystemTreeNode(event);
                     break;
@@ -135,29 +138,23 @@ public class Otf2Trace extends CtfTmfTrace {
                     systemTree.addLocation(event);
                     break;
                 case IOtf2GlobalDefinitions.OTF2_METRIC_MEMBER:
-                    systemMetrics.addMetricMember(event, stringIds);
+                    systemMetrics.addMetricMember(event, definitionsBuilder);
                     break;
                 case IOtf2GlobalDefinitions.OTF2_METRIC_CLASS:
                     systemMetrics.addMetricClass(event);
                     break;
                 default:
-                    Activator.getInstance().logWarning("The following group name is not supported: " + definition); //$NON-NLS-1$
+                    if (!definitionsBuilder.addDefinition(event, definition)) {
+                        Activator.getInstance().logWarning("The following group name is not supported: " + definition); //$NON-NLS-1$
+                    }
                     break;
                 }
             }
             event = getNext(context);
         }
-        aspectsBuilder.addAll(systemTree.getSystemAspects(stringIds));
+        fDefinitions = definitionsBuilder.build();
+        aspectsBuilder.addAll(systemTree.getSystemAspects(fDefinitions));
         aspectsBuilder.addAll(systemMetrics.getCounterAspects());
         return aspectsBuilder.build();
     }
-
-    private static void addString(ITmfEvent event, Map<Integer, String> stringIds) {
-        ITmfEventField content = event.getContent();
-        Integer id = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_SELF);
-        id = (int) (id != null ? id : IOtf2Constants.OTF2_UNKNOWN_STRING);
-        String stringValue = content.getFieldValue(String.class, IOtf2Fields.OTF2_STRING_VALUE);
-        stringValue = stringValue != null ? stringValue : IOtf2Constants.UNKNOWN_STRING;
-        stringIds.put(id, stringValue);
-    }
 }
@@ -170,6 +170,69 @@ public class CallStackStateProviderTest {
         }
     }
 
+    /**
+     * Test nested and overlapping 'X' events. An event that ends before an
+     * event it contains is closed with it.
+     *
+     * @throws Exception
+     *             Exception thrown by initialization
+     */
+    @Test
+    public void testEventsXNestedOverlapping() throws Exception {
+        TraceEventCallstackAnalysis csModule = getTraceEventModule("traces/complete_nested.json");
+        try {
+            ITmfStateSystem ss = csModule.getStateSystem();
+            assertNotNull(ss);
+            Set<@NonNull IntervalInfo> intervalInfos = new HashSet<>();
+            intervalInfos.add(new IntervalInfo(ImmutableList.of(new StateIntervalStub(0, 129999, "outer"),
+                    new StateIntervalStub(130000, 199999, (Object) null),
+                    new StateIntervalStub(200000, 209999, "after"),
+                    new StateIntervalStub(210000, 300000, (Object) null)),
+                    "Processes", "1", "2", "CallStack", "1"));
+            intervalInfos.add(new IntervalInfo(ImmutableList.of(new StateIntervalStub(0, 9999, (Object) null),
+                    new StateIntervalStub(10000, 29999, "first"),
+                    new StateIntervalStub(30000, 39999, (Object) null),
+                    new StateIntervalStub(40000, 59999, "second"),
+                    new StateIntervalStub(60000, 79999, (Object) null),
+                    new StateIntervalStub(80000, 129999, "overlapping"),
+                    new StateIntervalStub(130000, 300000, (Object) null)),
+                    "Processes", "1", "2", "CallStack", "2"));
+            StateSystemTestUtils.testIntervals(ss, intervalInfos);
+        } finally {
+            csModule.dispose();
+        }
+    }
+
+    /**
+     * Test 'E' events that do not match a 'B' event. The exited function is
+     * shown from the start of its slot, as if its beginning was lost.
+     *
+     * @throws Exception
+     *             Exception thrown by initialization
+     */
+    @Test
+    public void testEventsUnmatchedE() throws Exception {
+        TraceEventCallstackAnalysis csModule = getTraceEventModule("traces/unmatched_end.json");
+        try {
+            ITmfStateSystem ss = csModule.getStateSystem();
+            assertNotNull(ss);
+            Set<@NonNull IntervalInfo> intervalInfos = new HashSet<>();
+            intervalInfos.add(new IntervalInfo(ImmutableList.of(new StateIntervalStub(0, 19999, "A"),
+                    new StateIntervalStub(20000, 29999, "A"),
+                    new StateIntervalStub(30000, 39999, (Object) null),
+                    new StateIntervalStub(40000, 49999, "B"),
+                    new StateIntervalStub(50000, 50000, (Object) null)),
+                    "Processes", "1", "2", "CallStack", "1"));
+            intervalInfos.add(new IntervalInfo(ImmutableList.of(new StateIntervalStub(0, 9999, "Z"),
+                    new StateIntervalStub(10000, 39999, (Object) null),
+                    new StateIntervalStub(40000, 50000, (Object) null)),
+                    "Processes", "1", "2", "CallStack", "2"));
+            StateSystemTestUtils.testIntervals(ss, intervalInfos);
+        } finally {
+            csModule.dispose();
+        }
+    }
+
     private @NonNull TraceEventCallstackAnalysis getTraceEventModule(String path) throws Exception {
         TraceEventTrace trace = new TraceEventTrace();
         TraceEventCallstackAnalysis csModule = null;
@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.traceevent.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventField;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventParser;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.trace.TraceEventIndex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the {@link TraceEventIndex} of the sorted trace event files
+ */
+public class TraceEventIndexTest {
+
+    private static final int NB_EVENTS = 95;
+    private static final int INTERVAL = 10;
+
+    private Path fDir;
+    private File fSource;
+    private File fSorted;
+
+    /**
+     * Write a source file and its sorted file, with the time stamp of each
+     * event being twice its rank, in microseconds
+     *
+     * @throws IOException
+     *             If the files cannot be written
+     */
+    @Before
+    public void before() throws IOException {
+        fDir = Files.createTempDirectory("index");
+        List<String> events = new ArrayList<>();
+        events.add("{\"ph\":\"M\",\"ts\":0,\"pid\":1,\"tid\":2,\"name\":\"thread_name\",\"args\":{\"name\":\"main\"}}");
+        for (int i = 0; i < NB_EVENTS; i++) {
+            events.add("{\"ph\":\"i\",\"ts\":" + 2 * i + ",\"pid\":1,\"tid\":2,\"name\":\"event " + i + "\"}");
+            if (i == 50) {
+                events.add("{\"ts\":100,,}");
+                events.add("{\"ph\":\"M\",\"ts\":100,\"pid\":1,\"name\":\"process_name\",\"args\":{\"name\":\"proc\"}}");
+            }
+        }
+        fSource = fDir.resolve("trace.json").toFile();
+        Files.write(fSource.toPath(), "{\"traceEvents\":[]}".getBytes(StandardCharsets.UTF_8));
+        fSorted = fDir.resolve("sorted.json").toFile();
+        Files.write(fSorted.toPath(), ("[\n" + String.join(",\n", events) + "\n]\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Delete the test files
+     *
+     * @throws IOException
+     *             If the files cannot be deleted
+     */
+    @After
+    public void after() throws IOException {
+        File[] files = fDir.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                Files.delete(file.toPath());
+            }
+        }
+        Files.delete(fDir);
+    }
+
+    /**
+     * Test the checkpoints and the metadata of the index, and that the
+     * checkpoint offsets are where their events are read
+     *
+     * @throws IOException
+     *             If the sorted file cannot be read
+     */
+    @Test
+    public void testBuild() throws IOException {
+        TraceEventIndex index = TraceEventIndex.build(fSource, fSorted, INTERVAL);
+        assertEquals(NB_EVENTS, index.getNbEvents());
+        assertEquals(10, index.getNbCheckpoints());
+        assertEquals(2, index.getMetadata().size());
+        assertTrue(index.getMetadata().get(1).contains("process_name"));
+
+        try (RandomAccessFile input = new RandomAccessFile(fSorted, "r")) {
+            TraceEventParser parser = new TraceEventParser();
+            for (int checkpoint = 0; checkpoint < index.getNbCheckpoints(); checkpoint++) {
+                long rank = index.getRank(checkpoint);
+                assertEquals(checkpoint * INTERVAL, rank);
+                assertEquals(2000 * rank, index.getTimestamp(checkpoint));
+                input.seek(index.getOffset(checkpoint));
+                TraceEventField field = parser.readNextEvent(input);
+                while (field != null && field.getPhase() == 'M') {
+                    field = parser.readNextEvent(input);
+                }
+                assertNotNull(field);
+                assertEquals("event " + rank, field.getName());
+            }
+        }
+    }
+
+    /**
+     * Test finding the checkpoints of the ranks and time stamps
+     *
+     * @throws IOException
+     *             If the sorted file cannot be read
+     */
+    @Test
+    public void testCheckpoints() throws IOException {
+        TraceEventIndex index = TraceEventIndex.build(fSource, fSorted, INTERVAL);
+        assertEquals(0, index.getCheckpoint(-1));
+        assertEquals(0, index.getCheckpoint(9));
+        assertEquals(1, index.getCheckpoint(10));
+        assertEquals(9, index.getCheckpoint(94));
+        assertEquals(9, index.getCheckpoint(1000));
+
+        assertEquals(0, index.getCheckpointBefore(-1));
+        assertEquals(0, index.getCheckpointBefore(20000));
+        assertEquals(1, index.getCheckpointBefore(21000));
+        assertEquals(4, index.getCheckpointBefore(100000));
+        assertEquals(5, index.getCheckpointBefore(101000));
+        assertEquals(9, index.getCheckpointBefore(Long.MAX_VALUE));
+
+        Files.write(fSorted.toPath(), "[\n]\n".getBytes(StandardCharsets.UTF_8));
+        index = TraceEventIndex.build(fSource, fSorted, INTERVAL);
+        assertEquals(0, index.getNbEvents());
+        assertEquals(-1, index.getCheckpoint(5));
+        assertEquals(-1, index.getCheckpointBefore(5));
+    }
+
+    /**
+     * Test saving and loading the index, and that it is not loaded when the
+     * source file changed
+     *
+     * @throws IOException
+     *             If the index cannot be written or read
+     */
+    @Test
+    public void testSaveLoad() throws IOException {
+        assertNull(TraceEventIndex.load(fSource, fSorted));
+        TraceEventIndex index = TraceEventIndex.build(fSource, fSorted, INTERVAL);
+        index.save(fSorted);
+        File indexFile = TraceEventIndex.getIndexFile(fSorted);
+        assertTrue(indexFile.isFile());
+
+        TraceEventIndex loaded = TraceEventIndex.load(fSource, fSorted);
+        assertNotNull(loaded);
+        assertEquals(index.getInterval(), loaded.getInterval());
+        assertEquals(index.getNbEvents(), loaded.getNbEvents());
+        assertEquals(index.getMetadata(), loaded.getMetadata());
+        assertEquals(index.getNbCheckpoints(), loaded.getNbCheckpoints());
+        for (int checkpoint = 0; checkpoint < index.getNbCheckpoints(); checkpoint++) {
+            assertEquals(index.getTimestamp(checkpoint), loaded.getTimestamp(checkpoint));
+            assertEquals(index.getOffset(checkpoint), loaded.getOffset(checkpoint));
+        }
+
+        // The source file is modified
+        assertTrue(fSource.setLastModified(fSource.lastModified() - 10000));
+        assertNull(TraceEventIndex.load(fSource, fSorted));
+
+        // An index of another version is ignored
+        TraceEventIndex.build(fSource, fSorted, INTERVAL).save(fSorted);
+        assertNotNull(TraceEventIndex.load(fSource, fSorted));
+        try (RandomAccessFile file = new RandomAccessFile(indexFile, "rw")) {
+            file.seek(4);
+            file.writeInt(Integer.MAX_VALUE);
+        }
+        assertNull(TraceEventIndex.load(fSource, fSorted));
+
+        // Only the source, the sorted file and its index remain
+        List<String> files = new ArrayList<>();
+        Collections.addAll(files, fDir.toFile().list());
+        Collections.sort(files);
+        assertEquals(List.of("sorted.json", "sorted.json.index", "trace.json"), files);
+    }
+}
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.traceevent.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventField;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventParser;
+import org.junit.Test;
+
+/**
+ * Test the streaming parser of the trace event JSON objects
+ */
+public class TraceEventParserTest {
+
+    /**
+     * Test parsing the fields of an event
+     */
+    @Test
+    public void testParse() {
+        TraceEventField field = TraceEventParser.parse("{\"cat\":\"cc\",\"pid\":14689,\"tid\":\"14751\",\"ts\":172187.5,\"ph\":\"X\",\"name\":\"a \\\"quoted\\\" name\",\"dur\":[31],\"id\":\"0x1\"}");
+        assertNotNull(field);
+        assertEquals("a \"quoted\" name", field.getName());
+        assertEquals(172187500L, field.getTs());
+        assertEquals('X', field.getPhase());
+        assertEquals(14689L, ((Number) field.getPid()).longValue());
+        assertEquals("14751", field.getTid());
+        assertEquals("cc", field.getCategory());
+        assertEquals("0x1", field.getId());
+        assertEquals(Long.valueOf(31000L), field.getDuration());
+        assertNull(field.getArgs());
+    }
+
+    /**
+     * Test the numerical values of the process and thread IDs, parsed when the
+     * event is read
+     */
+    @Test
+    public void testIdValues() {
+        TraceEventField field = TraceEventParser.parse("{\"pid\":14689,\"tid\":\"14751\",\"ts\":1,\"ph\":\"X\"}");
+        assertNotNull(field);
+        assertEquals(14689, field.getPidValue());
+        assertEquals(14751, field.getTidValue());
+
+        field = TraceEventParser.parse("{\"pid\":\"Main\",\"tid\":\"99999999999\",\"ts\":1,\"ph\":\"X\"}");
+        assertNotNull(field);
+        assertEquals(TraceEventField.UNKNOWN_ID, field.getPidValue());
+        assertEquals(TraceEventField.UNKNOWN_ID, field.getTidValue());
+
+        field = TraceEventParser.parse("{\"pid\":1.5,\"ts\":1,\"ph\":\"X\"}");
+        assertNotNull(field);
+        assertEquals(TraceEventField.UNKNOWN_ID, field.getPidValue());
+        assertEquals(TraceEventField.UNKNOWN_ID, field.getTidValue());
+
+        assertEquals(42, TraceEventField.toIdValue(42L));
+        assertEquals(TraceEventField.UNKNOWN_ID, TraceEventField.toIdValue("-1"));
+        assertEquals(TraceEventField.UNKNOWN_ID, TraceEventField.toIdValue(""));
+    }
+
+    /**
+     * Test that the arguments are decoded as strings, with the objects and
+     * arrays kept as compact JSON
+     */
+    @Test
+    public void testArgs() {
+        TraceEventField field = TraceEventParser.parse("{\"ts\":1,\"ph\":\"i\",\"name\":\"e\",\"args\":{\"count\":3,\"on\":true,\"none\":null,\"text\":\"a\\tb\",\"state\":{ \"a\" : [1, 2.5], \"b\":{}}}}");
+        assertNotNull(field);
+        Map<String, Object> args = field.getArgs();
+        assertNotNull(args);
+        assertEquals(5, args.size());
+        assertEquals("3", args.get("count"));
+        assertEquals("true", args.get("on"));
+        assertEquals("null", args.get("none"));
+        assertEquals("a\tb", args.get("text"));
+        assertEquals("{\"a\":[1,2.5],\"b\":{}}", args.get("state"));
+        assertEquals("3", field.getContent().getFieldValue(String.class, "args/count"));
+    }
+
+    /**
+     * Test the lenient syntax that is accepted in the trace files
+     */
+    @Test
+    public void testLenient() {
+        TraceEventField field = TraceEventParser.parse("{\"name\": \"Mufasa\", pid: 52, 'ts': 100, \"ph\": \"N\", id=\"0x100\"; \"args\" => {song: circle}}");
+        assertNotNull(field);
+        assertEquals("Mufasa", field.getName());
+        assertEquals(100000L, field.getTs());
+        assertEquals("0x100", field.getId());
+        assertEquals(52L, ((Number) field.getPid()).longValue());
+        Map<String, Object> args = field.getArgs();
+        assertNotNull(args);
+        assertEquals("circle", args.get("song"));
+    }
+
+    /**
+     * Test the objects that are not events
+     */
+    @Test
+    public void testNotEvents() {
+        assertNull(TraceEventParser.parse("{}"));
+        assertNull(TraceEventParser.parse("{\"name\":\"no time stamp\"}"));
+    }
+
+    /**
+     * Test the objects that are not valid
+     */
+    @Test
+    public void testInvalid() {
+        String[] invalid = {
+                "{\"ts\":1,\"name\":\"a\"",
+                "{\"ts\":1,,\"name\":\"a\"}",
+                "{\"ts\":1 \"name\":\"a\"}",
+                "{\"ts\":1}}",
+                "{\"ts\":1,\"args\":[1]}",
+                "{\"ts\":1,\"name\":{}}",
+        };
+        for (String json : invalid) {
+            try {
+                TraceEventParser.parse(json);
+                fail("Invalid object parsed: " + json);
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+        }
+    }
+
+    /**
+     * Test reading the events of a file, skipping the invalid objects
+     *
+     * @throws IOException
+     *             If an error occurred while writing or reading the file
+     */
+    @Test
+    public void testReadNextEvent() throws IOException {
+        String json = "[{\"ts\":1,\"name\":\"a\"},\n{\"ts\":2,\"name\":\"{ b ]\"},\n{\"ts\":3,,},\n{\"name\":\"no time stamp\"},\n{\"ts\":4,\"name\":\"c\"}\n]\n{\"ts\":5,\"name\":\"after\"}";
+        File file = File.createTempFile("traceevent", ".json");
+        try {
+            Files.write(file.toPath(), json.getBytes(StandardCharsets.UTF_8));
+            try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+                TraceEventParser parser = new TraceEventParser();
+                TraceEventField field = parser.readNextEvent(input);
+                assertNotNull(field);
+                assertEquals("a", field.getName());
+                field = parser.readNextEvent(input);
+                assertNotNull(field);
+                assertEquals("{ b ]", field.getName());
+                field = parser.readNextEvent(input);
+                assertNotNull(field);
+                assertEquals("c", field.getName());
+                // The events end with the array
+                assertNull(parser.readNextEvent(input));
+            }
+        } finally {
+            Files.delete(file.toPath());
+        }
+    }
+}
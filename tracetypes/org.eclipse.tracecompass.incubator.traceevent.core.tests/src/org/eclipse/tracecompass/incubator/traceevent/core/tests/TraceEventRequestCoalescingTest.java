@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.traceevent.core.tests;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.analysis.context.ContextAnalysis;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.analysis.counter.TraceEventCounterAnalysis;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.analysis.objectlife.ObjectLifeAnalysis;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.trace.TraceEventTrace;
+import org.eclipse.tracecompass.tmf.core.analysis.IAnalysisModule;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.junit.Test;
+
+/**
+ * Test that the requests of the analyses run together on a trace event trace
+ * are coalesced
+ */
+public class TraceEventRequestCoalescingTest {
+
+    /**
+     * Trace event trace counting the events it reads
+     */
+    private static class CountingTraceEventTrace extends TraceEventTrace {
+        private final AtomicLong fReads = new AtomicLong();
+
+        @Override
+        public ITmfEvent parseEvent(ITmfContext context) {
+            fReads.incrementAndGet();
+            return super.parseEvent(context);
+        }
+    }
+
+    /**
+     * Test that analyses scheduled together read the trace once
+     *
+     * @throws TmfTraceException
+     *             should not happen
+     * @throws TmfAnalysisException
+     *             should not happen
+     */
+    @Test
+    public void testAnalysesReadTraceOnce() throws TmfTraceException, TmfAnalysisException {
+        CountingTraceEventTrace trace = new CountingTraceEventTrace();
+        ObjectLifeAnalysis objectLife = new ObjectLifeAnalysis();
+        ContextAnalysis context = new ContextAnalysis();
+        context.setId(ContextAnalysis.ID);
+        TraceEventCounterAnalysis counter = new TraceEventCounterAnalysis();
+        counter.setId("org.eclipse.tracecompass.incubator.traceevent.core.counter");
+        List<IAnalysisModule> modules = Arrays.asList(objectLife, context, counter);
+        try {
+            trace.initTrace(null, "traces/object_alloc.json", ITmfEvent.class);
+            trace.indexTrace(true);
+            // Remove the state systems built by other tests
+            File[] suppFiles = new File(TmfTraceManager.getSupplementaryFileDir(trace)).listFiles();
+            if (suppFiles != null) {
+                for (File file : suppFiles) {
+                    if (file.getName().endsWith(".ht")) {
+                        file.delete();
+                    }
+                }
+            }
+            long nbEvents = trace.getNbEvents();
+            assertTrue(nbEvents > 0);
+            for (IAnalysisModule module : modules) {
+                assertTrue(module.setTrace(trace));
+            }
+
+            trace.fReads.set(0);
+            for (IAnalysisModule module : modules) {
+                module.schedule();
+            }
+            for (IAnalysisModule module : modules) {
+                assertTrue(module.waitForCompletion());
+            }
+
+            long reads = trace.fReads.get();
+            assertTrue("Events read: " + reads, reads >= nbEvents && reads < 2 * nbEvents);
+        } finally {
+            for (IAnalysisModule module : modules) {
+                module.dispose();
+            }
+            trace.dispose();
+        }
+    }
+}
@@ -11,15 +11,13 @@
 
 package org.eclipse.tracecompass.incubator.internal.traceevent.core.analysis.callstack;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Deque;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
-import java.util.TreeMap;
 import java.util.function.Function;
 
 import org.apache.commons.lang3.StringUtils;
@@ -34,6 +32,7 @@ import org.eclipse.tracecompass.analysis.profiling.core.instrumented.Instrumente
 import org.eclipse.tracecompass.analysis.profiling.core.model.IHostModel;
 import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.ITraceEventConstants;
 import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventAspects;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventEvent;
 import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventField;
 import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventPhases;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
@@ -76,9 +75,19 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
     private ITmfTimestamp fSafeTime;
 
     /**
-     * A map of tid/stacks of timestamps
+     * The end times of the complete events that are not closed yet, a stack
+     * per call stack quark
      */
-    private final Map<Integer, Deque<Long>> fStack = new TreeMap<>();
+    private EndTimeStack[] fStacks = new EndTimeStack[0];
+    /**
+     * The call stack quarks that have complete events to close
+     */
+    private final BitSet fOpenQuarks = new BitSet();
+    /**
+     * No complete event needs to be closed before this time, it is at most the
+     * smallest end time at the top of the stacks
+     */
+    private long fNextEndTime = Long.MAX_VALUE;
 
     private final ITmfEventAspect<?> fIdAspect;
 
@@ -96,22 +105,32 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
      * Cache of trace event scope ID string to their parsed values
      */
     private final Map<EventTreeKey, Integer> fIdCache = new HashMap<>();
+    /**
+     * Key reused to look up the maps of the flows, it is copied when it is
+     * stored in a map
+     */
+    private final EventTreeKey fLookupKey = new EventTreeKey(StringUtils.EMPTY, StringUtils.EMPTY, null);
 
     private static class EventTreeKey {
-        private final String fCategory;
-        private final String fId;
-        private final @Nullable String fScope;
+        private String fCategory;
+        private String fId;
+        private @Nullable String fScope;
 
-        public EventTreeKey(String category, String id) {
+        public EventTreeKey(String category, String id, @Nullable String scope) {
             fCategory = category;
             fId = id;
-            fScope = null;
+            fScope = scope;
         }
 
-        public EventTreeKey(String category, String id, String scope) {
+        public EventTreeKey set(String category, String id, @Nullable String scope) {
             fCategory = category;
             fId = id;
             fScope = scope;
+            return this;
+        }
+
+        public EventTreeKey copy() {
+            return new EventTreeKey(fCategory, fId, fScope);
         }
 
         @Override
@@ -138,6 +157,33 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
         }
     }
 
+    /**
+     * Stack of primitive end times
+     */
+    private static class EndTimeStack {
+        private long[] fEndTimes = new long[4];
+        private int fSize = 0;
+
+        public boolean isEmpty() {
+            return fSize == 0;
+        }
+
+        public void push(long endTime) {
+            if (fSize == fEndTimes.length) {
+                fEndTimes = Arrays.copyOf(fEndTimes, fSize * 2);
+            }
+            fEndTimes[fSize++] = endTime;
+        }
+
+        public long peek() {
+            return fEndTimes[fSize - 1];
+        }
+
+        public long pop() {
+            return fEndTimes[--fSize];
+        }
+    }
+
     /**
      * Constructor
      *
@@ -162,7 +208,12 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
         if (pName != null) {
             return String.format("%s (%s)", pName, getProcessId(event)); //$NON-NLS-1$
         }
-        pName = event.getContent().getFieldValue(String.class, ITraceEventConstants.PID);
+        if (event instanceof TraceEventEvent) {
+            Object pid = ((TraceEventEvent) event).getField().getPid();
+            pName = pid instanceof String ? (String) pid : null;
+        } else {
+            pName = event.getContent().getFieldValue(String.class, ITraceEventConstants.PID);
+        }
 
         if (pName == null) {
             int processId = getProcessId(event);
@@ -178,7 +229,10 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
         if (tName != null) {
             return String.format("%s (%s)", tName, getThreadId(event)); //$NON-NLS-1$
         }
-        tName = event.getContent().getFieldValue(String.class, "tname"); //$NON-NLS-1$
+        if (!(event instanceof TraceEventEvent)) {
+            // The trace event events have no thread name field
+            tName = event.getContent().getFieldValue(String.class, "tname"); //$NON-NLS-1$
+        }
 
         if (tName == null) {
             long threadId = getThreadId(event);
@@ -190,6 +244,11 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
 
     @Override
     protected int getProcessId(@NonNull ITmfEvent event) {
+        if (event instanceof TraceEventEvent) {
+            // The trace event traces have no other source of PID
+            int pid = ((TraceEventEvent) event).getField().getPidValue();
+            return pid == TraceEventField.UNKNOWN_ID ? UNKNOWN_PID : pid;
+        }
         Integer pid = TmfTraceUtils.resolveIntEventAspectOfClassForEvent(event.getTrace(), LinuxPidAspect.class, event);
         if (pid == null) {
             // Fallback to a pid field in the event
@@ -200,6 +259,11 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
 
     @Override
     protected long getThreadId(@NonNull ITmfEvent event) {
+        if (event instanceof TraceEventEvent) {
+            // The TID aspect of the trace event traces resolves to this value
+            int tid = ((TraceEventEvent) event).getField().getTidValue();
+            return tid == TraceEventField.UNKNOWN_ID ? IHostModel.UNKNOWN_TID : tid;
+        }
         Integer tid = TmfTraceUtils.resolveIntEventAspectOfClassForEvent(event.getTrace(), LinuxTidAspect.class, event);
         if (tid == null) {
             // Fallback to a tid field in the event
@@ -220,8 +284,21 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
 
     @Override
     protected boolean considerEvent(@NonNull ITmfEvent event) {
-        String ph = event.getContent().getFieldValue(String.class, ITraceEventConstants.PHASE);
-        return (ph != null);
+        return getPhase(event) != null;
+    }
+
+    private static @Nullable String getPhase(ITmfEvent event) {
+        if (event instanceof TraceEventEvent) {
+            return TraceEventPhases.fromChar(((TraceEventEvent) event).getField().getPhase());
+        }
+        return event.getContent().getFieldValue(String.class, ITraceEventConstants.PHASE);
+    }
+
+    private static @Nullable Number getDuration(ITmfEvent event) {
+        if (event instanceof TraceEventEvent) {
+            return ((TraceEventEvent) event).getField().getDuration();
+        }
+        return event.getContent().getFieldValue(Number.class, ITraceEventConstants.DURATION);
     }
 
     @Override
@@ -233,7 +310,7 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
     }
 
     private static boolean isEntry(ITmfEvent event) {
-        String phase = event.getContent().getFieldValue(String.class, ITraceEventConstants.PHASE);
+        String phase = getPhase(event);
         return TraceEventPhases.NESTABLE_START.equals(phase) || TraceEventPhases.DURATION_START.equals(phase);
     }
 
@@ -246,13 +323,14 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
     }
 
     private static boolean isExit(ITmfEvent event) {
-        String phase = event.getContent().getFieldValue(String.class, ITraceEventConstants.PHASE);
+        String phase = getPhase(event);
         return TraceEventPhases.NESTABLE_END.equals(phase) || TraceEventPhases.DURATION_END.equals(phase);
     }
 
     @Override
     protected void eventHandle(ITmfEvent event) {
-        if (!considerEvent(event)) {
+        String phase = getPhase(event);
+        if (phase == null) {
             return;
         }
         ITmfStateSystemBuilder ss = Objects.requireNonNull(getStateSystemBuilder());
@@ -260,49 +338,41 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
         /* Check if the event is a function entry */
         long timestamp = event.getTimestamp().toNanos();
         updateCloseCandidates(ss, timestamp);
-        String processName = getProcessName(event);
-        String ph = event.getContent().getFieldValue(String.class, ITraceEventConstants.PHASE);
-        if (ph == null) {
-            return;
-        }
-        switch (ph) {
+        switch (phase) {
         case TraceEventPhases.NESTABLE_INSTANT:
-            handleInstant(event, ss, timestamp, processName);
-            break;
         case TraceEventPhases.INSTANT:
-            handleInstant(event, ss, timestamp, processName);
+            handleInstant(event, ss, timestamp, getProcessName(event));
             break;
         case TraceEventPhases.NESTABLE_START:
-            handleStart(event, ss, timestamp, processName + ASYNC_SUFFIX);
+            handleStart(event, ss, timestamp, getProcessName(event) + ASYNC_SUFFIX);
             break;
         case TraceEventPhases.DURATION_START:
-            handleStart(event, ss, timestamp, processName);
+            handleStart(event, ss, timestamp, getProcessName(event));
             break;
 
         case TraceEventPhases.DURATION:
-            Number duration = event.getContent().getFieldValue(Number.class, ITraceEventConstants.DURATION);
-            if (duration != null) {
-                handleComplete(event, ss, processName);
+            if (getDuration(event) != null) {
+                handleComplete(event, ss, getProcessName(event));
             }
             break;
 
         case TraceEventPhases.NESTABLE_END:
-            handleEnd(event, ss, timestamp, processName + ASYNC_SUFFIX);
+            handleEnd(event, ss, timestamp, getProcessName(event) + ASYNC_SUFFIX);
             break;
         case TraceEventPhases.DURATION_END:
-            handleEnd(event, ss, timestamp, processName);
+            handleEnd(event, ss, timestamp, getProcessName(event));
             break;
 
         case TraceEventPhases.FLOW_START:
-            updateSLinks(event, ss, timestamp, processName);
+            updateSLinks(event, ss, timestamp, getProcessName(event));
             break;
 
         case TraceEventPhases.FLOW_STEP:
-            updateTLinks(event, ss, timestamp, processName);
+            updateTLinks(event, ss, timestamp, getProcessName(event));
             break;
 
         case TraceEventPhases.FLOW_END:
-            updateFLinks(event, ss, timestamp, processName);
+            updateFLinks(event, ss, timestamp, getProcessName(event));
             break;
         default:
             return;
@@ -310,23 +380,64 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
     }
 
     private void updateCloseCandidates(ITmfStateSystemBuilder ss, long timestamp) {
-        for (Entry<Integer, Deque<Long>> stackEntry : fStack.entrySet()) {
-            Deque<Long> stack = stackEntry.getValue();
-            if (!stack.isEmpty()) {
-                Long closeCandidate = stack.pop();
-                while (closeCandidate != null && closeCandidate < timestamp) {
-                    ss.popAttribute(closeCandidate, stackEntry.getKey());
-                    closeCandidate = (stack.isEmpty()) ? null : stack.pop();
-                }
-                if (closeCandidate != null) {
-                    stack.push(closeCandidate);
-                }
+        if (timestamp <= fNextEndTime) {
+            // No complete event ends before this event
+            return;
+        }
+        long nextEndTime = Long.MAX_VALUE;
+        for (int quark = fOpenQuarks.nextSetBit(0); quark >= 0; quark = fOpenQuarks.nextSetBit(quark + 1)) {
+            EndTimeStack stack = fStacks[quark];
+            long popTime = Long.MIN_VALUE;
+            while (!stack.isEmpty() && stack.peek() < timestamp) {
+                /*
+                 * A complete event that ends before a complete event it
+                 * contains is closed with it, the state system cannot go back
+                 * in time
+                 */
+                popTime = Math.max(popTime, stack.pop());
+                ss.popAttribute(popTime, quark);
+            }
+            if (stack.isEmpty()) {
+                fOpenQuarks.clear(quark);
+            } else {
+                nextEndTime = Math.min(nextEndTime, stack.peek());
             }
         }
+        fNextEndTime = nextEndTime;
+    }
+
+    private void pushEndTime(int quark, long endTime) {
+        if (quark >= fStacks.length) {
+            fStacks = Arrays.copyOf(fStacks, Math.max(quark + 1, fStacks.length * 2));
+        }
+        EndTimeStack stack = fStacks[quark];
+        if (stack == null) {
+            stack = new EndTimeStack();
+            fStacks[quark] = stack;
+        }
+        stack.push(endTime);
+        fOpenQuarks.set(quark);
+        fNextEndTime = Math.min(fNextEndTime, endTime);
     }
 
+    /**
+     * Get the key of the flow of an event. The key is reused from one event to
+     * the next, it must be copied to be stored.
+     */
     private EventTreeKey getEventTreeKey(ITmfEvent event) {
-        String sId = event.getContent().getFieldValue(String.class, ITraceEventConstants.ID);
+        String sId;
+        String sCat;
+        String sScope;
+        if (event instanceof TraceEventEvent) {
+            TraceEventField field = ((TraceEventEvent) event).getField();
+            sId = field.getId();
+            sCat = field.getCategory();
+            sScope = field.getScope();
+        } else {
+            sId = event.getContent().getFieldValue(String.class, ITraceEventConstants.ID);
+            sCat = event.getContent().getFieldValue(String.class, ITraceEventConstants.CATEGORY);
+            sScope = event.getContent().getFieldValue(String.class, ITraceEventConstants.SCOPE);
+        }
         if (sId == null) {
             Object resolve = fIdAspect.resolve(event);
             if (resolve == null) {
@@ -334,7 +445,6 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
             }
             sId = String.valueOf(resolve);
         }
-        String sCat = event.getContent().getFieldValue(String.class, ITraceEventConstants.CATEGORY);
         if (sCat == null) {
             Object resolve = fCatAspect.resolve(event);
             if (resolve == null) {
@@ -342,10 +452,16 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
             }
             sCat = String.valueOf(resolve);
         }
-        String sScope = event.getContent().getFieldValue(String.class, ITraceEventConstants.SCOPE);
-
-        return (sScope == null) ? new EventTreeKey(sCat, sId) : new EventTreeKey(sCat, sId, sScope);
+        return fLookupKey.set(sCat, sId, sScope);
+    }
 
+    private int getIdValue(EventTreeKey key) {
+        Integer id = fIdCache.get(key);
+        if (id == null) {
+            id = FUNCTION.apply(key);
+            fIdCache.put(key.copy(), id);
+        }
+        return id;
     }
 
     private void updateFLinks(ITmfEvent event, ITmfStateSystemBuilder ss, long ts, String processName) {
@@ -375,7 +491,7 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
         if (srcHostThread != null) {
             int edgeQuark = getAvailableEdgeQuark(ss, startTime);
 
-            Object edgeStateValue = new EdgeStateValue(fIdCache.computeIfAbsent(key, FUNCTION), srcHostThread, currHostThread);
+            Object edgeStateValue = new EdgeStateValue(getIdValue(key), srcHostThread, currHostThread);
             ss.modifyAttribute(startTime, edgeStateValue, edgeQuark);
             ss.modifyAttribute(ts, (Object) null, edgeQuark);
         }
@@ -428,14 +544,15 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
         if (srcHostThread != null) {
             int edgeQuark = getAvailableEdgeQuark(ss, startTime);
 
-            Object edgeStateValue = new EdgeStateValue(fIdCache.computeIfAbsent(key, FUNCTION), srcHostThread, currHostThread);
+            Object edgeStateValue = new EdgeStateValue(getIdValue(key), srcHostThread, currHostThread);
             ss.modifyAttribute(startTime, edgeStateValue, edgeQuark);
             ss.modifyAttribute(ts, (Object) null, edgeQuark);
 
         }
         // update data for next edge
-        fEdgeStartTimes.put(key, ts);
-        fEdgeSrcHosts.put(key, currHostThread);
+        EventTreeKey storedKey = key.copy();
+        fEdgeStartTimes.put(storedKey, ts);
+        fEdgeSrcHosts.put(storedKey, currHostThread);
     }
 
     private boolean validateEnclosingSlice(@NonNull ITmfEvent event, ITmfStateSystemBuilder ss, long ts, String processName, int tid) {
@@ -477,8 +594,9 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
             return;
         }
 
-        fEdgeStartTimes.put(key, ts);
-        fEdgeSrcHosts.put(key, currHostThread);
+        EventTreeKey storedKey = key.copy();
+        fEdgeStartTimes.put(storedKey, ts);
+        fEdgeSrcHosts.put(storedKey, currHostThread);
     }
 
     /**
@@ -614,7 +732,7 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
         int processQuark = ss.getQuarkAbsoluteAndAdd(PROCESSES, currentProcessName);
         long startTime = event.getTimestamp().toNanos();
         long end = startTime;
-        Number duration = event.getContent().getFieldValue(Number.class, ITraceEventConstants.DURATION);
+        Number duration = getDuration(event);
         if (duration != null) {
             end += Math.max(duration.longValue(), 0);
         }
@@ -628,8 +746,7 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
 
         int callStackQuark = ss.getQuarkRelativeAndAdd(threadQuark, InstrumentedCallStackAnalysis.CALL_STACK);
         ss.pushAttribute(startTime, event.getName(), callStackQuark);
-        Deque<Long> stack = fStack.computeIfAbsent(callStackQuark, ArrayDeque::new);
-        stack.push(end);
+        pushEndTime(callStackQuark, end);
     }
 
 }
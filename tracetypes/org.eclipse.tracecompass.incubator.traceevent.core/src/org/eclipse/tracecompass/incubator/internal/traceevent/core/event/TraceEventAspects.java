@@ -18,12 +18,10 @@ import java.util.logging.Level;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.analysis.os.linux.core.event.aspect.LinuxTidAspect;
-import org.eclipse.tracecompass.incubator.internal.traceevent.core.trace.TraceEventTrace;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.event.aspect.ITmfEventAspect;
 import org.eclipse.tracecompass.tmf.core.event.aspect.TmfBaseAspects;
 import org.eclipse.tracecompass.tmf.core.event.lookup.ITmfCallsite;
-import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 
 /**
  * Aspects for Trace Compass Logs
@@ -160,14 +158,10 @@ public class TraceEventAspects {
         @Override
         public @Nullable Integer resolve(@NonNull ITmfEvent event) {
             if (event instanceof TraceEventEvent) {
-                ITmfTrace trace = event.getTrace();
-                Object tid = ((TraceEventEvent) event).getField().getTid();
-                if (trace instanceof TraceEventTrace) {
-                    TraceEventTrace traceEventTrace = (TraceEventTrace) trace;
-                    return traceEventTrace.registerTid(tid);
-                }
-                if (tid instanceof Integer) {
-                    return (Integer) tid;
+                // The TID is parsed once, when the event is read
+                int tid = ((TraceEventEvent) event).getField().getTidValue();
+                if (tid != TraceEventField.UNKNOWN_ID) {
+                    return tid;
                 }
             }
             return null;
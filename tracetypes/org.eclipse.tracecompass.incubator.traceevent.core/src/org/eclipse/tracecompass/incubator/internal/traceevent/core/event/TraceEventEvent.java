@@ -44,7 +44,11 @@ public class TraceEventEvent extends TmfEvent implements ITmfSourceLookup {
      *            the event field, contains all the needed data
      */
     public TraceEventEvent(ITmfTrace trace, long rank, TraceEventField field) {
-        super(trace, rank, trace.createTimestamp(field.getTs()), TraceEventLookup.get(field.getPhase()), field.getContent());
+        /*
+         * The content is not given to the parent, it is only decoded from the
+         * field when it is accessed
+         */
+        super(trace, rank, trace.createTimestamp(field.getTs()), TraceEventLookup.get(field.getPhase()), null);
         fField = field;
         fName = field.getName();
         fLogLevel = Level.INFO;
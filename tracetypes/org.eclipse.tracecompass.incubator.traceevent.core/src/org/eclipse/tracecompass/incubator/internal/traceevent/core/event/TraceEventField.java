@@ -11,9 +11,7 @@
 
 package org.eclipse.tracecompass.incubator.internal.traceevent.core.event;
 
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Map.Entry;
 import java.util.stream.Collectors;
 
@@ -23,11 +21,6 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
 import org.eclipse.tracecompass.tmf.core.event.TmfEventField;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonPrimitive;
-
 /**
  * Trace Event fields. Used as a quick wrapper for Trace Event log data.
  *
@@ -44,20 +37,27 @@ public class TraceEventField {
      * Name of exit duration events when no other name is available
      */
     public static final String UNKNOWN_DURATION_EXIT_EVENT = "duration exit"; //$NON-NLS-1$
+    /**
+     * Value of the numerical process and thread IDs that are not known
+     */
+    public static final int UNKNOWN_ID = -1;
     private static final double MICRO_TO_NANO = 1000.0;
 
     private final long fTs;
     private final char fPhase;
     private final String fName;
-    private ITmfEventField fContent;
-    private final @Nullable Map<String, Object> fArgs;
+    private final Map<String, Object> fFields;
+    private byte @Nullable [] fRawArgs;
+    private volatile @Nullable ITmfEventField fContent;
+    private @Nullable Map<String, Object> fArgs;
     private final @Nullable Object fTid;
     private final @Nullable String fCategory;
     private final @Nullable String fId;
     private final @Nullable Long fDuration;
     private final @Nullable Object fPid;
-
-    private static final Gson G_SON = new Gson();
+    private final @Nullable String fScope;
+    private final int fPidValue;
+    private final int fTidValue;
 
     /**
      * Parse a JSON string
@@ -69,89 +69,7 @@ public class TraceEventField {
     public static @Nullable TraceEventField parseJson(String fieldsString) {
         // looks like this
         // {"ts":94824347413117,"phase":"B","tid":39,"name":"TimeGraphView:BuildThread","args"={"trace":"django-httpd"}}
-        JsonObject root;
-        Map<@NonNull String, @NonNull Object> argsMap = new HashMap<>();
-        root = G_SON.fromJson(fieldsString, JsonObject.class);
-        long ts = 0;
-        if (root.size() == 0) {
-            return null;
-        }
-        JsonElement timestamp = root.get(ITraceEventConstants.TIMESTAMP);
-        if (timestamp == null) {
-            return null;
-        }
-        Double tso = timestamp.getAsDouble();
-        if (Double.isFinite(tso)) {
-            ts = (long) (tso * MICRO_TO_NANO);
-        }
-        String phase = optString(root, ITraceEventConstants.PHASE, "I"); //$NON-NLS-1$
-        if (phase == null) {
-            // FIXME: Easy way to avoid null warning
-            phase = "I"; //$NON-NLS-1$
-        }
-        // We differentiate between the duration exit and the other exits for some reason
-        String name = String.valueOf(optString(root, ITraceEventConstants.NAME,  TraceEventPhases.DURATION_END.equals(phase) ? UNKNOWN_DURATION_EXIT_EVENT : UNKNOWN_EXIT_EVENT));
-        String tid = optString(root, ITraceEventConstants.TID, null);
-        JsonElement jsonElement = root.get(ITraceEventConstants.PID);
-        JsonPrimitive primitive = jsonElement == null ? null : jsonElement.isJsonPrimitive() ? jsonElement.getAsJsonPrimitive() : null;
-        Object pid = primitive == null ? null : primitive.isNumber() ? primitive.getAsNumber() : primitive.isString() ? primitive.getAsString() : null;
-        Double duration = optDouble(root, ITraceEventConstants.DURATION);
-        if (Double.isFinite(duration)) {
-            duration = (duration * MICRO_TO_NANO);
-        }
-        String category = optString(root, ITraceEventConstants.CATEGORY);
-        String id = optString(root, ITraceEventConstants.ID);
-        String scope = optString(root, ITraceEventConstants.SCOPE);
-        JsonObject args = optJSONObject(root, ITraceEventConstants.ARGS);
-        if (args != null) {
-            for (Entry<String, JsonElement> entry : args.entrySet()) {
-                String key = Objects.requireNonNull(entry.getKey());
-                JsonElement element = Objects.requireNonNull(entry.getValue());
-                String value = String.valueOf(element.isJsonPrimitive() ? element.getAsJsonPrimitive().getAsString() : element.toString());
-                argsMap.put(ITraceEventConstants.ARGS + "/" + key, value); //$NON-NLS-1$
-            }
-        }
-        argsMap.put(ITraceEventConstants.TIMESTAMP, timestamp.getAsString());
-        argsMap.put(ITraceEventConstants.PHASE, phase);
-        argsMap.put(ITraceEventConstants.NAME, name);
-        if (tid != null) {
-            argsMap.put(ITraceEventConstants.TID, tid);
-        }
-        if (pid != null) {
-            argsMap.put(ITraceEventConstants.PID, pid);
-        }
-        if (Double.isFinite(duration)) {
-            argsMap.put(ITraceEventConstants.DURATION, duration);
-        }
-        if (category != null) {
-            argsMap.put(ITraceEventConstants.CATEGORY, category);
-        }
-        if (id != null) {
-            argsMap.put(ITraceEventConstants.ID, id);
-        }
-        if (scope != null) {
-            argsMap.put(ITraceEventConstants.SCOPE, scope);
-        }
-        return new TraceEventField(name, ts, phase, pid, tid, category, id, duration, argsMap);
-    }
-
-    private static double optDouble(JsonObject root, String key) {
-        JsonElement jsonElement = root.get(key);
-        return jsonElement != null ? jsonElement.getAsDouble() : Double.NaN;
-    }
-
-    private static @Nullable JsonObject optJSONObject(JsonObject root, String key) {
-        JsonElement jsonElement = root.get(key);
-        return jsonElement != null ? jsonElement.getAsJsonObject() : null;
-    }
-
-    private static @Nullable String optString(JsonObject root, String key, @Nullable String defaultValue) {
-        JsonElement jsonElement = root.get(key);
-        return jsonElement != null ? jsonElement.getAsString() : defaultValue;
-    }
-
-    private static @Nullable String optString(JsonObject root, String key) {
-        return optString(root, key, null);
+        return TraceEventParser.parse(fieldsString);
     }
 
     /**
@@ -177,19 +95,103 @@ public class TraceEventField {
      *            event fields (arguments)
      */
     protected TraceEventField(String name, long ts, String phase, @Nullable Object pid, @Nullable Object tid, @Nullable String category, @Nullable String id, @Nullable Double duration, Map<String, Object> fields) {
+        this(name, ts, phase, pid, tid, category, id, duration, fields, null);
+    }
+
+    /**
+     * Constructor with the arguments still in raw JSON, they are decoded when
+     * the content or the arguments are first accessed
+     *
+     * @param name
+     *            event name
+     * @param ts
+     *            the timestamp in ns
+     * @param phase
+     *            the phase of the event
+     * @param pid
+     *            the process id
+     * @param tid
+     *            the threadId
+     * @param category
+     *            the category
+     * @param id
+     *            the ID of the event stream
+     * @param duration
+     *            the duration in ns
+     * @param fields
+     *            event fields, without the arguments
+     * @param rawArgs
+     *            the JSON object of the arguments, or null if there are none
+     */
+    TraceEventField(String name, long ts, String phase, @Nullable Object pid, @Nullable Object tid, @Nullable String category, @Nullable String id, @Nullable Double duration, Map<String, Object> fields, byte @Nullable [] rawArgs) {
         fName = name;
         fPid = pid;
         fTid = tid;
         fCategory = category;
         fId = id;
-        ITmfEventField[] array = fields.entrySet().stream()
-                .map(entry -> new TmfEventField(entry.getKey(), entry.getValue(), null))
-                .toArray(ITmfEventField[]::new);
-        fContent = new TmfEventField(ITmfEventField.ROOT_FIELD_ID, fields, array);
-        fields.put(ITraceEventConstants.TIMESTAMP, ts / MICRO_TO_NANO);
+        fFields = fields;
+        fRawArgs = rawArgs;
         fTs = ts;
         fDuration = duration == null ? null : Double.isFinite(duration) ? duration.longValue() : null;
         fPhase = phase.charAt(0);
+        Object scope = fields.get(ITraceEventConstants.SCOPE);
+        fScope = scope instanceof String ? (String) scope : null;
+        fPidValue = toIdValue(pid);
+        fTidValue = toIdValue(tid);
+    }
+
+    /**
+     * Get the numerical value of a process or thread ID. It is normally a
+     * number, but a best effort is made for string IDs.
+     *
+     * @param id
+     *            the ID, as read in the event
+     * @return the value of the ID, or {@link #UNKNOWN_ID} if it is not an
+     *         integer
+     */
+    public static int toIdValue(@Nullable Object id) {
+        if (id instanceof Integer) {
+            return (Integer) id;
+        }
+        if (id instanceof Number) {
+            Number number = (Number) id;
+            long value = number.longValue();
+            return (value == number.doubleValue() && value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) ? (int) value : UNKNOWN_ID;
+        }
+        if (!(id instanceof String)) {
+            return UNKNOWN_ID;
+        }
+        String string = (String) id;
+        if (string.isEmpty() || string.length() > 10) {
+            return UNKNOWN_ID;
+        }
+        long value = 0;
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c < '0' || c > '9') {
+                return UNKNOWN_ID;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value <= Integer.MAX_VALUE ? (int) value : UNKNOWN_ID;
+    }
+
+    private synchronized ITmfEventField decodeContent() {
+        ITmfEventField content = fContent;
+        if (content != null) {
+            return content;
+        }
+        Map<String, Object> fields = fFields;
+        byte[] rawArgs = fRawArgs;
+        if (rawArgs != null) {
+            TraceEventParser.decodeArgs(rawArgs, fields);
+            fRawArgs = null;
+        }
+        ITmfEventField[] array = fields.entrySet().stream()
+                .map(entry -> new TmfEventField(entry.getKey(), entry.getValue(), null))
+                .toArray(ITmfEventField[]::new);
+        content = new TmfEventField(ITmfEventField.ROOT_FIELD_ID, fields, array);
+        fields.put(ITraceEventConstants.TIMESTAMP, fTs / MICRO_TO_NANO);
         @SuppressWarnings("null")
         Map<@NonNull String, @NonNull Object> args = fields.entrySet().stream()
                 .filter(entry -> {
@@ -197,7 +199,8 @@ public class TraceEventField {
                 })
                 .collect(Collectors.toMap(entry -> entry.getKey().substring(5), Entry::getValue));
         fArgs = args.isEmpty() ? null : args;
-
+        fContent = content;
+        return content;
     }
 
     /**
@@ -215,7 +218,11 @@ public class TraceEventField {
      * @return the event content
      */
     public ITmfEventField getContent() {
-        return fContent;
+        ITmfEventField content = fContent;
+        if (content == null) {
+            content = decodeContent();
+        }
+        return content;
     }
 
     /**
@@ -254,6 +261,17 @@ public class TraceEventField {
         return fTid;
     }
 
+    /**
+     * Get the numerical value of the TID of the event, parsed when the event
+     * is read
+     *
+     * @return the TID, or {@link #UNKNOWN_ID} if the event has no numerical
+     *         TID
+     */
+    public int getTidValue() {
+        return fTidValue;
+    }
+
     /**
      * Get the timestamp
      *
@@ -283,6 +301,26 @@ public class TraceEventField {
         return fPid;
     }
 
+    /**
+     * Get the numerical value of the PID of the event, parsed when the event
+     * is read
+     *
+     * @return the PID, or {@link #UNKNOWN_ID} if the event has no numerical
+     *         PID
+     */
+    public int getPidValue() {
+        return fPidValue;
+    }
+
+    /**
+     * Get the scope of the event ID
+     *
+     * @return the scope, or null if the event has none
+     */
+    public @Nullable String getScope() {
+        return fScope;
+    }
+
     /**
      * Get the arguments passed
      *
@@ -290,6 +328,7 @@ public class TraceEventField {
      */
     @Nullable
     public Map<String, Object> getArgs() {
+        getContent();
         return fArgs;
     }
 }
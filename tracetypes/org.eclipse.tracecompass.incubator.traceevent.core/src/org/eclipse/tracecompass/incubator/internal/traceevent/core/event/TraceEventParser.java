@@ -0,0 +1,968 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.traceevent.core.event;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Streaming parser of Trace Event JSON events. The bytes of an event object are
+ * read from the file into a buffer that is reused from one event to the next,
+ * and the fields of the event are decoded directly from that buffer, without
+ * building a JSON tree. The arguments of the event are kept as raw JSON and
+ * only decoded when they are accessed.
+ *
+ * The values are interpreted like the Gson JSON elements they replace, for
+ * example a number read as a string keeps its literal text. The syntax is as
+ * lenient as Gson's, names and strings can be unquoted or single quoted, and
+ * names can be followed by "=" instead of ":".
+ *
+ * This class is not thread safe, each reader should have its own instance.
+ */
+@NonNullByDefault
+public final class TraceEventParser {
+
+    private static final double MICRO_TO_NANO = 1000.0;
+    private static final String ARGS_PREFIX = ITraceEventConstants.ARGS + '/';
+
+    /* Types of the JSON values */
+    private static final byte STRING = 0;
+    private static final byte NUMBER = 1;
+    private static final byte TRUE = 2;
+    private static final byte FALSE = 3;
+    private static final byte NULL = 4;
+    private static final byte OBJECT = 5;
+    private static final byte ARRAY = 6;
+    private static final byte UNQUOTED = 7;
+
+    /* Keys of the event object that are decoded */
+    private static final String[] KEYS = {
+            ITraceEventConstants.TIMESTAMP,
+            ITraceEventConstants.PHASE,
+            ITraceEventConstants.NAME,
+            ITraceEventConstants.TID,
+            ITraceEventConstants.PID,
+            ITraceEventConstants.DURATION,
+            ITraceEventConstants.CATEGORY,
+            ITraceEventConstants.ID,
+            ITraceEventConstants.SCOPE,
+            ITraceEventConstants.ARGS
+    };
+    private static final byte[][] KEY_BYTES = Arrays.stream(KEYS).map(key -> key.getBytes(StandardCharsets.US_ASCII)).toArray(byte[][]::new);
+    private static final int TS = 0;
+    private static final int PH = 1;
+    private static final int NAME = 2;
+    private static final int TID = 3;
+    private static final int PID = 4;
+    private static final int DUR = 5;
+    private static final int CAT = 6;
+    private static final int ID = 7;
+    private static final int SCOPE = 8;
+    private static final int ARGS = 9;
+
+    private byte[] fBuffer;
+    private int fLength;
+    private int fPosition;
+    private byte fElementType;
+
+    private final int[] fValueStarts = new int[KEYS.length];
+    private final int[] fValueEnds = new int[KEYS.length];
+    private final byte[] fValueTypes = new byte[KEYS.length];
+
+    /**
+     * Constructor
+     */
+    public TraceEventParser() {
+        this(new byte[4096], 0);
+    }
+
+    private TraceEventParser(byte[] buffer, int length) {
+        fBuffer = buffer;
+        fLength = length;
+    }
+
+    /**
+     * Parse a JSON string containing one event
+     *
+     * @param json
+     *            the JSON object of the event
+     * @return the event field, or null if the object is not an event
+     * @throws IllegalArgumentException
+     *             if the string is not a valid JSON object, or if a value
+     *             has the wrong type
+     */
+    public static @Nullable TraceEventField parse(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return new TraceEventParser(bytes, bytes.length).parseObject();
+    }
+
+    /**
+     * Read and parse the next event of the file. The objects that are not
+     * events or that cannot be parsed are skipped. The file is left right
+     * after the object of the event.
+     *
+     * @param input
+     *            the file, positioned in the array of events
+     * @return the event field, or null at the end of the events
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    public @Nullable TraceEventField readNextEvent(RandomAccessFile input) throws IOException {
+        while (readNextObject(input)) {
+            try {
+                TraceEventField field = parseObject();
+                if (field != null) {
+                    return field;
+                }
+            } catch (RuntimeException e) {
+                // Not a valid event, skip it
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Read the bytes of the next JSON object of the file into the buffer of
+     * this parser, to be parsed with {@link #parseObject()}. The file is left
+     * right after the object.
+     *
+     * @param input
+     *            the file, positioned in the array of events
+     * @return true if an object was read, false at the end of the array or of
+     *         the file
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    public boolean readNextObject(RandomAccessFile input) throws IOException {
+        fLength = 0;
+        int arrayDepth = 0;
+        int value = input.read();
+        while (value != '{') {
+            if (value == -1) {
+                return false;
+            } else if (value == '"') {
+                value = input.read();
+                while (value != '"' && value != -1) {
+                    if (value == '\\') {
+                        input.read();
+                    }
+                    value = input.read();
+                }
+            } else if (value == '[') {
+                arrayDepth++;
+            } else if (value == ']') {
+                if (arrayDepth == 0) {
+                    return false;
+                }
+                arrayDepth--;
+            }
+            value = input.read();
+        }
+        int depth = 0;
+        boolean inString = false;
+        while (value != -1) {
+            append(value);
+            if (inString) {
+                if (value == '\\') {
+                    value = input.read();
+                    if (value == -1) {
+                        return false;
+                    }
+                    append(value);
+                } else if (value == '"') {
+                    inString = false;
+                }
+            } else if (value == '"') {
+                inString = true;
+            } else if (value == '{' || value == '[') {
+                depth++;
+            } else if ((value == '}' || value == ']') && --depth == 0) {
+                return true;
+            }
+            value = input.read();
+        }
+        return false;
+    }
+
+    /**
+     * Parse the JSON object read by {@link #readNextObject(RandomAccessFile)}
+     *
+     * @return the event field, or null if the object is not an event
+     * @throws IllegalArgumentException
+     *             if the object is not valid JSON, or if a value has the wrong
+     *             type
+     */
+    public @Nullable TraceEventField parseObject() {
+        fPosition = 0;
+        Arrays.fill(fValueStarts, -1);
+        skipWhitespace();
+        expect('{');
+        skipWhitespace();
+        boolean empty = true;
+        if (peek() == '}') {
+            fPosition++;
+        } else {
+            while (true) {
+                skipWhitespace();
+                int keyStart = fPosition;
+                skipName();
+                int keyEnd = fPosition;
+                skipWhitespace();
+                skipNameSeparator();
+                skipWhitespace();
+                int valueStart = fPosition;
+                byte type = skipValue();
+                empty = false;
+                int key = findKey(keyStart, keyEnd);
+                if (key >= 0) {
+                    fValueStarts[key] = valueStart;
+                    fValueEnds[key] = fPosition;
+                    fValueTypes[key] = type;
+                }
+                skipWhitespace();
+                byte separator = next();
+                if (separator == '}') {
+                    break;
+                }
+                if (!isElementSeparator(separator)) {
+                    throw malformed();
+                }
+            }
+        }
+        skipWhitespace();
+        if (fPosition != fLength) {
+            throw malformed();
+        }
+        if (empty || fValueStarts[TS] < 0) {
+            return null;
+        }
+        return createField();
+    }
+
+    /**
+     * Get the JSON text of the object read by
+     * {@link #readNextObject(RandomAccessFile)}
+     *
+     * @return the JSON object, as it is in the file
+     */
+    public String getObject() {
+        return new String(fBuffer, 0, fLength, StandardCharsets.UTF_8);
+    }
+
+    private TraceEventField createField() {
+        double tso = getDouble(TS);
+        long ts = Double.isFinite(tso) ? (long) (tso * MICRO_TO_NANO) : 0;
+        String phase = getString(PH, "I"); //$NON-NLS-1$
+        // We differentiate between the duration exit and the other exits
+        String name = getString(NAME, TraceEventPhases.DURATION_END.equals(phase) ? TraceEventField.UNKNOWN_DURATION_EXIT_EVENT : TraceEventField.UNKNOWN_EXIT_EVENT);
+        String tid = getString(TID, null);
+        Object pid = getPrimitive(PID);
+        double duration = fValueStarts[DUR] < 0 ? Double.NaN : getDouble(DUR);
+        if (Double.isFinite(duration)) {
+            duration = duration * MICRO_TO_NANO;
+        }
+        String category = getString(CAT, null);
+        String id = getString(ID, null);
+        String scope = getString(SCOPE, null);
+        byte @Nullable [] args = null;
+        if (fValueStarts[ARGS] >= 0) {
+            if (fValueTypes[ARGS] != OBJECT) {
+                throw new IllegalArgumentException("Not a JSON Object: " + ITraceEventConstants.ARGS); //$NON-NLS-1$
+            }
+            args = Arrays.copyOfRange(fBuffer, fValueStarts[ARGS], fValueEnds[ARGS]);
+        }
+
+        Map<String, Object> fields = new HashMap<>();
+        fields.put(ITraceEventConstants.TIMESTAMP, getAsString(fValueTypes[TS], fValueStarts[TS], fValueEnds[TS]));
+        fields.put(ITraceEventConstants.PHASE, phase);
+        fields.put(ITraceEventConstants.NAME, name);
+        if (tid != null) {
+            fields.put(ITraceEventConstants.TID, tid);
+        }
+        if (pid != null) {
+            fields.put(ITraceEventConstants.PID, pid);
+        }
+        if (Double.isFinite(duration)) {
+            fields.put(ITraceEventConstants.DURATION, duration);
+        }
+        if (category != null) {
+            fields.put(ITraceEventConstants.CATEGORY, category);
+        }
+        if (id != null) {
+            fields.put(ITraceEventConstants.ID, id);
+        }
+        if (scope != null) {
+            fields.put(ITraceEventConstants.SCOPE, scope);
+        }
+        return new TraceEventField(name, ts, phase, pid, tid, category, id, duration, fields, args);
+    }
+
+    /**
+     * Decode the raw JSON arguments of an event, kept by the parser, into the
+     * fields of the event. Each argument is added with the "args/" prefix, its
+     * value is the string of a primitive value, or the JSON of an object or
+     * array.
+     *
+     * @param rawArgs
+     *            the raw JSON object of the arguments
+     * @param fields
+     *            the fields of the event to add the arguments to
+     */
+    static void decodeArgs(byte[] rawArgs, Map<String, Object> fields) {
+        TraceEventParser parser = new TraceEventParser(rawArgs, rawArgs.length);
+        for (Entry<String, String> entry : parser.readObjectEntries().entrySet()) {
+            fields.put(ARGS_PREFIX + entry.getKey(), entry.getValue());
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Values
+    // ------------------------------------------------------------------------
+
+    private @Nullable String getString(int key, @Nullable String defaultValue) {
+        int start = fValueStarts[key];
+        if (start < 0) {
+            return defaultValue;
+        }
+        return getAsString(fValueTypes[key], start, fValueEnds[key]);
+    }
+
+    private String getAsString(byte type, int start, int end) {
+        switch (type) {
+        case STRING:
+            return decodeString(start, end);
+        case NUMBER:
+        case UNQUOTED:
+            return new String(fBuffer, start, end - start, StandardCharsets.UTF_8);
+        case TRUE:
+            return Boolean.TRUE.toString();
+        case FALSE:
+            return Boolean.FALSE.toString();
+        case ARRAY:
+            // Like Gson, an array with a single element is that element
+            int elementStart = singleElement(start);
+            return getAsString(fElementType, elementStart, fPosition);
+        default:
+            throw new IllegalArgumentException("Not a JSON primitive at " + start); //$NON-NLS-1$
+        }
+    }
+
+    private double getDouble(int key) {
+        return getAsDouble(fValueTypes[key], fValueStarts[key], fValueEnds[key]);
+    }
+
+    private double getAsDouble(byte type, int start, int end) {
+        switch (type) {
+        case STRING:
+        case NUMBER:
+        case UNQUOTED:
+        case TRUE:
+        case FALSE:
+            return Double.parseDouble(getAsString(type, start, end));
+        case ARRAY:
+            int elementStart = singleElement(start);
+            return getAsDouble(fElementType, elementStart, fPosition);
+        default:
+            throw new IllegalArgumentException("Not a JSON primitive at " + start); //$NON-NLS-1$
+        }
+    }
+
+    private @Nullable Object getPrimitive(int key) {
+        int start = fValueStarts[key];
+        if (start < 0) {
+            return null;
+        }
+        int end = fValueEnds[key];
+        switch (fValueTypes[key]) {
+        case STRING:
+        case UNQUOTED:
+            return getAsString(fValueTypes[key], start, end);
+        case NUMBER:
+            return parseNumber(start, end);
+        default:
+            return null;
+        }
+    }
+
+    private Number parseNumber(int start, int end) {
+        boolean integral = true;
+        for (int i = start; i < end; i++) {
+            byte c = fBuffer[i];
+            if (c == '.' || c == 'e' || c == 'E') {
+                integral = false;
+                break;
+            }
+        }
+        String text = new String(fBuffer, start, end - start, StandardCharsets.US_ASCII);
+        if (integral && end - start < 19) {
+            return Long.parseLong(text);
+        }
+        return Double.parseDouble(text);
+    }
+
+    /**
+     * Find the single element of the array starting at the given position.
+     * The type of the element is kept in {@link #fElementType}, and the
+     * position is left at the end of the element.
+     */
+    private int singleElement(int arrayStart) {
+        int position = fPosition;
+        fPosition = arrayStart + 1;
+        skipWhitespace();
+        int elementStart = fPosition;
+        if (peek() != ']') {
+            byte type = skipValue();
+            int elementEnd = fPosition;
+            skipWhitespace();
+            if (peek() == ']') {
+                fElementType = type;
+                fPosition = elementEnd;
+                return elementStart;
+            }
+        }
+        fPosition = position;
+        throw new IllegalArgumentException("Not a single element array at " + arrayStart); //$NON-NLS-1$
+    }
+
+    /**
+     * Decode a string value, from its opening quote to after its closing quote
+     */
+    private String decodeString(int start, int end) {
+        int contentEnd = end - 1;
+        int escape = indexOf('\\', start + 1, contentEnd);
+        if (escape < 0) {
+            return new String(fBuffer, start + 1, contentEnd - start - 1, StandardCharsets.UTF_8);
+        }
+        StringBuilder sb = new StringBuilder(contentEnd - start);
+        int chunk = start + 1;
+        while (escape >= 0) {
+            sb.append(new String(fBuffer, chunk, escape - chunk, StandardCharsets.UTF_8));
+            chunk = escape + 2;
+            switch (fBuffer[escape + 1]) {
+            case 'u':
+                sb.append((char) Integer.parseInt(new String(fBuffer, escape + 2, 4, StandardCharsets.US_ASCII), 16));
+                chunk = escape + 6;
+                break;
+            case 't':
+                sb.append('\t');
+                break;
+            case 'b':
+                sb.append('\b');
+                break;
+            case 'n':
+                sb.append('\n');
+                break;
+            case 'r':
+                sb.append('\r');
+                break;
+            case 'f':
+                sb.append('\f');
+                break;
+            default:
+                // Any other escaped character is itself, like in lenient Gson
+                chunk = escape + 1;
+                break;
+            }
+            escape = indexOf('\\', escape + 2, contentEnd);
+            if (escape >= 0 && escape < chunk) {
+                escape = indexOf('\\', chunk, contentEnd);
+            }
+        }
+        sb.append(new String(fBuffer, chunk, contentEnd - chunk, StandardCharsets.UTF_8));
+        return sb.toString();
+    }
+
+    private int indexOf(char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (fBuffer[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Read the entries of an object as strings, the JSON text for objects and
+     * arrays
+     */
+    private Map<String, String> readObjectEntries() {
+        Map<String, String> entries = new LinkedHashMap<>();
+        fPosition = 0;
+        skipWhitespace();
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            return entries;
+        }
+        while (true) {
+            skipWhitespace();
+            String key = readName();
+            skipWhitespace();
+            skipNameSeparator();
+            skipWhitespace();
+            int valueStart = fPosition;
+            byte type = skipValue();
+            int valueEnd = fPosition;
+            String value;
+            if (type == OBJECT || type == ARRAY) {
+                StringBuilder sb = new StringBuilder(valueEnd - valueStart);
+                fPosition = valueStart;
+                writeValue(sb);
+                value = sb.toString();
+            } else if (type == NULL) {
+                value = String.valueOf((Object) null);
+            } else {
+                value = getAsString(type, valueStart, valueEnd);
+            }
+            entries.put(key, value);
+            fPosition = valueEnd;
+            skipWhitespace();
+            if (next() == '}') {
+                return entries;
+            }
+        }
+    }
+
+    private String readName() {
+        int start = fPosition;
+        skipName();
+        if (isQuote(fBuffer[start])) {
+            return decodeString(start, fPosition);
+        }
+        return new String(fBuffer, start, fPosition - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Write the value at the current position as compact JSON, the way Gson
+     * prints its elements
+     */
+    private void writeValue(StringBuilder sb) {
+        int start = fPosition;
+        byte type = skipValue();
+        int end = fPosition;
+        switch (type) {
+        case STRING:
+        case UNQUOTED:
+            writeString(sb, getAsString(type, start, end));
+            break;
+        case NUMBER:
+            sb.append(new String(fBuffer, start, end - start, StandardCharsets.US_ASCII));
+            break;
+        case TRUE:
+        case FALSE:
+        case NULL:
+            sb.append(new String(fBuffer, start, end - start, StandardCharsets.US_ASCII).toLowerCase());
+            break;
+        case OBJECT:
+            // Duplicate keys keep their first position and their last value
+            Map<String, String> members = new LinkedHashMap<>();
+            fPosition = start + 1;
+            skipWhitespace();
+            while (peek() != '}') {
+                String key = readName();
+                skipWhitespace();
+                skipNameSeparator();
+                skipWhitespace();
+                StringBuilder value = new StringBuilder();
+                writeValue(value);
+                members.put(key, value.toString());
+                skipWhitespace();
+                if (isElementSeparator(peek())) {
+                    fPosition++;
+                    skipWhitespace();
+                }
+            }
+            sb.append('{');
+            boolean first = true;
+            for (Entry<String, String> member : members.entrySet()) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                writeString(sb, member.getKey());
+                sb.append(':').append(member.getValue());
+            }
+            sb.append('}');
+            break;
+        case ARRAY:
+            sb.append('[');
+            fPosition = start + 1;
+            skipWhitespace();
+            while (peek() != ']') {
+                if (sb.charAt(sb.length() - 1) != '[') {
+                    sb.append(',');
+                }
+                writeValue(sb);
+                skipWhitespace();
+                if (isElementSeparator(peek())) {
+                    fPosition++;
+                    skipWhitespace();
+                }
+            }
+            sb.append(']');
+            break;
+        default:
+            break;
+        }
+        fPosition = end;
+    }
+
+    private static void writeString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                sb.append("\\\""); //$NON-NLS-1$
+                break;
+            case '\\':
+                sb.append("\\\\"); //$NON-NLS-1$
+                break;
+            case '\t':
+                sb.append("\\t"); //$NON-NLS-1$
+                break;
+            case '\b':
+                sb.append("\\b"); //$NON-NLS-1$
+                break;
+            case '\n':
+                sb.append("\\n"); //$NON-NLS-1$
+                break;
+            case '\r':
+                sb.append("\\r"); //$NON-NLS-1$
+                break;
+            case '\f':
+                sb.append("\\f"); //$NON-NLS-1$
+                break;
+            case '\u2028':
+            case '\u2029':
+                sb.append(String.format("\\u%04x", (int) c)); //$NON-NLS-1$
+                break;
+            default:
+                if (c < 0x20) {
+                    sb.append(String.format("\\u%04x", (int) c)); //$NON-NLS-1$
+                } else {
+                    sb.append(c);
+                }
+                break;
+            }
+        }
+        sb.append('"');
+    }
+
+    // ------------------------------------------------------------------------
+    // Tokenizer
+    // ------------------------------------------------------------------------
+
+    private int findKey(int nameStart, int nameEnd) {
+        int start = nameStart;
+        int end = nameEnd;
+        if (isQuote(fBuffer[start])) {
+            if (indexOf('\\', start, end) >= 0) {
+                return Arrays.asList(KEYS).indexOf(decodeString(start, end));
+            }
+            start++;
+            end--;
+        }
+        for (int key = 0; key < KEY_BYTES.length; key++) {
+            if (Arrays.equals(fBuffer, start, end, KEY_BYTES[key], 0, KEY_BYTES[key].length)) {
+                return key;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Skip the value at the current position
+     *
+     * @return the type of the value
+     */
+    private byte skipValue() {
+        byte c = peek();
+        switch (c) {
+        case '"':
+        case '\'':
+            fPosition++;
+            skipString(c);
+            return STRING;
+        case '{':
+            fPosition++;
+            skipWhitespace();
+            if (peek() == '}') {
+                fPosition++;
+                return OBJECT;
+            }
+            while (true) {
+                skipWhitespace();
+                skipName();
+                skipWhitespace();
+                skipNameSeparator();
+                skipWhitespace();
+                skipValue();
+                skipWhitespace();
+                byte separator = next();
+                if (separator == '}') {
+                    return OBJECT;
+                }
+                if (!isElementSeparator(separator)) {
+                    throw malformed();
+                }
+            }
+        case '[':
+            fPosition++;
+            skipWhitespace();
+            if (peek() == ']') {
+                fPosition++;
+                return ARRAY;
+            }
+            while (true) {
+                skipWhitespace();
+                // Lenient Gson accepts a trailing separator
+                if (peek() == ']') {
+                    fPosition++;
+                    return ARRAY;
+                }
+                skipValue();
+                skipWhitespace();
+                byte separator = next();
+                if (separator == ']') {
+                    return ARRAY;
+                }
+                if (!isElementSeparator(separator)) {
+                    throw malformed();
+                }
+            }
+        default:
+            return skipLiteral();
+        }
+    }
+
+    /**
+     * Skip a member name, quoted or not
+     */
+    private void skipName() {
+        byte c = peek();
+        if (isQuote(c)) {
+            fPosition++;
+            skipString(c);
+        } else {
+            skipLiteral();
+        }
+    }
+
+    /**
+     * Skip a name separator, which can also be "=" or "=>" like in lenient
+     * Gson
+     */
+    private void skipNameSeparator() {
+        byte c = next();
+        if (c == '=') {
+            if (peekOrEnd() == '>') {
+                fPosition++;
+            }
+        } else if (c != ':') {
+            throw malformed();
+        }
+    }
+
+    /**
+     * Skip a string, from after its opening quote to after its closing quote
+     */
+    private void skipString(byte quote) {
+        while (true) {
+            byte c = next();
+            if (c == quote) {
+                return;
+            }
+            if (c == '\\') {
+                c = next();
+                if (c == 'u') {
+                    for (int i = 0; i < 4; i++) {
+                        if (Character.digit(next(), 16) < 0) {
+                            throw malformed();
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Skip a literal that is not quoted. Like in lenient Gson, it is a
+     * keyword, a number, or else an unquoted string.
+     *
+     * @return the type of the literal
+     */
+    private byte skipLiteral() {
+        int start = fPosition;
+        while (fPosition < fLength && !isLiteralEnd(fBuffer[fPosition])) {
+            fPosition++;
+        }
+        int length = fPosition - start;
+        if (length == 0) {
+            throw malformed();
+        }
+        if (isKeyword(start, length, "true")) { //$NON-NLS-1$
+            return TRUE;
+        }
+        if (isKeyword(start, length, "false")) { //$NON-NLS-1$
+            return FALSE;
+        }
+        if (isKeyword(start, length, "null")) { //$NON-NLS-1$
+            return NULL;
+        }
+        return isNumber(start, fPosition) ? NUMBER : UNQUOTED;
+    }
+
+    private boolean isKeyword(int start, int length, String keyword) {
+        if (length != keyword.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (Character.toLowerCase(fBuffer[start + i]) != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if a literal follows the JSON grammar of numbers
+     */
+    private boolean isNumber(int start, int end) {
+        int i = start;
+        if (fBuffer[i] == '-') {
+            i++;
+        }
+        if (i < end && fBuffer[i] == '0') {
+            i++;
+        } else {
+            int digits = skipDigits(i, end);
+            if (digits == i) {
+                return false;
+            }
+            i = digits;
+        }
+        if (i < end && fBuffer[i] == '.') {
+            int digits = skipDigits(i + 1, end);
+            if (digits == i + 1) {
+                return false;
+            }
+            i = digits;
+        }
+        if (i < end && (fBuffer[i] == 'e' || fBuffer[i] == 'E')) {
+            i++;
+            if (i < end && (fBuffer[i] == '+' || fBuffer[i] == '-')) {
+                i++;
+            }
+            int digits = skipDigits(i, end);
+            if (digits == i) {
+                return false;
+            }
+            i = digits;
+        }
+        return i == end;
+    }
+
+    private int skipDigits(int start, int end) {
+        int i = start;
+        while (i < end && fBuffer[i] >= '0' && fBuffer[i] <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isLiteralEnd(byte c) {
+        switch (c) {
+        case '/':
+        case '\\':
+        case ';':
+        case '#':
+        case '=':
+        case '{':
+        case '}':
+        case '[':
+        case ']':
+        case ':':
+        case ',':
+        case ' ':
+        case '\t':
+        case '\f':
+        case '\r':
+        case '\n':
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private static boolean isQuote(byte c) {
+        return c == '"' || c == '\'';
+    }
+
+    private static boolean isElementSeparator(byte c) {
+        return c == ',' || c == ';';
+    }
+
+    private void skipWhitespace() {
+        while (fPosition < fLength) {
+            byte c = fBuffer[fPosition];
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                return;
+            }
+            fPosition++;
+        }
+    }
+
+    private void expect(char c) {
+        if (next() != c) {
+            throw malformed();
+        }
+    }
+
+    private byte next() {
+        if (fPosition >= fLength) {
+            throw malformed();
+        }
+        return fBuffer[fPosition++];
+    }
+
+    private byte peek() {
+        if (fPosition >= fLength) {
+            throw malformed();
+        }
+        return fBuffer[fPosition];
+    }
+
+    private byte peekOrEnd() {
+        return fPosition < fLength ? fBuffer[fPosition] : 0;
+    }
+
+    private void append(int value) {
+        if (fLength == fBuffer.length) {
+            fBuffer = Arrays.copyOf(fBuffer, fLength * 2);
+        }
+        fBuffer[fLength++] = (byte) value;
+    }
+
+    private IllegalArgumentException malformed() {
+        return new IllegalArgumentException("Malformed JSON at " + fPosition); //$NON-NLS-1$
+    }
+}
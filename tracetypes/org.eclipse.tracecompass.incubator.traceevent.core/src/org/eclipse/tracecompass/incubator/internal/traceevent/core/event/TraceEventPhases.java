@@ -12,6 +12,7 @@
 package org.eclipse.tracecompass.incubator.internal.traceevent.core.event;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 
 /**
  * Helper to keep all the trace event phase strings
@@ -69,4 +70,24 @@ public final class TraceEventPhases {
     public static final String CONTEXT_START = "("; //$NON-NLS-1$
 
     public static final String CONTEXT_END = ")"; //$NON-NLS-1$
+
+    private static final @Nullable String[] PHASES = new @Nullable String[128];
+    static {
+        for (String phase : new String[] { DURATION_START, DURATION_END, DURATION, INSTANT, COUNTER, NESTABLE_START, NESTABLE_INSTANT, NESTABLE_END, FLOW_START, FLOW_STEP, FLOW_END, SAMPLE, OBJECT_CREATED,
+                OBJECT_SNAPSHOT, OBJECT_DESTROYED, METADATA, MEMORY_DUMP_GLOBAL, MEMORY_DUMP_PROCESS, MARK, CLOCK_SYNC, CONTEXT_START, CONTEXT_END }) {
+            PHASES[phase.charAt(0)] = phase;
+        }
+    }
+
+    /**
+     * Get the phase string of a phase character, like the one of
+     * {@link TraceEventField#getPhase()}, without creating a string
+     *
+     * @param phase
+     *            the phase character
+     * @return the phase constant, or null if it is not a known phase
+     */
+    public static @Nullable String fromChar(char phase) {
+        return phase < PHASES.length ? PHASES[phase] : null;
+    }
 }
@@ -0,0 +1,335 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.traceevent.core.trace;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventField;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventParser;
+import org.eclipse.tracecompass.tmf.core.io.BufferedRandomAccessFile;
+
+/**
+ * Index of the sorted file of a trace event trace, saved next to it in the
+ * supplementary files. It keeps the file offset and the time stamp of every
+ * {@link #getInterval()}th event, so that an event can be found by rank or by
+ * time with a binary search followed by a short read, and the metadata events
+ * of the trace, so that the process and thread names are known as soon as the
+ * trace is opened.
+ *
+ * The index also records the size and modification time of the original trace
+ * file. It is only loaded if they did not change, otherwise the trace must be
+ * sorted and indexed again.
+ */
+@NonNullByDefault
+public final class TraceEventIndex {
+
+    /** Default number of events between the checkpoints */
+    public static final int DEFAULT_INTERVAL = 1000;
+
+    private static final String INDEX_SUFFIX = ".index"; //$NON-NLS-1$
+    private static final String TMP_SUFFIX = ".tmp"; //$NON-NLS-1$
+    /* "TEIX" */
+    private static final int MAGIC = 0x54454958;
+    private static final int VERSION = 1;
+
+    private final long fSourceLength;
+    private final long fSourceModified;
+    private final long fSortedLength;
+    private final int fInterval;
+    private final long fNbEvents;
+    private final long[] fTimestamps;
+    private final long[] fOffsets;
+    private final List<String> fMetadata;
+
+    private TraceEventIndex(long sourceLength, long sourceModified, long sortedLength, int interval, long nbEvents, long[] timestamps, long[] offsets, List<String> metadata) {
+        fSourceLength = sourceLength;
+        fSourceModified = sourceModified;
+        fSortedLength = sortedLength;
+        fInterval = interval;
+        fNbEvents = nbEvents;
+        fTimestamps = timestamps;
+        fOffsets = offsets;
+        fMetadata = metadata;
+    }
+
+    /**
+     * Get the index file of a sorted trace file
+     *
+     * @param sorted
+     *            the sorted trace file
+     * @return the index file
+     */
+    public static File getIndexFile(File sorted) {
+        return new File(sorted.getPath() + INDEX_SUFFIX);
+    }
+
+    /**
+     * Index a sorted trace file, reading all its events
+     *
+     * @param source
+     *            the original trace file
+     * @param sorted
+     *            the sorted trace file, a JSON array of events
+     * @param interval
+     *            the number of events between the checkpoints
+     * @return the index
+     * @throws IOException
+     *             if the sorted file cannot be read
+     */
+    public static TraceEventIndex build(File source, File sorted, int interval) throws IOException {
+        // Read the source attributes first, a later change invalidates the index
+        long sourceLength = source.length();
+        long sourceModified = source.lastModified();
+        long[] timestamps = new long[64];
+        long[] offsets = new long[64];
+        int nbCheckpoints = 0;
+        long nbEvents = 0;
+        List<String> metadata = new ArrayList<>();
+        TraceEventParser parser = new TraceEventParser();
+        try (BufferedRandomAccessFile input = new BufferedRandomAccessFile(sorted, "r")) { //$NON-NLS-1$
+            long offset = input.getFilePointer();
+            while (parser.readNextObject(input)) {
+                TraceEventField field = null;
+                try {
+                    field = parser.parseObject();
+                } catch (RuntimeException e) {
+                    // Not a valid event, it is skipped by the trace too
+                }
+                if (field != null) {
+                    if (field.getPhase() == 'M') {
+                        metadata.add(parser.getObject());
+                    } else {
+                        if (nbEvents % interval == 0) {
+                            if (nbCheckpoints == timestamps.length) {
+                                timestamps = Arrays.copyOf(timestamps, nbCheckpoints * 2);
+                                offsets = Arrays.copyOf(offsets, nbCheckpoints * 2);
+                            }
+                            timestamps[nbCheckpoints] = field.getTs();
+                            offsets[nbCheckpoints] = offset;
+                            nbCheckpoints++;
+                        }
+                        nbEvents++;
+                    }
+                }
+                offset = input.getFilePointer();
+            }
+        }
+        return new TraceEventIndex(sourceLength, sourceModified, sorted.length(), interval, nbEvents,
+                Arrays.copyOf(timestamps, nbCheckpoints), Arrays.copyOf(offsets, nbCheckpoints), metadata);
+    }
+
+    /**
+     * Load the index of a sorted trace file
+     *
+     * @param source
+     *            the original trace file
+     * @param sorted
+     *            the sorted trace file
+     * @return the index, or null if there is no index, if it was written by
+     *         another version or if the files changed since it was built
+     * @throws IOException
+     *             if the index cannot be read
+     */
+    public static @Nullable TraceEventIndex load(File source, File sorted) throws IOException {
+        File indexFile = getIndexFile(sorted);
+        if (!indexFile.isFile() || !sorted.isFile()) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                return null;
+            }
+            long sourceLength = input.readLong();
+            long sourceModified = input.readLong();
+            long sortedLength = input.readLong();
+            if (sourceLength != source.length() || sourceModified != source.lastModified() || sortedLength != sorted.length()) {
+                return null;
+            }
+            int interval = input.readInt();
+            long nbEvents = input.readLong();
+            int nbCheckpoints = input.readInt();
+            long[] timestamps = new long[nbCheckpoints];
+            long[] offsets = new long[nbCheckpoints];
+            for (int i = 0; i < nbCheckpoints; i++) {
+                timestamps[i] = input.readLong();
+                offsets[i] = input.readLong();
+            }
+            int nbMetadata = input.readInt();
+            List<String> metadata = new ArrayList<>(nbMetadata);
+            for (int i = 0; i < nbMetadata; i++) {
+                byte[] bytes = new byte[input.readInt()];
+                input.readFully(bytes);
+                metadata.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+            return new TraceEventIndex(sourceLength, sourceModified, sortedLength, interval, nbEvents, timestamps, offsets, metadata);
+        }
+    }
+
+    /**
+     * Save this index next to the sorted trace file. The index is written to a
+     * temporary file first, so that an interrupted save does not leave an
+     * incomplete index.
+     *
+     * @param sorted
+     *            the sorted trace file
+     * @throws IOException
+     *             if the index cannot be written
+     */
+    public void save(File sorted) throws IOException {
+        File indexFile = getIndexFile(sorted);
+        File tmpFile = new File(indexFile.getPath() + TMP_SUFFIX);
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeLong(fSourceLength);
+            output.writeLong(fSourceModified);
+            output.writeLong(fSortedLength);
+            output.writeInt(fInterval);
+            output.writeLong(fNbEvents);
+            output.writeInt(fTimestamps.length);
+            for (int i = 0; i < fTimestamps.length; i++) {
+                output.writeLong(fTimestamps[i]);
+                output.writeLong(fOffsets[i]);
+            }
+            output.writeInt(fMetadata.size());
+            for (String metadata : fMetadata) {
+                byte[] bytes = metadata.getBytes(StandardCharsets.UTF_8);
+                output.writeInt(bytes.length);
+                output.write(bytes);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tmpFile.toPath());
+            throw e;
+        }
+        Files.move(tmpFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Get the number of events between two checkpoints
+     *
+     * @return the interval
+     */
+    public int getInterval() {
+        return fInterval;
+    }
+
+    /**
+     * Get the number of events of the trace, the metadata events excluded
+     *
+     * @return the number of events
+     */
+    public long getNbEvents() {
+        return fNbEvents;
+    }
+
+    /**
+     * Get the number of checkpoints
+     *
+     * @return the number of checkpoints, 0 if the trace has no events
+     */
+    public int getNbCheckpoints() {
+        return fTimestamps.length;
+    }
+
+    /**
+     * Get the metadata events of the trace, in the order of the sorted file
+     *
+     * @return the JSON objects of the metadata events
+     */
+    public List<String> getMetadata() {
+        return Collections.unmodifiableList(fMetadata);
+    }
+
+    /**
+     * Get the last checkpoint at or before an event
+     *
+     * @param rank
+     *            the rank of the event
+     * @return the checkpoint, or -1 if the trace has no events
+     */
+    public int getCheckpoint(long rank) {
+        return (int) Math.min(Math.max(rank, 0) / fInterval, fTimestamps.length - 1L);
+    }
+
+    /**
+     * Get the last checkpoint before a time stamp. The events at that time
+     * stamp can be after this checkpoint, but none is before it.
+     *
+     * @param ts
+     *            the time stamp, in nanoseconds
+     * @return the checkpoint, or -1 if the trace has no events
+     */
+    public int getCheckpointBefore(long ts) {
+        // Find the first checkpoint at or after the time stamp
+        int low = 0;
+        int high = fTimestamps.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (fTimestamps[mid] < ts) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return Math.min(Math.max(low - 1, 0), fTimestamps.length - 1);
+    }
+
+    /**
+     * Get the rank of the event of a checkpoint
+     *
+     * @param checkpoint
+     *            the checkpoint
+     * @return the rank of the event
+     */
+    public long getRank(int checkpoint) {
+        return (long) checkpoint * fInterval;
+    }
+
+    /**
+     * Get the time stamp of the event of a checkpoint
+     *
+     * @param checkpoint
+     *            the checkpoint
+     * @return the time stamp, in nanoseconds
+     */
+    public long getTimestamp(int checkpoint) {
+        return fTimestamps[checkpoint];
+    }
+
+    /**
+     * Get the offset in the sorted file from which the event of a checkpoint
+     * is read
+     *
+     * @param checkpoint
+     *            the checkpoint
+     * @return the file offset
+     */
+    public long getOffset(int checkpoint) {
+        return fOffsets[checkpoint];
+    }
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.traceevent.core.trace;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * Job holding back the requests on a trace event trace for a short time after
+ * a request to read the whole trace is sent, so that the analyses that the
+ * user runs together, for example by opening several views, read the trace
+ * once with a coalesced request.
+ *
+ * The trace holds back the requests while its pending request count is not
+ * zero. The count is incremented when the job is created and decremented once
+ * no other request to read the whole trace was sent for {@link #DELAY_MS}, or
+ * after at most {@link #MAX_DELAY_MS}. No thread waits meanwhile, the job is
+ * only scheduled to run when the delay expires.
+ */
+class TraceEventRequestCoalescingJob extends Job {
+
+    private static final long DELAY_MS = 100;
+    private static final long MAX_DELAY_MS = 1000;
+
+    private final TraceEventTrace fTrace;
+    private final long fMaxDeadline;
+    private long fDeadline;
+    private boolean fReleased = false;
+
+    /**
+     * Constructor, holds back the requests on the trace until the job runs
+     *
+     * @param trace
+     *            the trace
+     */
+    public TraceEventRequestCoalescingJob(TraceEventTrace trace) {
+        super("Coalescing trace event requests: " + trace.getName()); //$NON-NLS-1$
+        fTrace = trace;
+        setSystem(true);
+        long now = System.nanoTime();
+        fDeadline = now + TimeUnit.MILLISECONDS.toNanos(DELAY_MS);
+        fMaxDeadline = now + TimeUnit.MILLISECONDS.toNanos(MAX_DELAY_MS);
+        trace.notifyPendingRequest(true);
+        schedule(DELAY_MS);
+    }
+
+    /**
+     * Hold back the requests longer, for another request to read the whole
+     * trace
+     *
+     * @return true if the requests are held back longer, false if they were
+     *         already released and a new job is needed
+     */
+    public synchronized boolean extend() {
+        if (fReleased) {
+            return false;
+        }
+        fDeadline = Math.min(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DELAY_MS), fMaxDeadline);
+        return true;
+    }
+
+    @Override
+    protected IStatus run(IProgressMonitor monitor) {
+        long remaining;
+        synchronized (this) {
+            remaining = fDeadline - System.nanoTime();
+            fReleased = remaining <= 0;
+        }
+        if (remaining > 0) {
+            schedule(TimeUnit.NANOSECONDS.toMillis(remaining) + 1);
+            return Status.OK_STATUS;
+        }
+        // Release the coalesced request
+        fTrace.notifyPendingRequest(false);
+        return Status.OK_STATUS;
+    }
+}
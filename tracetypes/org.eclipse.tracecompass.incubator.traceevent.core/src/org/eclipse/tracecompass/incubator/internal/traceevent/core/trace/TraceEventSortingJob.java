@@ -11,20 +11,30 @@
 
 package org.eclipse.tracecompass.incubator.internal.traceevent.core.trace;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.List;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.tracecompass.incubator.internal.analysis.core.json.JsonEventSorter;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.ITraceEventConstants;
 import org.eclipse.tracecompass.internal.jsontrace.core.job.SortingJob;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 
 /**
- * Sorting job particular to trace event traces
+ * Sorting job particular to trace event traces. The events are sorted in
+ * parallel by a {@link JsonEventSorter}, then the sorted file is indexed by a
+ * {@link TraceEventIndex}.
  *
  * @author Katherine Nadeau
  *
  */
 public class TraceEventSortingJob extends SortingJob {
 
+    private final ITmfTrace fTrace;
+    private final List<String> fPathToEvents;
+
     /**
      * Constructor
      *
@@ -37,11 +47,22 @@ public class TraceEventSortingJob extends SortingJob {
      */
     public TraceEventSortingJob(ITmfTrace trace, String path, List<String> pathToEvents) {
         super(trace, path, "\"ts\":", pathToEvents); //$NON-NLS-1$
+        fTrace = trace;
+        fPathToEvents = pathToEvents;
+    }
+
+    @Override
+    protected IStatus run(IProgressMonitor monitor) {
+        return new JsonEventSorter(ITraceEventConstants.TIMESTAMP).sortTrace(fTrace, getPath(), input -> JsonEventSorter.skipToArray(input, fPathToEvents), this::processMetadata, monitor);
     }
 
     @Override
     protected void processMetadata(ITmfTrace trace, String dir) throws IOException {
-        // No metadata to be read in trace event traces
+        // Index the sorted events and keep the metadata events for the next
+        // time the trace is opened
+        File source = new File(getPath());
+        File sorted = new File(dir + source.getName());
+        TraceEventIndex.build(source, sorted, TraceEventIndex.DEFAULT_INTERVAL).save(sorted);
     }
 
 }
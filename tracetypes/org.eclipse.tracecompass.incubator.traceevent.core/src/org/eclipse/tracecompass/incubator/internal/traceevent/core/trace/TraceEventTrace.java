@@ -22,7 +22,6 @@ import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.regex.Pattern;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
@@ -35,11 +34,14 @@ import org.eclipse.tracecompass.incubator.internal.traceevent.core.Activator;
 import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventAspects;
 import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventEvent;
 import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventField;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventParser;
 import org.eclipse.tracecompass.internal.provisional.jsontrace.core.trace.JsonTrace;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.event.aspect.ITmfEventAspect;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
 import org.eclipse.tracecompass.tmf.core.io.BufferedRandomAccessFile;
+import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest.ExecutionType;
 import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
@@ -105,12 +107,13 @@ public class TraceEventTrace extends JsonTrace {
 
     private static final String EVENTS_ARRAY_KEY = "traceEvents"; //$NON-NLS-1$
 
-    private static final Pattern TID_REGEX = Pattern.compile("\\d+"); //$NON-NLS-1$
-
     private final @NonNull Map<Object, String> fPidNames = new HashMap<>();
-    private final @NonNull Map<Object, Integer> fTidMap = new HashMap<>();
     private final @NonNull NavigableMap<Integer, String> fTidNames = new TreeMap<>();
     private final @NonNull Iterable<@NonNull ITmfEventAspect<?>> fEventAspects;
+    private final @NonNull TraceEventParser fParser = new TraceEventParser();
+    private @Nullable TraceEventIndex fIndex;
+    private final Object fCoalescingLock = new Object();
+    private @Nullable TraceEventRequestCoalescingJob fCoalescingJob;
 
     /**
      * Constructor
@@ -145,10 +148,10 @@ public class TraceEventTrace extends JsonTrace {
             goToCorrectStart(rafile);
             int lineCount = 0;
             int matches = 0;
-            String line = readNextEventString(rafile::read);
-            while ((line != null) && (lineCount++ < MAX_LINES)) {
+            TraceEventParser parser = new TraceEventParser();
+            while (parser.readNextObject(rafile) && (lineCount++ < MAX_LINES)) {
                 try {
-                    TraceEventField field = TraceEventField.parseJson(line);
+                    TraceEventField field = parser.parseObject();
                     if (field != null) {
                         matches++;
                     }
@@ -157,7 +160,6 @@ public class TraceEventTrace extends JsonTrace {
                 }
 
                 confidence = MAX_CONFIDENCE * matches / lineCount;
-                line = readNextEventString(rafile::read);
             }
             if (matches == 0) {
                 return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "No Trace Event events found in the first " + lineCount + " lines. File appears to still be a JSON formatted file though."); //$NON-NLS-1$ //$NON-NLS-2$
@@ -176,48 +178,123 @@ public class TraceEventTrace extends JsonTrace {
         String dir = TmfTraceManager.getSupplementaryFileDir(this);
         fFile = new File(dir + new File(path).getName());
 
+        File source = new File(path);
         try {
-            if (!fFile.exists()) {
-                Job sortJob;
-                try (BufferedRandomAccessFile rafile = new BufferedRandomAccessFile(path, "r")) { //$NON-NLS-1$
-                    if (isArrayTrace(rafile)) {
-                        sortJob = new TraceEventSortingJob(this, path, Collections.emptyList());
-                    } else {
-                        sortJob = new TraceEventSortingJob(this, path, List.of(EVENTS_ARRAY_KEY));
-                    }
-                }
-                sortJob.schedule();
-                while (sortJob.getResult() == null) {
-                    try {
-                        sortJob.join();
-                    } catch (InterruptedException e) {
-                        throw new TmfTraceException(e.getMessage(), e);
-                    }
+            /*
+             * The index is only saved once the trace is completely sorted, and
+             * it is discarded when the trace file changes, so a sorted file
+             * without a valid index is sorted again.
+             */
+            TraceEventIndex index = TraceEventIndex.load(source, fFile);
+            if (index == null) {
+                sort(path);
+                index = TraceEventIndex.load(source, fFile);
+                if (index == null) {
+                    throw new TmfTraceException("Cannot read the index of the sorted trace " + fFile); //$NON-NLS-1$
                 }
-                IStatus result = sortJob.getResult();
-                if (!result.isOK()) {
-                    throw new TmfTraceException("Job failed " + result.getMessage()); //$NON-NLS-1$
+            }
+            fIndex = index;
+            for (String metadata : index.getMetadata()) {
+                TraceEventField field = TraceEventParser.parse(metadata);
+                if (field != null) {
+                    parseMetadata(field);
                 }
             }
             fFileInput = new BufferedRandomAccessFile(fFile, "r"); //$NON-NLS-1$
             goToCorrectStart(fFileInput);
             /* Set the start and (current) end times for this trace */
-            ITmfContext ctx = seekEvent(0L);
-            if (ctx == null) {
-                return;
-            }
-            ITmfEvent event = getNext(ctx);
-            if (event != null) {
-                final ITmfTimestamp curTime = event.getTimestamp();
+            if (index.getNbCheckpoints() > 0) {
+                final ITmfTimestamp curTime = createTimestamp(index.getTimestamp(0));
                 setStartTime(curTime);
                 setEndTime(curTime);
             }
-            ctx.dispose();
         } catch (IOException e) {
             throw new TmfTraceException(e.getMessage(), e);
         }
     }
 
+    private void sort(String path) throws IOException, TmfTraceException {
+        Job sortJob;
+        try (BufferedRandomAccessFile rafile = new BufferedRandomAccessFile(path, "r")) { //$NON-NLS-1$
+            if (isArrayTrace(rafile)) {
+                sortJob = new TraceEventSortingJob(this, path, Collections.emptyList());
+            } else {
+                sortJob = new TraceEventSortingJob(this, path, List.of(EVENTS_ARRAY_KEY));
+            }
+        }
+        sortJob.schedule();
+        while (sortJob.getResult() == null) {
+            try {
+                sortJob.join();
+            } catch (InterruptedException e) {
+                throw new TmfTraceException(e.getMessage(), e);
+            }
+        }
+        IStatus result = sortJob.getResult();
+        if (!result.isOK()) {
+            throw new TmfTraceException("Job failed " + result.getMessage()); //$NON-NLS-1$
+        }
+    }
+
+    @Override
+    public synchronized ITmfContext seekEvent(long rank) {
+        TraceEventIndex index = fIndex;
+        int checkpoint = index != null ? index.getCheckpoint(rank) : -1;
+        if (index == null || rank <= 0 || checkpoint < 0) {
+            return super.seekEvent(rank);
+        }
+        ITmfContext context = seekEvent(new TmfLongLocation(index.getOffset(checkpoint)));
+        context.setRank(index.getRank(checkpoint));
+        long pos = context.getRank();
+        while (pos < rank && getNext(context) != null) {
+            pos++;
+        }
+        return context;
+    }
+
+    @Override
+    public synchronized ITmfContext seekEvent(ITmfTimestamp timestamp) {
+        TraceEventIndex index = fIndex;
+        if (index == null || timestamp == null || index.getNbCheckpoints() == 0) {
+            return super.seekEvent(timestamp);
+        }
+        int checkpoint = index.getCheckpointBefore(timestamp.toNanos());
+        ITmfContext context = seekEvent(new TmfLongLocation(index.getOffset(checkpoint)));
+        context.setRank(index.getRank(checkpoint));
+        // Read up to the first event at or after the time stamp
+        ITmfContext nextEventContext = context.clone();
+        ITmfEvent event = getNext(nextEventContext);
+        while (event != null && event.getTimestamp().compareTo(timestamp) < 0) {
+            context.dispose();
+            context = nextEventContext.clone();
+            event = getNext(nextEventContext);
+        }
+        nextEventContext.dispose();
+        if (event == null) {
+            context.setLocation(null);
+            context.setRank(ITmfContext.UNKNOWN_RANK);
+        }
+        return context;
+    }
+
+    @Override
+    public void sendRequest(@NonNull ITmfEventRequest request) {
+        /*
+         * The analyses read the whole trace in the background. Hold back the
+         * requests for a short while after one of them is sent, so that the
+         * analyses that are run together read the trace once.
+         */
+        if (request.getExecType() == ExecutionType.BACKGROUND && request.getIndex() == 0 && request.getNbRequested() == ITmfEventRequest.ALL_DATA) {
+            synchronized (fCoalescingLock) {
+                TraceEventRequestCoalescingJob job = fCoalescingJob;
+                if (job == null || !job.extend()) {
+                    fCoalescingJob = new TraceEventRequestCoalescingJob(this);
+                }
+            }
+        }
+        super.sendRequest(request);
+    }
+
     private static boolean isArrayTrace(RandomAccessFile rafile) throws IOException {
         int val = ' ';
         while(val == ' ') {
@@ -298,18 +375,13 @@ public class TraceEventTrace extends JsonTrace {
                     if (!locationInfo.equals(fFileInput.getFilePointer())) {
                         fFileInput.seek(locationInfo);
                     }
-                    String nextJson = readNextEventString(() -> fFileInput.read());
-                    while (nextJson != null) {
-                        TraceEventField field = TraceEventField.parseJson(nextJson);
-                        if (field == null) {
-                            nextJson = readNextEventString(() -> fFileInput.read());
-                            continue;
-                        }
+                    TraceEventField field = fParser.readNextEvent(fFileInput);
+                    while (field != null) {
                         if (field.getPhase() != 'M') {
                             return new TraceEventEvent(this, context.getRank(), field);
                         }
                         parseMetadata(field);
-                        nextJson = readNextEventString(() -> fFileInput.read());
+                        field = fParser.readNextEvent(fFileInput);
                     }
                 } catch (IOException e) {
                     Activator.getInstance().logError("Error parsing event", e); //$NON-NLS-1$
@@ -394,37 +466,12 @@ public class TraceEventTrace extends JsonTrace {
         @Override
         public @Nullable String resolve(@NonNull ITmfEvent event) {
             if (event instanceof TraceEventEvent traceEventEvent) {
-                TraceEventField field = traceEventEvent.getField();
-                Object tid = field.getTid();
-                if (tid instanceof String tidString && TID_REGEX.matcher(tidString).matches()) {
-                    tid = Integer.parseInt(tidString);
-                }
-                if (tid instanceof Integer) {
+                int tid = traceEventEvent.getField().getTidValue();
+                if (tid != TraceEventField.UNKNOWN_ID) {
                     return fTidNames.get(tid);
                 }
-
             }
             return null;
         }
     }
-
-    /**
-     * Register a TID, it is normally numerical, but a best effort is made for
-     * string TIDs.
-     *
-     * @param tid
-     *            the TID object
-     * @return an integer value
-     */
-    public @Nullable Integer registerTid(Object tid) {
-        if (tid instanceof Integer tidInt) {
-            fTidMap.put(tid, tidInt);
-            return tidInt;
-        }
-        if (tid instanceof String tidString && TID_REGEX.matcher(tidString).matches()) {
-            return Integer.parseInt(tidString);
-        }
-
-        return null;
-    }
 }
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.uftrace.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+
+import org.eclipse.tracecompass.incubator.internal.uftrace.core.trace.DatEvent;
+import org.eclipse.tracecompass.incubator.internal.uftrace.core.trace.DatParser;
+import org.eclipse.tracecompass.incubator.internal.uftrace.core.trace.DatParser.DatIterator;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Test the {@link DatParser} against the raw records of a data file, across
+ * the boundaries of the batches decoded in advance
+ */
+public class DatParserTest {
+
+    private static final File DAT_FILE = new File("res/uftrace-ls/26228.dat"); //$NON-NLS-1$
+    private static final int RECORD_SIZE = 16;
+    private static final int BATCH_SIZE = 4096;
+
+    private static long[] sTimes = new long[0];
+    private static long[] sPayloads = new long[0];
+
+    /**
+     * Read the reference records of the data file
+     *
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    @BeforeClass
+    public static void beforeClass() throws IOException {
+        ByteBuffer bb = ByteBuffer.wrap(Files.readAllBytes(DAT_FILE.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+        // The parser does not read the last record of the file
+        int nbRecords = bb.capacity() / RECORD_SIZE - 1;
+        sTimes = new long[nbRecords];
+        sPayloads = new long[nbRecords];
+        for (int i = 0; i < nbRecords; i++) {
+            sTimes[i] = bb.getLong();
+            sPayloads[i] = bb.getLong();
+        }
+    }
+
+    /**
+     * Test that iterating the whole file reads every record in order
+     */
+    @Test
+    public void testIterateAll() {
+        DatParser parser = new DatParser(DAT_FILE);
+        DatIterator iterator = parser.iterator();
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.advance();
+            assertEquals("time " + count, sTimes[count], iterator.getTime()); //$NON-NLS-1$
+            assertEquals("payload " + count, sPayloads[count], iterator.getPayload()); //$NON-NLS-1$
+            count++;
+        }
+        iterator.dispose();
+        assertEquals(sTimes.length, count);
+    }
+
+    /**
+     * Test that an iterator resumed at a position reads the same records as
+     * the iterator it resumes, including at the batch boundaries
+     */
+    @Test
+    public void testResume() {
+        DatParser parser = new DatParser(DAT_FILE);
+        int[] records = { 0, 1, BATCH_SIZE - 1, BATCH_SIZE, BATCH_SIZE + 1, 2 * BATCH_SIZE, sTimes.length / 2, sTimes.length - 1 };
+        for (int record : records) {
+            long position = (long) record * RECORD_SIZE;
+            DatIterator iterator = parser.iterator(position);
+            assertEquals(position, iterator.getPosition());
+            assertTrue(iterator.hasNext());
+            DatEvent event = iterator.next();
+            assertNotNull(event);
+            assertEquals("time " + record, sTimes[record], event.getTime()); //$NON-NLS-1$
+            assertEquals("time " + record, sTimes[record], iterator.getTime()); //$NON-NLS-1$
+            assertEquals("payload " + record, sPayloads[record], iterator.getPayload()); //$NON-NLS-1$
+            assertEquals(position + RECORD_SIZE, iterator.getPosition());
+
+            // Read past the next batch boundary
+            int end = Math.min(sTimes.length, record + BATCH_SIZE + 2);
+            for (int i = record + 1; i < end; i++) {
+                iterator.advance();
+                assertEquals("time " + i, sTimes[i], iterator.getTime()); //$NON-NLS-1$
+                assertEquals("payload " + i, sPayloads[i], iterator.getPayload()); //$NON-NLS-1$
+            }
+            iterator.dispose();
+        }
+    }
+
+    /**
+     * Test that a disposed iterator can still be read
+     */
+    @Test
+    public void testDispose() {
+        DatParser parser = new DatParser(DAT_FILE);
+        DatIterator iterator = parser.iterator(BATCH_SIZE * RECORD_SIZE - RECORD_SIZE);
+        iterator.advance();
+        iterator.dispose();
+        for (int i = BATCH_SIZE; i < 2 * BATCH_SIZE + 1; i++) {
+            iterator.advance();
+            assertEquals("time " + i, sTimes[i], iterator.getTime()); //$NON-NLS-1$
+        }
+        iterator.dispose();
+        DatIterator empty = parser.iterator((long) sTimes.length * RECORD_SIZE);
+        assertFalse(empty.hasNext());
+        empty.dispose();
+    }
+}
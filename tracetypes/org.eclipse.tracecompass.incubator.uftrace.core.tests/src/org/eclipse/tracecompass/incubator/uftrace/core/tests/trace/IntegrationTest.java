@@ -13,13 +13,19 @@ package org.eclipse.tracecompass.incubator.uftrace.core.tests.trace;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 
+import org.eclipse.tracecompass.incubator.internal.uftrace.core.trace.DatEvent;
 import org.eclipse.tracecompass.incubator.internal.uftrace.core.trace.Uftrace;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.symbols.TmfResolvedSymbol;
 import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestampFormat;
@@ -122,4 +128,83 @@ public class IntegrationTest {
         assertEquals("Timestamp", "2024", ts.toString(new TmfTimestampFormat("yyyy")));
     }
 
-}
\ No newline at end of file
+    /**
+     * Seek events by rank and by time stamp, which resumes the reading at the
+     * checkpoints of the index, and check that the same events are read as
+     * when reading the trace from the start
+     *
+     * @throws TmfTraceException
+     *             something went wrong
+     */
+    @Test
+    public void seekTrace() throws TmfTraceException {
+        assertNotNull(fUft);
+        fUft.initTrace(null, "res/uftrace-ls", TmfEvent.class);
+        List<ITmfTimestamp> timestamps = new ArrayList<>();
+        ITmfContext ctx = fUft.seekEvent(0);
+        ITmfEvent event = null;
+        while ((event = fUft.getNext(ctx)) != null) {
+            timestamps.add(event.getTimestamp());
+        }
+        ctx.dispose();
+
+        for (long rank : new long[] { 0, 1, 999, 1000, 1001, 56789, 113750 }) {
+            ctx = fUft.seekEvent(rank);
+            assertEquals("rank", rank, ctx.getRank());
+            event = fUft.getNext(ctx);
+            assertNotNull(event);
+            assertEquals("timestamp at rank " + rank, timestamps.get((int) rank), event.getTimestamp());
+            ctx.dispose();
+        }
+
+        ITmfTimestamp ts = timestamps.get(56789);
+        ctx = fUft.seekEvent(ts);
+        long rank = ctx.getRank();
+        event = fUft.getNext(ctx);
+        assertNotNull(event);
+        assertEquals("timestamp", ts, event.getTimestamp());
+        assertEquals("first event at timestamp", timestamps.indexOf(ts), rank);
+        ctx.dispose();
+    }
+
+    /**
+     * Resolve the addresses of the events twice, and check that the cached
+     * symbols are the same
+     *
+     * @throws TmfTraceException
+     *             something went wrong
+     */
+    @Test
+    public void resolveSymbols() throws TmfTraceException {
+        assertNotNull(fUft);
+        fUft.initTrace(null, "res/uftrace-ls", TmfEvent.class);
+        ITmfContext ctx = fUft.seekEvent(0);
+        int tid = -1;
+        long[] addresses = new long[1000];
+        for (int i = 0; i < addresses.length; i++) {
+            ITmfEvent event = fUft.getNext(ctx);
+            assertNotNull(event);
+            DatEvent datEvent = (DatEvent) event.getContent().getValue();
+            tid = datEvent.getTid();
+            addresses[i] = datEvent.getAddress();
+        }
+        ctx.dispose();
+
+        TmfResolvedSymbol[] symbols = new TmfResolvedSymbol[addresses.length];
+        for (int i = 0; i < addresses.length; i++) {
+            symbols[i] = fUft.getSymbolProvider().getSymbol(tid, 0, addresses[i]);
+        }
+        int resolved = 0;
+        for (int i = 0; i < addresses.length; i++) {
+            TmfResolvedSymbol symbol = fUft.getSymbolProvider().getSymbol(tid, 0, addresses[i]);
+            if (symbol == null) {
+                assertNull(symbols[i]);
+            } else {
+                assertNotNull(symbols[i]);
+                assertEquals(symbol.getSymbolName(), symbols[i].getSymbolName());
+                resolved++;
+            }
+        }
+        assertTrue("resolved symbols", resolved > 0);
+    }
+}
@@ -133,6 +133,18 @@ public class DatEvent {
         return new DatEvent(nanoseconds, type, depth, address, tid);
     }
 
+    /**
+     * Check the magic number of the data of an event, the events that are not
+     * valid cannot be created
+     *
+     * @param payload
+     *            the data of the event
+     * @return true if the event is valid
+     */
+    public static boolean isValid(long payload) {
+        return (int) ((payload & MAGIC_MASK) >>> 3) == UFTRACE_MAGIC_NUMBER;
+    }
+
     private DatEvent(long nanoseconds, String type, int depth, long address, int tid) {
         fTime = nanoseconds;
         fType = type;
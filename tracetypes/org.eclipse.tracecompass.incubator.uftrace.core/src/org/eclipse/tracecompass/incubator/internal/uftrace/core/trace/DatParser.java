@@ -13,12 +13,22 @@ package org.eclipse.tracecompass.incubator.internal.uftrace.core.trace;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.MappedByteBuffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
 import java.nio.file.StandardOpenOption;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.math.NumberUtils;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.uftrace.core.Activator;
 
 import com.google.common.collect.PeekingIterator;
 
@@ -45,9 +55,21 @@ import com.google.common.collect.PeekingIterator;
  */
 public class DatParser implements Iterable<DatEvent> {
 
+    private static final int RECORD_SIZE = Long.BYTES * 2;
+    private static final int BATCH_SIZE = 4096;
+    /*
+     * Each iterator has at most one batch decoded in advance, a batch that
+     * cannot be queued is decoded when it is read
+     */
+    private static final int MAX_QUEUED_BATCHES = 256;
+
+    private static @Nullable ThreadPoolExecutor sExecutor;
+
     private long fUtcOffset;
     private final File fFile;
     private final long fStart;
+    private final int fTid;
+    private @Nullable ByteBuffer fBuffer;
 
     /**
      * Data event parser
@@ -73,53 +95,278 @@ public class DatParser implements Iterable<DatEvent> {
         fFile = file;
         fStart = start;
         fUtcOffset = utcOffset;
+        fTid = NumberUtils.toInt(file.getName().substring(0, file.getName().length() - 4));
     }
 
     @Override
-    public PeekingIterator<DatEvent> iterator() {
+    public DatIterator iterator() {
+        return iterator(0);
+    }
+
+    /**
+     * Get an iterator resuming at a position of another iterator on this file
+     *
+     * @param position
+     *            the position of the other iterator, see
+     *            {@link DatIterator#getPosition()}
+     * @return the iterator
+     */
+    public DatIterator iterator(long position) {
+        ByteBuffer buffer = getBuffer();
+        /*
+         * An event is only read if more than its size remains in the file, so
+         * the last event of the file is not read
+         */
+        int nbRecords = buffer.capacity() > RECORD_SIZE ? (buffer.capacity() - RECORD_SIZE - 1) / RECORD_SIZE + 1 : 0;
+        return new DatIterator(buffer, nbRecords, (int) (position / RECORD_SIZE));
+    }
 
-        try (FileChannel fc = FileChannel.open(fFile.toPath(), StandardOpenOption.READ)) {
-            MappedByteBuffer bb = fc.map(FileChannel.MapMode.READ_ONLY, fStart, fc.size());
-            if (bb == null) {
-                throw new IllegalStateException("cannot create a byte buffer!"); //$NON-NLS-1$
+    private synchronized ByteBuffer getBuffer() {
+        ByteBuffer buffer = fBuffer;
+        if (buffer == null) {
+            try (FileChannel fc = FileChannel.open(fFile.toPath(), StandardOpenOption.READ)) {
+                buffer = fc.map(FileChannel.MapMode.READ_ONLY, fStart, fc.size() - fStart);
+                if (buffer == null) {
+                    throw new IllegalStateException("cannot create a byte buffer!"); //$NON-NLS-1$
+                }
+                fBuffer = buffer;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
             }
-            return new PeekingIterator<DatEvent>() {
+        }
+        return buffer;
+    }
 
-                DatEvent fCurrent = null;
+    private static synchronized ThreadPoolExecutor getExecutor() {
+        ThreadPoolExecutor executor = sExecutor;
+        if (executor == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+            executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(MAX_QUEUED_BATCHES), runnable -> {
+                Thread thread = new Thread(runnable, "UftraceDecoder-" + threadCount.incrementAndGet()); //$NON-NLS-1$
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            sExecutor = executor;
+        }
+        return executor;
+    }
 
-                @Override
-                public DatEvent next() {
-                    if (!hasNext()) {
-                        throw new NoSuchElementException("no more data"); //$NON-NLS-1$
-                    }
-                    fCurrent = DatEvent.create(bb,
-                            NumberUtils.toInt(fFile.getName().substring(0, fFile.getName().length() - 4)), fUtcOffset);
-                    return fCurrent;
-                }
+    /**
+     * Stop the threads decoding the events in advance, once the batches
+     * already queued are decoded. The pool is kept so that the following
+     * batches are rejected instead of starting a new pool, and the iterators
+     * then decode the events when they are read. To be called when the
+     * plug-in stops.
+     */
+    public static synchronized void shutdown() {
+        ThreadPoolExecutor executor = sExecutor;
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
 
-                @Override
-                public boolean hasNext() {
-                    return bb.remaining() > Long.BYTES * 2;
-                }
+    /**
+     * Decode a batch of events in a buffer of longs, the time stamp and the
+     * payload of each event
+     */
+    private static long[] decode(ByteBuffer buffer, int first, int count) {
+        long[] batch = new long[count * 2];
+        ByteBuffer bb = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        bb.position(first * RECORD_SIZE);
+        bb.asLongBuffer().get(batch);
+        return batch;
+    }
+
+    /**
+     * Get the file read by this parser
+     *
+     * @return the data file
+     */
+    public File getFile() {
+        return fFile;
+    }
+
+    /**
+     * Iterator on the events of a data file. Its state is only its position in
+     * the file, so it can be resumed with {@link DatParser#iterator(long)}.
+     *
+     * The events are decoded in batches of primitives, and the next batch is
+     * decoded by a worker thread while the current one is read. The time stamp
+     * and payload of the current event can be read without creating a
+     * {@link DatEvent}. The iterator must be disposed when it is no longer
+     * read, to cancel the decoding in advance.
+     */
+    public class DatIterator implements PeekingIterator<DatEvent> {
+
+        private final ByteBuffer fIteratorBuffer;
+        private final int fNbRecords;
+        /* The index of the next event to read, the current one is before */
+        private int fRecord;
+        private boolean fHasCurrent;
+        private long[] fBatch = new long[0];
+        private int fBatchStart;
+        private @Nullable Future<long[]> fNextBatch;
+        private int fNextBatchStart;
+
+        private DatIterator(ByteBuffer buffer, int nbRecords, int record) {
+            fIteratorBuffer = buffer;
+            fNbRecords = nbRecords;
+            fRecord = record;
+            // The last event read is the current one
+            fHasCurrent = record > 0;
+        }
+
+        @Override
+        public DatEvent next() {
+            advance();
+            return DatEvent.create(getTime(), getPayload(), fTid);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return fRecord < fNbRecords;
+        }
+
+        @Override
+        public DatEvent peek() {
+            if (!fHasCurrent && hasNext()) {
+                return next();
+            }
+            return fHasCurrent ? DatEvent.create(getTime(), getPayload(), fTid) : null;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("can't"); //$NON-NLS-1$
+        }
+
+        /**
+         * Read the next event, like {@link #next()}, without creating it
+         */
+        public void advance() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("no more data"); //$NON-NLS-1$
+            }
+            fRecord++;
+            fHasCurrent = true;
+        }
+
+        /**
+         * Get the time of the current event, like {@link #peek()}, without
+         * creating it
+         *
+         * @return the time stamp, in nanoseconds
+         */
+        public long peekTime() {
+            if (!fHasCurrent && hasNext()) {
+                advance();
+            }
+            return getTime();
+        }
+
+        /**
+         * Get the time of the last event read
+         *
+         * @return the time stamp, in nanoseconds
+         */
+        public long getTime() {
+            int index = getIndex();
+            return fBatch[index] + fUtcOffset;
+        }
 
-                @Override
-                public DatEvent peek() {
-                    if (fCurrent == null && hasNext()) {
-                        return next();
+        /**
+         * Get the payload of the last event read, see
+         * {@link DatEvent#create(long, long, int)}
+         *
+         * @return the payload
+         */
+        public long getPayload() {
+            int index = getIndex();
+            return fBatch[index + 1];
+        }
+
+        /**
+         * Get the thread ID of the events
+         *
+         * @return the thread ID
+         */
+        public int getTid() {
+            return fTid;
+        }
+
+        /**
+         * Cancel the decoding of the next batch, if it did not start yet. The
+         * iterator can still be read afterwards.
+         */
+        public void dispose() {
+            Future<long[]> nextBatch = fNextBatch;
+            if (nextBatch != null) {
+                nextBatch.cancel(false);
+                fNextBatch = null;
+            }
+        }
+
+        /**
+         * Get the position of this iterator, the offset after the last event
+         * read in the file
+         *
+         * @return the position
+         */
+        public long getPosition() {
+            return (long) fRecord * RECORD_SIZE;
+        }
+
+        private int getIndex() {
+            int current = fRecord - 1;
+            if (current < fBatchStart || current >= fBatchStart + fBatch.length / 2) {
+                fBatch = getBatch(current);
+                fBatchStart = current;
+                // Decode the next batch in the background
+                int next = current + fBatch.length / 2;
+                fNextBatch = null;
+                if (next < fNbRecords) {
+                    ByteBuffer buffer = fIteratorBuffer;
+                    int count = Math.min(BATCH_SIZE, fNbRecords - next);
+                    try {
+                        fNextBatch = getExecutor().submit(() -> decode(buffer, next, count));
+                        fNextBatchStart = next;
+                    } catch (RejectedExecutionException e) {
+                        // Too many batches queued or the plug-in is stopped,
+                        // decode it when it is read
                     }
-                    return fCurrent;
                 }
+            }
+            return (current - fBatchStart) * 2;
+        }
 
-                @Override
-                public void remove() {
-                    throw new UnsupportedOperationException("can't"); //$NON-NLS-1$
+        private long[] getBatch(int first) {
+            Future<long[]> nextBatch = fNextBatch;
+            if (nextBatch != null && first == fNextBatchStart && !nextBatch.isCancelled()) {
+                try {
+                    return nextBatch.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    Activator.getInstance().logError("Cannot decode the events of " + fFile, e); //$NON-NLS-1$
                 }
-            };
-        } catch (IOException e) {
-            throw new IllegalStateException(e);
+            } else if (nextBatch != null) {
+                nextBatch.cancel(false);
+            }
+            return decode(fIteratorBuffer, first, Math.min(BATCH_SIZE, fNbRecords - first));
         }
     }
 
+    /**
+     * Get the utc offset
+     *
+     * @return the offset in ns
+     */
+    public long getUtcOffset() {
+        return fUtcOffset;
+    }
+
     /**
      * Set new utc offset
      *
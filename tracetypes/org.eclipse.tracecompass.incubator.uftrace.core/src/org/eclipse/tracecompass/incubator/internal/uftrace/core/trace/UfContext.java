@@ -11,9 +11,12 @@
 
 package org.eclipse.tracecompass.incubator.internal.uftrace.core.trace;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.PriorityQueue;
 
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.uftrace.core.trace.DatParser.DatIterator;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
 import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
@@ -22,19 +25,24 @@ import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import org.eclipse.tracecompass.tmf.core.trace.TmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.location.TmfLongLocation;
 
-import com.google.common.collect.PeekingIterator;
-
 /**
- * Naive context
+ * Context merging the events of the data files by time. The events with the
+ * same time are taken from the data files in their order, so the merge only
+ * depends on the positions in the data files and can be resumed at a
+ * {@link UfIndex} checkpoint.
  *
  * @author Matthew Khouzam
  *
  */
 public class UfContext extends TmfContext {
 
-    private PriorityQueue<PeekingIterator<DatEvent>> fQueue = new PriorityQueue<>(
-            (o1, o2) -> Long.compare(o1.peek().getTime(), o2.peek().getTime()));
+    /** Position of a data file with no more events to merge */
+    public static final long DONE = -1;
+
+    private final DatIterator[] fIterators;
+    private final PriorityQueue<Integer> fQueue;
     private ITmfTrace fTrace;
+    private long fLastTime;
 
     /**
      * Constructor
@@ -44,14 +52,51 @@ public class UfContext extends TmfContext {
      * @param trace
      *            trace
      */
-    public UfContext(Iterable<DatParser> dats, ITmfTrace trace) {
+    public UfContext(List<DatParser> dats, ITmfTrace trace) {
+        this(dats, null, trace);
+    }
+
+    /**
+     * Constructor resuming the merge at positions of the data files
+     *
+     * @param dats
+     *            data streams
+     * @param positions
+     *            the position in each data stream, see
+     *            {@link #getPositions()}, or null to start at the beginning
+     * @param trace
+     *            trace
+     */
+    public UfContext(List<DatParser> dats, long @Nullable [] positions, ITmfTrace trace) {
         fTrace = trace;
-        for (DatParser dp : dats) {
-            PeekingIterator<DatEvent> iterator = dp.iterator();
-            if (iterator.hasNext()) {
-                fQueue.add(iterator);
+        fIterators = new DatIterator[dats.size()];
+        fQueue = new PriorityQueue<>(Math.max(1, dats.size()), (o1, o2) -> {
+            int cmp = Long.compare(fIterators[o1].peekTime(), fIterators[o2].peekTime());
+            return cmp != 0 ? cmp : Integer.compare(o1, o2);
+        });
+        for (int i = 0; i < fIterators.length; i++) {
+            DatParser dp = dats.get(i);
+            if (positions == null) {
+                fIterators[i] = dp.iterator();
+                if (fIterators[i].hasNext()) {
+                    fQueue.add(i);
+                }
+            } else {
+                fIterators[i] = dp.iterator(Math.max(positions[i], 0));
+                if (positions[i] != DONE) {
+                    fQueue.add(i);
+                }
             }
         }
+        setLocation(new TmfLongLocation(0L));
+    }
+
+    @Override
+    public void dispose() {
+        for (DatIterator iterator : fIterators) {
+            iterator.dispose();
+        }
+        super.dispose();
     }
 
     @Override
@@ -59,18 +104,75 @@ public class UfContext extends TmfContext {
         return (@Nullable TmfLongLocation) super.getLocation();
     }
 
+    /**
+     * Get the positions in the data files of the next event to merge
+     *
+     * @return the position in each data file, or {@link #DONE} for the files
+     *         with no more events
+     */
+    public long[] getPositions() {
+        long[] positions = new long[fIterators.length];
+        Arrays.fill(positions, DONE);
+        for (Integer i : fQueue) {
+            positions[i] = fIterators[i].getPosition();
+        }
+        return positions;
+    }
+
+    /**
+     * Get next data event, without creating a trace event
+     *
+     * @return the next data event or null
+     */
+    public @Nullable DatEvent getNextDatEvent() {
+        DatIterator iterator = advance();
+        if (iterator == null) {
+            return null;
+        }
+        return DatEvent.create(fLastTime, iterator.getPayload(), iterator.getTid());
+    }
+
+    /**
+     * Skip the next event, without creating it
+     *
+     * @return true if an event was skipped, false if there are no more events
+     */
+    public boolean skipEvent() {
+        DatIterator iterator = advance();
+        return iterator != null && DatEvent.isValid(iterator.getPayload());
+    }
+
+    /**
+     * Get the time of the last event read or skipped
+     *
+     * @return the time stamp, in nanoseconds
+     */
+    public long getLastTime() {
+        return fLastTime;
+    }
+
+    private @Nullable DatIterator advance() {
+        Integer eventSource = fQueue.poll();
+        if (eventSource == null) {
+            return null;
+        }
+        DatIterator iterator = fIterators[eventSource];
+        iterator.advance();
+        fLastTime = iterator.getTime();
+        if (iterator.hasNext()) {
+            fQueue.add(eventSource);
+        }
+        return iterator;
+    }
+
     /**
      * Get next event, like an iterator
      *
      * @return the next event or null
      */
     public ITmfEvent getNext() {
-        PeekingIterator<DatEvent> eventSource = fQueue.poll();
-        if (eventSource != null) {
-            DatEvent event = eventSource.next();
-            if (eventSource.hasNext()) {
-                fQueue.add(eventSource);
-            }
+        DatEvent event = getNextDatEvent();
+        if (event != null) {
             TmfEvent tmfEvent = new TmfEvent(fTrace, getRank(), fTrace.createTimestamp(event.getTime()),
                     UfEventType.lookup(event.getType()),
                     new TmfEventField(ITmfEventField.ROOT_FIELD_ID, event, null));
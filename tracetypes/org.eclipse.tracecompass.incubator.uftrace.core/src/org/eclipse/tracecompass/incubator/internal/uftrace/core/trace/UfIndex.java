@@ -0,0 +1,307 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.uftrace.core.trace;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+
+/**
+ * Checkpoint index of a uftrace trace, saved in its supplementary files. Every
+ * {@link #getInterval()}th event of the merged data files, it keeps the time
+ * stamp of the event and the position of the merge in each data file, so that
+ * a {@link UfContext} can resume there instead of merging the trace from the
+ * start.
+ *
+ * The index also records the name, size and modification time of the data
+ * files, it is only loaded if they did not change.
+ */
+@NonNullByDefault
+public final class UfIndex {
+
+    /** Default number of events between the checkpoints */
+    public static final int DEFAULT_INTERVAL = 1000;
+
+    private static final String TMP_SUFFIX = ".tmp"; //$NON-NLS-1$
+    /* "UFIX" */
+    private static final int MAGIC = 0x55464958;
+    private static final int VERSION = 1;
+
+    private final String[] fNames;
+    private final long[] fLengths;
+    private final long[] fModified;
+    private final long[] fUtcOffsets;
+    private final int fInterval;
+    private final long fNbEvents;
+    private final long[] fTimestamps;
+    private final long[][] fPositions;
+
+    private UfIndex(String[] names, long[] lengths, long[] modified, long[] utcOffsets, int interval, long nbEvents, long[] timestamps, long[][] positions) {
+        fNames = names;
+        fLengths = lengths;
+        fModified = modified;
+        fUtcOffsets = utcOffsets;
+        fInterval = interval;
+        fNbEvents = nbEvents;
+        fTimestamps = timestamps;
+        fPositions = positions;
+    }
+
+    /**
+     * Index the data files of a trace, merging all their events
+     *
+     * @param trace
+     *            the trace
+     * @param dats
+     *            the data files, in the order of the trace contexts
+     * @param interval
+     *            the number of events between the checkpoints
+     * @return the index
+     */
+    public static UfIndex build(ITmfTrace trace, List<DatParser> dats, int interval) {
+        int nbDats = dats.size();
+        String[] names = new String[nbDats];
+        long[] lengths = new long[nbDats];
+        long[] modified = new long[nbDats];
+        long[] utcOffsets = new long[nbDats];
+        for (int i = 0; i < nbDats; i++) {
+            DatParser dat = dats.get(i);
+            names[i] = dat.getFile().getName();
+            lengths[i] = dat.getFile().length();
+            modified[i] = dat.getFile().lastModified();
+            utcOffsets[i] = dat.getUtcOffset();
+        }
+        long[] timestamps = new long[64];
+        long[][] positions = new long[64][];
+        int nbCheckpoints = 0;
+        long nbEvents = 0;
+        UfContext context = new UfContext(dats, trace);
+        while (true) {
+            long[] checkpoint = (nbEvents % interval == 0) ? context.getPositions() : null;
+            if (!context.skipEvent()) {
+                break;
+            }
+            if (checkpoint != null) {
+                if (nbCheckpoints == timestamps.length) {
+                    timestamps = Arrays.copyOf(timestamps, nbCheckpoints * 2);
+                    positions = Arrays.copyOf(positions, nbCheckpoints * 2);
+                }
+                timestamps[nbCheckpoints] = context.getLastTime();
+                positions[nbCheckpoints] = checkpoint;
+                nbCheckpoints++;
+            }
+            nbEvents++;
+        }
+        context.dispose();
+        return new UfIndex(names, lengths, modified, utcOffsets, interval, nbEvents,
+                Arrays.copyOf(timestamps, nbCheckpoints), Arrays.copyOf(positions, nbCheckpoints));
+    }
+
+    /**
+     * Load the index of the data files of a trace
+     *
+     * @param file
+     *            the index file
+     * @param dats
+     *            the data files, in the order of the trace contexts
+     * @return the index, or null if there is no index, if it was written by
+     *         another version or if the data files changed since it was built
+     * @throws IOException
+     *             if the index cannot be read
+     */
+    public static @Nullable UfIndex load(File file, List<DatParser> dats) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                return null;
+            }
+            int nbDats = input.readInt();
+            if (nbDats != dats.size()) {
+                return null;
+            }
+            String[] names = new String[nbDats];
+            long[] lengths = new long[nbDats];
+            long[] modified = new long[nbDats];
+            long[] utcOffsets = new long[nbDats];
+            for (int i = 0; i < nbDats; i++) {
+                names[i] = input.readUTF();
+                lengths[i] = input.readLong();
+                modified[i] = input.readLong();
+                utcOffsets[i] = input.readLong();
+                DatParser dat = dats.get(i);
+                if (!names[i].equals(dat.getFile().getName()) || lengths[i] != dat.getFile().length()
+                        || modified[i] != dat.getFile().lastModified() || utcOffsets[i] != dat.getUtcOffset()) {
+                    return null;
+                }
+            }
+            int interval = input.readInt();
+            long nbEvents = input.readLong();
+            int nbCheckpoints = input.readInt();
+            long[] timestamps = new long[nbCheckpoints];
+            long[][] positions = new long[nbCheckpoints][nbDats];
+            for (int i = 0; i < nbCheckpoints; i++) {
+                timestamps[i] = input.readLong();
+                for (int j = 0; j < nbDats; j++) {
+                    positions[i][j] = input.readLong();
+                }
+            }
+            return new UfIndex(names, lengths, modified, utcOffsets, interval, nbEvents, timestamps, positions);
+        }
+    }
+
+    /**
+     * Save this index. It is written to a temporary file first, so that an
+     * interrupted save does not leave an incomplete index.
+     *
+     * @param file
+     *            the index file
+     * @throws IOException
+     *             if the index cannot be written
+     */
+    public void save(File file) throws IOException {
+        File tmpFile = new File(file.getPath() + TMP_SUFFIX);
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(fNames.length);
+            for (int i = 0; i < fNames.length; i++) {
+                output.writeUTF(fNames[i]);
+                output.writeLong(fLengths[i]);
+                output.writeLong(fModified[i]);
+                output.writeLong(fUtcOffsets[i]);
+            }
+            output.writeInt(fInterval);
+            output.writeLong(fNbEvents);
+            output.writeInt(fTimestamps.length);
+            for (int i = 0; i < fTimestamps.length; i++) {
+                output.writeLong(fTimestamps[i]);
+                for (long position : fPositions[i]) {
+                    output.writeLong(position);
+                }
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tmpFile.toPath());
+            throw e;
+        }
+        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Get the number of events between two checkpoints
+     *
+     * @return the interval
+     */
+    public int getInterval() {
+        return fInterval;
+    }
+
+    /**
+     * Get the number of events of the trace
+     *
+     * @return the number of events
+     */
+    public long getNbEvents() {
+        return fNbEvents;
+    }
+
+    /**
+     * Get the number of checkpoints
+     *
+     * @return the number of checkpoints, 0 if the trace has no events
+     */
+    public int getNbCheckpoints() {
+        return fTimestamps.length;
+    }
+
+    /**
+     * Get the last checkpoint at or before an event
+     *
+     * @param rank
+     *            the rank of the event
+     * @return the checkpoint, or -1 if the trace has no events
+     */
+    public int getCheckpoint(long rank) {
+        return (int) Math.min(Math.max(rank, 0) / fInterval, fTimestamps.length - 1L);
+    }
+
+    /**
+     * Get the last checkpoint before a time stamp. The events at that time
+     * stamp can be after this checkpoint, but none is before it.
+     *
+     * @param ts
+     *            the time stamp, in nanoseconds
+     * @return the checkpoint, or -1 if the trace has no events
+     */
+    public int getCheckpointBefore(long ts) {
+        // Find the first checkpoint at or after the time stamp
+        int low = 0;
+        int high = fTimestamps.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (fTimestamps[mid] < ts) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return Math.min(Math.max(low - 1, 0), fTimestamps.length - 1);
+    }
+
+    /**
+     * Get the rank of the event of a checkpoint
+     *
+     * @param checkpoint
+     *            the checkpoint
+     * @return the rank of the event
+     */
+    public long getRank(int checkpoint) {
+        return (long) checkpoint * fInterval;
+    }
+
+    /**
+     * Get the time stamp of the event of a checkpoint
+     *
+     * @param checkpoint
+     *            the checkpoint
+     * @return the time stamp, in nanoseconds
+     */
+    public long getTimestamp(int checkpoint) {
+        return fTimestamps[checkpoint];
+    }
+
+    /**
+     * Get the positions in the data files at a checkpoint, to resume a
+     * {@link UfContext} there
+     *
+     * @param checkpoint
+     *            the checkpoint
+     * @return the position in each data file
+     */
+    public long[] getPositions(int checkpoint) {
+        return fPositions[checkpoint];
+    }
+}
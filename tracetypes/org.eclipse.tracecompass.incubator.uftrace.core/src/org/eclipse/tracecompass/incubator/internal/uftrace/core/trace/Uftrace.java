@@ -16,14 +16,13 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 
 import org.apache.commons.io.FilenameUtils;
@@ -39,6 +38,7 @@ import org.eclipse.tracecompass.analysis.os.linux.core.event.aspect.LinuxPidAspe
 import org.eclipse.tracecompass.analysis.os.linux.core.event.aspect.LinuxTidAspect;
 import org.eclipse.tracecompass.incubator.analysis.core.aspects.ProcessNameAspect;
 import org.eclipse.tracecompass.incubator.internal.uftrace.core.Activator;
+import org.eclipse.tracecompass.incubator.internal.uftrace.core.trace.DatParser.DatIterator;
 import org.eclipse.tracecompass.incubator.internal.uftrace.core.trace.SymParser.Symbol;
 import org.eclipse.tracecompass.internal.tmf.core.callstack.FunctionNameMapper;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
@@ -50,15 +50,20 @@ import org.eclipse.tracecompass.tmf.core.project.model.ITmfPropertiesProvider;
 import org.eclipse.tracecompass.tmf.core.symbols.ISymbolProvider;
 import org.eclipse.tracecompass.tmf.core.symbols.ISymbolProviderFactory;
 import org.eclipse.tracecompass.tmf.core.symbols.TmfResolvedSymbol;
+import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTraceKnownSize;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTraceWithPreDefinedEvents;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
 import org.eclipse.tracecompass.tmf.core.trace.TraceValidationStatus;
 import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
 import org.eclipse.tracecompass.tmf.core.trace.location.TmfLongLocation;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Iterables;
 
 /**
@@ -80,16 +85,19 @@ import com.google.common.collect.Iterables;
 public class Uftrace extends TmfTrace implements ITmfPropertiesProvider,
         ITmfTraceKnownSize, ITmfTraceWithPreDefinedEvents {
 
-    private Collection<DatParser> fDats = new ArrayList<>();
+    private static final String INDEX_FILE = "uftrace.index"; //$NON-NLS-1$
+
+    private List<DatParser> fDats = new ArrayList<>();
     private Map<Long, MapParser> fMap = new HashMap<>();
     private Map<String, SymParser> fSyms = new HashMap<>();
     private TaskParser fTasks;
     private TmfLongLocation fCurrentLoc = new TmfLongLocation(0L);
     private InfoParser fInfo;
+    private @Nullable UfIndex fIndex;
 
     private long fSize;
 
-    private final ISymbolProvider fSymbolProvider = new UfTraceSymbolProvider(this);
+    private final UfTraceSymbolProvider fSymbolProvider = new UfTraceSymbolProvider(this);
 
     private final @NonNull TidAspect fTidAspect = new TidAspect();
     private final @NonNull PidAspect fPidAspect = new PidAspect();
@@ -168,11 +176,13 @@ public class Uftrace extends TmfTrace implements ITmfPropertiesProvider,
                         }
                         DatParser dp = new DatParser(file);
                         // read first event (really check magic number header)
-                        if (dp.iterator().hasNext()) {
-                            dp.iterator().next();
+                        DatIterator iterator = dp.iterator();
+                        if (iterator.hasNext()) {
+                            iterator.next();
                             confidence += 4;
                             hasDat = true;
                         }
+                        iterator.dispose();
                     } catch (IllegalArgumentException e) {
                         // we don't want a failing trace
                         return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "dat parsing error", e); //$NON-NLS-1$
@@ -210,7 +220,10 @@ public class Uftrace extends TmfTrace implements ITmfPropertiesProvider,
         }
         super.initTrace(resource, path, type);
         long utcOffset = 0;
-        for (File child : dir.listFiles()) {
+        // The data files are merged in the order of their names
+        File[] children = dir.listFiles();
+        Arrays.sort(children);
+        for (File child : children) {
             String name = child.getName();
             try {
                 if (name.endsWith(".dat")) { //$NON-NLS-1$
@@ -254,6 +267,33 @@ public class Uftrace extends TmfTrace implements ITmfPropertiesProvider,
                 throw new TmfTraceException(e.getMessage(), e);
             }
         }
+        // The symbols resolved so far did not use the maps and tables read
+        fSymbolProvider.invalidate();
+        fIndex = loadIndex();
+    }
+
+    private UfIndex loadIndex() throws TmfTraceException {
+        File indexFile = new File(TmfTraceManager.getSupplementaryFileDir(this) + INDEX_FILE);
+        try {
+            UfIndex index = UfIndex.load(indexFile, fDats);
+            if (index != null) {
+                return index;
+            }
+        } catch (IOException e) {
+            Activator.getInstance().logError("Cannot read the index " + indexFile, e); //$NON-NLS-1$
+        }
+        UfIndex index;
+        try {
+            index = UfIndex.build(this, fDats, UfIndex.DEFAULT_INTERVAL);
+        } catch (IllegalStateException e) {
+            throw new TmfTraceException(e.getMessage(), e);
+        }
+        try {
+            index.save(indexFile);
+        } catch (IOException e) {
+            Activator.getInstance().logError("Cannot save the index " + indexFile, e); //$NON-NLS-1$
+        }
+        return index;
     }
 
     @Override
@@ -268,29 +308,73 @@ public class Uftrace extends TmfTrace implements ITmfPropertiesProvider,
 
     @Override
     public ITmfContext seekEvent(ITmfLocation location) {
-        UfContext context = new UfContext(fDats, this);
-        if (location == null) {
-            return context;
-        }
         if (location instanceof TmfLongLocation) {
-            TmfLongLocation longLocation = (TmfLongLocation) location;
-            if (longLocation.getLocationInfo().longValue() == 0) {
-                return context;
-            }
-            while (context.getLocation() != null && Long.compare(longLocation.getLocationInfo(), Objects.requireNonNull(context.getLocation()).getLocationInfo()) >= 0) {
-                ITmfEvent next = context.getNext();
-                if (next == null) {
-                    break;
-                }
-                updateAttributes(context, next);
-                if (context.getLocation() == null) {
-                    return context;
-                }
-            }
+            // The location is incremented by the size of a data event
+            return seekRank(((TmfLongLocation) location).getLocationInfo() / (Long.BYTES * 2));
+        }
+        return seekRank(0);
+    }
+
+    @Override
+    public synchronized ITmfContext seekEvent(long rank) {
+        return seekRank(rank);
+    }
+
+    @Override
+    public synchronized ITmfContext seekEvent(ITmfTimestamp timestamp) {
+        UfIndex index = fIndex;
+        if (index == null || timestamp == null || index.getNbCheckpoints() == 0) {
+            return super.seekEvent(timestamp);
+        }
+        int checkpoint = index.getCheckpointBefore(timestamp.toNanos());
+        long rank = index.getRank(checkpoint);
+        long[] positions = index.getPositions(checkpoint);
+        UfContext context = new UfContext(fDats, positions, this);
+        // Read up to the first event at or after the time stamp
+        boolean hasEvent = context.skipEvent();
+        while (hasEvent && context.getLastTime() < timestamp.toNanos()) {
+            positions = context.getPositions();
+            rank++;
+            hasEvent = context.skipEvent();
+        }
+        context.dispose();
+        context = new UfContext(fDats, positions, this);
+        context.setLocation(new TmfLongLocation(rank * Long.BYTES * 2));
+        context.setRank(rank);
+        if (!hasEvent) {
+            context.setLocation(null);
+            context.setRank(ITmfContext.UNKNOWN_RANK);
         }
         return context;
     }
 
+    /**
+     * Get a context at an event, resumed at the last checkpoint before it
+     *
+     * @param rank
+     *            the rank of the event
+     * @return the context
+     */
+    private UfContext seekRank(long rank) {
+        UfIndex index = fIndex;
+        UfContext context;
+        long pos = 0;
+        if (index != null && rank > 0 && index.getNbCheckpoints() > 0) {
+            int checkpoint = index.getCheckpoint(rank);
+            context = new UfContext(fDats, index.getPositions(checkpoint), this);
+            pos = index.getRank(checkpoint);
+        } else {
+            context = new UfContext(fDats, this);
+        }
+        // Skip the events after the checkpoint without creating trace events
+        while (pos < rank && context.skipEvent()) {
+            pos++;
+        }
+        context.setLocation(new TmfLongLocation(pos * Long.BYTES * 2));
+        context.setRank(pos);
+        return context;
+    }
+
     @Override
     public ITmfContext seekEvent(double ratio) {
         return seekEvent(new TmfLongLocation((long) (ratio * fSize)));
@@ -305,9 +389,9 @@ public class Uftrace extends TmfTrace implements ITmfPropertiesProvider,
         if (ctx instanceof UfContext) {
             UfContext ufContext = (UfContext) ctx;
             ITmfEvent tmfEvent = ufContext.getNext();
-            if (tmfEvent != null) {
-                fCurrentLoc = new TmfLongLocation(fCurrentLoc.getLocationInfo() + Long.BYTES * 2);
-                ctx.setLocation(fCurrentLoc);
+            TmfLongLocation location = ufContext.getLocation();
+            if (tmfEvent != null && location != null) {
+                fCurrentLoc = location;
                 updateAttributes(context, tmfEvent);
                 return tmfEvent;
             }
@@ -485,16 +569,48 @@ public class Uftrace extends TmfTrace implements ITmfPropertiesProvider,
     }
 
     /**
-     * overly complicated, should clean up
+     * Symbol provider resolving the addresses with the memory maps of the
+     * sessions and the symbol tables of the binaries. The resolved symbols of
+     * the addresses and the demangled names are cached, as the same few
+     * functions are resolved over and over by the views.
      *
      * @author Matthew Khouzam
      *
      */
     private static class UfTraceSymbolProvider implements ISymbolProvider {
 
+        private static final int MAX_SYMBOLS = 65536;
+
         private Uftrace fTrace;
         private CPPFilt fCppFilt;
 
+        private final LoadingCache<SymbolKey, Optional<TmfResolvedSymbol>> fSymbols = CacheBuilder.newBuilder()
+                .maximumSize(MAX_SYMBOLS)
+                .build(new CacheLoader<SymbolKey, Optional<TmfResolvedSymbol>>() {
+                    @Override
+                    public Optional<TmfResolvedSymbol> load(SymbolKey key) {
+                        return Optional.ofNullable(resolve(key.fSession, key.fAddress));
+                    }
+                });
+
+        private final LoadingCache<String, String> fDemangledNames = CacheBuilder.newBuilder()
+                .maximumSize(MAX_SYMBOLS)
+                .build(new CacheLoader<String, String>() {
+                    @Override
+                    public String load(String name) {
+                        CPPFilt cppFilt = fCppFilt;
+                        if (cppFilt == null) {
+                            return name;
+                        }
+                        // The demangler is a single external process
+                        String demangled;
+                        synchronized (cppFilt) {
+                            demangled = FunctionNameMapper.nameFromCppFilt(cppFilt, name);
+                        }
+                        return demangled != null ? demangled : name;
+                    }
+                });
+
         public UfTraceSymbolProvider(Uftrace trace) {
             fTrace = trace;
             try {
@@ -506,14 +622,31 @@ public class Uftrace extends TmfTrace implements ITmfPropertiesProvider,
 
         @Override
         public TmfResolvedSymbol getSymbol(int tid, long timestamp, long address) {
-            String execName = fTrace.getTasks().getExecName(tid);
-            if (execName == null) {
+            Long session = getSession(tid);
+            if (session == null || !fTrace.getMap().containsKey(session)) {
+                // Not cached, the memory map may not be loaded yet
                 return null;
             }
-            Long session = fTrace.getTasks().getSessName(tid);
-            if (session == null) {
+            return fSymbols.getUnchecked(new SymbolKey(session, address)).orElse(null);
+        }
+
+        /**
+         * Clear the resolved symbols, to be called when the memory maps or the
+         * symbol tables are (re)loaded
+         */
+        public void invalidate() {
+            fSymbols.invalidateAll();
+        }
+
+        private @Nullable Long getSession(int tid) {
+            String execName = fTrace.getTasks().getExecName(tid);
+            if (execName == null) {
                 return null;
             }
+            return fTrace.getTasks().getSessName(tid);
+        }
+
+        private @Nullable TmfResolvedSymbol resolve(long session, long address) {
             MapParser mapParser = fTrace.getMap().get(session);
             if (mapParser == null) {
                 return null;
@@ -533,11 +666,7 @@ public class Uftrace extends TmfTrace implements ITmfPropertiesProvider,
             if (floorEntry != null) {
                 Symbol value = floorEntry.getValue();
                 if (value != null) {
-                    String name = String.valueOf(value.getName());
-                    if(fCppFilt != null) {
-                        name = FunctionNameMapper.nameFromCppFilt(fCppFilt, name);
-                    }
-                    return new TmfResolvedSymbol(address, name);
+                    return new TmfResolvedSymbol(address, fDemangledNames.getUnchecked(String.valueOf(value.getName())));
                 }
             }
             return null;
@@ -561,4 +690,32 @@ public class Uftrace extends TmfTrace implements ITmfPropertiesProvider,
 
     }
 
+    /**
+     * Key of a resolved symbol, the addresses are resolved with the memory map
+     * of a session
+     */
+    private static final class SymbolKey {
+        private final long fSession;
+        private final long fAddress;
+
+        public SymbolKey(long session, long address) {
+            fSession = session;
+            fAddress = address;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(fSession) * 31 + Long.hashCode(fAddress);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (!(obj instanceof SymbolKey)) {
+                return false;
+            }
+            SymbolKey other = (SymbolKey) obj;
+            return fSession == other.fSession && fAddress == other.fAddress;
+        }
+    }
+
 }